@@ -0,0 +1,403 @@
+package com.example.focozen.data;
+
+import android.database.Cursor;
+
+import androidx.room.testing.MigrationTestHelper;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes das migrações do TarefaDatabase.
+ * Usa os esquemas exportados em app/schemas.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TarefaMigrationTest {
+
+    private static final String TEST_DB = "migration-test";
+
+    /**
+     * Queries fixas do TarefaDao (as consultas da lista vêm de TarefaQuerySpec).
+     */
+    private static final String[] QUERIES_DAO = {
+            "SELECT COUNT(*) FROM tarefas WHERE eliminadaEm = 0",
+            "SELECT id, titulo, prioridade, dataVencimento, concluida, recorrencia FROM tarefas "
+                    + "WHERE concluida = 0 AND eliminadaEm = 0 AND (dataVencimento, id) > (1700000000000, 5) "
+                    + "ORDER BY dataVencimento, id LIMIT 1",
+            "SELECT * FROM tarefas WHERE concluida = 0 AND eliminadaEm = 0 "
+                    + "AND (dataVencimento, id) > (1700000000000, 5) "
+                    + "AND dataVencimento <= 1700000060000 ORDER BY dataVencimento, id LIMIT 50",
+            "SELECT COUNT(*) FROM tarefas WHERE concluida = 0 AND eliminadaEm = 0 "
+                    + "AND (dataVencimento, id) > (1700000000000, 5) AND dataVencimento <= 1700000060000",
+            "SELECT id, titulo, prioridade, dataVencimento, concluida, recorrencia FROM tarefas "
+                    + "WHERE concluida = 0 AND eliminadaEm = 0 AND dataVencimento <= 1700000060000 "
+                    + "ORDER BY dataVencimento DESC, id DESC LIMIT 1",
+            "SELECT id, titulo, prioridade, dataVencimento, concluida, recorrencia FROM tarefas "
+                    + "WHERE concluida = 0 AND eliminadaEm = 0 AND +recorrencia = 0 "
+                    + "AND dataVencimento >= 1700000000000 AND dataVencimento < 1701209600000 "
+                    + "UNION ALL "
+                    + "SELECT id, titulo, prioridade, dataVencimento, concluida, recorrencia FROM tarefas "
+                    + "WHERE recorrencia > 0 AND +concluida = 0 AND +eliminadaEm = 0 "
+                    + "AND +dataVencimento < 1701209600000",
+            "SELECT * FROM tarefas WHERE id > 0 AND +eliminadaEm = 0 ORDER BY id LIMIT 500",
+            "SELECT id FROM tarefas WHERE eliminadaEm > 0 AND eliminadaEm < 1700000000000 LIMIT 500",
+            "SELECT tarefas.id, matchinfo(tarefas_fts, 'pcx') FROM tarefas_fts "
+                    + "JOIN tarefas ON tarefas.id = tarefas_fts.rowid "
+                    + "WHERE tarefas_fts MATCH 'estud*' AND +tarefas.eliminadaEm = 0",
+            // Checklist de várias tarefas lida pelo Room para TarefaComSubtarefas
+            "SELECT `id`,`tarefaId`,`titulo`,`concluida` FROM `subtarefas` WHERE `tarefaId` IN (1,2,3)",
+            // Etiquetas de várias tarefas lidas pelo Room (através de tarefas_tags) para TarefaComSubtarefas
+            "SELECT `tags`.`id` AS `id`,`tags`.`nome` AS `nome`,`tags`.`pendentes` AS `pendentes`,"
+                    + "`tags`.`concluidas` AS `concluidas`,_junction.`tarefaId` FROM `tarefas_tags` AS _junction "
+                    + "INNER JOIN `tags` ON (_junction.`tagId` = `tags`.`id`) WHERE _junction.`tarefaId` IN (1,2,3)",
+            // Etiquetas de uma tarefa, nos triggers dos contadores
+            "SELECT tagId FROM tarefas_tags WHERE tarefaId = 1",
+            "SELECT * FROM tags ORDER BY nome",
+            // Versões locais das tarefas recebidas na sincronização
+            "SELECT * FROM tarefas WHERE syncId IN ('a1', 'b2', 'c3')"
+    };
+
+    @Rule
+    public MigrationTestHelper helper = new MigrationTestHelper(
+            InstrumentationRegistry.getInstrumentation(), TarefaDatabase.class);
+
+    @Test
+    public void migrate1To2_preservaDados() throws IOException {
+        SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 1);
+        db.execSQL("INSERT INTO tarefas (id, titulo, descricao, prioridade, dataVencimento, concluida) "
+                + "VALUES (1, 'Estudar', 'Capítulo 3', 3, 1700000000000, 1)");
+        db.close();
+
+        db = helper.runMigrationsAndValidate(TEST_DB, 2, true, TarefaMigrations.MIGRATION_1_2);
+
+        try (Cursor cursor = db.query("SELECT titulo, descricao, prioridade, dataVencimento, concluida FROM tarefas WHERE id = 1")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals("Estudar", cursor.getString(0));
+            assertEquals("Capítulo 3", cursor.getString(1));
+            assertEquals(3, cursor.getInt(2));
+            assertEquals(1700000000000L, cursor.getLong(3));
+            assertEquals(1, cursor.getInt(4));
+        }
+    }
+
+    @Test
+    public void migrate2To3_preservaDados() throws IOException {
+        SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 2);
+        db.execSQL("INSERT INTO tarefas (id, titulo, descricao, prioridade, dataVencimento, concluida) "
+                + "VALUES (1, 'Ginásio', NULL, 2, 1700000000000, 0)");
+        db.close();
+
+        db = helper.runMigrationsAndValidate(TEST_DB, 3, true, TarefaMigrations.MIGRATION_2_3);
+
+        try (Cursor cursor = db.query("SELECT COUNT(*) FROM tarefas WHERE titulo = 'Ginásio'")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(1, cursor.getInt(0));
+        }
+    }
+
+    @Test
+    public void migrate3To4_indexaTarefasExistentes() throws IOException {
+        SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 3);
+        db.execSQL("INSERT INTO tarefas (id, titulo, descricao, prioridade, dataVencimento, concluida) "
+                + "VALUES (1, 'Relatório', 'Enviar ao orientador', 3, 1700000000000, 0)");
+        db.close();
+
+        db = helper.runMigrationsAndValidate(TEST_DB, 4, true, TarefaMigrations.MIGRATION_3_4);
+
+        // A tarefa que já existia foi indexada (sem acentos nem maiúsculas)
+        try (Cursor cursor = db.query("SELECT rowid FROM tarefas_fts WHERE tarefas_fts MATCH 'relatorio'")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(1, cursor.getInt(0));
+        }
+        // Os triggers mantêm o índice atualizado
+        db.execSQL("UPDATE tarefas SET descricao = 'Rever bibliografia' WHERE id = 1");
+        try (Cursor cursor = db.query("SELECT COUNT(*) FROM tarefas_fts WHERE tarefas_fts MATCH 'orientador'")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(0, cursor.getInt(0));
+        }
+        try (Cursor cursor = db.query("SELECT COUNT(*) FROM tarefas_fts WHERE tarefas_fts MATCH 'bibliografia'")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(1, cursor.getInt(0));
+        }
+    }
+
+    @Test
+    public void migrate4To5_tarefasExistentesNaoEliminadas() throws IOException {
+        SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 4);
+        db.execSQL("INSERT INTO tarefas (id, titulo, descricao, prioridade, dataVencimento, concluida) "
+                + "VALUES (1, 'Ginásio', NULL, 2, 1700000000000, 0)");
+        db.close();
+
+        db = helper.runMigrationsAndValidate(TEST_DB, 5, true, TarefaMigrations.MIGRATION_4_5);
+
+        try (Cursor cursor = db.query("SELECT titulo, eliminadaEm FROM tarefas WHERE id = 1")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals("Ginásio", cursor.getString(0));
+            assertEquals(0, cursor.getLong(1));
+        }
+    }
+
+    @Test
+    public void migrate5To6_contaTarefasExistentesEMantemContadores() throws IOException {
+        SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 5);
+        db.execSQL("INSERT INTO tarefas (id, titulo, prioridade, dataVencimento, concluida, eliminadaEm) "
+                + "VALUES (1, 'A', 3, 1700000000000, 0, 0), (2, 'B', 3, 1700000000000, 1, 0), "
+                + "(3, 'C', 1, 1700000000000, 0, 0), (4, 'D', 1, 1700000000000, 0, 1700000000000)");
+        db.close();
+
+        db = helper.runMigrationsAndValidate(TEST_DB, 6, true, TarefaMigrations.MIGRATION_5_6);
+
+        // Contagem inicial: a tarefa eliminada não conta
+        assertContadores(db, 3, 1, 1);
+        assertContadores(db, 2, 0, 0);
+        assertContadores(db, 1, 1, 0);
+
+        // Os triggers acompanham cada escrita
+        db.execSQL("UPDATE tarefas SET concluida = 1 WHERE id = 1");
+        db.execSQL("UPDATE tarefas SET prioridade = 2 WHERE id = 3");
+        db.execSQL("UPDATE tarefas SET eliminadaEm = 0 WHERE id = 4");
+        db.execSQL("DELETE FROM tarefas WHERE id = 2");
+        assertContadores(db, 3, 0, 1);
+        assertContadores(db, 2, 1, 0);
+        assertContadores(db, 1, 1, 0);
+    }
+
+    @Test
+    public void migrate6To7_tarefasExistentesNaoSeRepetem() throws IOException {
+        SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 6);
+        db.execSQL("INSERT INTO tarefas (id, titulo, prioridade, dataVencimento, concluida, eliminadaEm) "
+                + "VALUES (1, 'Ginásio', 2, 1700000000000, 0, 0)");
+        db.close();
+
+        db = helper.runMigrationsAndValidate(TEST_DB, 7, true, TarefaMigrations.MIGRATION_6_7);
+
+        try (Cursor cursor = db.query("SELECT titulo, recorrencia FROM tarefas WHERE id = 1")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals("Ginásio", cursor.getString(0));
+            assertEquals(0, cursor.getInt(1));
+        }
+        // Avançar uma tarefa semanal (258) não mexe nos contadores das estatísticas
+        db.execSQL("UPDATE tarefas SET recorrencia = 258, dataVencimento = 1700604800000 WHERE id = 1");
+        assertContadores(db, 2, 1, 0);
+    }
+
+    @Test
+    public void migrate7To8_checklistApagadaComATarefa() throws IOException {
+        SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 7);
+        db.execSQL("INSERT INTO tarefas (id, titulo, prioridade, dataVencimento, concluida, eliminadaEm, recorrencia) "
+                + "VALUES (1, 'Mudança', 2, 1700000000000, 0, 0, 0)");
+        db.close();
+
+        db = helper.runMigrationsAndValidate(TEST_DB, 8, true, TarefaMigrations.MIGRATION_7_8);
+        db.execSQL("PRAGMA foreign_keys = ON");
+        db.execSQL("INSERT INTO subtarefas (tarefaId, titulo, concluida) "
+                + "VALUES (1, 'Caixas', 1), (1, 'Contrato da luz', 0)");
+
+        // Progresso calculado na consulta da lista
+        try (Cursor cursor = db.query(TarefaQuerySpec.PADRAO.toSql())) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(2, cursor.getInt(cursor.getColumnIndexOrThrow("subtarefas")));
+            assertEquals(1, cursor.getInt(cursor.getColumnIndexOrThrow("subtarefasConcluidas")));
+        }
+        // As subtarefas não sobrevivem à tarefa (ex: limpeza das eliminadas)
+        db.execSQL("DELETE FROM tarefas WHERE id = 1");
+        try (Cursor cursor = db.query("SELECT COUNT(*) FROM subtarefas")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(0, cursor.getInt(0));
+        }
+    }
+
+    @Test
+    public void migrate8To9_contadoresEFiltroDeEtiquetas() throws IOException {
+        SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 8);
+        db.execSQL("INSERT INTO tarefas (id, titulo, prioridade, dataVencimento, concluida, eliminadaEm, recorrencia) "
+                + "VALUES (1, 'Relatório', 2, 1700000000000, 0, 0, 0), (2, 'Reunião', 2, 1700000100000, 0, 0, 0), "
+                + "(3, 'Jantar', 1, 1700000200000, 1, 0, 0)");
+        db.close();
+
+        db = helper.runMigrationsAndValidate(TEST_DB, 9, true, TarefaMigrations.MIGRATION_8_9);
+        db.execSQL("PRAGMA foreign_keys = ON");
+        db.execSQL("INSERT INTO tags (id, nome, pendentes, concluidas) VALUES (1, 'trabalho', 0, 0), (2, 'casa', 0, 0)");
+        db.execSQL("INSERT INTO tarefas_tags (tarefaId, tagId) VALUES (1, 1), (2, 1), (2, 2), (3, 2)");
+        assertTag(db, 1, 2, 0);
+        assertTag(db, 2, 1, 1);
+
+        // Filtro OU e E (só a tarefa 2 tem as duas etiquetas)
+        List<Integer> ambas = Arrays.asList(1, 2);
+        assertIds(db, TarefaQuerySpec.PADRAO.comTags(ambas, TarefaQuerySpec.CombinacaoTags.QUALQUER), 1, 2, 3);
+        assertIds(db, TarefaQuerySpec.PADRAO.comTags(ambas, TarefaQuerySpec.CombinacaoTags.TODAS), 2);
+
+        // Os triggers acompanham cada escrita: concluir, eliminar (com anulação), apagar e retirar
+        db.execSQL("UPDATE tarefas SET concluida = 1 WHERE id = 1");
+        assertTag(db, 1, 1, 1);
+        db.execSQL("UPDATE tarefas SET eliminadaEm = 1700000000000 WHERE id = 2");
+        assertTag(db, 1, 0, 1);
+        assertTag(db, 2, 0, 1);
+        db.execSQL("DELETE FROM tarefas WHERE id = 2");
+        assertTag(db, 1, 0, 1);
+        db.execSQL("DELETE FROM tarefas WHERE id = 3");
+        assertTag(db, 2, 0, 0);
+        db.execSQL("DELETE FROM tarefas_tags WHERE tarefaId = 1 AND tagId = 1");
+        assertTag(db, 1, 0, 0);
+    }
+
+    @Test
+    public void migrate9To10_tarefasExistentesEntramNoDiarioDeAlteracoes() throws IOException {
+        SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 9);
+        db.execSQL("INSERT INTO tarefas (id, titulo, prioridade, dataVencimento, concluida, eliminadaEm, recorrencia) "
+                + "VALUES (1, 'Relatório', 2, 1700000000000, 0, 0, 0), (2, 'Jantar', 1, 1700000100000, 1, 0, 0)");
+        db.close();
+
+        db = helper.runMigrationsAndValidate(TEST_DB, 10, true, TarefaMigrations.MIGRATION_9_10);
+        // Cada tarefa existente recebe um syncId diferente e fica por enviar
+        try (Cursor cursor = db.query("SELECT COUNT(DISTINCT syncId), MIN(atualizadaEm) FROM tarefas")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(2, cursor.getInt(0));
+            assertEquals(0, cursor.getLong(1));
+        }
+        assertAlteracoes(db, 2);
+
+        // Cada escrita acrescenta um registo: inserir, alterar e apagar (com o momento do apagamento)
+        db.execSQL("INSERT INTO tarefas (id, titulo, prioridade, dataVencimento, concluida, syncId, atualizadaEm) "
+                + "VALUES (3, 'Ginásio', 3, 1700000200000, 0, 'c3', 1700000000500)");
+        db.execSQL("UPDATE tarefas SET concluida = 1, atualizadaEm = 1700000000600 WHERE id = 3");
+        long antes = System.currentTimeMillis();
+        db.execSQL("DELETE FROM tarefas WHERE id = 3");
+        assertAlteracoes(db, 5);
+        try (Cursor cursor = db.query("SELECT syncId, atualizadaEm, apagada FROM alteracoes ORDER BY seq")) {
+            cursor.moveToPosition(2);
+            assertEquals("c3", cursor.getString(0));
+            assertEquals(1700000000500L, cursor.getLong(1));
+            assertEquals(0, cursor.getInt(2));
+            cursor.moveToNext();
+            assertEquals(1700000000600L, cursor.getLong(1));
+            cursor.moveToNext();
+            assertTrue(cursor.getLong(1) >= antes);
+            assertEquals(1, cursor.getInt(2));
+        }
+
+        // Alterações confirmadas pelo servidor saem do diário; o seq continua a crescer
+        db.execSQL("DELETE FROM alteracoes WHERE seq <= 5");
+        db.execSQL("UPDATE tarefas SET titulo = 'Relatório final', atualizadaEm = 1700000000700 WHERE id = 1");
+        try (Cursor cursor = db.query("SELECT seq FROM alteracoes")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(6, cursor.getLong(0));
+        }
+    }
+
+    @Test
+    public void migrate8To10_escritasDepoisDasDuasMigracoes() throws IOException {
+        SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 8);
+        db.execSQL("INSERT INTO tarefas (id, titulo, prioridade, dataVencimento, concluida, eliminadaEm, recorrencia) "
+                + "VALUES (1, 'Relatório', 2, 1700000000000, 0, 0, 0)");
+        db.close();
+
+        // As duas migrações seguidas, como numa atualização a partir da versão 8
+        db = helper.runMigrationsAndValidate(TEST_DB, 10, true,
+                TarefaMigrations.MIGRATION_8_9, TarefaMigrations.MIGRATION_9_10);
+        db.execSQL("PRAGMA foreign_keys = ON");
+        assertAlteracoes(db, 1);
+
+        // Inserir, alterar e apagar depois da atualização: triggers das etiquetas e do diário
+        db.execSQL("INSERT INTO tags (id, nome, pendentes, concluidas) VALUES (1, 'trabalho', 0, 0)");
+        db.execSQL("INSERT INTO tarefas (id, titulo, prioridade, dataVencimento, concluida, syncId, atualizadaEm) "
+                + "VALUES (2, 'Reunião', 3, 1700000100000, 0, 'b2', 1700000000500)");
+        db.execSQL("INSERT INTO tarefas_tags (tarefaId, tagId) VALUES (1, 1), (2, 1)");
+        assertTag(db, 1, 2, 0);
+        db.execSQL("UPDATE tarefas SET concluida = 1, atualizadaEm = 1700000000600 WHERE id = 1");
+        assertTag(db, 1, 1, 1);
+        db.execSQL("DELETE FROM tarefas WHERE id = 2");
+        assertTag(db, 1, 0, 1);
+        assertAlteracoes(db, 4);
+        assertContadores(db, 2, 0, 1);
+    }
+
+    private static void assertAlteracoes(SupportSQLiteDatabase db, int total) {
+        try (Cursor cursor = db.query("SELECT COUNT(*) FROM alteracoes")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(total, cursor.getInt(0));
+        }
+    }
+
+    private static void assertTag(SupportSQLiteDatabase db, int tagId, int pendentes, int concluidas) {
+        try (Cursor cursor = db.query("SELECT pendentes, concluidas FROM tags WHERE id = " + tagId)) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(pendentes, cursor.getInt(0));
+            assertEquals(concluidas, cursor.getInt(1));
+        }
+    }
+
+    private static void assertIds(SupportSQLiteDatabase db, TarefaQuerySpec spec, int... ids) {
+        try (Cursor cursor = db.query(spec.toSql())) {
+            assertEquals(ids.length, cursor.getCount());
+            for (int id : ids) {
+                assertTrue(cursor.moveToNext());
+                assertEquals(id, cursor.getInt(cursor.getColumnIndexOrThrow("id")));
+            }
+        }
+    }
+
+    private static void assertContadores(SupportSQLiteDatabase db, int prioridade, int pendentes, int concluidas) {
+        try (Cursor cursor = db.query("SELECT pendentes, concluidas FROM estatisticas WHERE prioridade = "
+                + prioridade)) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(pendentes, cursor.getInt(0));
+            assertEquals(concluidas, cursor.getInt(1));
+        }
+    }
+
+    @Test
+    public void migrateAll_todasAsQueriesUsamIndice() throws IOException {
+        helper.createDatabase(TEST_DB, 1).close();
+        SupportSQLiteDatabase db = helper.runMigrationsAndValidate(
+                TEST_DB, TarefaDatabase.VERSAO, true, TarefaMigrations.ALL);
+
+        for (String sql : QUERIES_DAO) {
+            assertUsaIndice(db, sql);
+        }
+        // Todas as combinações de filtro e ordenação da lista, sem e com etiquetas (uma, OU e E)
+        List<Integer> tags = Arrays.asList(1, 2);
+        for (TarefaQuerySpec.Filtro filtro : TarefaQuerySpec.Filtro.values()) {
+            for (TarefaQuerySpec.Ordenacao ordenacao : TarefaQuerySpec.Ordenacao.values()) {
+                TarefaQuerySpec spec = new TarefaQuerySpec(filtro, ordenacao);
+                assertUsaIndice(db, spec.toSql());
+                assertUsaIndice(db, spec.comTags(tags.subList(0, 1), TarefaQuerySpec.CombinacaoTags.QUALQUER).toSql());
+                for (TarefaQuerySpec.CombinacaoTags combinacao : TarefaQuerySpec.CombinacaoTags.values()) {
+                    assertUsaIndice(db, spec.comTags(tags, combinacao).toSql());
+                }
+            }
+        }
+    }
+
+    /**
+     * Verifica com EXPLAIN QUERY PLAN que a query não percorre a tabela sem índice
+     * nem ordena numa B-tree temporária.
+     */
+    static void assertUsaIndice(SupportSQLiteDatabase db, String sql) {
+        StringBuilder plano = new StringBuilder();
+        try (Cursor cursor = db.query("EXPLAIN QUERY PLAN " + sql)) {
+            int detailIndex = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                String detalhe = cursor.getString(detailIndex);
+                // Cada passo que percorre uma tabela tem de o fazer através de um índice
+                if (detalhe.startsWith("SCAN")) {
+                    assertTrue("Scan sem índice: " + sql + "\n" + detalhe, detalhe.contains("INDEX"));
+                }
+                plano.append(detalhe).append('\n');
+            }
+        }
+        String texto = plano.toString();
+        assertTrue("Sem índice: " + sql + "\n" + texto, texto.contains("INDEX"));
+        assertFalse("Ordenação temporária: " + sql + "\n" + texto, texto.contains("TEMP B-TREE"));
+    }
+}
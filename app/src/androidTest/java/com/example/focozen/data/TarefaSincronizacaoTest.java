@@ -0,0 +1,220 @@
+package com.example.focozen.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.focozen.model.Tarefa;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes da sincronização entre dois dispositivos (duas bases de dados em memória)
+ * através do ServidorSincronizacaoFalso: aplicação das alterações recebidas, supressão
+ * do eco, apagamentos, last-writer-wins contra a base de dados e falhas a meio.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TarefaSincronizacaoTest {
+
+    /**
+     * Um dispositivo: base de dados, preferências e sincronização próprias.
+     * As escritas usam os mesmos Tipo do TarefaWriteBatcher, cada uma na sua transação.
+     */
+    private static final class Dispositivo implements TarefaSincronizacao.Escritas {
+        final TarefaDatabase database;
+        final TarefaDao dao;
+        final TarefaSincronizacao sincronizacao;
+
+        Dispositivo(Context context, String nome, String servidor) {
+            database = Room.inMemoryDatabaseBuilder(context, TarefaDatabase.class)
+                    .addCallback(TarefaMigrations.CRIACAO)
+                    .build();
+            dao = database.tarefaDao();
+            SharedPreferences prefs = context.getSharedPreferences("SincronizacaoTest-" + nome, Context.MODE_PRIVATE);
+            prefs.edit().clear().commit();
+            sincronizacao = new TarefaSincronizacao(dao, this, prefs);
+            sincronizacao.setServidor(servidor);
+        }
+
+        <T, R> List<R> escrever(TarefaWriteBatcher.Tipo<T, R> tipo, List<T> itens) {
+            return database.runInTransaction(() -> tipo.aplicar(dao, itens));
+        }
+
+        @Override
+        public CompletableFuture<Integer> aplicarAlteracoesRemotas(List<SincronizacaoCliente.Registo> registos) {
+            return CompletableFuture.completedFuture(
+                    escrever(TarefaWriteBatcher.APLICAR_REMOTAS, Collections.singletonList(registos)).get(0));
+        }
+
+        @Override
+        public CompletableFuture<Void> confirmarEnvio(long ate) {
+            escrever(TarefaWriteBatcher.CONFIRMAR_ENVIO, Collections.singletonList(ate));
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<Void> reiniciarDiario(String servidor) {
+            escrever(TarefaWriteBatcher.REINICIAR_DIARIO, Collections.singletonList(servidor));
+            return CompletableFuture.completedFuture(null);
+        }
+
+        Tarefa inserir(String titulo) {
+            Tarefa tarefa = new Tarefa(titulo, null, 2, 1767311999000L, false);
+            tarefa.setId(escrever(TarefaWriteBatcher.INSERIR, Collections.singletonList(tarefa)).get(0).intValue());
+            return tarefa;
+        }
+
+        /**
+         * Grava a tarefa com a versão indicada (sem o carimbo das escritas do TarefaWriteBatcher, para controlar quem ganha)
+         */
+        void gravar(Tarefa tarefa, long atualizadaEm) {
+            tarefa.setAtualizadaEm(atualizadaEm);
+            database.runInTransaction(() -> dao.updateAll(Collections.singletonList(tarefa)));
+        }
+
+        Tarefa get(String syncId) {
+            List<Tarefa> tarefas = dao.getPorSyncId(Collections.singletonList(syncId));
+            return tarefas.isEmpty() ? null : tarefas.get(0);
+        }
+
+        int alteracoesPorEnviar() {
+            return dao.getAlteracoes(Integer.MAX_VALUE).size();
+        }
+    }
+
+    private ServidorSincronizacaoFalso servidor;
+    private Dispositivo telemovel;
+    private Dispositivo tablet;
+
+    @Before
+    public void iniciar() throws IOException {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        servidor = new ServidorSincronizacaoFalso();
+        telemovel = new Dispositivo(context, "telemovel", servidor.getEndereco());
+        tablet = new Dispositivo(context, "tablet", servidor.getEndereco());
+    }
+
+    @After
+    public void terminar() {
+        telemovel.database.close();
+        tablet.database.close();
+        servidor.close();
+    }
+
+    @Test
+    public void alteracoesRemotas_aplicadasENaoDevolvidas() throws IOException {
+        Tarefa relatorio = telemovel.inserir("Relatório");
+        Tarefa ginasio = telemovel.inserir("Ginásio");
+        Tarefa jantar = telemovel.inserir("Jantar");
+        // As próprias versões voltam na receção, mas não mudam nada
+        assertEquals(0, telemovel.sincronizacao.sincronizar());
+        assertEquals(0, telemovel.alteracoesPorEnviar());
+        assertEquals(3, servidor.getUltimoSeq());
+
+        assertEquals(3, tablet.sincronizacao.sincronizar());
+        assertEquals("Ginásio", tablet.get(ginasio.getSyncId()).getTitulo());
+        // O que veio do servidor não fica no diário do tablet...
+        assertEquals(0, tablet.alteracoesPorEnviar());
+        // ...por isso a sincronização seguinte é só uma receção vazia, sem envio
+        int pedidos = servidor.getPedidos();
+        assertEquals(0, tablet.sincronizacao.sincronizar());
+        assertEquals(pedidos + 1, servidor.getPedidos());
+        assertEquals(3, servidor.getUltimoSeq());
+
+        // Eliminar (com anulação) chega como tarefa eliminada; apagar, como apagamento
+        ginasio.setEliminadaEm(1767311999000L);
+        telemovel.gravar(ginasio, ginasio.getAtualizadaEm() + 1000);
+        telemovel.escrever(TarefaWriteBatcher.ELIMINAR, Collections.singletonList(jantar));
+        telemovel.sincronizacao.sincronizar();
+        assertEquals(2, tablet.sincronizacao.sincronizar());
+        assertEquals(1767311999000L, tablet.get(ginasio.getSyncId()).getEliminadaEm());
+        assertNull(tablet.get(jantar.getSyncId()));
+        assertEquals("Relatório", tablet.get(relatorio.getSyncId()).getTitulo());
+        assertEquals(0, tablet.alteracoesPorEnviar());
+    }
+
+    @Test
+    public void edicaoLocalMaisRecente_sobreviveAReceber() throws IOException {
+        Tarefa noTelemovel = telemovel.inserir("Relatório");
+        telemovel.sincronizacao.sincronizar();
+        tablet.sincronizacao.sincronizar();
+        Tarefa noTablet = tablet.get(noTelemovel.getSyncId());
+        long versao = noTablet.getAtualizadaEm();
+
+        // O tablet edita e envia; o telemóvel edita depois, ainda sem sincronizar
+        noTablet.setTitulo("Relatório (tablet)");
+        tablet.gravar(noTablet, versao + 1000);
+        tablet.sincronizacao.sincronizar();
+        noTelemovel.setTitulo("Relatório final");
+        telemovel.gravar(noTelemovel, versao + 2000);
+
+        // Receber a versão mais antiga do tablet não toca na local nem na alteração por enviar
+        SincronizacaoCliente.Pagina pagina = new SincronizacaoCliente(servidor.getEndereco()).receber(0, 500);
+        assertEquals(0, (int) telemovel.aplicarAlteracoesRemotas(pagina.registos).join());
+        assertEquals("Relatório final", telemovel.get(noTelemovel.getSyncId()).getTitulo());
+        assertEquals(1, telemovel.alteracoesPorEnviar());
+
+        // Na sincronização seguinte a versão do telemóvel chega ao servidor e ao tablet
+        telemovel.sincronizacao.sincronizar();
+        assertEquals(1, tablet.sincronizacao.sincronizar());
+        assertEquals("Relatório final", tablet.get(noTelemovel.getSyncId()).getTitulo());
+        assertEquals("Relatório final", servidor.getTarefa(noTelemovel.getSyncId()).tarefa.getTitulo());
+
+        // Uma versão mais recente do servidor substitui a local
+        noTablet = tablet.get(noTelemovel.getSyncId());
+        noTablet.setTitulo("Relatório enviado");
+        tablet.gravar(noTablet, versao + 3000);
+        tablet.sincronizacao.sincronizar();
+        assertEquals(1, telemovel.sincronizacao.sincronizar());
+        assertEquals("Relatório enviado", telemovel.get(noTelemovel.getSyncId()).getTitulo());
+    }
+
+    @Test
+    public void falhaAMeioDaRececao_retomaNoCursorConfirmado() throws IOException {
+        // Mais do que uma página (TAMANHO_LOTE), inseridas numa transação
+        List<Tarefa> tarefas = new ArrayList<>();
+        for (int i = 0; i < TarefaSincronizacao.TAMANHO_LOTE + 100; i++) {
+            tarefas.add(new Tarefa("Estudar capítulo " + i, null, 2, 1767311999000L, false));
+        }
+        telemovel.escrever(TarefaWriteBatcher.INSERIR, tarefas);
+
+        // O envio é confirmado mesmo que a receção a seguir falhe
+        servidor.falharReceber(1, 400);
+        try {
+            telemovel.sincronizacao.sincronizar();
+            fail("Esperada IOException");
+        } catch (IOException e) {
+            assertEquals(0, telemovel.alteracoesPorEnviar());
+            assertEquals(tarefas.size(), servidor.getUltimoSeq());
+        }
+
+        // A segunda página falha: a primeira fica aplicada e o cursor no fim dela
+        servidor.falharReceber(2, 400);
+        try {
+            tablet.sincronizacao.sincronizar();
+            fail("Esperada IOException");
+        } catch (IOException e) {
+            assertEquals(TarefaSincronizacao.TAMANHO_LOTE, tablet.dao.contarTarefas());
+        }
+        int pedidos = servidor.getPedidos();
+        assertEquals(100, tablet.sincronizacao.sincronizar());
+        // Só a segunda página foi pedida de novo (nada por enviar, a primeira não se repete)
+        assertEquals(pedidos + 1, servidor.getPedidos());
+        assertEquals(tarefas.size(), tablet.dao.contarTarefas());
+        assertEquals(0, tablet.alteracoesPorEnviar());
+    }
+}
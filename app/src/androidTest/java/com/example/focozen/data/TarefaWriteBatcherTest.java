@@ -0,0 +1,198 @@
+package com.example.focozen.data;
+
+import android.database.sqlite.SQLiteConstraintException;
+
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.focozen.model.Tarefa;
+import com.example.focozen.model.TarefaTag;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testes do TarefaWriteBatcher com uma base de dados em memória:
+ * agrupamento numa transação, aviso só depois do commit, isolamento
+ * das falhas e a métrica de cada lote.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TarefaWriteBatcherTest {
+
+    private static final long ESPERA_S = 5;
+
+    private TarefaDatabase database;
+    private TarefaDao dao;
+    private TarefaWriteBatcher batcher;
+
+    // Lotes confirmados e operações de cada um (OnLoteListener)
+    private final List<Integer> lotes = Collections.synchronizedList(new ArrayList<>());
+
+    // Solta a operação que prende a thread de escrita (ver prenderEscrita)
+    private final CountDownLatch soltar = new CountDownLatch(1);
+
+    @Before
+    public void iniciar() {
+        database = Room.inMemoryDatabaseBuilder(
+                        InstrumentationRegistry.getInstrumentation().getTargetContext(), TarefaDatabase.class)
+                .addCallback(TarefaMigrations.CRIACAO)
+                .build();
+        dao = database.tarefaDao();
+        batcher = new TarefaWriteBatcher(database);
+        batcher.setOnLoteListener((operacoes, duracaoMs) -> lotes.add(operacoes));
+        MetricasBaseDados.getInstance().limpar();
+    }
+
+    @After
+    public void terminar() {
+        database.close();
+    }
+
+    private static Tarefa tarefa(String titulo) {
+        return new Tarefa(titulo, null, 2, 1767311999000L, false);
+    }
+
+    /**
+     * Prende a thread de escrita até ao soltar, com uma operação sozinha no seu lote:
+     * as operações submetidas entretanto ficam todas no lote seguinte, sem depender da janela
+     */
+    private CompletableFuture<Void> prenderEscrita() throws InterruptedException {
+        CountDownLatch aEscrever = new CountDownLatch(1);
+        CompletableFuture<Void> bloqueio = batcher.submeter((dao, itens) -> {
+            aEscrever.countDown();
+            try {
+                soltar.await(ESPERA_S, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }, null);
+        assertTrue(aEscrever.await(ESPERA_S, TimeUnit.SECONDS));
+        return bloqueio;
+    }
+
+    /**
+     * Espera pelo aviso de :quantos lotes (o listener é chamado depois dos futures)
+     */
+    private List<Integer> esperarLotes(int quantos) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(ESPERA_S);
+        while (lotes.size() < quantos && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+        return new ArrayList<>(lotes);
+    }
+
+    @Test
+    public void operacoesDaJanela_umaSoTransacao() throws Exception {
+        CompletableFuture<Void> bloqueio = prenderEscrita();
+        List<CompletableFuture<Long>> insercoes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            insercoes.add(batcher.submeter(TarefaWriteBatcher.INSERIR, tarefa("Tarefa " + i)));
+        }
+        soltar.countDown();
+        bloqueio.get(ESPERA_S, TimeUnit.SECONDS);
+        for (CompletableFuture<Long> insercao : insercoes) {
+            assertNotNull(insercao.get(ESPERA_S, TimeUnit.SECONDS));
+        }
+
+        // O bloqueio sozinho e as dez inserções num só lote
+        assertEquals(Arrays.asList(1, 10), esperarLotes(2));
+        assertEquals(10, dao.contarTarefas());
+    }
+
+    @Test
+    public void futureConcluido_soDepoisDoCommit() throws Exception {
+        AtomicInteger contadas = new AtomicInteger(-1);
+        CompletableFuture<Boolean> emTransacao = new CompletableFuture<>();
+        CompletableFuture<Long> insercao = batcher.submeter(TarefaWriteBatcher.INSERIR, tarefa("Relatório"));
+        // Sem Async: corre na thread de escrita, logo que o future é concluído
+        insercao.thenRun(() -> {
+            emTransacao.complete(database.inTransaction());
+            contadas.set(dao.contarTarefas());
+        });
+        insercao.get(ESPERA_S, TimeUnit.SECONDS);
+
+        assertFalse(emTransacao.get(ESPERA_S, TimeUnit.SECONDS));
+        assertEquals(1, contadas.get());
+    }
+
+    @Test
+    public void operacaoQueFalha_naoFalhaAsOutrasDoLote() throws Exception {
+        CompletableFuture<Void> bloqueio = prenderEscrita();
+        CompletableFuture<Long> antes = batcher.submeter(TarefaWriteBatcher.INSERIR, tarefa("Antes"));
+        // Tarefa e etiqueta que não existem: viola a chave estrangeira de tarefas_tags
+        CompletableFuture<Void> invalida = batcher.submeter(TarefaWriteBatcher.ASSOCIAR_TAG,
+                new TarefaTag(999, 999));
+        CompletableFuture<Long> depois = batcher.submeter(TarefaWriteBatcher.INSERIR, tarefa("Depois"));
+        soltar.countDown();
+        bloqueio.get(ESPERA_S, TimeUnit.SECONDS);
+
+        assertNotNull(antes.get(ESPERA_S, TimeUnit.SECONDS));
+        assertNotNull(depois.get(ESPERA_S, TimeUnit.SECONDS));
+        try {
+            invalida.get(ESPERA_S, TimeUnit.SECONDS);
+            fail("Esperada SQLiteConstraintException");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof SQLiteConstraintException);
+        }
+        assertEquals(2, dao.contarTarefas());
+        // O lote é avisado com as operações confirmadas
+        assertEquals(Arrays.asList(1, 2), esperarLotes(2));
+    }
+
+    @Test
+    public void erroNaoExcecao_concluiOsFutures() throws Exception {
+        CompletableFuture<Void> bloqueio = prenderEscrita();
+        CompletableFuture<Void> comErro = batcher.submeter((dao, itens) -> {
+            throw new AssertionError("Falha na operação");
+        }, null);
+        CompletableFuture<Long> insercao = batcher.submeter(TarefaWriteBatcher.INSERIR, tarefa("Relatório"));
+        soltar.countDown();
+        bloqueio.get(ESPERA_S, TimeUnit.SECONDS);
+
+        assertNotNull(insercao.get(ESPERA_S, TimeUnit.SECONDS));
+        try {
+            comErro.get(ESPERA_S, TimeUnit.SECONDS);
+            fail("Esperado AssertionError");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof AssertionError);
+        }
+        assertEquals(1, dao.contarTarefas());
+    }
+
+    @Test
+    public void metricaDoLote_umaExecucaoPorLote() throws Exception {
+        CompletableFuture<Void> bloqueio = prenderEscrita();
+        List<CompletableFuture<Long>> insercoes = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            insercoes.add(batcher.submeter(TarefaWriteBatcher.INSERIR, tarefa("Tarefa " + i)));
+        }
+        soltar.countDown();
+        bloqueio.get(ESPERA_S, TimeUnit.SECONDS);
+        for (CompletableFuture<Long> insercao : insercoes) {
+            insercao.get(ESPERA_S, TimeUnit.SECONDS);
+        }
+
+        // Dois lotes (o bloqueio e as inserções), com as operações de cada um como linhas
+        MetricasBaseDados.Operacao lote = MetricasBaseDados.getInstance().getInstantaneo()
+                .getOperacao("lote de escrita");
+        assertNotNull(lote);
+        assertEquals(2, lote.execucoes);
+        assertEquals(6, lote.linhas);
+    }
+}
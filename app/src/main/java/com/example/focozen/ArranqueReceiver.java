@@ -0,0 +1,38 @@
+package com.example.focozen;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+
+/**
+ * ArranqueReceiver
+ * --------------------------------------------------
+ * BroadcastReceiver responsável por:
+ *  - Detetar o arranque do telemóvel e a atualização da aplicação
+ *    (em ambos os casos o AlarmManager perde os alarmes)
+ *  - Pedir ao WorkManager para repor os lembretes (LembretesWorker)
+ *
+ * O trabalho com a base de dados não é feito aqui, no onReceive,
+ * mas num Worker em background.
+ */
+public class ArranqueReceiver extends BroadcastReceiver {
+
+    private static final String TRABALHO_REPOR_LEMBRETES = "repor_lembretes";
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        String action = intent.getAction();
+        if (Intent.ACTION_BOOT_COMPLETED.equals(action)
+                || Intent.ACTION_MY_PACKAGE_REPLACED.equals(action)) {
+            // Trabalho único: vários eventos seguidos resultam numa só reposição
+            WorkManager.getInstance(context).enqueueUniqueWork(
+                    TRABALHO_REPOR_LEMBRETES,
+                    ExistingWorkPolicy.REPLACE,
+                    OneTimeWorkRequest.from(LembretesWorker.class));
+        }
+    }
+}
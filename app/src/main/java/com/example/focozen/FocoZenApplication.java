@@ -0,0 +1,77 @@
+package com.example.focozen;
+
+import android.app.Application;
+
+import androidx.work.Constraints;
+import androidx.work.NetworkType;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+
+import com.example.focozen.data.TarefaPreCarga;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FocoZenApplication
+ * --------------------------------------------------
+ * Ponto de entrada do processo da aplicação.
+ * Responsável por:
+ *  - Criar o canal de notificações uma única vez, no arranque do processo
+ *    (e não a cada lembrete recebido)
+ *  - Iniciar, em background, a abertura da base de dados e a leitura do primeiro ecrã
+ *    (em paralelo com a criação da MainActivity)
+ *  - Agendar a limpeza diária das tarefas eliminadas (LimpezaWorker)
+ *  - Agendar a sincronização periódica com o servidor (SincronizacaoWorker)
+ */
+public class FocoZenApplication extends Application {
+
+    private static final String TRABALHO_LIMPEZA = "limpar_tarefas";
+    private static final String TRABALHO_SINCRONIZACAO = "sincronizar_tarefas";
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        TempoArranque.marcar("Application.onCreate");
+        // 1. Base de dados e primeiro ecrã: em background, o mais cedo possível
+        TarefaPreCarga.iniciar(this);
+        // 2. As preferências do idioma são lidas do disco em background
+        //    (a MainActivity só espera por elas se ainda não estiverem carregadas)
+        getSharedPreferences("Settings", MODE_PRIVATE);
+        TarefaNotificationReceiver.createNotificationChannel(this);
+        agendarLimpeza();
+        agendarSincronizacao();
+    }
+
+    /**
+     * Agenda a limpeza diária. KEEP: um agendamento já existente não é substituído
+     * (o período não recomeça a cada arranque do processo).
+     */
+    private void agendarLimpeza() {
+        Constraints restricoes = new Constraints.Builder()
+                .setRequiresDeviceIdle(true)
+                .setRequiresBatteryNotLow(true)
+                .build();
+        PeriodicWorkRequest limpeza = new PeriodicWorkRequest.Builder(LimpezaWorker.class, 1, TimeUnit.DAYS)
+                .setConstraints(restricoes)
+                .build();
+        WorkManager.getInstance(this).enqueueUniquePeriodicWork(
+                TRABALHO_LIMPEZA, ExistingPeriodicWorkPolicy.KEEP, limpeza);
+    }
+
+    /**
+     * Agenda a sincronização de hora a hora, só com rede (KEEP, como a limpeza).
+     * Sem servidor configurado, o worker termina logo sem abrir nenhuma ligação.
+     */
+    private void agendarSincronizacao() {
+        Constraints restricoes = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build();
+        PeriodicWorkRequest sincronizacao = new PeriodicWorkRequest.Builder(
+                SincronizacaoWorker.class, 1, TimeUnit.HOURS)
+                .setConstraints(restricoes)
+                .build();
+        WorkManager.getInstance(this).enqueueUniquePeriodicWork(
+                TRABALHO_SINCRONIZACAO, ExistingPeriodicWorkPolicy.KEEP, sincronizacao);
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.focozen;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.os.Build;
+import android.util.Log;
+
+import com.example.focozen.data.TarefaDao;
+import com.example.focozen.data.TarefaDatabase;
+import com.example.focozen.model.Tarefa;
+import com.example.focozen.model.TarefaResumo;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * LembreteScheduler
+ * --------------------------------------------------
+ * Agenda os lembretes de vencimento das tarefas.
+ * Responsável por:
+ *  - Manter armado apenas UM alarme: o do próximo lembrete pendente
+ *  - Recalcular só a tarefa afetada em cada escrita
+ *  - Entregar de uma vez todas as tarefas que vencem na mesma janela
+ *  - Avançar para o lembrete seguinte quando um alarme dispara
+ *  - Repor os lembretes depois de um arranque (os perdidos numa só notificação)
+ *
+ * Os lembretes são percorridos por ordem de (dataVencimento, id), através do
+ * índice (concluida, eliminadaEm, dataVencimento). O "cursor" guarda o último lembrete entregue,
+ * por isso o número de alarmes não depende do número de tarefas.
+ */
+public class LembreteScheduler {
+
+    private static final String TAG = "LembreteScheduler";
+
+    private static final String PREFS = "Lembretes";
+    // Último lembrete entregue (ordem: dataVencimento, id)
+    private static final String PREF_CURSOR_DATA = "cursor_data";
+    private static final String PREF_CURSOR_ID = "cursor_id";
+    // Lembrete atualmente armado no AlarmManager
+    private static final String PREF_ARMADO_DATA = "armado_data";
+    private static final String PREF_ARMADO_ID = "armado_id";
+
+    private static final int SEM_TAREFA = -1;
+
+    // Tarefas que vencem até este tempo depois do alarme são entregues no mesmo lembrete
+    // (as datas de vencimento são todas às 23:59:59, por isso muitas coincidem)
+    static final long JANELA_MS = 60_000L;
+    // Máximo de tarefas lidas por entrega; as restantes seguem num alarme imediato
+    private static final int MAX_POR_ENTREGA = 50;
+    // Tarefas listadas na notificação de lembretes perdidos
+    private static final int MAX_LISTADOS_EM_ATRASO = 5;
+
+    // Singleton instance
+    private static volatile LembreteScheduler INSTANCE;
+
+    private final Context context;
+    private final TarefaDao tarefaDao;
+    private final SharedPreferences prefs;
+    private final AlarmManager alarmManager;
+    // Todas as decisões correm numa única thread, pela ordem em que foram pedidas
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "focozen-lembretes"));
+
+    private boolean iniciado = false;
+
+    private LembreteScheduler(Context context) {
+        this.context = context.getApplicationContext();
+        this.tarefaDao = TarefaDatabase.getInstance(this.context).tarefaDao();
+        this.prefs = this.context.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        this.alarmManager = this.context.getSystemService(AlarmManager.class);
+    }
+
+    /**
+     * Retorna a instância única do agendador.
+     */
+    public static LembreteScheduler getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (LembreteScheduler.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new LembreteScheduler(context);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Garante que o próximo lembrete está armado (uma vez por processo).
+     * Na primeira utilização, só são considerados lembretes a partir de agora.
+     */
+    public void iniciar() {
+        executor.execute(() -> {
+            if (iniciado) {
+                return;
+            }
+            iniciado = true;
+            if (!prefs.contains(PREF_CURSOR_DATA)) {
+                guardarCursor(System.currentTimeMillis(), SEM_TAREFA);
+            }
+            recalcular();
+        });
+    }
+
+    /**
+     * Uma tarefa foi inserida, alterada ou eliminada.
+     * Só essa tarefa é lida (pela chave primária); a consulta do próximo
+     * lembrete só é feita se a tarefa afetada era a que estava armada.
+     */
+    public void tarefaAlterada(int id) {
+        executor.execute(() -> {
+            Tarefa tarefa = tarefaDao.getById(id);
+            boolean pendente = tarefa != null && !tarefa.isConcluida() && tarefa.getEliminadaEm() == 0
+                    && depois(tarefa.getDataVencimento(), tarefa.getId(),
+                    prefs.getLong(PREF_CURSOR_DATA, 0), prefs.getInt(PREF_CURSOR_ID, SEM_TAREFA));
+
+            int armadoId = prefs.getInt(PREF_ARMADO_ID, SEM_TAREFA);
+            if (armadoId == SEM_TAREFA) {
+                // 1. Nenhum alarme armado: a tarefa passa a ser o próximo lembrete
+                if (pendente) {
+                    armar(tarefa.getDataVencimento(), tarefa.getId());
+                }
+            } else if (armadoId == id) {
+                // 2. A tarefa armada mudou (data, estado, título) ou foi eliminada
+                recalcular();
+            } else if (pendente && !depois(tarefa.getDataVencimento(), tarefa.getId(),
+                    prefs.getLong(PREF_ARMADO_DATA, 0), armadoId)) {
+                // 3. A tarefa vence antes da que está armada
+                armar(tarefa.getDataVencimento(), tarefa.getId());
+            }
+        });
+    }
+
+    /**
+     * Muitas tarefas foram inseridas ou alteradas de uma vez (importação, seleção múltipla):
+     * em vez de verificar cada uma, o próximo lembrete é procurado uma única vez no índice.
+     */
+    public void tarefasAlteradas() {
+        executor.execute(this::recalcular);
+    }
+
+    /**
+     * Chamado pelo TarefaNotificationReceiver quando o alarme dispara:
+     * lê todas as tarefas pendentes da janela, mostra-as numa notificação agrupada,
+     * avança o cursor e arma o lembrete seguinte.
+     * @param aoTerminar executado (na thread dos lembretes) quando o próximo alarme estiver armado
+     */
+    void entregarLembretes(long dataAlarme, Runnable aoTerminar) {
+        executor.execute(() -> {
+            try {
+                long ate = Math.max(dataAlarme, System.currentTimeMillis()) + JANELA_MS;
+                List<Tarefa> devidas = tarefaDao.getLembretesDevidos(
+                        prefs.getLong(PREF_CURSOR_DATA, 0), prefs.getInt(PREF_CURSOR_ID, SEM_TAREFA),
+                        ate, MAX_POR_ENTREGA);
+                if (!devidas.isEmpty()) {
+                    TarefaNotificationReceiver.mostrarLembretes(context, devidas, dataAlarme);
+                    Tarefa ultima = devidas.get(devidas.size() - 1);
+                    guardarCursor(ultima.getDataVencimento(), ultima.getId());
+                }
+                recalcular();
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Falha ao entregar lembretes", e);
+            } finally {
+                aoTerminar.run();
+            }
+        });
+    }
+
+    /**
+     * Repõe os lembretes depois de um arranque ou de uma atualização da aplicação.
+     * O custo não depende do número de lembretes perdidos: são contados no índice,
+     * só os primeiros são lidos, e o cursor salta diretamente para o último.
+     * @return future concluído quando o próximo alarme estiver armado
+     */
+    public Future<?> reporLembretes() {
+        return executor.submit(() -> {
+            long agora = System.currentTimeMillis();
+            if (!prefs.contains(PREF_CURSOR_DATA)) {
+                guardarCursor(agora, SEM_TAREFA);
+            }
+            long cursorData = prefs.getLong(PREF_CURSOR_DATA, 0);
+            int cursorId = prefs.getInt(PREF_CURSOR_ID, SEM_TAREFA);
+
+            // 1. Lembretes que venceram com o telemóvel desligado: uma só notificação
+            int emAtraso = tarefaDao.contarLembretesDevidos(cursorData, cursorId, agora);
+            if (emAtraso > 0) {
+                List<Tarefa> primeiras = tarefaDao.getLembretesDevidos(
+                        cursorData, cursorId, agora, MAX_LISTADOS_EM_ATRASO);
+                TarefaNotificationReceiver.mostrarLembretesEmAtraso(context, emAtraso, primeiras);
+                TarefaResumo ultima = tarefaDao.getUltimoLembreteAte(agora);
+                if (ultima != null) {
+                    guardarCursor(ultima.getDataVencimento(), ultima.getId());
+                }
+            }
+
+            // 2. O alarme anterior perdeu-se: armar o próximo lembrete
+            prefs.edit().putInt(PREF_ARMADO_ID, SEM_TAREFA).apply();
+            recalcular();
+            iniciado = true;
+        });
+    }
+
+    /**
+     * Arma o primeiro lembrete pendente depois do cursor (ou cancela o alarme se não houver)
+     */
+    private void recalcular() {
+        TarefaResumo proxima = tarefaDao.getProximoLembrete(
+                prefs.getLong(PREF_CURSOR_DATA, 0), prefs.getInt(PREF_CURSOR_ID, SEM_TAREFA));
+        if (proxima != null) {
+            armar(proxima.getDataVencimento(), proxima.getId());
+        } else {
+            alarmManager.cancel(criarPendingIntent(0));
+            prefs.edit()
+                    .remove(PREF_ARMADO_DATA)
+                    .putInt(PREF_ARMADO_ID, SEM_TAREFA)
+                    .apply();
+        }
+    }
+
+    /**
+     * Arma o alarme único para uma tarefa (substitui o anterior)
+     */
+    private void armar(long quando, int id) {
+        PendingIntent pendingIntent = criarPendingIntent(quando);
+        // Android 12+: sem autorização para alarmes exatos, o lembrete pode chegar com algum atraso
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.S || alarmManager.canScheduleExactAlarms()) {
+            alarmManager.setExactAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, quando, pendingIntent);
+        } else {
+            alarmManager.setAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, quando, pendingIntent);
+        }
+        prefs.edit()
+                .putLong(PREF_ARMADO_DATA, quando)
+                .putInt(PREF_ARMADO_ID, id)
+                .apply();
+        Log.d(TAG, "Próximo lembrete: tarefa " + id + " às " + quando);
+    }
+
+    /**
+     * PendingIntent do alarme. É sempre o mesmo (mesmo requestCode), por isso
+     * armar um novo lembrete substitui o anterior em vez de acumular alarmes.
+     */
+    private PendingIntent criarPendingIntent(long quando) {
+        Intent intent = new Intent(context, TarefaNotificationReceiver.class);
+        // Só a hora do alarme: as tarefas são lidas da base de dados quando o alarme dispara
+        intent.putExtra(TarefaNotificationReceiver.EXTRA_DATA_VENCIMENTO, quando);
+        return PendingIntent.getBroadcast(context, 0, intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+    }
+
+    private void guardarCursor(long dataVencimento, int id) {
+        prefs.edit()
+                .putLong(PREF_CURSOR_DATA, dataVencimento)
+                .putInt(PREF_CURSOR_ID, id)
+                .apply();
+    }
+
+    /**
+     * true se (data, id) vem depois de (dataReferencia, idReferencia)
+     */
+    private static boolean depois(long data, int id, long dataReferencia, int idReferencia) {
+        return data > dataReferencia || (data == dataReferencia && id > idReferencia);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.focozen;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import java.util.concurrent.ExecutionException;
+
+/**
+ * LembretesWorker
+ * --------------------------------------------------
+ * Worker que repõe os lembretes depois de um arranque ou de uma atualização:
+ *  - Entrega, numa só notificação, os lembretes perdidos com o telemóvel desligado
+ *  - Volta a armar o alarme do próximo lembrete
+ */
+public class LembretesWorker extends Worker {
+
+    private static final String TAG = "LembretesWorker";
+
+    public LembretesWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        try {
+            // O trabalho corre na thread do agendador (a mesma das restantes decisões de lembretes)
+            LembreteScheduler.getInstance(getApplicationContext()).reporLembretes().get();
+            return Result.success();
+        } catch (ExecutionException e) {
+            Log.e(TAG, "Falha ao repor os lembretes", e.getCause());
+            return Result.retry();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.retry();
+        }
+    }
+}
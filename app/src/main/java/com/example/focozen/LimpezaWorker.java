@@ -0,0 +1,44 @@
+package com.example.focozen;
+
+import android.app.Application;
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.example.focozen.data.TarefaDatabase;
+import com.example.focozen.data.TarefaLimpeza;
+import com.example.focozen.data.TarefaSincronizacao;
+
+/**
+ * LimpezaWorker
+ * --------------------------------------------------
+ * Worker periódico (diário, com o telemóvel parado e bateria suficiente) que:
+ *  - Apaga definitivamente as tarefas eliminadas há mais do que o prazo de anulação
+ *  - Reconstrói os contadores das estatísticas (verificação dos triggers)
+ *  - Reduz o diário de alterações da sincronização
+ *  - Compacta a base de dados quando tem demasiado espaço livre
+ */
+public class LimpezaWorker extends Worker {
+
+    private static final String TAG = "LimpezaWorker";
+
+    public LimpezaWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        try {
+            TarefaLimpeza.getInstance(TarefaDatabase.getInstance(getApplicationContext()))
+                    .limpar(TarefaSincronizacao.getInstance((Application) getApplicationContext()));
+            return Result.success();
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Falha na limpeza da base de dados", e);
+            return Result.retry();
+        }
+    }
+}
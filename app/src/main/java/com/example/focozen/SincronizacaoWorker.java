@@ -0,0 +1,46 @@
+package com.example.focozen;
+
+import android.app.Application;
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.example.focozen.data.TarefaSincronizacao;
+
+import java.io.IOException;
+
+/**
+ * SincronizacaoWorker
+ * --------------------------------------------------
+ * Worker periódico (com rede) que sincroniza as tarefas com o servidor:
+ *  - Envia as alterações feitas neste dispositivo desde a última sincronização
+ *  - Recebe as alterações feitas nos outros dispositivos
+ *  - Sem rede ou com o servidor em baixo, tenta mais tarde (com espera crescente do WorkManager)
+ * Sem servidor configurado, termina logo.
+ */
+public class SincronizacaoWorker extends Worker {
+
+    private static final String TAG = "SincronizacaoWorker";
+
+    public SincronizacaoWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        try {
+            TarefaSincronizacao.getInstance((Application) getApplicationContext()).sincronizar();
+            return Result.success();
+        } catch (IOException e) {
+            Log.w(TAG, "Sincronização adiada", e);
+            return Result.retry();
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Falha na sincronização", e);
+            return Result.retry();
+        }
+    }
+}
@@ -7,12 +7,16 @@ import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
 import android.os.Build;
+import android.util.Log;
 
 import androidx.core.app.NotificationCompat;
 import androidx.core.app.NotificationManagerCompat;
 
+import com.example.focozen.model.Tarefa;
 import com.example.focozen.ui.MainActivity;
 
+import java.util.List;
+
 /**
  * TarefaNotificationReceiver
  * --------------------------------------------------
@@ -21,14 +25,24 @@ import com.example.focozen.ui.MainActivity;
  *  - Criar e exibir notificações de lembrete de tarefas
  *
  * Este Receiver é acionado quando chega a data/hora
- * de vencimento de uma tarefa.
+ * de vencimento de uma tarefa. O alarme é armado pelo LembreteScheduler,
+ * que lê da base de dados todas as tarefas que vencem na mesma janela:
+ * um único alarme (e uma única notificação agrupada) cobre N tarefas.
  */
 public class TarefaNotificationReceiver extends BroadcastReceiver {
 
+    private static final String TAG = "TarefaNotificationReceiver";
+
     public static final String CHANNEL_ID = "tarefa_channel";
-    public static final String EXTRA_TITULO = "extra_titulo";
-    public static final String EXTRA_DESCRICAO = "extra_descricao";
-    public static final String EXTRA_ID = "extra_id";
+    public static final String EXTRA_DATA_VENCIMENTO = "extra_data_vencimento";
+
+    // Grupo das notificações de lembrete (as tarefas e o resumo)
+    private static final String GRUPO_LEMBRETES = "com.example.focozen.LEMBRETES";
+    private static final String TAG_TAREFA = "tarefa";
+    private static final String TAG_RESUMO = "resumo";
+    private static final String TAG_EM_ATRASO = "em_atraso";
+    // Número de tarefas listadas no texto do resumo
+    private static final int LINHAS_RESUMO = 5;
 
     /**
      * Método chamado automaticamente pelo sistema
@@ -36,39 +50,121 @@ public class TarefaNotificationReceiver extends BroadcastReceiver {
      */
     @Override
     public void onReceive(Context context, Intent intent) {
-        String titulo = intent.getStringExtra(EXTRA_TITULO);
-        String descricao = intent.getStringExtra(EXTRA_DESCRICAO);
-        int id = intent.getIntExtra(EXTRA_ID, 0);
+        long dataVencimento = intent.getLongExtra(EXTRA_DATA_VENCIMENTO, System.currentTimeMillis());
 
-        // 1. Criar o canal de notificação (necessário para Android 8.0+)
-        createNotificationChannel(context);
+        // A leitura das tarefas é feita em background; o receiver fica ativo até terminar
+        PendingResult pendingResult = goAsync();
+        LembreteScheduler.getInstance(context).entregarLembretes(dataVencimento, pendingResult::finish);
+    }
 
-        // 2. Criar o Intent que abre a MainActivity ao clicar na notificação
+    /**
+     * Mostra os lembretes de um conjunto de tarefas que vencem na mesma janela.
+     * Uma tarefa → uma notificação. Várias → uma notificação por tarefa,
+     * agrupadas sob um resumo, que é a única a tocar/vibrar.
+     */
+    static void mostrarLembretes(Context context, List<Tarefa> tarefas, long janela) {
+        if (tarefas.isEmpty()) {
+            return;
+        }
+        // 1. Criar o Intent que abre a MainActivity ao clicar na notificação
         Intent mainIntent = new Intent(context, MainActivity.class);
-        PendingIntent contentIntent = PendingIntent.getActivity(context, id, mainIntent, PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+        PendingIntent contentIntent = PendingIntent.getActivity(context, 0, mainIntent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+        NotificationManagerCompat notificationManager = NotificationManagerCompat.from(context);
+        boolean agrupar = tarefas.size() > 1;
+
+        try {
+            // 2. Uma notificação por tarefa
+            for (Tarefa tarefa : tarefas) {
+                NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
+                        .setSmallIcon(R.drawable.ic_notification)
+                        .setContentTitle(tarefa.getTitulo())
+                        .setContentText(tarefa.getDescricao())
+                        .setWhen(tarefa.getDataVencimento())
+                        .setShowWhen(true)
+                        .setPriority(NotificationCompat.PRIORITY_HIGH)
+                        .setContentIntent(contentIntent)
+                        .setAutoCancel(true);
+                if (agrupar) {
+                    builder.setGroup(GRUPO_LEMBRETES)
+                            .setGroupAlertBehavior(NotificationCompat.GROUP_ALERT_SUMMARY);
+                }
+                notificationManager.notify(TAG_TAREFA, tarefa.getId(), builder.build());
+            }
+
+            // 3. Resumo do grupo (um por janela)
+            if (agrupar) {
+                String titulo = context.getResources().getQuantityString(
+                        R.plurals.notification_summary_title, tarefas.size(), tarefas.size());
+                NotificationCompat.InboxStyle estilo = new NotificationCompat.InboxStyle()
+                        .setBigContentTitle(titulo);
+                for (int i = 0; i < tarefas.size() && i < LINHAS_RESUMO; i++) {
+                    estilo.addLine(tarefas.get(i).getTitulo());
+                }
+                NotificationCompat.Builder resumo = new NotificationCompat.Builder(context, CHANNEL_ID)
+                        .setSmallIcon(R.drawable.ic_notification)
+                        .setContentTitle(titulo)
+                        .setStyle(estilo)
+                        .setNumber(tarefas.size())
+                        .setPriority(NotificationCompat.PRIORITY_HIGH)
+                        .setContentIntent(contentIntent)
+                        .setGroup(GRUPO_LEMBRETES)
+                        .setGroupSummary(true)
+                        .setAutoCancel(true);
+                notificationManager.notify(TAG_RESUMO, (int) (janela / 60_000L), resumo.build());
+            }
+        } catch (SecurityException e) {
+            // Android 13+: sem permissão de notificações os lembretes não são mostrados
+            Log.w(TAG, "Sem permissão para notificar", e);
+        }
+    }
+
+    /**
+     * Mostra numa única notificação os lembretes perdidos
+     * (ex: tarefas que venceram com o telemóvel desligado).
+     * @param total    número de lembretes perdidos
+     * @param primeiras as primeiras tarefas, listadas no texto da notificação
+     */
+    static void mostrarLembretesEmAtraso(Context context, int total, List<Tarefa> primeiras) {
+        Intent mainIntent = new Intent(context, MainActivity.class);
+        PendingIntent contentIntent = PendingIntent.getActivity(context, 0, mainIntent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+
+        String titulo = context.getResources().getQuantityString(
+                R.plurals.notification_missed_title, total, total);
+        NotificationCompat.InboxStyle estilo = new NotificationCompat.InboxStyle()
+                .setBigContentTitle(titulo);
+        for (Tarefa tarefa : primeiras) {
+            estilo.addLine(tarefa.getTitulo());
+        }
+        if (total > primeiras.size()) {
+            estilo.setSummaryText(context.getString(R.string.notification_missed_more, total - primeiras.size()));
+        }
 
-        // 3. Construir a Notificação
         NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
-                .setSmallIcon(R.drawable.ic_notification) // Use um ícone seu
+                .setSmallIcon(R.drawable.ic_notification)
                 .setContentTitle(titulo)
-                .setContentText(descricao)
+                .setContentText(primeiras.isEmpty() ? null : primeiras.get(0).getTitulo())
+                .setStyle(estilo)
+                .setNumber(total)
                 .setPriority(NotificationCompat.PRIORITY_HIGH)
                 .setContentIntent(contentIntent)
                 .setAutoCancel(true);
-
-        // 4. Exibir a Notificação
-        NotificationManagerCompat notificationManager = NotificationManagerCompat.from(context);
-        notificationManager.notify(id, builder.build());
+        try {
+            NotificationManagerCompat.from(context).notify(TAG_EM_ATRASO, 0, builder.build());
+        } catch (SecurityException e) {
+            Log.w(TAG, "Sem permissão para notificar", e);
+        }
     }
 
-
     /**
-     * Cria o canal de notificações (Android 8.0+)
+     * Cria o canal de notificações (Android 8.0+).
+     * Chamado uma vez por processo, pela FocoZenApplication.
      */
-    private void createNotificationChannel(Context context) {
+    static void createNotificationChannel(Context context) {
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-            CharSequence name = "Lembretes de Tarefas";
-            String description = "Canal para notificações de tarefas com data de vencimento.";
+            CharSequence name = context.getString(R.string.notification_channel_name);
+            String description = context.getString(R.string.notification_channel_description);
             int importance = NotificationManager.IMPORTANCE_HIGH;
             NotificationChannel channel = new NotificationChannel(CHANNEL_ID, name, importance);
             channel.setDescription(description);
@@ -0,0 +1,80 @@
+package com.example.focozen;
+
+import android.app.Activity;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import androidx.annotation.MainThread;
+
+/**
+ * TempoArranque
+ * --------------------------------------------------
+ * Medição do tempo até ao primeiro conteúdo.
+ * Responsável por:
+ *  - Registar no log as etapas do arranque, desde o início do processo
+ *  - Medir, em cada abertura da MainActivity, o tempo até ao primeiro frame com a lista
+ *  - Avisar o sistema (reportFullyDrawn) quando o conteúdo está visível
+ *
+ * Os valores ficam no logcat com a tag "TempoArranque":
+ * "processo → primeira lista" só aparece no arranque a frio.
+ */
+public final class TempoArranque {
+
+    private static final String TAG = "TempoArranque";
+
+    // A primeira lista deste processo já foi medida (arranque a frio)
+    private static boolean arranqueMedido = false;
+    // Início da MainActivity atual (uptimeMillis)
+    private static long inicioActivity;
+    private static boolean listaMedida = true;
+
+    private TempoArranque() {
+    }
+
+    /**
+     * Regista uma etapa do arranque (tempo desde o início do processo)
+     */
+    public static void marcar(String etapa) {
+        Log.i(TAG, etapa + ": " + (SystemClock.uptimeMillis() - Process.getStartUptimeMillis()) + " ms");
+    }
+
+    /**
+     * Chamado no início do onCreate da MainActivity
+     */
+    @MainThread
+    public static void activityCriada() {
+        inicioActivity = SystemClock.uptimeMillis();
+        listaMedida = false;
+        marcar("MainActivity.onCreate");
+    }
+
+    /**
+     * Chamado quando a primeira lista foi entregue ao RecyclerView:
+     * o tempo é medido no frame seguinte, quando a lista é desenhada.
+     */
+    @MainThread
+    public static void listaEntregue(Activity activity, View lista) {
+        if (listaMedida) {
+            return;
+        }
+        listaMedida = true;
+        lista.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                lista.getViewTreeObserver().removeOnPreDrawListener(this);
+                long agora = SystemClock.uptimeMillis();
+                if (!arranqueMedido) {
+                    arranqueMedido = true;
+                    Log.i(TAG, "processo → primeira lista: "
+                            + (agora - Process.getStartUptimeMillis()) + " ms");
+                    activity.reportFullyDrawn();
+                }
+                Log.i(TAG, "MainActivity → primeira lista: " + (agora - inicioActivity) + " ms");
+                return true;
+            }
+        });
+    }
+}
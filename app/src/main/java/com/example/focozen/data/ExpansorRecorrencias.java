@@ -0,0 +1,176 @@
+package com.example.focozen.data;
+
+import com.example.focozen.model.Recorrencia;
+import com.example.focozen.model.TarefaOcorrencia;
+import com.example.focozen.model.TarefaResumo;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ExpansorRecorrencias
+ * --------------------------------------------------
+ * Gera as ocorrências das tarefas numa janela de datas [desde, ate).
+ * Responsável por:
+ *  - Saltar diretamente para a primeira ocorrência da janela (sem percorrer as anteriores)
+ *  - Gerar as ocorrências de dias e semanas com aritmética simples, sem objetos por ocorrência
+ *  - Devolver as ocorrências de várias tarefas por ordem de data
+ *
+ * Só a janela pedida é gerada: as ocorrências futuras nunca são guardadas.
+ * Cada tarefa começa na data de vencimento (a ocorrência atual); uma tarefa que
+ * não se repete tem apenas essa ocorrência.
+ * Não depende do Android (é testado na JVM e medido no módulo :benchmark).
+ * Não é thread-safe: cada thread deve usar a sua instância.
+ */
+public final class ExpansorRecorrencias {
+
+    private static final long MS_POR_DIA = 24L * 60 * 60 * 1000;
+
+    /**
+     * Recebe cada ocorrência gerada
+     */
+    public interface Destino {
+        void ocorrencia(TarefaResumo tarefa, long data);
+    }
+
+    private final ZoneId zona;
+    private final ZoneRules regras;
+
+    // Desvio do fuso em cache, válido entre [validoDesde, validoAte) (instantes UTC):
+    // ao gerar por ordem de data, só é recalculado nas mudanças de hora
+    private long desvioMs;
+    private long validoDesde = Long.MAX_VALUE;
+    private long validoAte = Long.MIN_VALUE;
+
+    public ExpansorRecorrencias(ZoneId zona) {
+        this.zona = zona;
+        this.regras = zona.getRules();
+    }
+
+    /**
+     * Ocorrências de várias tarefas na janela, por ordem de data (e de id, na mesma data).
+     * @param limite número máximo de ocorrências devolvidas (as mais próximas)
+     */
+    public List<TarefaOcorrencia> expandir(List<TarefaResumo> tarefas, long desde, long ate, int limite) {
+        List<TarefaOcorrencia> ocorrencias = new ArrayList<>();
+        for (TarefaResumo tarefa : tarefas) {
+            expandir(tarefa, desde, ate, (t, data) -> ocorrencias.add(new TarefaOcorrencia(t, data)));
+        }
+        ocorrencias.sort((a, b) -> a.data != b.data
+                ? Long.compare(a.data, b.data)
+                : Integer.compare(a.tarefa.getId(), b.tarefa.getId()));
+        return ocorrencias.size() > limite
+                ? new ArrayList<>(ocorrencias.subList(0, limite))
+                : ocorrencias;
+    }
+
+    /**
+     * Entrega ao destino as ocorrências de uma tarefa em [desde, ate), por ordem de data
+     */
+    public void expandir(TarefaResumo tarefa, long desde, long ate, Destino destino) {
+        long inicio = tarefa.getDataVencimento();
+        if (inicio >= ate) {
+            return;
+        }
+        int regra = tarefa.getRecorrencia();
+        switch (Recorrencia.unidade(regra)) {
+            case Recorrencia.DIARIA:
+                expandirDias(tarefa, Recorrencia.intervalo(regra), desde, ate, destino);
+                break;
+            case Recorrencia.SEMANAL:
+                expandirDias(tarefa, 7 * Recorrencia.intervalo(regra), desde, ate, destino);
+                break;
+            case Recorrencia.MENSAL:
+                expandirMeses(tarefa, Recorrencia.intervalo(regra), Recorrencia.diaDoMes(regra),
+                        desde, ate, destino);
+                break;
+            default:
+                if (inicio >= desde) {
+                    destino.ocorrencia(tarefa, inicio);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Repetição a cada n dias, à mesma hora local.
+     * As contas são feitas em "hora local" (UTC + desvio do fuso), por isso
+     * a mudança de hora não desloca as ocorrências seguintes.
+     */
+    private void expandirDias(TarefaResumo tarefa, int dias, long desde, long ate, Destino destino) {
+        long passo = dias * MS_POR_DIA;
+        long localInicio = paraLocal(tarefa.getDataVencimento());
+        // 1. Saltar para a ocorrência anterior à janela (uma a mais, por causa da mudança de hora)
+        long salto = Math.max(0, Math.floorDiv(paraLocal(desde) - localInicio, passo) - 1);
+        // 2. Gerar até ao fim da janela
+        for (long local = localInicio + salto * passo; ; local += passo) {
+            long data = paraUtc(local);
+            if (data >= ate) {
+                return;
+            }
+            if (data >= desde) {
+                destino.ocorrencia(tarefa, data);
+            }
+        }
+    }
+
+    /**
+     * Repetição a cada n meses, no dia do mês da regra (ou no último dia dos meses mais curtos)
+     */
+    private void expandirMeses(TarefaResumo tarefa, int meses, int diaDoMes,
+                               long desde, long ate, Destino destino) {
+        LocalDateTime inicio = LocalDateTime.ofInstant(Instant.ofEpochMilli(tarefa.getDataVencimento()), zona);
+        LocalDateTime primeiroDia = LocalDateTime.ofInstant(Instant.ofEpochMilli(desde), zona);
+        // 1. Saltar para a ocorrência anterior à janela
+        long mesesAteJanela = (primeiroDia.getYear() - inicio.getYear()) * 12L
+                + primeiroDia.getMonthValue() - inicio.getMonthValue();
+        long salto = Math.max(0, Math.floorDiv(mesesAteJanela, meses) - 1);
+        // 2. Gerar até ao fim da janela (a primeira é a própria data de vencimento)
+        for (long k = salto; ; k++) {
+            long data = k == 0
+                    ? tarefa.getDataVencimento()
+                    : Recorrencia.noMes(inicio.plusMonths(k * meses), diaDoMes)
+                            .atZone(zona).toInstant().toEpochMilli();
+            if (data >= ate) {
+                return;
+            }
+            if (data >= desde) {
+                destino.ocorrencia(tarefa, data);
+            }
+        }
+    }
+
+    private long paraLocal(long utc) {
+        validarDesvio(utc);
+        return utc + desvioMs;
+    }
+
+    /**
+     * Instante UTC de uma hora local. Numa hora que não existe (o salto da hora de verão)
+     * fica deslocado pela diferença, como no relógio do telemóvel.
+     */
+    private long paraUtc(long local) {
+        long utc = local - desvioMs;
+        if (utc < validoDesde || utc >= validoAte) {
+            validarDesvio(utc);
+            utc = local - desvioMs;
+        }
+        return utc;
+    }
+
+    private void validarDesvio(long utc) {
+        if (utc >= validoDesde && utc < validoAte) {
+            return;
+        }
+        Instant instante = Instant.ofEpochMilli(utc);
+        desvioMs = regras.getOffset(instante).getTotalSeconds() * 1000L;
+        ZoneOffsetTransition seguinte = regras.nextTransition(instante);
+        validoDesde = utc;
+        validoAte = seguinte != null ? seguinte.toEpochSecond() * 1000 : Long.MAX_VALUE;
+    }
+}
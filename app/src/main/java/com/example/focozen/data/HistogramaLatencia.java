@@ -0,0 +1,98 @@
+package com.example.focozen.data;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HistogramaLatencia
+ * --------------------------------------------------
+ * Histograma de durações de uma operação da base de dados.
+ * Responsável por:
+ *  - Registar cada execução sem locks (só contadores atómicos)
+ *  - Estimar percentis com intervalos de potências de 2 (em microssegundos)
+ *
+ * Memória fixa, qualquer que seja o número de execuções: pode ficar sempre ativo.
+ */
+final class HistogramaLatencia {
+
+    // Intervalo i: durações até 2^i microssegundos; o último acumula as restantes (> ~4 s)
+    static final int INTERVALOS = 23;
+
+    private final AtomicLongArray contagens = new AtomicLongArray(INTERVALOS);
+    private final LongAdder execucoes = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder linhas = new LongAdder();
+    private final AtomicLong maximoNanos = new AtomicLong();
+
+    void registar(long duracaoNanos, int linhasAfetadas) {
+        contagens.incrementAndGet(intervalo(duracaoNanos));
+        execucoes.increment();
+        totalNanos.add(duracaoNanos);
+        linhas.add(linhasAfetadas);
+        long maximo = maximoNanos.get();
+        while (duracaoNanos > maximo && !maximoNanos.compareAndSet(maximo, duracaoNanos)) {
+            maximo = maximoNanos.get();
+        }
+    }
+
+    /**
+     * Índice do intervalo de uma duração: o menor i com duração <= 2^i µs
+     */
+    static int intervalo(long duracaoNanos) {
+        long micros = duracaoNanos / 1000;
+        int i = micros <= 1 ? 0 : 64 - Long.numberOfLeadingZeros(micros - 1);
+        return Math.min(i, INTERVALOS - 1);
+    }
+
+    long getExecucoes() {
+        return execucoes.sum();
+    }
+
+    long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    long getLinhas() {
+        return linhas.sum();
+    }
+
+    long getMaximoNanos() {
+        return maximoNanos.get();
+    }
+
+    /**
+     * Estimativa do percentil (0 < p <= 1), em nanossegundos:
+     * o limite superior do intervalo onde cai, nunca acima do máximo registado.
+     */
+    long percentilNanos(double p) {
+        long[] copia = new long[INTERVALOS];
+        long total = 0;
+        for (int i = 0; i < INTERVALOS; i++) {
+            copia[i] = contagens.get(i);
+            total += copia[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long alvo = (long) Math.ceil(p * total);
+        long acumulado = 0;
+        for (int i = 0; i < INTERVALOS; i++) {
+            acumulado += copia[i];
+            if (acumulado >= alvo) {
+                return Math.min((1L << i) * 1000, getMaximoNanos());
+            }
+        }
+        return getMaximoNanos();
+    }
+
+    void limpar() {
+        for (int i = 0; i < INTERVALOS; i++) {
+            contagens.set(i, 0);
+        }
+        execucoes.reset();
+        totalNanos.reset();
+        linhas.reset();
+        maximoNanos.set(0);
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.focozen.data;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * MetricasBaseDados
+ * --------------------------------------------------
+ * Métricas de desempenho da base de dados, sempre ativas (também em produção).
+ * Responsável por:
+ *  - Guardar um histograma de latência e o número de linhas de cada operação do TarefaDao
+ *  - Registar no log as operações acima do limiar de lentidão
+ *  - Contar as invalidações de cada tabela (cada uma faz recarregar as listas observadas)
+ *  - Devolver um instantâneo das métricas (ecrã de diagnóstico e testes)
+ *
+ * As operações são medidas pelo TarefaDaoMedido; o custo por operação
+ * é o de duas leituras do relógio e alguns contadores atómicos.
+ */
+public final class MetricasBaseDados {
+
+    private static final String TAG = "MetricasBaseDados";
+
+    // Operações mais lentas do que isto são registadas no log
+    public static final long LIMIAR_LENTA_MS_PADRAO = 50;
+
+    private final Map<String, HistogramaLatencia> operacoes = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> invalidacoes = new ConcurrentHashMap<>();
+    private final LongAdder lentas = new LongAdder();
+    private final AtomicLong limiarLentaNanos =
+            new AtomicLong(TimeUnit.MILLISECONDS.toNanos(LIMIAR_LENTA_MS_PADRAO));
+
+    /**
+     * Estatísticas de uma operação num instantâneo (durações em milissegundos)
+     */
+    public static final class Operacao {
+        public final String nome;
+        public final long execucoes;
+        public final long linhas;
+        public final double mediaMs;
+        public final double p50Ms;
+        public final double p90Ms;
+        public final double p99Ms;
+        public final double maximoMs;
+
+        Operacao(String nome, HistogramaLatencia histograma) {
+            this.nome = nome;
+            this.execucoes = histograma.getExecucoes();
+            this.linhas = histograma.getLinhas();
+            this.mediaMs = execucoes == 0 ? 0 : emMs(histograma.getTotalNanos()) / execucoes;
+            this.p50Ms = emMs(histograma.percentilNanos(0.50));
+            this.p90Ms = emMs(histograma.percentilNanos(0.90));
+            this.p99Ms = emMs(histograma.percentilNanos(0.99));
+            this.maximoMs = emMs(histograma.getMaximoNanos());
+        }
+    }
+
+    /**
+     * Cópia das métricas num dado momento
+     */
+    public static final class Instantaneo {
+        // Ordenadas pelo tempo total gasto (as que mais pesam primeiro)
+        public final List<Operacao> operacoes;
+        // Invalidações por tabela
+        public final Map<String, Long> invalidacoes;
+        public final long lentas;
+        public final long limiarLentaMs;
+
+        Instantaneo(List<Operacao> operacoes, Map<String, Long> invalidacoes, long lentas, long limiarLentaMs) {
+            this.operacoes = Collections.unmodifiableList(operacoes);
+            this.invalidacoes = Collections.unmodifiableMap(invalidacoes);
+            this.lentas = lentas;
+            this.limiarLentaMs = limiarLentaMs;
+        }
+
+        /**
+         * Procura uma operação pelo nome (o nome do método do TarefaDao), ou null
+         */
+        public Operacao getOperacao(String nome) {
+            for (Operacao operacao : operacoes) {
+                if (operacao.nome.equals(nome)) {
+                    return operacao;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Tabela de texto (ecrã de diagnóstico e ficheiros de comparação entre versões)
+         */
+        @NonNull
+        @Override
+        public String toString() {
+            StringBuilder texto = new StringBuilder();
+            texto.append(String.format(Locale.ROOT, "%-24s %7s %8s %7s %7s %7s %7s%n",
+                    "operação", "n", "linhas", "média", "p50", "p90", "p99"));
+            for (Operacao o : operacoes) {
+                texto.append(String.format(Locale.ROOT, "%-24s %7d %8d %7.2f %7.2f %7.2f %7.2f%n",
+                        o.nome, o.execucoes, o.linhas, o.mediaMs, o.p50Ms, o.p90Ms, o.p99Ms));
+            }
+            texto.append(String.format(Locale.ROOT, "lentas (> %d ms): %d%n", limiarLentaMs, lentas));
+            for (Map.Entry<String, Long> entrada : invalidacoes.entrySet()) {
+                texto.append(String.format(Locale.ROOT, "invalidações de %s: %d%n",
+                        entrada.getKey(), entrada.getValue()));
+            }
+            return texto.toString();
+        }
+    }
+
+    // Singleton instance
+    private static volatile MetricasBaseDados INSTANCE;
+
+    private MetricasBaseDados() {
+    }
+
+    /**
+     * Retorna a instância única das métricas.
+     */
+    public static MetricasBaseDados getInstance() {
+        if (INSTANCE == null) {
+            synchronized (MetricasBaseDados.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new MetricasBaseDados();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Histograma de uma operação (criado na primeira vez).
+     * O TarefaDaoMedido guarda-o, para não procurar no mapa a cada execução.
+     */
+    HistogramaLatencia operacao(String nome) {
+        return operacoes.computeIfAbsent(nome, chave -> new HistogramaLatencia());
+    }
+
+    /**
+     * Regista uma execução e, se passar o limiar, escreve-a no log
+     */
+    void registar(String nome, HistogramaLatencia histograma, long duracaoNanos, int linhas) {
+        histograma.registar(duracaoNanos, linhas);
+        if (duracaoNanos > limiarLentaNanos.get()) {
+            lentas.increment();
+            Log.w(TAG, String.format(Locale.ROOT, "Operação lenta: %s %.1f ms (%d linhas, thread %s)",
+                    nome, emMs(duracaoNanos), linhas, Thread.currentThread().getName()));
+        }
+    }
+
+    /**
+     * Começa a contar as invalidações das tabelas indicadas
+     */
+    void observarInvalidacoes(TarefaDatabase database, String... tabelas) {
+        database.getInvalidationTracker().addObserver(new InvalidationTracker.Observer(tabelas) {
+            @Override
+            public void onInvalidated(@NonNull Set<String> invalidadas) {
+                for (String tabela : invalidadas) {
+                    invalidacoes.computeIfAbsent(tabela, chave -> new LongAdder()).increment();
+                }
+            }
+        });
+    }
+
+    public void setLimiarLentaMs(long limiarMs) {
+        limiarLentaNanos.set(TimeUnit.MILLISECONDS.toNanos(limiarMs));
+    }
+
+    public Instantaneo getInstantaneo() {
+        List<Operacao> lista = new ArrayList<>();
+        for (Map.Entry<String, HistogramaLatencia> entrada : operacoes.entrySet()) {
+            if (entrada.getValue().getExecucoes() > 0) {
+                lista.add(new Operacao(entrada.getKey(), entrada.getValue()));
+            }
+        }
+        lista.sort((a, b) -> Double.compare(b.mediaMs * b.execucoes, a.mediaMs * a.execucoes));
+        Map<String, Long> porTabela = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entrada : invalidacoes.entrySet()) {
+            porTabela.put(entrada.getKey(), entrada.getValue().sum());
+        }
+        return new Instantaneo(lista, porTabela, lentas.sum(),
+                TimeUnit.NANOSECONDS.toMillis(limiarLentaNanos.get()));
+    }
+
+    /**
+     * Recomeça a contagem (ex: antes de uma medição no ecrã de diagnóstico ou num teste)
+     */
+    public void limpar() {
+        for (HistogramaLatencia histograma : operacoes.values()) {
+            histograma.limpar();
+        }
+        for (LongAdder contador : invalidacoes.values()) {
+            contador.reset();
+        }
+        lentas.reset();
+    }
+
+    private static double emMs(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
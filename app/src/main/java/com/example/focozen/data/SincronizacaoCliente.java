@@ -0,0 +1,314 @@
+package com.example.focozen.data;
+
+import com.example.focozen.model.Tarefa;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.net.ProtocolException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * SincronizacaoCliente
+ * --------------------------------------------------
+ * Protocolo HTTP da sincronização das tarefas com o servidor.
+ * Responsável por:
+ *  - Enviar as alterações locais (POST /alteracoes) e receber as remotas
+ *    a seguir a um cursor (GET /alteracoes?desde=&limite=), por lotes
+ *  - Comprimir os lotes com gzip, nos dois sentidos
+ *  - Repetir um pedido que falhou por erro de rede ou do servidor, com espera crescente
+ *  - Decidir qual de duas versões da mesma tarefa ganha (last-writer-wins)
+ *
+ * Cada lote é um CSV (TarefaCsv) com cabeçalho e um registo por tarefa, com o estado
+ * completo da tarefa (ou só o syncId e o momento, se foi apagada).
+ * Os pedidos são idempotentes: repetir um envio ou uma receção não muda o resultado.
+ * Não depende do Android (é testado na JVM contra um servidor local).
+ */
+final class SincronizacaoCliente {
+
+    // Cabeçalho de cada lote. "seq" é a posição do registo no servidor (0 nos registos enviados).
+    static final String[] COLUNAS = {"seq", "syncId", "atualizadaEm", "apagada", "titulo", "descricao",
+            "prioridade", "dataVencimento", "concluida", "eliminadaEm", "recorrencia"};
+
+    static final String CAMINHO = "/alteracoes";
+
+    // Tentativas por pedido e espera antes da segunda (duplica a cada falha)
+    static final int TENTATIVAS = 4;
+    static final long ESPERA_INICIAL_MS = 1000;
+
+    private static final int TIMEOUT_LIGACAO_MS = 15_000;
+    private static final int TIMEOUT_LEITURA_MS = 30_000;
+
+    /**
+     * Uma versão de uma tarefa, tal como circula entre o dispositivo e o servidor
+     */
+    static final class Registo {
+        final long seq;
+        final boolean apagada;
+        // Num apagamento, só o syncId e o atualizadaEm estão preenchidos
+        final Tarefa tarefa;
+
+        private Registo(long seq, boolean apagada, Tarefa tarefa) {
+            this.seq = seq;
+            this.apagada = apagada;
+            this.tarefa = tarefa;
+        }
+
+        static Registo de(Tarefa tarefa) {
+            return new Registo(0, false, tarefa);
+        }
+
+        static Registo apagamento(String syncId, long apagadaEm) {
+            Tarefa tarefa = new Tarefa(null, null, 0, 0, false);
+            tarefa.setSyncId(syncId);
+            tarefa.setAtualizadaEm(apagadaEm);
+            return new Registo(0, true, tarefa);
+        }
+
+        /**
+         * O mesmo registo com a posição atribuída pelo servidor
+         */
+        Registo comSeq(long seq) {
+            return new Registo(seq, apagada, tarefa);
+        }
+
+        String getSyncId() {
+            return tarefa.getSyncId();
+        }
+
+        String[] campos() {
+            if (apagada) {
+                return new String[]{Long.toString(seq), tarefa.getSyncId(),
+                        Long.toString(tarefa.getAtualizadaEm()), "true", "", "", "", "", "", "", ""};
+            }
+            return new String[]{Long.toString(seq), tarefa.getSyncId(), Long.toString(tarefa.getAtualizadaEm()),
+                    "false", tarefa.getTitulo(), tarefa.getDescricao(),
+                    Integer.toString(tarefa.getPrioridade()), Long.toString(tarefa.getDataVencimento()),
+                    Boolean.toString(tarefa.isConcluida()), Long.toString(tarefa.getEliminadaEm()),
+                    Integer.toString(tarefa.getRecorrencia())};
+        }
+    }
+
+    /**
+     * Resultado de uma receção: os registos, o cursor para o pedido seguinte
+     * e se o servidor ainda tem mais (a página veio cheia)
+     */
+    static final class Pagina {
+        final List<Registo> registos;
+        final long cursor;
+        final boolean mais;
+
+        Pagina(List<Registo> registos, long cursor, boolean mais) {
+            this.registos = registos;
+            this.cursor = cursor;
+            this.mais = mais;
+        }
+    }
+
+    /**
+     * Leitura do corpo de uma resposta (repetida por inteiro se a ligação falhar a meio)
+     */
+    private interface Resposta<T> {
+        T ler(InputStream entrada) throws IOException;
+    }
+
+    private final String servidor;
+    private final int tentativas;
+    private final long esperaInicialMs;
+
+    SincronizacaoCliente(String servidor) {
+        this(servidor, TENTATIVAS, ESPERA_INICIAL_MS);
+    }
+
+    SincronizacaoCliente(String servidor, int tentativas, long esperaInicialMs) {
+        // Sem a barra final: os caminhos começam todos por "/"
+        this.servidor = servidor.endsWith("/") ? servidor.substring(0, servidor.length() - 1) : servidor;
+        this.tentativas = tentativas;
+        this.esperaInicialMs = esperaInicialMs;
+    }
+
+    /**
+     * Envia um lote de alterações. O servidor guarda cada uma só se for mais recente
+     * do que a versão que já tem (ver comparar).
+     */
+    void enviar(List<Registo> registos) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Writer saida = new OutputStreamWriter(new GZIPOutputStream(bytes), StandardCharsets.UTF_8)) {
+            escreverLote(saida, registos);
+        }
+        pedido("POST", CAMINHO, bytes.toByteArray(), entrada -> null);
+    }
+
+    /**
+     * Recebe até :limite alterações a seguir ao cursor :desde, pela ordem do servidor
+     */
+    Pagina receber(long desde, int limite) throws IOException {
+        List<Registo> registos = pedido("GET", CAMINHO + "?desde=" + desde + "&limite=" + limite, null,
+                entrada -> lerLote(new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8))));
+        long cursor = registos.isEmpty() ? desde : registos.get(registos.size() - 1).seq;
+        return new Pagina(registos, cursor, registos.size() >= limite);
+    }
+
+    // --- Resolução de conflitos ---
+
+    /**
+     * A versão remota substitui a local?
+     */
+    static boolean venceRemoto(Registo local, Registo remoto) {
+        return comparar(remoto, local) > 0;
+    }
+
+    /**
+     * Ordem entre duas versões da mesma tarefa: ganha a escrita mais recente (atualizadaEm).
+     * Num empate (o mesmo milissegundo em dois dispositivos), ganha o apagamento e depois
+     * o conteúdo maior, para que o servidor e todos os dispositivos escolham a mesma versão.
+     */
+    static int comparar(Registo a, Registo b) {
+        int ordem = Long.compare(a.tarefa.getAtualizadaEm(), b.tarefa.getAtualizadaEm());
+        if (ordem != 0) {
+            return ordem;
+        }
+        ordem = Boolean.compare(a.apagada, b.apagada);
+        if (ordem != 0) {
+            return ordem;
+        }
+        String[] camposA = a.campos();
+        String[] camposB = b.campos();
+        // Sem o seq, que é do servidor e não da tarefa
+        for (int i = 1; i < camposA.length; i++) {
+            ordem = String.valueOf(camposA[i]).compareTo(String.valueOf(camposB[i]));
+            if (ordem != 0) {
+                return ordem;
+            }
+        }
+        return 0;
+    }
+
+    // --- Formato dos lotes ---
+
+    static void escreverLote(Writer saida, List<Registo> registos) throws IOException {
+        TarefaCsv.escreverRegisto(saida, COLUNAS);
+        for (Registo registo : registos) {
+            TarefaCsv.escreverRegisto(saida, registo.campos());
+        }
+    }
+
+    static List<Registo> lerLote(Reader entrada) throws IOException {
+        TarefaCsv.Leitor leitor = new TarefaCsv.Leitor(entrada);
+        String[] cabecalho = leitor.proximoRegisto();
+        if (cabecalho == null) {
+            return Collections.emptyList();
+        }
+        if (!Arrays.equals(COLUNAS, cabecalho)) {
+            throw new IOException("Lote com colunas inesperadas: " + Arrays.toString(cabecalho));
+        }
+        List<Registo> registos = new ArrayList<>();
+        String[] campos;
+        while ((campos = leitor.proximoRegisto()) != null) {
+            if (campos.length != COLUNAS.length) {
+                throw new IOException("Linha " + leitor.getLinha() + ": " + campos.length + " colunas");
+            }
+            registos.add(lerRegisto(campos, leitor.getLinha()));
+        }
+        return registos;
+    }
+
+    private static Registo lerRegisto(String[] campos, int linha) throws IOException {
+        try {
+            long seq = Long.parseLong(campos[0]);
+            long atualizadaEm = Long.parseLong(campos[2]);
+            if (Boolean.parseBoolean(campos[3])) {
+                return Registo.apagamento(campos[1], atualizadaEm).comSeq(seq);
+            }
+            // Uma descrição vazia é escrita como campo vazio, tal como null
+            String descricao = campos[5].isEmpty() ? null : campos[5];
+            Tarefa tarefa = new Tarefa(campos[4], descricao, Integer.parseInt(campos[6]),
+                    Long.parseLong(campos[7]), Boolean.parseBoolean(campos[8]));
+            tarefa.setEliminadaEm(Long.parseLong(campos[9]));
+            tarefa.setRecorrencia(Integer.parseInt(campos[10]));
+            tarefa.setSyncId(campos[1]);
+            tarefa.setAtualizadaEm(atualizadaEm);
+            return new Registo(seq, false, tarefa);
+        } catch (NumberFormatException e) {
+            throw new IOException("Linha " + linha + ": número inválido", e);
+        }
+    }
+
+    // --- HTTP ---
+
+    /**
+     * Faz o pedido, repetindo-o em caso de erro de rede ou do servidor (5xx, 429).
+     * Um erro do pedido (outros 4xx) não se resolve a repetir: é lançado logo.
+     */
+    private <T> T pedido(String metodo, String caminho, byte[] corpo, Resposta<T> resposta) throws IOException {
+        long espera = esperaInicialMs;
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return pedidoUnico(metodo, caminho, corpo, resposta);
+            } catch (ProtocolException e) {
+                throw e;
+            } catch (IOException e) {
+                if (tentativa >= tentativas) {
+                    throw e;
+                }
+            }
+            try {
+                Thread.sleep(espera);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Sincronização interrompida");
+            }
+            espera *= 2;
+        }
+    }
+
+    private <T> T pedidoUnico(String metodo, String caminho, byte[] corpo, Resposta<T> resposta)
+            throws IOException {
+        HttpURLConnection ligacao = (HttpURLConnection) new URL(servidor + caminho).openConnection();
+        try {
+            ligacao.setConnectTimeout(TIMEOUT_LIGACAO_MS);
+            ligacao.setReadTimeout(TIMEOUT_LEITURA_MS);
+            ligacao.setRequestMethod(metodo);
+            // Pedido explícito: a resposta é descomprimida aqui, no Android e na JVM
+            ligacao.setRequestProperty("Accept-Encoding", "gzip");
+            if (corpo != null) {
+                ligacao.setDoOutput(true);
+                ligacao.setFixedLengthStreamingMode(corpo.length);
+                ligacao.setRequestProperty("Content-Type", "text/csv; charset=utf-8");
+                ligacao.setRequestProperty("Content-Encoding", "gzip");
+                try (OutputStream saida = ligacao.getOutputStream()) {
+                    saida.write(corpo);
+                }
+            }
+
+            int codigo = ligacao.getResponseCode();
+            if (codigo >= 500 || codigo == 429) {
+                throw new IOException(metodo + " " + caminho + ": HTTP " + codigo);
+            }
+            if (codigo < 200 || codigo >= 300) {
+                throw new ProtocolException(metodo + " " + caminho + ": HTTP " + codigo);
+            }
+            try (InputStream entrada = ligacao.getInputStream()) {
+                boolean gzip = "gzip".equalsIgnoreCase(ligacao.getContentEncoding());
+                return resposta.ler(gzip ? new GZIPInputStream(entrada) : entrada);
+            }
+        } finally {
+            ligacao.disconnect();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.focozen.data;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TarefaCsv
+ * --------------------------------------------------
+ * Formato CSV da exportação/importação de tarefas (RFC 4180).
+ * Responsável por:
+ *  - Escrever campos com aspas apenas quando necessário
+ *  - Ler o ficheiro registo a registo, sem o carregar todo em memória
+ *
+ * Os campos com vírgulas, aspas ou quebras de linha vão entre aspas,
+ * por isso uma descrição com várias linhas ocupa um único registo.
+ * Não depende do Android (é testado na JVM).
+ */
+final class TarefaCsv {
+
+    // Cabeçalho escrito na exportação e esperado na importação (pela ordem das colunas).
+    // "recorrencia" (regra de repetição, ver Recorrencia) é opcional na importação.
+    static final String[] COLUNAS = {"titulo", "descricao", "prioridade", "dataVencimento", "concluida",
+            "recorrencia"};
+
+    private TarefaCsv() {
+    }
+
+    /**
+     * Escreve um registo completo, terminado em CRLF
+     */
+    static void escreverRegisto(Writer saida, String... campos) throws IOException {
+        for (int i = 0; i < campos.length; i++) {
+            if (i > 0) {
+                saida.write(',');
+            }
+            escreverCampo(saida, campos[i]);
+        }
+        saida.write("\r\n");
+    }
+
+    private static void escreverCampo(Writer saida, String campo) throws IOException {
+        if (campo == null) {
+            return;
+        }
+        boolean aspas = false;
+        for (int i = 0; i < campo.length() && !aspas; i++) {
+            char c = campo.charAt(i);
+            aspas = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!aspas) {
+            saida.write(campo);
+            return;
+        }
+        saida.write('"');
+        for (int i = 0; i < campo.length(); i++) {
+            char c = campo.charAt(i);
+            if (c == '"') {
+                saida.write('"');
+            }
+            saida.write(c);
+        }
+        saida.write('"');
+    }
+
+    /**
+     * Leitor incremental: cada chamada a proximoRegisto() lê apenas um registo.
+     * O Reader deve ter buffer (ex: BufferedReader).
+     */
+    static final class Leitor {
+        private final Reader entrada;
+        private final StringBuilder campo = new StringBuilder();
+        private final List<String> campos = new ArrayList<>();
+        // Número da linha onde começa o último registo lido (para mensagens de erro)
+        private int linha = 0;
+        private int linhaAtual = 1;
+        // Carácter lido a mais depois de um '\r' (ou -2 se não houver)
+        private int pendente = -2;
+
+        Leitor(Reader entrada) {
+            this.entrada = entrada;
+        }
+
+        int getLinha() {
+            return linha;
+        }
+
+        /**
+         * @return os campos do próximo registo, ou null no fim do ficheiro.
+         * @throws IOException se o ficheiro terminar dentro de um campo entre aspas.
+         */
+        String[] proximoRegisto() throws IOException {
+            campos.clear();
+            campo.setLength(0);
+            linha = linhaAtual;
+
+            int c = ler();
+            if (c == -1) {
+                return null;
+            }
+            boolean entreAspas = false;
+            boolean campoComAspas = false;
+            while (true) {
+                if (entreAspas) {
+                    if (c == -1) {
+                        throw new IOException("Linha " + linha + ": aspas por fechar");
+                    }
+                    if (c == '"') {
+                        int seguinte = ler();
+                        if (seguinte == '"') {
+                            campo.append('"');
+                        } else {
+                            entreAspas = false;
+                            c = seguinte;
+                            continue;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            linhaAtual++;
+                        }
+                        campo.append((char) c);
+                    }
+                } else if (c == '"' && campo.length() == 0 && !campoComAspas) {
+                    entreAspas = true;
+                    campoComAspas = true;
+                } else if (c == ',') {
+                    terminarCampo();
+                    campoComAspas = false;
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    if (c == '\r') {
+                        int seguinte = ler();
+                        if (seguinte != '\n') {
+                            pendente = seguinte;
+                        }
+                    }
+                    if (c != -1) {
+                        linhaAtual++;
+                    }
+                    terminarCampo();
+                    return campos.toArray(new String[0]);
+                } else {
+                    campo.append((char) c);
+                }
+                c = ler();
+            }
+        }
+
+        private void terminarCampo() {
+            campos.add(campo.toString());
+            campo.setLength(0);
+        }
+
+        private int ler() throws IOException {
+            if (pendente != -2) {
+                int c = pendente;
+                pendente = -2;
+                return c;
+            }
+            return entrada.read();
+        }
+    }
+}
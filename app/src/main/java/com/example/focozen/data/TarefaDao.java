@@ -1,19 +1,44 @@
 package com.example.focozen.data;
 
+import android.database.Cursor;
+import android.os.CancellationSignal;
+
 import androidx.lifecycle.LiveData;
+import androidx.paging.PagingSource;
 import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.RawQuery;
+import androidx.room.RoomWarnings;
+import androidx.room.Transaction;
 import androidx.room.Update;
+import androidx.sqlite.db.SupportSQLiteQuery;
 
+import com.example.focozen.model.Alteracao;
+import com.example.focozen.model.Estatistica;
+import com.example.focozen.model.EstatisticaPrioridade;
+import com.example.focozen.model.SubTarefa;
+import com.example.focozen.model.Tag;
 import com.example.focozen.model.Tarefa;
+import com.example.focozen.model.TarefaComSubtarefas;
+import com.example.focozen.model.TarefaEdicao;
+import com.example.focozen.model.TarefaPesquisa;
+import com.example.focozen.model.TarefaResumo;
+import com.example.focozen.model.TarefaTag;
 
 import java.util.List;
 
 /**
  * Data Access Object (DAO) para a entidade Tarefa.
  * Define os métodos para operações CRUD na base de dados.
+ *
+ * As consultas que devolvem TarefaResumo sem o progresso da checklist
+ * (só a lista e a pesquisa o mostram) suprimem o aviso CURSOR_MISMATCH.
+ * As escritas parciais recebem o momento da escrita (:agora), guardado em atualizadaEm
+ * para a sincronização; cada escrita em "tarefas" acrescenta um registo ao diário
+ * de alterações (triggers, na mesma transação).
  */
 @Dao
 
@@ -27,26 +52,330 @@ public interface TarefaDao {
     @Delete
     void delete(Tarefa tarefa);
 
+    // --- Escrita em lote (usadas pelo TarefaWriteBatcher dentro de uma única transação) ---
+
+    @Insert
+    List<Long> insertAll(List<Tarefa> tarefas);
+
+    @Update
+    void updateAll(List<Tarefa> tarefas);
+
+    @Delete
+    void deleteAll(List<Tarefa> tarefas);
+
+    // --- Escritas parciais (a lista só conhece o TarefaResumo, sem a descrição) ---
+
+    @Query("UPDATE tarefas SET concluida = :concluida, atualizadaEm = :agora WHERE id = :id")
+    void setConcluida(int id, boolean concluida, long agora);
+
+    @Query("DELETE FROM tarefas WHERE id = :id")
+    void deleteById(int id);
+
+    /**
+     * Avança uma tarefa que se repete para a ocorrência seguinte
+     */
+    @Query("UPDATE tarefas SET dataVencimento = :dataVencimento, atualizadaEm = :agora WHERE id = :id")
+    void setDataVencimento(int id, long dataVencimento, long agora);
+
+    /**
+     * Eliminação com anulação: a tarefa fica escondida (eliminadaEm > 0) até ser limpa.
+     * Com :eliminadaEm = 0, a tarefa volta a aparecer.
+     */
+    @Query("UPDATE tarefas SET eliminadaEm = :eliminadaEm, atualizadaEm = :agora WHERE id = :id")
+    void setEliminadaEm(int id, long eliminadaEm, long agora);
+
+    // --- Seleção múltipla: uma instrução por bloco de ids (ver TarefaWriteBatcher.TAMANHO_BLOCO) ---
+
+    /**
+     * Conclui as tarefas do bloco que não se repetem
+     * (as que se repetem avançam para a ocorrência seguinte, ver setDataVencimento).
+     */
+    @Query("UPDATE tarefas SET concluida = 1, atualizadaEm = :agora WHERE id IN (:ids) AND +recorrencia = 0")
+    void concluirNaoRecorrentes(List<Integer> ids, long agora);
+
+    /**
+     * Tarefas pendentes do bloco que se repetem (lidas pela chave primária)
+     */
+    @SuppressWarnings(RoomWarnings.CURSOR_MISMATCH)
+    @Query("SELECT id, titulo, prioridade, dataVencimento, concluida, recorrencia FROM tarefas "
+            + "WHERE id IN (:ids) AND +recorrencia > 0 AND concluida = 0")
+    List<TarefaResumo> getRecorrentes(List<Integer> ids);
+
+    @Query("UPDATE tarefas SET eliminadaEm = :eliminadaEm, atualizadaEm = :agora WHERE id IN (:ids)")
+    void setEliminadasEm(List<Integer> ids, long eliminadaEm, long agora);
+
+    /**
+     * Apaga definitivamente um lote de tarefas eliminadas antes de :ate.
+     * O lote é escolhido no índice (eliminadaEm, dataVencimento), sem percorrer a tabela.
+     * @return número de tarefas apagadas (menor que :limite quando não há mais).
+     */
+    @Query("DELETE FROM tarefas WHERE id IN "
+            + "(SELECT id FROM tarefas WHERE eliminadaEm > 0 AND eliminadaEm < :ate LIMIT :limite)")
+    int purgarEliminadas(long ate, int limite);
+
+    /**
+     * Grava apenas os campos editáveis (título, descrição, prioridade e data) e o atualizadaEm.
+     * Os restantes, como "concluida", mantêm o valor atual.
+     */
+    @Update(entity = Tarefa.class)
+    void updateEdicoes(List<TarefaEdicao> edicoes);
+
+    /**
+     * Tarefa completa (com a descrição)
+     */
+    @Query("SELECT * FROM tarefas WHERE id = :id")
+    Tarefa getById(int id);
+
+    /**
+     * Tarefa completa com a checklist e as etiquetas, lida só quando o ecrã de edição abre.
+     * As subtarefas e as etiquetas são lidas pelo Room em consultas seguintes
+     * (WHERE tarefaId IN), na mesma transação.
+     */
+    @Transaction
+    @Query("SELECT * FROM tarefas WHERE id = :id")
+    TarefaComSubtarefas getComSubtarefas(int id);
+
+    // --- Checklist (subtarefas): só a tabela subtarefas é escrita ---
+
+    @Insert
+    List<Long> insertSubtarefas(List<SubTarefa> subtarefas);
+
+    @Query("UPDATE subtarefas SET concluida = :concluida WHERE id = :id")
+    void setSubtarefaConcluida(int id, boolean concluida);
+
+    @Query("DELETE FROM subtarefas WHERE id = :id")
+    void deleteSubtarefa(int id);
+
+    // --- Etiquetas (os contadores de cada etiqueta são mantidos por triggers) ---
+
+    /**
+     * Todas as etiquetas, com os contadores, pela ordem do nome (índice único de nome)
+     */
+    @Query("SELECT * FROM tags ORDER BY nome")
+    List<Tag> getTags();
+
+    @Query("SELECT * FROM tags WHERE nome = :nome")
+    Tag getTagPorNome(String nome);
+
+    /**
+     * Cria uma etiqueta; se o nome já existir, não faz nada e devolve -1
+     */
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    long insertTag(Tag tag);
+
+    // Associar uma etiqueta que a tarefa já tem não faz nada
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    void insertTarefaTags(List<TarefaTag> associacoes);
+
+    @Query("DELETE FROM tarefas_tags WHERE tarefaId = :tarefaId AND tagId = :tagId")
+    void deleteTarefaTag(int tarefaId, int tagId);
+
+    // --- Sincronização (diário de alterações, ver TarefaSincronizacao) ---
+
+    /**
+     * Alterações por enviar, pela ordem em que foram feitas (percorre a chave primária seq)
+     */
+    @Query("SELECT * FROM alteracoes ORDER BY seq LIMIT :limite")
+    List<Alteracao> getAlteracoes(int limite);
+
+    /**
+     * Apaga as alterações confirmadas pelo servidor
+     */
+    @Query("DELETE FROM alteracoes WHERE seq <= :ate")
+    int apagarAlteracoesAte(long ate);
+
+    /**
+     * Apaga as alterações escritas depois de :depoisDe (as que vieram do servidor,
+     * para não lhe serem devolvidas)
+     */
+    @Query("DELETE FROM alteracoes WHERE seq > :depoisDe")
+    int apagarAlteracoesDepoisDe(long depoisDe);
+
+    /**
+     * Última alteração escrita (0 se não houver nenhuma por enviar)
+     */
+    @Query("SELECT IFNULL(MAX(seq), 0) FROM alteracoes")
+    long getUltimaAlteracao();
+
+    /**
+     * Deixa no diário só a última alteração de cada tarefa (o envio lê o estado atual da tarefa,
+     * por isso as anteriores não acrescentam nada)
+     */
+    @Query("DELETE FROM alteracoes WHERE seq NOT IN (SELECT MAX(seq) FROM alteracoes GROUP BY syncId)")
+    int compactarAlteracoes();
+
+    /**
+     * Esvazia o diário (sem servidor configurado, não há para onde enviar as alterações)
+     */
+    @Query("DELETE FROM alteracoes")
+    int apagarAlteracoes();
+
+    @Query(TarefaTriggers.SQL_ALTERACOES_TODAS)
+    void registarTodasAsAlteracoes();
+
+    /**
+     * Recomeça o diário com todas as tarefas por enviar (servidor novo, ver TarefaSincronizacao)
+     */
+    @Transaction
+    default void reiniciarAlteracoes() {
+        apagarAlteracoes();
+        registarTodasAsAlteracoes();
+    }
+
+    /**
+     * Tarefas (incluindo as eliminadas) com estes syncId, pelo índice único de syncId
+     */
+    @Query("SELECT * FROM tarefas WHERE syncId IN (:syncIds)")
+    List<Tarefa> getPorSyncId(List<String> syncIds);
+
+    /**
+     * Próximo lembrete: a primeira tarefa pendente depois de (data, id), pela ordem de vencimento.
+     * Percorre o índice (concluida, eliminadaEm, dataVencimento), que termina no id (rowid),
+     * por isso lê uma única linha seja qual for o número de tarefas.
+     */
+    @SuppressWarnings(RoomWarnings.CURSOR_MISMATCH)
+    @Query("SELECT id, titulo, prioridade, dataVencimento, concluida, recorrencia FROM tarefas "
+            + "WHERE concluida = 0 AND eliminadaEm = 0 AND (dataVencimento, id) > (:data, :id) "
+            + "ORDER BY dataVencimento, id LIMIT 1")
+    TarefaResumo getProximoLembrete(long data, int id);
+
+    /**
+     * Tarefas pendentes que vencem depois de (data, id) e até :ate, pela ordem de vencimento.
+     * Usada quando um lembrete dispara, para entregar numa só notificação
+     * todas as tarefas da mesma janela (no máximo :limite de cada vez).
+     */
+    @Query("SELECT * FROM tarefas "
+            + "WHERE concluida = 0 AND eliminadaEm = 0 AND (dataVencimento, id) > (:data, :id) "
+            + "AND dataVencimento <= :ate "
+            + "ORDER BY dataVencimento, id LIMIT :limite")
+    List<Tarefa> getLembretesDevidos(long data, int id, long ate, int limite);
+
+    /**
+     * Número de lembretes pendentes depois de (data, id) e até :ate.
+     * Contado só no índice (concluida, eliminadaEm, dataVencimento), sem ler as linhas.
+     */
+    @Query("SELECT COUNT(*) FROM tarefas "
+            + "WHERE concluida = 0 AND eliminadaEm = 0 AND (dataVencimento, id) > (:data, :id) "
+            + "AND dataVencimento <= :ate")
+    int contarLembretesDevidos(long data, int id, long ate);
+
     /**
-     * Obtém todas as tarefas, ordenadas por Prioridade (descendente) e Data de Vencimento (ascendente).
-     * O LiveData permite que a UI observe as mudanças na base de dados em tempo real.
+     * Último lembrete pendente até :ate (percorre o índice ao contrário e lê uma linha).
      */
-    @Query("SELECT * FROM tarefas ORDER BY prioridade DESC, dataVencimento ASC")
-    LiveData<List<Tarefa>> getAllTarefas();
+    @SuppressWarnings(RoomWarnings.CURSOR_MISMATCH)
+    @Query("SELECT id, titulo, prioridade, dataVencimento, concluida, recorrencia FROM tarefas "
+            + "WHERE concluida = 0 AND eliminadaEm = 0 AND dataVencimento <= :ate "
+            + "ORDER BY dataVencimento DESC, id DESC LIMIT 1")
+    TarefaResumo getUltimoLembreteAte(long ate);
 
-    // Query original (agora para ordenação por data)
-    @Query("SELECT * FROM tarefas ORDER BY dataVencimento ASC")
-    LiveData<List<Tarefa>> getAllTarefasByDate();
+    /**
+     * Tarefas pendentes com ocorrências que podem cair em [desde, ate), para a agenda:
+     *  - as que não se repetem e vencem na janela (intervalo no índice
+     *    (concluida, eliminadaEm, dataVencimento));
+     *  - as que se repetem e começam antes do fim da janela (índice de recorrencia:
+     *    são poucas, por isso o '+' evita percorrer todas as pendentes vencidas).
+     * As ocorrências são geradas depois pelo ExpansorRecorrencias, só para a janela.
+     */
+    @SuppressWarnings(RoomWarnings.CURSOR_MISMATCH)
+    @Query("SELECT id, titulo, prioridade, dataVencimento, concluida, recorrencia FROM tarefas "
+            + "WHERE concluida = 0 AND eliminadaEm = 0 AND +recorrencia = 0 "
+            + "AND dataVencimento >= :desde AND dataVencimento < :ate "
+            + "UNION ALL "
+            + "SELECT id, titulo, prioridade, dataVencimento, concluida, recorrencia FROM tarefas "
+            + "WHERE recorrencia > 0 AND +concluida = 0 AND +eliminadaEm = 0 AND +dataVencimento < :ate")
+    List<TarefaResumo> getAgenda(long desde, long ate);
+
+    /**
+     * Página de tarefas completas para exportação, pela ordem do id, a seguir a :depoisDe.
+     * Devolve um Cursor para que as linhas sejam escritas no ficheiro à medida que são lidas,
+     * sem criar objetos Tarefa; cada página é uma consulta curta pela chave primária
+     * (o '+' impede o SQLite de trocar a chave primária pelo índice de eliminadaEm).
+     */
+    @Query("SELECT * FROM tarefas WHERE id > :depoisDe AND +eliminadaEm = 0 ORDER BY id LIMIT :limite")
+    Cursor getPaginaExportacao(int depoisDe, int limite);
+
+    /**
+     * Consulta da lista de tarefas descrita por um TarefaQuerySpec (filtro + ordenação).
+     * Chamada em background pelo TarefaListaLiveData, que trata da observação da tabela.
+     */
+    @RawQuery
+    List<TarefaResumo> getTarefas(SupportSQLiteQuery query);
+
+    // --- Estatísticas (tabela mantida por triggers, ver TarefaMigrations) ---
+
+    /**
+     * Painel de estatísticas: uma linha por prioridade.
+     * As vencidas são contadas no índice (concluida, eliminadaEm, prioridade, dataVencimento),
+     * sem ler as linhas das tarefas.
+     */
+    @Query("SELECT prioridade, pendentes, concluidas, "
+            + "(SELECT COUNT(*) FROM tarefas WHERE concluida = 0 AND eliminadaEm = 0 "
+            + "AND tarefas.prioridade = estatisticas.prioridade AND dataVencimento < :agora) AS vencidas "
+            + "FROM estatisticas ORDER BY prioridade DESC")
+    LiveData<List<EstatisticaPrioridade>> getEstatisticas(long agora);
+
+    @Query("SELECT * FROM estatisticas ORDER BY prioridade")
+    List<Estatistica> getContadores();
+
+    @Query("DELETE FROM estatisticas")
+    void limparContadores();
+
+    @Query(TarefaTriggers.SQL_ESTATISTICAS_BASE)
+    void inserirContadoresBase();
 
-    // Nova Query: Ordenar por Prioridade (Prioridade 3, 2, 1)
-    @Query("SELECT * FROM tarefas ORDER BY prioridade DESC")
-    LiveData<List<Tarefa>> getAllTarefasByPriority();
+    @Query(TarefaTriggers.SQL_ESTATISTICAS_CONTAR)
+    void contarContadores();
 
-    // Nova Query: Filtrar por Pendentes (concluida = 0)
-    @Query("SELECT * FROM tarefas WHERE concluida = 0 ORDER BY dataVencimento ASC")
-    LiveData<List<Tarefa>> getPendingTarefas();
+    @Query(TarefaTriggers.SQL_TAGS_CONTAR)
+    void contarTags();
 
-    // Nova Query: Filtrar por Concluídas (concluida = 1)
-    @Query("SELECT * FROM tarefas WHERE concluida = 1 ORDER BY dataVencimento ASC")
-    LiveData<List<Tarefa>> getCompletedTarefas();
+    /**
+     * Volta a calcular os contadores de raiz, das prioridades e das etiquetas
+     * (verificação periódica, ver TarefaLimpeza)
+     */
+    @Transaction
+    default void reconstruirContadores() {
+        limparContadores();
+        inserirContadoresBase();
+        contarContadores();
+        contarTags();
+    }
+
+    /**
+     * Número total de tarefas (não eliminadas), contado no índice.
+     * Usado para decidir se a lista deve funcionar em modo paginado.
+     */
+    @Query("SELECT COUNT(*) FROM tarefas WHERE eliminadaEm = 0")
+    int contarTarefas();
+
+    /**
+     * A mesma contagem, repetida pelo Room a cada escrita em tarefas
+     * (a lista muda de modo quando uma importação ou a sincronização passa o limiar).
+     */
+    @Query("SELECT COUNT(*) FROM tarefas WHERE eliminadaEm = 0")
+    LiveData<Integer> observarContagem();
+
+    /**
+     * Versão paginada (PagingSource) da consulta da lista.
+     * O Room só lê da base de dados a janela de linhas visível (mais a pré-carga),
+     * em vez de materializar a tabela inteira em cada invalidação.
+     * Observa também as subtarefas, por causa do progresso de cada linha,
+     * e as etiquetas das tarefas, por causa do filtro por etiquetas.
+     */
+    @RawQuery(observedEntities = {Tarefa.class, SubTarefa.class, TarefaTag.class})
+    PagingSource<Integer, TarefaResumo> getTarefasPaged(SupportSQLiteQuery query);
+
+    /**
+     * Pesquisa de texto no título e na descrição (índice FTS4 tarefas_fts).
+     * O custo depende do número de resultados e não do tamanho da tabela.
+     * Os resultados trazem o matchinfo para serem ordenados por relevância
+     * (ver TarefaPesquisaFts); o signal permite cancelar uma pesquisa em curso.
+     * As tarefas eliminadas são filtradas depois do MATCH (o '+' mantém o FTS como ponto de partida).
+     */
+    @Query("SELECT tarefas.id, tarefas.titulo, tarefas.prioridade, tarefas.dataVencimento, tarefas.concluida, "
+            + "tarefas.recorrencia, " + TarefaQuerySpec.COLUNAS_PROGRESSO + ", "
+            + "matchinfo(tarefas_fts, 'pcx') AS matchInfo "
+            + "FROM tarefas_fts JOIN tarefas ON tarefas.id = tarefas_fts.rowid "
+            + "WHERE tarefas_fts MATCH :query AND +tarefas.eliminadaEm = 0")
+    List<TarefaPesquisa> search(String query, CancellationSignal signal);
 }
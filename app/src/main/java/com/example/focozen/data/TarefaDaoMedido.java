@@ -0,0 +1,533 @@
+package com.example.focozen.data;
+
+import android.database.Cursor;
+import android.os.CancellationSignal;
+
+import androidx.lifecycle.LiveData;
+import androidx.paging.PagingSource;
+import androidx.sqlite.db.SupportSQLiteQuery;
+
+import com.example.focozen.model.Alteracao;
+import com.example.focozen.model.Estatistica;
+import com.example.focozen.model.EstatisticaPrioridade;
+import com.example.focozen.model.SubTarefa;
+import com.example.focozen.model.Tag;
+import com.example.focozen.model.Tarefa;
+import com.example.focozen.model.TarefaComSubtarefas;
+import com.example.focozen.model.TarefaEdicao;
+import com.example.focozen.model.TarefaPesquisa;
+import com.example.focozen.model.TarefaResumo;
+import com.example.focozen.model.TarefaTag;
+
+import java.util.List;
+
+/**
+ * TarefaDaoMedido
+ * --------------------------------------------------
+ * TarefaDao que mede cada operação do DAO gerado pelo Room
+ * e a regista em MetricasBaseDados (latência e linhas).
+ * É o DAO devolvido por TarefaDatabase.tarefaDao(): todas as consultas
+ * e escritas da aplicação passam por aqui.
+ *
+ * Os métodos que devolvem LiveData ou PagingSource não são medidos
+ * (a consulta corre mais tarde, no Room); as recargas que provocam
+ * aparecem nas invalidações das tabelas.
+ * Pela mesma razão, o getPaginaExportacao também não: o SQLite só lê as linhas
+ * quando o TarefaTransferencia percorre o Cursor, ao mesmo tempo que escreve o ficheiro.
+ */
+final class TarefaDaoMedido implements TarefaDao {
+
+    /**
+     * Histograma de um método, obtido uma única vez
+     */
+    private final class Medida {
+        private final String nome;
+        private final HistogramaLatencia histograma;
+
+        Medida(String nome) {
+            this.nome = nome;
+            this.histograma = metricas.operacao(nome);
+        }
+
+        void registar(long inicio, int linhas) {
+            metricas.registar(nome, histograma, System.nanoTime() - inicio, linhas);
+        }
+    }
+
+    private final TarefaDao dao;
+    private final MetricasBaseDados metricas;
+
+    private final Medida insert;
+    private final Medida update;
+    private final Medida delete;
+    private final Medida insertAll;
+    private final Medida updateAll;
+    private final Medida deleteAll;
+    private final Medida setConcluida;
+    private final Medida deleteById;
+    private final Medida setDataVencimento;
+    private final Medida setEliminadaEm;
+    private final Medida concluirNaoRecorrentes;
+    private final Medida getRecorrentes;
+    private final Medida setEliminadasEm;
+    private final Medida purgarEliminadas;
+    private final Medida updateEdicoes;
+    private final Medida getById;
+    private final Medida getComSubtarefas;
+    private final Medida insertSubtarefas;
+    private final Medida setSubtarefaConcluida;
+    private final Medida deleteSubtarefa;
+    private final Medida getTags;
+    private final Medida getTagPorNome;
+    private final Medida insertTag;
+    private final Medida insertTarefaTags;
+    private final Medida deleteTarefaTag;
+    private final Medida getAlteracoes;
+    private final Medida apagarAlteracoesAte;
+    private final Medida apagarAlteracoesDepoisDe;
+    private final Medida compactarAlteracoes;
+    private final Medida reiniciarAlteracoes;
+    private final Medida getPorSyncId;
+    private final Medida getProximoLembrete;
+    private final Medida getLembretesDevidos;
+    private final Medida contarLembretesDevidos;
+    private final Medida getUltimoLembreteAte;
+    private final Medida getAgenda;
+    private final Medida getTarefas;
+    private final Medida getContadores;
+    private final Medida reconstruirContadores;
+    private final Medida contarTarefas;
+    private final Medida search;
+
+    TarefaDaoMedido(TarefaDao dao, MetricasBaseDados metricas) {
+        this.dao = dao;
+        this.metricas = metricas;
+        insert = new Medida("insert");
+        update = new Medida("update");
+        delete = new Medida("delete");
+        insertAll = new Medida("insertAll");
+        updateAll = new Medida("updateAll");
+        deleteAll = new Medida("deleteAll");
+        setConcluida = new Medida("setConcluida");
+        deleteById = new Medida("deleteById");
+        setDataVencimento = new Medida("setDataVencimento");
+        setEliminadaEm = new Medida("setEliminadaEm");
+        concluirNaoRecorrentes = new Medida("concluirNaoRecorrentes");
+        getRecorrentes = new Medida("getRecorrentes");
+        setEliminadasEm = new Medida("setEliminadasEm");
+        purgarEliminadas = new Medida("purgarEliminadas");
+        updateEdicoes = new Medida("updateEdicoes");
+        getById = new Medida("getById");
+        getComSubtarefas = new Medida("getComSubtarefas");
+        insertSubtarefas = new Medida("insertSubtarefas");
+        setSubtarefaConcluida = new Medida("setSubtarefaConcluida");
+        deleteSubtarefa = new Medida("deleteSubtarefa");
+        getTags = new Medida("getTags");
+        getTagPorNome = new Medida("getTagPorNome");
+        insertTag = new Medida("insertTag");
+        insertTarefaTags = new Medida("insertTarefaTags");
+        deleteTarefaTag = new Medida("deleteTarefaTag");
+        getAlteracoes = new Medida("getAlteracoes");
+        apagarAlteracoesAte = new Medida("apagarAlteracoesAte");
+        apagarAlteracoesDepoisDe = new Medida("apagarAlteracoesDepoisDe");
+        compactarAlteracoes = new Medida("compactarAlteracoes");
+        reiniciarAlteracoes = new Medida("reiniciarAlteracoes");
+        getPorSyncId = new Medida("getPorSyncId");
+        getProximoLembrete = new Medida("getProximoLembrete");
+        getLembretesDevidos = new Medida("getLembretesDevidos");
+        contarLembretesDevidos = new Medida("contarLembretesDevidos");
+        getUltimoLembreteAte = new Medida("getUltimoLembreteAte");
+        getAgenda = new Medida("getAgenda");
+        getTarefas = new Medida("getTarefas");
+        getContadores = new Medida("getContadores");
+        reconstruirContadores = new Medida("reconstruirContadores");
+        contarTarefas = new Medida("contarTarefas");
+        search = new Medida("search");
+    }
+
+    // --- Escritas ---
+
+    @Override
+    public void insert(Tarefa tarefa) {
+        long inicio = System.nanoTime();
+        dao.insert(tarefa);
+        insert.registar(inicio, 1);
+    }
+
+    @Override
+    public void update(Tarefa tarefa) {
+        long inicio = System.nanoTime();
+        dao.update(tarefa);
+        update.registar(inicio, 1);
+    }
+
+    @Override
+    public void delete(Tarefa tarefa) {
+        long inicio = System.nanoTime();
+        dao.delete(tarefa);
+        delete.registar(inicio, 1);
+    }
+
+    @Override
+    public List<Long> insertAll(List<Tarefa> tarefas) {
+        long inicio = System.nanoTime();
+        List<Long> ids = dao.insertAll(tarefas);
+        insertAll.registar(inicio, tarefas.size());
+        return ids;
+    }
+
+    @Override
+    public void updateAll(List<Tarefa> tarefas) {
+        long inicio = System.nanoTime();
+        dao.updateAll(tarefas);
+        updateAll.registar(inicio, tarefas.size());
+    }
+
+    @Override
+    public void deleteAll(List<Tarefa> tarefas) {
+        long inicio = System.nanoTime();
+        dao.deleteAll(tarefas);
+        deleteAll.registar(inicio, tarefas.size());
+    }
+
+    @Override
+    public void setConcluida(int id, boolean concluida, long agora) {
+        long inicio = System.nanoTime();
+        dao.setConcluida(id, concluida, agora);
+        setConcluida.registar(inicio, 1);
+    }
+
+    @Override
+    public void deleteById(int id) {
+        long inicio = System.nanoTime();
+        dao.deleteById(id);
+        deleteById.registar(inicio, 1);
+    }
+
+    @Override
+    public void setDataVencimento(int id, long dataVencimento, long agora) {
+        long inicio = System.nanoTime();
+        dao.setDataVencimento(id, dataVencimento, agora);
+        setDataVencimento.registar(inicio, 1);
+    }
+
+    @Override
+    public void setEliminadaEm(int id, long eliminadaEm, long agora) {
+        long inicio = System.nanoTime();
+        dao.setEliminadaEm(id, eliminadaEm, agora);
+        setEliminadaEm.registar(inicio, 1);
+    }
+
+    @Override
+    public void concluirNaoRecorrentes(List<Integer> ids, long agora) {
+        long inicio = System.nanoTime();
+        dao.concluirNaoRecorrentes(ids, agora);
+        concluirNaoRecorrentes.registar(inicio, ids.size());
+    }
+
+    @Override
+    public List<TarefaResumo> getRecorrentes(List<Integer> ids) {
+        long inicio = System.nanoTime();
+        List<TarefaResumo> tarefas = dao.getRecorrentes(ids);
+        getRecorrentes.registar(inicio, tarefas.size());
+        return tarefas;
+    }
+
+    @Override
+    public void setEliminadasEm(List<Integer> ids, long eliminadaEm, long agora) {
+        long inicio = System.nanoTime();
+        dao.setEliminadasEm(ids, eliminadaEm, agora);
+        setEliminadasEm.registar(inicio, ids.size());
+    }
+
+    @Override
+    public int purgarEliminadas(long ate, int limite) {
+        long inicio = System.nanoTime();
+        int apagadas = dao.purgarEliminadas(ate, limite);
+        purgarEliminadas.registar(inicio, apagadas);
+        return apagadas;
+    }
+
+    @Override
+    public void updateEdicoes(List<TarefaEdicao> edicoes) {
+        long inicio = System.nanoTime();
+        dao.updateEdicoes(edicoes);
+        updateEdicoes.registar(inicio, edicoes.size());
+    }
+
+    // --- Checklist ---
+
+    @Override
+    public List<Long> insertSubtarefas(List<SubTarefa> subtarefas) {
+        long inicio = System.nanoTime();
+        List<Long> ids = dao.insertSubtarefas(subtarefas);
+        insertSubtarefas.registar(inicio, subtarefas.size());
+        return ids;
+    }
+
+    @Override
+    public void setSubtarefaConcluida(int id, boolean concluida) {
+        long inicio = System.nanoTime();
+        dao.setSubtarefaConcluida(id, concluida);
+        setSubtarefaConcluida.registar(inicio, 1);
+    }
+
+    @Override
+    public void deleteSubtarefa(int id) {
+        long inicio = System.nanoTime();
+        dao.deleteSubtarefa(id);
+        deleteSubtarefa.registar(inicio, 1);
+    }
+
+    // --- Etiquetas ---
+
+    @Override
+    public List<Tag> getTags() {
+        long inicio = System.nanoTime();
+        List<Tag> tags = dao.getTags();
+        getTags.registar(inicio, tags.size());
+        return tags;
+    }
+
+    @Override
+    public Tag getTagPorNome(String nome) {
+        long inicio = System.nanoTime();
+        Tag tag = dao.getTagPorNome(nome);
+        getTagPorNome.registar(inicio, tag == null ? 0 : 1);
+        return tag;
+    }
+
+    @Override
+    public long insertTag(Tag tag) {
+        long inicio = System.nanoTime();
+        long id = dao.insertTag(tag);
+        insertTag.registar(inicio, id == -1 ? 0 : 1);
+        return id;
+    }
+
+    @Override
+    public void insertTarefaTags(List<TarefaTag> associacoes) {
+        long inicio = System.nanoTime();
+        dao.insertTarefaTags(associacoes);
+        insertTarefaTags.registar(inicio, associacoes.size());
+    }
+
+    @Override
+    public void deleteTarefaTag(int tarefaId, int tagId) {
+        long inicio = System.nanoTime();
+        dao.deleteTarefaTag(tarefaId, tagId);
+        deleteTarefaTag.registar(inicio, 1);
+    }
+
+    // --- Sincronização ---
+
+    @Override
+    public List<Alteracao> getAlteracoes(int limite) {
+        long inicio = System.nanoTime();
+        List<Alteracao> alteracoes = dao.getAlteracoes(limite);
+        getAlteracoes.registar(inicio, alteracoes.size());
+        return alteracoes;
+    }
+
+    @Override
+    public int apagarAlteracoesAte(long ate) {
+        long inicio = System.nanoTime();
+        int apagadas = dao.apagarAlteracoesAte(ate);
+        apagarAlteracoesAte.registar(inicio, apagadas);
+        return apagadas;
+    }
+
+    @Override
+    public int apagarAlteracoesDepoisDe(long depoisDe) {
+        long inicio = System.nanoTime();
+        int apagadas = dao.apagarAlteracoesDepoisDe(depoisDe);
+        apagarAlteracoesDepoisDe.registar(inicio, apagadas);
+        return apagadas;
+    }
+
+    // Uma linha lida pela chave primária (MAX de seq), sem medição
+    @Override
+    public long getUltimaAlteracao() {
+        return dao.getUltimaAlteracao();
+    }
+
+    @Override
+    public int compactarAlteracoes() {
+        long inicio = System.nanoTime();
+        int apagadas = dao.compactarAlteracoes();
+        compactarAlteracoes.registar(inicio, apagadas);
+        return apagadas;
+    }
+
+    @Override
+    public int apagarAlteracoes() {
+        return dao.apagarAlteracoes();
+    }
+
+    @Override
+    public void registarTodasAsAlteracoes() {
+        dao.registarTodasAsAlteracoes();
+    }
+
+    /**
+     * A transação do Room está no DAO gerado: é medida como uma só operação
+     */
+    @Override
+    public void reiniciarAlteracoes() {
+        long inicio = System.nanoTime();
+        dao.reiniciarAlteracoes();
+        reiniciarAlteracoes.registar(inicio, 0);
+    }
+
+    @Override
+    public List<Tarefa> getPorSyncId(List<String> syncIds) {
+        long inicio = System.nanoTime();
+        List<Tarefa> tarefas = dao.getPorSyncId(syncIds);
+        getPorSyncId.registar(inicio, tarefas.size());
+        return tarefas;
+    }
+
+    // --- Leituras ---
+
+    @Override
+    public Tarefa getById(int id) {
+        long inicio = System.nanoTime();
+        Tarefa tarefa = dao.getById(id);
+        getById.registar(inicio, tarefa == null ? 0 : 1);
+        return tarefa;
+    }
+
+    /**
+     * As linhas contadas são a tarefa, as suas subtarefas e as suas etiquetas
+     */
+    @Override
+    public TarefaComSubtarefas getComSubtarefas(int id) {
+        long inicio = System.nanoTime();
+        TarefaComSubtarefas tarefa = dao.getComSubtarefas(id);
+        getComSubtarefas.registar(inicio,
+                tarefa == null ? 0 : 1 + tarefa.subtarefas.size() + tarefa.tags.size());
+        return tarefa;
+    }
+
+    @Override
+    public TarefaResumo getProximoLembrete(long data, int id) {
+        long inicio = System.nanoTime();
+        TarefaResumo tarefa = dao.getProximoLembrete(data, id);
+        getProximoLembrete.registar(inicio, tarefa == null ? 0 : 1);
+        return tarefa;
+    }
+
+    @Override
+    public List<Tarefa> getLembretesDevidos(long data, int id, long ate, int limite) {
+        long inicio = System.nanoTime();
+        List<Tarefa> tarefas = dao.getLembretesDevidos(data, id, ate, limite);
+        getLembretesDevidos.registar(inicio, tarefas.size());
+        return tarefas;
+    }
+
+    @Override
+    public int contarLembretesDevidos(long data, int id, long ate) {
+        long inicio = System.nanoTime();
+        int total = dao.contarLembretesDevidos(data, id, ate);
+        contarLembretesDevidos.registar(inicio, 1);
+        return total;
+    }
+
+    @Override
+    public TarefaResumo getUltimoLembreteAte(long ate) {
+        long inicio = System.nanoTime();
+        TarefaResumo tarefa = dao.getUltimoLembreteAte(ate);
+        getUltimoLembreteAte.registar(inicio, tarefa == null ? 0 : 1);
+        return tarefa;
+    }
+
+    @Override
+    public List<TarefaResumo> getAgenda(long desde, long ate) {
+        long inicio = System.nanoTime();
+        List<TarefaResumo> tarefas = dao.getAgenda(desde, ate);
+        getAgenda.registar(inicio, tarefas.size());
+        return tarefas;
+    }
+
+    @Override
+    public Cursor getPaginaExportacao(int depoisDe, int limite) {
+        return dao.getPaginaExportacao(depoisDe, limite);
+    }
+
+    @Override
+    public List<TarefaResumo> getTarefas(SupportSQLiteQuery query) {
+        long inicio = System.nanoTime();
+        List<TarefaResumo> tarefas = dao.getTarefas(query);
+        getTarefas.registar(inicio, tarefas.size());
+        return tarefas;
+    }
+
+    @Override
+    public LiveData<List<EstatisticaPrioridade>> getEstatisticas(long agora) {
+        return dao.getEstatisticas(agora);
+    }
+
+    @Override
+    public List<Estatistica> getContadores() {
+        long inicio = System.nanoTime();
+        List<Estatistica> contadores = dao.getContadores();
+        getContadores.registar(inicio, contadores.size());
+        return contadores;
+    }
+
+    @Override
+    public void limparContadores() {
+        dao.limparContadores();
+    }
+
+    @Override
+    public void inserirContadoresBase() {
+        dao.inserirContadoresBase();
+    }
+
+    @Override
+    public void contarContadores() {
+        dao.contarContadores();
+    }
+
+    @Override
+    public void contarTags() {
+        dao.contarTags();
+    }
+
+    /**
+     * A transação do Room está no DAO gerado: é medida como uma só operação
+     */
+    @Override
+    public void reconstruirContadores() {
+        long inicio = System.nanoTime();
+        dao.reconstruirContadores();
+        reconstruirContadores.registar(inicio, 0);
+    }
+
+    @Override
+    public int contarTarefas() {
+        long inicio = System.nanoTime();
+        int total = dao.contarTarefas();
+        contarTarefas.registar(inicio, 1);
+        return total;
+    }
+
+    @Override
+    public LiveData<Integer> observarContagem() {
+        return dao.observarContagem();
+    }
+
+    @Override
+    public PagingSource<Integer, TarefaResumo> getTarefasPaged(SupportSQLiteQuery query) {
+        return dao.getTarefasPaged(query);
+    }
+
+    @Override
+    public List<TarefaPesquisa> search(String query, CancellationSignal signal) {
+        long inicio = System.nanoTime();
+        List<TarefaPesquisa> resultados = dao.search(query, signal);
+        search.registar(inicio, resultados.size());
+        return resultados;
+    }
+}
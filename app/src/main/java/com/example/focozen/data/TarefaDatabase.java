@@ -6,17 +6,45 @@ import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
 
+import com.example.focozen.model.Alteracao;
+import com.example.focozen.model.Estatistica;
+import com.example.focozen.model.SubTarefa;
+import com.example.focozen.model.Tag;
 import com.example.focozen.model.Tarefa;
+import com.example.focozen.model.TarefaFts;
+import com.example.focozen.model.TarefaTag;
 
 /**
  * Classe de configuração da base de dados Room.
  * Implementa o padrão Singleton.
+ * O DAO e as invalidações são medidos em MetricasBaseDados.
  */
-@Database(entities = {Tarefa.class}, version = 1, exportSchema = false)
+@Database(entities = {Tarefa.class, TarefaFts.class, Estatistica.class, SubTarefa.class,
+        Tag.class, TarefaTag.class, Alteracao.class}, version = TarefaDatabase.VERSAO, exportSchema = true)
 public abstract class TarefaDatabase extends RoomDatabase {
 
+    // Versão atual do esquema (ver TarefaMigrations)
+    public static final int VERSAO = 10;
+
     // O Room irá gerar a implementação desta interface
-    public abstract TarefaDao tarefaDao();
+    protected abstract TarefaDao tarefaDaoGerado();
+
+    // DAO gerado, com cada operação medida (ver MetricasBaseDados)
+    private volatile TarefaDao tarefaDaoMedido;
+
+    /**
+     * DAO usado por toda a aplicação: o do Room, com métricas de latência.
+     */
+    public TarefaDao tarefaDao() {
+        if (tarefaDaoMedido == null) {
+            synchronized (this) {
+                if (tarefaDaoMedido == null) {
+                    tarefaDaoMedido = new TarefaDaoMedido(tarefaDaoGerado(), MetricasBaseDados.getInstance());
+                }
+            }
+        }
+        return tarefaDaoMedido;
+    }
 
     // Singleton instance
     private static volatile TarefaDatabase INSTANCE;
@@ -35,8 +63,12 @@ public abstract class TarefaDatabase extends RoomDatabase {
                                     TarefaDatabase.class,
                                     "tarefa_database" // Nome do ficheiro da base de dados
                             )
-                            .fallbackToDestructiveMigration() // Opção para migração simples (apenas para desenvolvimento)
+                            .addMigrations(TarefaMigrations.ALL) // Migrações reais: os dados do utilizador são preservados
+                            .addCallback(TarefaMigrations.CRIACAO) // Triggers dos contadores numa instalação nova
                             .build();
+                    // Cada invalidação faz recarregar as listas que observam a tabela
+                    MetricasBaseDados.getInstance().observarInvalidacoes(INSTANCE, "tarefas", "estatisticas", "subtarefas",
+                            "tags", "tarefas_tags");
                 }
             }
         }
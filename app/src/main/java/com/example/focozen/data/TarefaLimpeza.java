@@ -0,0 +1,156 @@
+package com.example.focozen.data;
+
+import android.database.Cursor;
+import android.util.Log;
+
+import androidx.annotation.WorkerThread;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import com.example.focozen.model.Estatistica;
+import com.example.focozen.model.Tag;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TarefaLimpeza
+ * --------------------------------------------------
+ * Limpeza periódica da base de dados (corre no LimpezaWorker).
+ * Responsável por:
+ *  - Apagar definitivamente as tarefas eliminadas há mais do que o prazo de anulação
+ *  - Apagar em lotes pequenos, para nunca bloquear as escritas da UI por muito tempo
+ *  - Devolver ao sistema o espaço livre do ficheiro (incremental_vacuum)
+ *    quando as páginas livres passam o limiar
+ *  - Verificar os contadores das estatísticas e das etiquetas, reconstruindo-os a partir das tarefas
+ *  - Reduzir o diário de alterações da sincronização: só a última de cada tarefa
+ *    ou, sem servidor configurado, nenhuma
+ */
+public class TarefaLimpeza {
+
+    private static final String TAG = "TarefaLimpeza";
+
+    // Uma tarefa eliminada só é apagada depois deste prazo (a ação "Desfazer" nunca a encontra já apagada)
+    static final long PRAZO_ANULACAO_MS = TimeUnit.DAYS.toMillis(1);
+    // Tarefas apagadas por transação
+    static final int TAMANHO_LOTE = 500;
+    // Fração de páginas livres a partir da qual o ficheiro é compactado
+    static final double LIMIAR_PAGINAS_LIVRES = 0.25;
+
+    // Valor de PRAGMA auto_vacuum no modo incremental
+    private static final int AUTO_VACUUM_INCREMENTAL = 2;
+
+    // Singleton instance
+    private static volatile TarefaLimpeza INSTANCE;
+
+    private final TarefaDatabase database;
+    private final TarefaDao tarefaDao;
+
+    private TarefaLimpeza(TarefaDatabase database) {
+        this.database = database;
+        this.tarefaDao = database.tarefaDao();
+    }
+
+    /**
+     * Retorna a instância única da limpeza.
+     */
+    public static TarefaLimpeza getInstance(TarefaDatabase database) {
+        if (INSTANCE == null) {
+            synchronized (TarefaLimpeza.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new TarefaLimpeza(database);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Apaga as tarefas eliminadas, verifica as estatísticas, reduz o diário de alterações
+     * e, se necessário, compacta o ficheiro.
+     * @return número de tarefas apagadas.
+     */
+    @WorkerThread
+    public int limpar(TarefaSincronizacao sincronizacao) {
+        // 1. Apagar em lotes: cada DELETE é uma transação curta, e as escritas
+        //    da UI (TarefaWriteBatcher) podem entrar entre dois lotes
+        long ate = System.currentTimeMillis() - PRAZO_ANULACAO_MS;
+        int total = 0;
+        int apagadas;
+        do {
+            apagadas = tarefaDao.purgarEliminadas(ate, TAMANHO_LOTE);
+            total += apagadas;
+        } while (apagadas == TAMANHO_LOTE);
+        Log.d(TAG, total + " tarefas eliminadas apagadas");
+
+        // 2. Verificar as estatísticas (os triggers mantêm-nas; aqui confirma-se que não divergiram)
+        verificarEstatisticas();
+
+        // 3. O diário só cresce com as escritas: é reduzido aqui, não só quando o servidor confirma
+        reduzirDiario(sincronizacao);
+
+        // 4. Compactar o ficheiro só quando há espaço livre suficiente
+        compactar(database.getOpenHelper().getWritableDatabase());
+        return total;
+    }
+
+    /**
+     * Com servidor, deixa só a última alteração de cada tarefa (é enviado o estado atual).
+     * Sem servidor, esvazia o diário: TarefaSincronizacao.setServidor volta a preenchê-lo.
+     * O servidor é lido dentro da transação, para não apagar o que setServidor acabou de registar.
+     */
+    private void reduzirDiario(TarefaSincronizacao sincronizacao) {
+        int apagadas = database.runInTransaction(() -> sincronizacao.isConfigurada()
+                ? tarefaDao.compactarAlteracoes()
+                : tarefaDao.apagarAlteracoes());
+        Log.d(TAG, apagadas + " alterações retiradas do diário");
+    }
+
+    /**
+     * Reconstrói os contadores de raiz numa transação e regista se estavam errados
+     */
+    private void verificarEstatisticas() {
+        database.runInTransaction(() -> {
+            List<Estatistica> antes = tarefaDao.getContadores();
+            List<Tag> tagsAntes = tarefaDao.getTags();
+            tarefaDao.reconstruirContadores();
+            List<Estatistica> depois = tarefaDao.getContadores();
+            List<Tag> tagsDepois = tarefaDao.getTags();
+            if (!antes.equals(depois)) {
+                Log.w(TAG, "Estatísticas corrigidas: " + antes + " → " + depois);
+            }
+            if (!tagsAntes.equals(tagsDepois)) {
+                Log.w(TAG, "Contadores das etiquetas corrigidos: " + tagsAntes + " → " + tagsDepois);
+            }
+        });
+    }
+
+    private void compactar(SupportSQLiteDatabase db) {
+        long livres = lerLong(db, "PRAGMA freelist_count");
+        long paginas = lerLong(db, "PRAGMA page_count");
+        if (paginas == 0 || (double) livres / paginas < LIMIAR_PAGINAS_LIVRES) {
+            return;
+        }
+
+        if (lerLong(db, "PRAGMA auto_vacuum") != AUTO_VACUUM_INCREMENTAL) {
+            // Bases de dados antigas: o modo só muda com um VACUUM completo, feito uma única vez
+            // (fora de qualquer transação, por isso não pode ser feito numa migração do Room)
+            db.execSQL("PRAGMA auto_vacuum = INCREMENTAL");
+            db.execSQL("VACUUM");
+            Log.i(TAG, "Base de dados convertida para auto_vacuum incremental");
+        } else {
+            // O incremental_vacuum devolve uma linha por página libertada: o cursor tem de ser percorrido
+            try (Cursor cursor = db.query("PRAGMA incremental_vacuum")) {
+                while (cursor.moveToNext()) {
+                    // Cada passo liberta uma página
+                }
+            }
+        }
+        Log.i(TAG, "Compactação: " + livres + " de " + paginas + " páginas livres");
+    }
+
+    private static long lerLong(SupportSQLiteDatabase db, String pragma) {
+        try (Cursor cursor = db.query(pragma)) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0;
+        }
+    }
+}
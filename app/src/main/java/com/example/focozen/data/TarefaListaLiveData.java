@@ -0,0 +1,180 @@
+package com.example.focozen.data;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+import androidx.room.InvalidationTracker;
+import androidx.sqlite.db.SimpleSQLiteQuery;
+
+import com.example.focozen.model.TarefaResumo;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TarefaListaLiveData
+ * --------------------------------------------------
+ * LiveData única da lista de tarefas, controlada por um TarefaQuerySpec.
+ * Responsável por:
+ *  - Executar apenas a consulta ativa (filtro + ordenação)
+ *  - Registar um único observer no InvalidationTracker do Room
+ *    (tarefas e subtarefas, por causa do progresso de cada linha, e as etiquetas
+ *    das tarefas, por causa do filtro por etiquetas)
+ *  - Guardar em memória o último resultado das consultas usadas mais recentemente
+ *
+ * Cada resultado em cache fica marcado com a "geração" de invalidação em que foi lido.
+ * Ao trocar de filtro/ordenação, o resultado em cache é mostrado de imediato e
+ * só é relido da base de dados se a tabela tiver mudado desde então.
+ */
+class TarefaListaLiveData extends LiveData<List<TarefaResumo>> {
+
+    /**
+     * Resultado de uma consulta e a geração em que foi lido
+     */
+    private static final class Entrada {
+        final long geracao;
+        final List<TarefaResumo> tarefas;
+
+        Entrada(long geracao, List<TarefaResumo> tarefas) {
+            this.geracao = geracao;
+            this.tarefas = tarefas;
+        }
+    }
+
+    // Consultas guardadas em cache: uma por combinação de filtro e ordenação.
+    // As etiquetas também fazem parte da consulta, por isso as combinações já usadas
+    // saem da cache pela menos recente (cada entrada guarda uma lista inteira)
+    static final int TAMANHO_CACHE = TarefaQuerySpec.Filtro.values().length
+            * TarefaQuerySpec.Ordenacao.values().length;
+
+    // Singleton instance (um único observer por base de dados)
+    private static volatile TarefaListaLiveData INSTANCE;
+
+    private final TarefaDao tarefaDao;
+    // Thread única: os resultados são publicados pela ordem em que as consultas foram pedidas
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "focozen-lista"));
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // LruCache já é thread-safe (escrita na thread da lista, leitura na main thread)
+    private final LruCache<TarefaQuerySpec, Entrada> cache = new LruCache<>(TAMANHO_CACHE);
+    // Incrementada sempre que a tabela tarefas (ou subtarefas, ou tarefas_tags) é alterada
+    private final AtomicLong geracao = new AtomicLong();
+    // Geração em que cada consulta foi pedida pela última vez (evita ler duas vezes a mesma)
+    private final LruCache<TarefaQuerySpec, Long> pedidas = new LruCache<>(TAMANHO_CACHE);
+
+    private volatile TarefaQuerySpec spec = TarefaQuerySpec.PADRAO;
+    private volatile boolean ativa = false;
+
+    static TarefaListaLiveData getInstance(TarefaDatabase database) {
+        if (INSTANCE == null) {
+            synchronized (TarefaListaLiveData.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new TarefaListaLiveData(database);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    private TarefaListaLiveData(TarefaDatabase database) {
+        this.tarefaDao = database.tarefaDao();
+        // Um único observer para todas as consultas. Enquanto não há observadores na UI,
+        // as invalidações apenas marcam a cache como desatualizada (não correm consultas).
+        database.getInvalidationTracker().addObserver(new InvalidationTracker.Observer("tarefas", "subtarefas", "tarefas_tags") {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                geracao.incrementAndGet();
+                if (ativa) {
+                    carregar(spec);
+                }
+            }
+        });
+    }
+
+    TarefaQuerySpec getSpec() {
+        return spec;
+    }
+
+    /**
+     * Troca a consulta ativa
+     */
+    @MainThread
+    void setSpec(TarefaQuerySpec novaSpec) {
+        if (novaSpec.equals(spec)) {
+            return;
+        }
+        spec = novaSpec;
+
+        // 1. Mostrar de imediato o último resultado conhecido desta consulta
+        Entrada entrada = cache.get(novaSpec);
+        if (entrada != null) {
+            setValue(entrada.tarefas);
+        }
+
+        // 2. Só ir à base de dados se não houver cache ou se estiver desatualizada
+        if (ativa && !estaAtualizada(entrada)) {
+            carregar(novaSpec);
+        }
+    }
+
+    /**
+     * Lê uma consulta antes de haver observadores (no arranque do processo).
+     * Quando a UI começar a observar, o resultado já está em cache e não há nova leitura.
+     */
+    void preCarregar(TarefaQuerySpec alvo) {
+        if (!estaAtualizada(cache.get(alvo))) {
+            carregar(alvo);
+        }
+    }
+
+    @Override
+    protected void onActive() {
+        ativa = true;
+        if (!estaAtualizada(cache.get(spec))) {
+            carregar(spec);
+        }
+    }
+
+    @Override
+    protected void onInactive() {
+        ativa = false;
+    }
+
+    private boolean estaAtualizada(Entrada entrada) {
+        return entrada != null && entrada.geracao == geracao.get();
+    }
+
+    /**
+     * Lê uma consulta em background e publica o resultado (se ainda for a consulta ativa).
+     * Se a mesma consulta já estiver na fila para esta geração, não é pedida outra vez
+     * (ex: a UI começa a observar enquanto a pré-carga ainda está a correr).
+     */
+    private void carregar(TarefaQuerySpec alvo) {
+        long pedida = geracao.get();
+        Long anterior = pedidas.put(alvo, pedida);
+        if (anterior != null && anterior == pedida) {
+            return;
+        }
+        executor.execute(() -> {
+            // A geração é lida antes da consulta: se a tabela mudar entretanto,
+            // a entrada fica marcada como desatualizada e será relida
+            long geracaoLida = geracao.get();
+            List<TarefaResumo> tarefas = tarefaDao.getTarefas(new SimpleSQLiteQuery(alvo.toSql()));
+            cache.put(alvo, new Entrada(geracaoLida, tarefas));
+            // A verificação é feita na main thread, onde a consulta ativa é trocada
+            mainHandler.post(() -> {
+                if (alvo.equals(spec)) {
+                    setValue(tarefas);
+                }
+            });
+        });
+    }
+}
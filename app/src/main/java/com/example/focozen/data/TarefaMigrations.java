@@ -0,0 +1,217 @@
+package com.example.focozen.data;
+
+import androidx.annotation.NonNull;
+import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * Migrações do esquema da base de dados.
+ * Cada migração preserva os dados existentes do utilizador.
+ * Os esquemas exportados de cada versão estão em app/schemas.
+ */
+public final class TarefaMigrations {
+
+    private TarefaMigrations() {
+    }
+
+    /**
+     * Versão 1 → 2: índices para os filtros e ordenações da lista.
+     */
+    public static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_tarefas_concluida_dataVencimento` "
+                    + "ON `tarefas` (`concluida`, `dataVencimento`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_tarefas_prioridade_dataVencimento` "
+                    + "ON `tarefas` (`prioridade` DESC, `dataVencimento` ASC)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_tarefas_dataVencimento` "
+                    + "ON `tarefas` (`dataVencimento`)");
+        }
+    };
+
+    /**
+     * Versão 2 → 3: índice para filtro por estado com ordenação por prioridade.
+     */
+    public static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_tarefas_concluida_prioridade_dataVencimento` "
+                    + "ON `tarefas` (`concluida` ASC, `prioridade` DESC, `dataVencimento` ASC)");
+        }
+    };
+
+    /**
+     * Versão 3 → 4: índice de texto (FTS4) sobre título e descrição.
+     * A tabela e os triggers são iguais aos que o Room cria para TarefaFts;
+     * o 'rebuild' indexa as tarefas que já existiam.
+     */
+    public static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `tarefas_fts` "
+                    + "USING FTS4(`titulo` TEXT, `descricao` TEXT, tokenize=unicode61, content=`tarefas`)");
+            database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_tarefas_fts_BEFORE_UPDATE "
+                    + "BEFORE UPDATE ON `tarefas` BEGIN DELETE FROM `tarefas_fts` WHERE `docid`=OLD.`rowid`; END");
+            database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_tarefas_fts_BEFORE_DELETE "
+                    + "BEFORE DELETE ON `tarefas` BEGIN DELETE FROM `tarefas_fts` WHERE `docid`=OLD.`rowid`; END");
+            database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_tarefas_fts_AFTER_UPDATE "
+                    + "AFTER UPDATE ON `tarefas` BEGIN INSERT INTO `tarefas_fts`(`docid`, `titulo`, `descricao`) "
+                    + "VALUES (NEW.`rowid`, NEW.`titulo`, NEW.`descricao`); END");
+            database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_tarefas_fts_AFTER_INSERT "
+                    + "AFTER INSERT ON `tarefas` BEGIN INSERT INTO `tarefas_fts`(`docid`, `titulo`, `descricao`) "
+                    + "VALUES (NEW.`rowid`, NEW.`titulo`, NEW.`descricao`); END");
+            database.execSQL("INSERT INTO `tarefas_fts`(`tarefas_fts`) VALUES('rebuild')");
+        }
+    };
+
+    /**
+     * Versão 4 → 5: eliminação com anulação (coluna eliminadaEm).
+     * Os índices passam a incluir eliminadaEm, para que as consultas
+     * continuem a não percorrer a tabela ao excluir as tarefas eliminadas.
+     */
+    public static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("ALTER TABLE `tarefas` ADD COLUMN `eliminadaEm` INTEGER NOT NULL DEFAULT 0");
+            database.execSQL("DROP INDEX IF EXISTS `index_tarefas_concluida_dataVencimento`");
+            database.execSQL("DROP INDEX IF EXISTS `index_tarefas_prioridade_dataVencimento`");
+            database.execSQL("DROP INDEX IF EXISTS `index_tarefas_concluida_prioridade_dataVencimento`");
+            database.execSQL("DROP INDEX IF EXISTS `index_tarefas_dataVencimento`");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_tarefas_concluida_eliminadaEm_dataVencimento` "
+                    + "ON `tarefas` (`concluida`, `eliminadaEm`, `dataVencimento`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_tarefas_eliminadaEm_prioridade_dataVencimento` "
+                    + "ON `tarefas` (`eliminadaEm` ASC, `prioridade` DESC, `dataVencimento` ASC)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS "
+                    + "`index_tarefas_concluida_eliminadaEm_prioridade_dataVencimento` "
+                    + "ON `tarefas` (`concluida` ASC, `eliminadaEm` ASC, `prioridade` DESC, `dataVencimento` ASC)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_tarefas_eliminadaEm_dataVencimento` "
+                    + "ON `tarefas` (`eliminadaEm`, `dataVencimento`)");
+        }
+    };
+
+    /**
+     * Versão 5 → 6: tabela de estatísticas, preenchida a partir das tarefas existentes,
+     * e os triggers que a mantêm atualizada.
+     */
+    public static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `estatisticas` (`prioridade` INTEGER NOT NULL, "
+                    + "`pendentes` INTEGER NOT NULL, `concluidas` INTEGER NOT NULL, PRIMARY KEY(`prioridade`))");
+            database.execSQL(TarefaTriggers.SQL_ESTATISTICAS_BASE);
+            database.execSQL(TarefaTriggers.SQL_ESTATISTICAS_CONTAR);
+            for (String trigger : TarefaTriggers.TRIGGERS_ESTATISTICAS) {
+                database.execSQL(trigger);
+            }
+        }
+    };
+
+    /**
+     * Versão 6 → 7: tarefas que se repetem (coluna recorrencia, ver Recorrencia).
+     * As tarefas existentes ficam sem repetição (0).
+     */
+    public static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("ALTER TABLE `tarefas` ADD COLUMN `recorrencia` INTEGER NOT NULL DEFAULT 0");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_tarefas_recorrencia` "
+                    + "ON `tarefas` (`recorrencia`)");
+        }
+    };
+
+    /**
+     * Versão 7 → 8: checklist de cada tarefa (tabela subtarefas).
+     * A chave estrangeira apaga as subtarefas com a tarefa; o índice
+     * (tarefaId, concluida) serve a chave estrangeira e o progresso da lista.
+     */
+    public static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `subtarefas` ("
+                    + "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `tarefaId` INTEGER NOT NULL, "
+                    + "`titulo` TEXT, `concluida` INTEGER NOT NULL, "
+                    + "FOREIGN KEY(`tarefaId`) REFERENCES `tarefas`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_subtarefas_tarefaId_concluida` "
+                    + "ON `subtarefas` (`tarefaId`, `concluida`)");
+        }
+    };
+
+    /**
+     * Versão 8 → 9: etiquetas (tabelas tags e tarefas_tags) e os triggers dos seus contadores.
+     * A chave primária (tarefaId, tagId) e o índice (tagId, tarefaId) cobrem as duas direções
+     * da ligação; as tabelas começam vazias, por isso não há nada para contar.
+     */
+    public static final Migration MIGRATION_8_9 = new Migration(8, 9) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `tags` ("
+                    + "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `nome` TEXT NOT NULL, "
+                    + "`pendentes` INTEGER NOT NULL, `concluidas` INTEGER NOT NULL)");
+            database.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_tags_nome` ON `tags` (`nome`)");
+            database.execSQL("CREATE TABLE IF NOT EXISTS `tarefas_tags` ("
+                    + "`tarefaId` INTEGER NOT NULL, `tagId` INTEGER NOT NULL, PRIMARY KEY(`tarefaId`, `tagId`), "
+                    + "FOREIGN KEY(`tarefaId`) REFERENCES `tarefas`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE , "
+                    + "FOREIGN KEY(`tagId`) REFERENCES `tags`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_tarefas_tags_tagId_tarefaId` "
+                    + "ON `tarefas_tags` (`tagId`, `tarefaId`)");
+            for (String trigger : TarefaTriggers.TRIGGERS_TAGS) {
+                database.execSQL(trigger);
+            }
+        }
+    };
+
+    /**
+     * Versão 9 → 10: sincronização entre dispositivos.
+     *  - syncId: identificador global de cada tarefa (as existentes recebem um aleatório);
+     *  - atualizadaEm: versão da tarefa (as existentes ficam com 0, a mais antiga possível);
+     *  - alteracoes: diário de alterações por enviar, que começa com todas as tarefas
+     *    existentes (a primeira sincronização envia-as) e é mantido pelos triggers.
+     */
+    public static final Migration MIGRATION_9_10 = new Migration(9, 10) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("ALTER TABLE `tarefas` ADD COLUMN `syncId` TEXT");
+            database.execSQL("ALTER TABLE `tarefas` ADD COLUMN `atualizadaEm` INTEGER NOT NULL DEFAULT 0");
+            // randomblob é avaliado por linha: cada tarefa recebe um valor diferente
+            database.execSQL("UPDATE `tarefas` SET `syncId` = lower(hex(randomblob(16)))");
+            database.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_tarefas_syncId` ON `tarefas` (`syncId`)");
+            database.execSQL("CREATE TABLE IF NOT EXISTS `alteracoes` ("
+                    + "`seq` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `syncId` TEXT NOT NULL, "
+                    + "`atualizadaEm` INTEGER NOT NULL, `apagada` INTEGER NOT NULL)");
+            database.execSQL(TarefaTriggers.SQL_ALTERACOES_TODAS);
+            for (String trigger : TarefaTriggers.TRIGGERS_ALTERACOES) {
+                database.execSQL(trigger);
+            }
+        }
+    };
+
+    /**
+     * Criação de uma base de dados nova: o Room cria as tabelas das entidades,
+     * mas não os triggers dos contadores (estatísticas e etiquetas) e do diário de alterações
+     * nem as linhas iniciais.
+     */
+    public static final RoomDatabase.Callback CRIACAO = new RoomDatabase.Callback() {
+        @Override
+        public void onCreate(@NonNull SupportSQLiteDatabase database) {
+            for (String sql : TarefaTriggers.criacao()) {
+                database.execSQL(sql);
+            }
+        }
+    };
+
+    /**
+     * Todas as migrações, por ordem de versão.
+     */
+    public static final Migration[] ALL = {
+            MIGRATION_1_2,
+            MIGRATION_2_3,
+            MIGRATION_3_4,
+            MIGRATION_4_5,
+            MIGRATION_5_6,
+            MIGRATION_6_7,
+            MIGRATION_7_8,
+            MIGRATION_8_9,
+            MIGRATION_9_10
+    };
+}
@@ -0,0 +1,111 @@
+package com.example.focozen.data;
+
+import com.example.focozen.model.TarefaPesquisa;
+import com.example.focozen.model.TarefaResumo;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * TarefaPesquisaFts
+ * --------------------------------------------------
+ * Apoio à pesquisa de texto sobre a tabela tarefas_fts.
+ * Responsável por:
+ *  - Converter o texto escrito pelo utilizador numa expressão MATCH segura
+ *  - Ordenar os resultados por relevância a partir do matchinfo
+ */
+final class TarefaPesquisaFts {
+
+    // Peso de cada coluna do índice, pela ordem de TarefaFts (titulo, descricao)
+    private static final double[] PESOS_COLUNAS = {2.0, 1.0};
+
+    private TarefaPesquisaFts() {
+    }
+
+    /**
+     * Converte o texto da pesquisa numa expressão MATCH.
+     * Cada palavra é pesquisada como prefixo ("rel" encontra "relatório")
+     * e todas têm de aparecer. Os caracteres com significado no FTS são ignorados.
+     *
+     * @return a expressão, ou null se o texto não tiver nenhuma palavra.
+     */
+    static String construirMatch(String texto) {
+        StringBuilder match = new StringBuilder();
+        int inicio = -1;
+        for (int i = 0; i <= texto.length(); i++) {
+            boolean letra = i < texto.length() && Character.isLetterOrDigit(texto.charAt(i));
+            if (letra && inicio < 0) {
+                inicio = i;
+            } else if (!letra && inicio >= 0) {
+                if (match.length() > 0) {
+                    match.append(' ');
+                }
+                // Em minúsculas, para que AND/OR/NOT/NEAR nunca sejam lidos como operadores
+                match.append(texto.substring(inicio, i).toLowerCase(Locale.ROOT)).append('*');
+                inicio = -1;
+            }
+        }
+        return match.length() > 0 ? match.toString() : null;
+    }
+
+    /**
+     * Ordena os resultados por relevância (mais relevantes primeiro).
+     * Em caso de empate, a tarefa com vencimento mais próximo aparece primeiro.
+     */
+    static List<TarefaResumo> ordenar(List<TarefaPesquisa> resultados) {
+        int total = resultados.size();
+        double[] pontuacoes = new double[total];
+        Integer[] ordem = new Integer[total];
+        for (int i = 0; i < total; i++) {
+            pontuacoes[i] = pontuacao(resultados.get(i).matchInfo);
+            ordem[i] = i;
+        }
+        Arrays.sort(ordem, (a, b) -> {
+            int porRelevancia = Double.compare(pontuacoes[b], pontuacoes[a]);
+            if (porRelevancia != 0) {
+                return porRelevancia;
+            }
+            return Long.compare(resultados.get(a).tarefa.getDataVencimento(),
+                    resultados.get(b).tarefa.getDataVencimento());
+        });
+
+        List<TarefaResumo> ordenadas = new ArrayList<>(total);
+        for (Integer indice : ordem) {
+            ordenadas.add(resultados.get(indice).tarefa);
+        }
+        return Collections.unmodifiableList(ordenadas);
+    }
+
+    /**
+     * Pontuação de uma linha a partir do matchinfo 'pcx'
+     * (a função de ranking de exemplo da documentação do SQLite):
+     * para cada termo e coluna, ocorrências nesta linha / ocorrências em todas as linhas.
+     */
+    static double pontuacao(byte[] matchInfo) {
+        if (matchInfo == null || matchInfo.length < 8) {
+            return 0;
+        }
+        IntBuffer valores = ByteBuffer.wrap(matchInfo).order(ByteOrder.nativeOrder()).asIntBuffer();
+        int termos = valores.get(0);
+        int colunas = valores.get(1);
+        double pontuacao = 0;
+        for (int termo = 0; termo < termos; termo++) {
+            for (int coluna = 0; coluna < colunas; coluna++) {
+                int base = 2 + 3 * (termo * colunas + coluna);
+                int nestaLinha = valores.get(base);
+                int emTodas = valores.get(base + 1);
+                if (nestaLinha > 0 && emTodas > 0) {
+                    double peso = coluna < PESOS_COLUNAS.length ? PESOS_COLUNAS[coluna] : 1.0;
+                    pontuacao += peso * nestaLinha / emTodas;
+                }
+            }
+        }
+        return pontuacao;
+    }
+}
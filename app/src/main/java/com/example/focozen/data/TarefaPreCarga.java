@@ -0,0 +1,80 @@
+package com.example.focozen.data;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.sqlite.db.SimpleSQLiteQuery;
+
+import com.example.focozen.LembreteScheduler;
+import com.example.focozen.TempoArranque;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * TarefaPreCarga
+ * --------------------------------------------------
+ * Trabalho de base de dados feito no arranque do processo,
+ * em background, enquanto a MainActivity é criada.
+ * Responsável por:
+ *  - Abrir a base de dados (e correr as migrações) fora da main thread
+ *  - Contar as tarefas, para a MainActivity escolher o modo da lista sem nova consulta
+ *  - Ler antecipadamente o primeiro ecrã da consulta por omissão
+ *  - Só depois iniciar o agendador de lembretes (que não é urgente)
+ */
+public final class TarefaPreCarga {
+
+    private static final String TAG = "TarefaPreCarga";
+
+    // Contagem lida no arranque; consumida uma única vez pela primeira MainActivity
+    private static volatile CompletableFuture<Integer> contagem;
+
+    private TarefaPreCarga() {
+    }
+
+    /**
+     * Inicia a pré-carga (chamado no Application.onCreate).
+     */
+    public static void iniciar(Context context) {
+        Context appContext = context.getApplicationContext();
+        Executor executor = Executors.newSingleThreadExecutor(
+                runnable -> new Thread(runnable, "focozen-arranque"));
+        contagem = CompletableFuture.supplyAsync(() -> {
+            // 1. Abrir a base de dados (o Room só a abre na primeira consulta)
+            TarefaDatabase database = TarefaDatabase.getInstance(appContext);
+            database.getOpenHelper().getWritableDatabase();
+            TempoArranque.marcar("base de dados aberta");
+
+            // 2. Contar e pré-carregar o primeiro ecrã da consulta por omissão
+            int total = database.tarefaDao().contarTarefas();
+            if (total < TarefaRepository.LIMIAR_PAGINACAO) {
+                // Lista completa: o resultado fica na cache do TarefaListaLiveData
+                TarefaListaLiveData.getInstance(database).preCarregar(TarefaQuerySpec.PADRAO);
+            } else {
+                // Lista paginada: lê as linhas da primeira carga do Pager,
+                // para que as páginas da base de dados já estejam em memória
+                database.tarefaDao().getTarefas(new SimpleSQLiteQuery("SELECT * FROM ( "
+                        + TarefaQuerySpec.PADRAO.toSql() + " ) LIMIT " + TarefaRepository.CARGA_INICIAL));
+            }
+            TempoArranque.marcar("pré-carga concluída (" + total + " tarefas)");
+
+            // 3. Lembretes: depois do primeiro ecrã, para não competir com ele
+            LembreteScheduler.getInstance(appContext).iniciar();
+            return total;
+        }, executor);
+        contagem.exceptionally(erro -> {
+            Log.e(TAG, "Falha na pré-carga", erro);
+            return null;
+        });
+    }
+
+    /**
+     * Devolve a contagem lida no arranque (apenas na primeira chamada), ou null.
+     */
+    static CompletableFuture<Integer> consumirContagem() {
+        CompletableFuture<Integer> pendente = contagem;
+        contagem = null;
+        return pendente;
+    }
+}
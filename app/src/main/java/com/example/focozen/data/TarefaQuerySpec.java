@@ -0,0 +1,175 @@
+package com.example.focozen.data;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * TarefaQuerySpec
+ * --------------------------------------------------
+ * Descreve a consulta da lista de tarefas: um filtro, uma ordenação
+ * e, opcionalmente, as etiquetas que as tarefas têm de ter.
+ * É imutável e pode ser usada como chave de cache.
+ *
+ * Todas as combinações são respondidas por um índice da tabela tarefas.
+ * As etiquetas não mudam o índice percorrido: cada linha é confirmada pela
+ * chave primária (tarefaId, tagId) de tarefas_tags, por isso a ordenação continua
+ * a vir do índice (sem ordenar em memória) e uma página termina ao fim de
+ * TAMANHO_PAGINA linhas encontradas.
+ * Não depende do Android (o SQL gerado é reutilizado pelo módulo :benchmark).
+ */
+public final class TarefaQuerySpec {
+
+    public enum Filtro {
+        TODAS,
+        PENDENTES,
+        CONCLUIDAS
+    }
+
+    public enum Ordenacao {
+        DATA,
+        PRIORIDADE
+    }
+
+    /**
+     * Como combinar várias etiquetas: basta uma (OU) ou têm de estar todas (E)
+     */
+    public enum CombinacaoTags {
+        QUALQUER,
+        TODAS
+    }
+
+    /**
+     * Progresso da checklist de cada linha (ver TarefaResumo), contado no índice
+     * (tarefaId, concluida) das subtarefas sem ler as linhas.
+     * Partilhado com a pesquisa (TarefaDao.search).
+     */
+    static final String COLUNAS_PROGRESSO =
+            "(SELECT COUNT(*) FROM subtarefas WHERE subtarefas.tarefaId = tarefas.id) AS subtarefas, "
+            + "(SELECT COUNT(*) FROM subtarefas WHERE subtarefas.tarefaId = tarefas.id "
+            + "AND subtarefas.concluida = 1) AS subtarefasConcluidas";
+
+    // Consulta mostrada por omissão ao abrir a aplicação
+    public static final TarefaQuerySpec PADRAO = new TarefaQuerySpec(Filtro.TODAS, Ordenacao.DATA);
+
+    private final Filtro filtro;
+    private final Ordenacao ordenacao;
+    // Ids das etiquetas, sem repetidos e por ordem (vazia = sem filtro por etiquetas)
+    private final List<Integer> tags;
+    private final CombinacaoTags combinacaoTags;
+
+    public TarefaQuerySpec(Filtro filtro, Ordenacao ordenacao) {
+        this(filtro, ordenacao, Collections.emptyList(), CombinacaoTags.QUALQUER);
+    }
+
+    public TarefaQuerySpec(Filtro filtro, Ordenacao ordenacao,
+                           Collection<Integer> tags, CombinacaoTags combinacaoTags) {
+        this.filtro = filtro;
+        this.ordenacao = ordenacao;
+        this.tags = Collections.unmodifiableList(new ArrayList<>(new TreeSet<>(tags)));
+        this.combinacaoTags = combinacaoTags;
+    }
+
+    public Filtro getFiltro() {
+        return filtro;
+    }
+
+    public Ordenacao getOrdenacao() {
+        return ordenacao;
+    }
+
+    public List<Integer> getTags() {
+        return tags;
+    }
+
+    public CombinacaoTags getCombinacaoTags() {
+        return combinacaoTags;
+    }
+
+    public TarefaQuerySpec comFiltro(Filtro novoFiltro) {
+        return new TarefaQuerySpec(novoFiltro, ordenacao, tags, combinacaoTags);
+    }
+
+    public TarefaQuerySpec comOrdenacao(Ordenacao novaOrdenacao) {
+        return new TarefaQuerySpec(filtro, novaOrdenacao, tags, combinacaoTags);
+    }
+
+    public TarefaQuerySpec comTags(Collection<Integer> novasTags, CombinacaoTags novaCombinacao) {
+        return new TarefaQuerySpec(filtro, ordenacao, novasTags, novaCombinacao);
+    }
+
+    /**
+     * Gera o SQL da consulta
+     */
+    public String toSql() {
+        // Apenas as colunas mostradas na lista (ver TarefaResumo): a descrição fica de fora
+        // As tarefas eliminadas (à espera de anulação ou de limpeza) nunca aparecem
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, titulo, prioridade, dataVencimento, concluida, recorrencia, " + COLUNAS_PROGRESSO
+                        + " FROM tarefas WHERE eliminadaEm = 0");
+        switch (filtro) {
+            case PENDENTES:
+                sql.append(" AND concluida = 0");
+                break;
+            case CONCLUIDAS:
+                sql.append(" AND concluida = 1");
+                break;
+            case TODAS:
+            default:
+                break;
+        }
+        acrescentarTags(sql);
+        if (ordenacao == Ordenacao.PRIORIDADE) {
+            sql.append(" ORDER BY prioridade DESC, dataVencimento ASC");
+        } else {
+            sql.append(" ORDER BY dataVencimento ASC");
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Filtro por etiquetas: um EXISTS por etiqueta (TODAS) ou um só com IN (QUALQUER).
+     * Cada EXISTS é uma procura na chave primária (tarefaId, tagId), sem ler a tabela;
+     * os ids são inteiros, por isso entram diretamente no SQL.
+     */
+    private void acrescentarTags(StringBuilder sql) {
+        if (tags.isEmpty()) {
+            return;
+        }
+        String existe = " AND EXISTS (SELECT 1 FROM tarefas_tags WHERE tarefas_tags.tarefaId = tarefas.id"
+                + " AND tarefas_tags.tagId";
+        if (combinacaoTags == CombinacaoTags.TODAS || tags.size() == 1) {
+            for (int tag : tags) {
+                sql.append(existe).append(" = ").append(tag).append(')');
+            }
+        } else {
+            sql.append(existe).append(" IN (");
+            for (int i = 0; i < tags.size(); i++) {
+                sql.append(i == 0 ? "" : ", ").append(tags.get(i));
+            }
+            sql.append("))");
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TarefaQuerySpec)) return false;
+        TarefaQuerySpec outra = (TarefaQuerySpec) o;
+        return filtro == outra.filtro && ordenacao == outra.ordenacao
+                && tags.equals(outra.tags) && combinacaoTags == outra.combinacaoTags;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 31 * filtro.hashCode() + ordenacao.hashCode();
+        return 31 * (31 * hash + tags.hashCode()) + combinacaoTags.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return tags.isEmpty() ? filtro + "/" + ordenacao : filtro + "/" + ordenacao + "/" + combinacaoTags + tags;
+    }
+}
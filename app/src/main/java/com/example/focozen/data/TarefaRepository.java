@@ -1,113 +1,487 @@
 package com.example.focozen.data;
 
 import android.app.Application;
-import android.os.AsyncTask;
+import android.os.CancellationSignal;
+import android.util.LruCache;
 
 import androidx.lifecycle.LiveData;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
+import androidx.sqlite.db.SimpleSQLiteQuery;
 
+import com.example.focozen.LembreteScheduler;
+import com.example.focozen.model.EstatisticaPrioridade;
+import com.example.focozen.model.Recorrencia;
+import com.example.focozen.model.SubTarefa;
+import com.example.focozen.model.Tag;
 import com.example.focozen.model.Tarefa;
+import com.example.focozen.model.TarefaComSubtarefas;
+import com.example.focozen.model.TarefaEdicao;
+import com.example.focozen.model.TarefaOcorrencia;
+import com.example.focozen.model.TarefaResumo;
+import com.example.focozen.model.TarefaTag;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Repositório que abstrai o acesso à base de dados.
  * Executa operações de base de dados em background.
+ * As escritas passam pelo TarefaWriteBatcher, que as agrupa em transações.
+ * Existe uma única instância por processo, partilhada pelas Activities e pelos ViewModels.
  */
-public class TarefaRepository {
+public class TarefaRepository implements TarefaSincronizacao.Escritas {
+
+    // Número de tarefas a partir do qual a lista passa a ser paginada
+    public static final int LIMIAR_PAGINACAO = 1000;
+
+    // Tamanho de cada página lida da base de dados no modo paginado
+    private static final int TAMANHO_PAGINA = 50;
+    // Linhas lidas na primeira carga do Pager (o valor por omissão do PagingConfig)
+    static final int CARGA_INICIAL = TAMANHO_PAGINA * 3;
+
+    // Número de tarefas completas (com descrição e checklist) mantidas em memória para o ecrã de edição
+    private static final int TAMANHO_CACHE = 32;
+
+    // Partilhada por todas as instâncias do repositório (o LruCache já é thread-safe)
+    private static final LruCache<Integer, TarefaComSubtarefas> cacheTarefas = new LruCache<>(TAMANHO_CACHE);
+    // Incrementado em cada escrita: uma leitura iniciada antes de uma escrita não entra na cache
+    private static final AtomicLong versaoEscritas = new AtomicLong();
 
     private TarefaDao tarefaDao;
-    private LiveData<List<Tarefa>> todasTarefas;
-    private LiveData<List<Tarefa>> allTarefasByDate;
-    private LiveData<List<Tarefa>> allTarefasByPriority;
-    private LiveData<List<Tarefa>> pendingTarefas;
-    private LiveData<List<Tarefa>> completedTarefas;
+    private Executor queryExecutor;
+    private TarefaWriteBatcher writeBatcher;
+    private LembreteScheduler lembretes;
+    private TarefaTransferencia transferencia;
+    // Lista única, controlada pela consulta ativa (filtro + ordenação)
+    private TarefaListaLiveData tarefas;
 
-    public TarefaRepository(Application application) {
+    // Singleton instance
+    private static volatile TarefaRepository INSTANCE;
+
+    /**
+     * Retorna a instância única do repositório.
+     */
+    public static TarefaRepository getInstance(Application application) {
+        if (INSTANCE == null) {
+            synchronized (TarefaRepository.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new TarefaRepository(application);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    private TarefaRepository(Application application) {
         TarefaDatabase database = TarefaDatabase.getInstance(application);
         tarefaDao = database.tarefaDao();
-        // Inicializa o LiveData com todas as tarefas ordenadas
-        todasTarefas = tarefaDao.getAllTarefas();
-        // Inicializar os novos LiveData
-        allTarefasByDate = tarefaDao.getAllTarefasByDate();
-        allTarefasByPriority = tarefaDao.getAllTarefasByPriority();
-        pendingTarefas = tarefaDao.getPendingTarefas();
-        completedTarefas = tarefaDao.getCompletedTarefas();
+        queryExecutor = database.getQueryExecutor();
+        writeBatcher = TarefaWriteBatcher.getInstance(database);
+        transferencia = TarefaTransferencia.getInstance(database);
+        // Nenhuma consulta corre até a UI observar a lista
+        tarefas = TarefaListaLiveData.getInstance(database);
+        // Só o próximo lembrete fica armado; cada escrita recalcula apenas a tarefa afetada
+        // (o agendador é iniciado no arranque do processo, pela TarefaPreCarga)
+        lembretes = LembreteScheduler.getInstance(application);
     }
 
     // --- Métodos para a UI chamar ---
 
-    public void insert(Tarefa tarefa) {
-        new InsertTarefaAsyncTask(tarefaDao).execute(tarefa);
+    /**
+     * Insere uma tarefa.
+     * @return future concluído com o id gerado, depois do commit.
+     */
+    public CompletableFuture<Long> insert(Tarefa tarefa) {
+        CompletableFuture<Long> insercao = writeBatcher.submeter(TarefaWriteBatcher.INSERIR, tarefa);
+        insercao.thenAccept(id -> lembretes.tarefaAlterada(id.intValue()));
+        return insercao;
     }
 
-    public void update(Tarefa tarefa) {
-        new UpdateTarefaAsyncTask(tarefaDao).execute(tarefa);
+    /**
+     * Grava as alterações feitas no ecrã de edição.
+     * Só os campos editáveis são escritos: o estado "concluida" é mantido.
+     * @return future concluído depois do commit.
+     */
+    public CompletableFuture<Void> update(TarefaEdicao edicao) {
+        return registarEscrita(edicao.id,
+                writeBatcher.submeter(TarefaWriteBatcher.ATUALIZAR_EDICAO, edicao));
     }
 
-    public void delete(Tarefa tarefa) {
-        new DeleteTarefaAsyncTask(tarefaDao).execute(tarefa);
+    /**
+     * Marca uma tarefa da lista como concluída (ou não), sem reescrever os restantes campos.
+     * Uma tarefa que se repete não fica concluída: passa para a ocorrência seguinte.
+     */
+    public CompletableFuture<Void> setConcluida(TarefaResumo tarefa, boolean concluida) {
+        if (concluida && Recorrencia.isRecorrente(tarefa.getRecorrencia())) {
+            long proxima = Recorrencia.proxima(tarefa.getDataVencimento(), tarefa.getRecorrencia(),
+                    ZoneId.systemDefault());
+            TarefaResumo avancada = new TarefaResumo(tarefa.getId(), tarefa.getTitulo(),
+                    tarefa.getPrioridade(), proxima, false, tarefa.getRecorrencia());
+            return registarEscrita(tarefa.getId(),
+                    writeBatcher.submeter(TarefaWriteBatcher.AVANCAR_RECORRENCIA, avancada));
+        }
+        TarefaResumo atualizada = new TarefaResumo(tarefa.getId(), tarefa.getTitulo(),
+                tarefa.getPrioridade(), tarefa.getDataVencimento(), concluida, tarefa.getRecorrencia());
+        return registarEscrita(tarefa.getId(),
+                writeBatcher.submeter(TarefaWriteBatcher.ATUALIZAR_CONCLUIDA, atualizada));
     }
 
-    public LiveData<List<Tarefa>> getAllTarefas() {
-        return todasTarefas;
+    /**
+     * Elimina uma tarefa da lista pelo id.
+     * A tarefa deixa de aparecer de imediato, mas só é apagada pelo TarefaLimpeza
+     * depois do prazo de anulação (ver desfazerEliminacao).
+     */
+    public CompletableFuture<Void> delete(TarefaResumo tarefa) {
+        return registarEscrita(tarefa.getId(),
+                writeBatcher.submeter(TarefaWriteBatcher.ELIMINAR_TEMPORARIAMENTE, tarefa));
     }
 
-    public LiveData<List<Tarefa>> getAllTarefasByDate() {
-        return allTarefasByDate;
+    /**
+     * Anula a eliminação de uma tarefa da lista (ação "Desfazer").
+     */
+    public CompletableFuture<Void> desfazerEliminacao(TarefaResumo tarefa) {
+        return registarEscrita(tarefa.getId(),
+                writeBatcher.submeter(TarefaWriteBatcher.REPOR_ELIMINADA, tarefa));
     }
 
-    public LiveData<List<Tarefa>> getAllTarefasByPriority() {
-        return allTarefasByPriority;
+    // --- Seleção múltipla: toda a seleção é escrita numa única transação ---
+
+    /**
+     * Marca várias tarefas como concluídas.
+     * @return future concluído depois do commit.
+     */
+    public CompletableFuture<Void> concluir(Collection<Integer> ids) {
+        List<Integer> selecao = new ArrayList<>(ids);
+        return registarEscritas(selecao,
+                writeBatcher.submeter(TarefaWriteBatcher.CONCLUIR_VARIAS, selecao));
     }
 
-    public LiveData<List<Tarefa>> getPendingTarefas() {
-        return pendingTarefas;
+    /**
+     * Elimina várias tarefas (com anulação, como delete(TarefaResumo)).
+     */
+    public CompletableFuture<Void> delete(Collection<Integer> ids) {
+        List<Integer> selecao = new ArrayList<>(ids);
+        return registarEscritas(selecao,
+                writeBatcher.submeter(TarefaWriteBatcher.ELIMINAR_VARIAS_TEMPORARIAMENTE, selecao));
     }
 
-    public LiveData<List<Tarefa>> getCompletedTarefas() {
-        return completedTarefas;
+    /**
+     * Anula a eliminação de várias tarefas (ação "Desfazer" da seleção múltipla).
+     */
+    public CompletableFuture<Void> desfazerEliminacao(Collection<Integer> ids) {
+        List<Integer> selecao = new ArrayList<>(ids);
+        return registarEscritas(selecao,
+                writeBatcher.submeter(TarefaWriteBatcher.REPOR_VARIAS, selecao));
     }
-    // --- AsyncTasks para operações em background ---
 
-    private static class InsertTarefaAsyncTask extends AsyncTask<Tarefa, Void, Void> {
-        private TarefaDao asyncTarefaDao;
+    // --- Checklist: cada escrita só afeta a tarefa a que a subtarefa pertence ---
 
-        private InsertTarefaAsyncTask(TarefaDao dao) {
-            asyncTarefaDao = dao;
-        }
+    /**
+     * Acrescenta uma subtarefa à checklist de uma tarefa.
+     * @return future concluído com o id gerado, depois do commit.
+     */
+    public CompletableFuture<Long> insert(SubTarefa subtarefa) {
+        return registarEscritaSubtarefa(subtarefa.getTarefaId(),
+                writeBatcher.submeter(TarefaWriteBatcher.INSERIR_SUBTAREFA, subtarefa));
+    }
 
-        @Override
-        protected Void doInBackground(Tarefa... tarefas) {
-            asyncTarefaDao.insert(tarefas[0]);
-            return null;
-        }
+    /**
+     * Marca uma subtarefa como concluída (ou não).
+     */
+    public CompletableFuture<Void> setConcluida(SubTarefa subtarefa, boolean concluida) {
+        SubTarefa atualizada = new SubTarefa(subtarefa.getTarefaId(), subtarefa.getTitulo(), concluida);
+        atualizada.setId(subtarefa.getId());
+        return registarEscritaSubtarefa(subtarefa.getTarefaId(),
+                writeBatcher.submeter(TarefaWriteBatcher.ATUALIZAR_SUBTAREFA_CONCLUIDA, atualizada));
     }
 
-    private static class UpdateTarefaAsyncTask extends AsyncTask<Tarefa, Void, Void> {
-        private TarefaDao asyncTarefaDao;
+    /**
+     * Elimina uma subtarefa (sem anulação: não há lixo para a checklist).
+     */
+    public CompletableFuture<Void> delete(SubTarefa subtarefa) {
+        return registarEscritaSubtarefa(subtarefa.getTarefaId(),
+                writeBatcher.submeter(TarefaWriteBatcher.ELIMINAR_SUBTAREFA, subtarefa));
+    }
+
+    // --- Etiquetas: como a checklist, cada associação só afeta a tarefa a que pertence ---
+
+    /**
+     * Todas as etiquetas, por ordem do nome, com o número de tarefas pendentes
+     * e concluídas de cada uma (mantido pelos triggers, sem contar as tarefas).
+     */
+    public CompletableFuture<List<Tag>> getTags() {
+        return CompletableFuture.supplyAsync(tarefaDao::getTags, queryExecutor);
+    }
 
-        private UpdateTarefaAsyncTask(TarefaDao dao) {
-            asyncTarefaDao = dao;
+    /**
+     * Associa uma etiqueta a uma tarefa, criando-a se ainda não existir uma com este nome.
+     * @return future concluído com a etiqueta (com o id), depois do commit.
+     */
+    public CompletableFuture<Tag> associarTag(int tarefaId, String nome) {
+        Tag tag = new Tag(nome);
+        return writeBatcher.submeter(TarefaWriteBatcher.INSERIR_TAG, tag)
+                .thenCompose(id -> {
+                    tag.setId(id.intValue());
+                    return registarEscritaSubtarefa(tarefaId,
+                            writeBatcher.submeter(TarefaWriteBatcher.ASSOCIAR_TAG, new TarefaTag(tarefaId, tag.getId())));
+                })
+                .thenApply(associada -> tag);
+    }
+
+    /**
+     * Retira uma etiqueta de uma tarefa (a etiqueta continua a existir).
+     */
+    public CompletableFuture<Void> retirarTag(int tarefaId, Tag tag) {
+        return registarEscritaSubtarefa(tarefaId,
+                writeBatcher.submeter(TarefaWriteBatcher.RETIRAR_TAG, new TarefaTag(tarefaId, tag.getId())));
+    }
+
+    /**
+     * Lê uma tarefa completa, a sua checklist e as suas etiquetas pelo id (usado pelo ecrã de edição).
+     * Se a tarefa estiver na cache, o future já vem concluído.
+     * @return future com a tarefa, ou com null se já não existir.
+     */
+    public CompletableFuture<TarefaComSubtarefas> getTarefaComSubtarefas(int id) {
+        TarefaComSubtarefas emCache = cacheTarefas.get(id);
+        if (emCache != null) {
+            return CompletableFuture.completedFuture(emCache);
         }
+        return CompletableFuture.supplyAsync(() -> {
+            long versao = versaoEscritas.get();
+            TarefaComSubtarefas tarefa = tarefaDao.getComSubtarefas(id);
+            if (tarefa != null) {
+                // O Room devolve-as pela ordem do índice (pendentes primeiro): a checklist
+                // é mostrada pela ordem em que os itens foram criados
+                tarefa.subtarefas.sort(Comparator.comparingInt(SubTarefa::getId));
+                tarefa.tags.sort(Comparator.comparing(Tag::getNome));
+            }
+            // Se houve escritas durante a leitura, o resultado pode já estar desatualizado
+            if (tarefa != null && versao == versaoEscritas.get()) {
+                cacheTarefas.put(id, tarefa);
+            }
+            return tarefa;
+        }, queryExecutor);
+    }
+
+    /**
+     * Ocorrências das tarefas pendentes em [desde, ate), por ordem de data (ecrã da agenda).
+     * Só as tarefas que podem ter ocorrências na janela são lidas; as repetições
+     * são geradas em memória pelo ExpansorRecorrencias, sem serem guardadas.
+     * @param limite número máximo de ocorrências devolvidas
+     */
+    public CompletableFuture<List<TarefaOcorrencia>> getOcorrencias(long desde, long ate, int limite) {
+        return CompletableFuture.supplyAsync(() -> new ExpansorRecorrencias(ZoneId.systemDefault())
+                .expandir(tarefaDao.getAgenda(desde, ate), desde, ate, limite), queryExecutor);
+    }
 
-        @Override
-        protected Void doInBackground(Tarefa... tarefas) {
-            asyncTarefaDao.update(tarefas[0]);
-            return null;
+    /**
+     * Pesquisa tarefas pelo título e pela descrição, por ordem de relevância.
+     * Cancelar o future interrompe a consulta no SQLite, se ainda estiver a correr.
+     */
+    public CompletableFuture<List<TarefaResumo>> pesquisar(String texto) {
+        String match = TarefaPesquisaFts.construirMatch(texto);
+        if (match == null) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
         }
+        CancellationSignal sinal = new CancellationSignal();
+        CompletableFuture<List<TarefaResumo>> pesquisa = CompletableFuture.supplyAsync(
+                () -> TarefaPesquisaFts.ordenar(tarefaDao.search(match, sinal)), queryExecutor);
+        pesquisa.whenComplete((resultados, erro) -> {
+            if (pesquisa.isCancelled()) {
+                sinal.cancel();
+            }
+        });
+        return pesquisa;
     }
 
-    private static class DeleteTarefaAsyncTask extends AsyncTask<Tarefa, Void, Void> {
-        private TarefaDao asyncTarefaDao;
+    /**
+     * Exporta todas as tarefas para um ficheiro (o stream é fechado no fim).
+     * @return future com o número de tarefas exportadas.
+     */
+    public CompletableFuture<Integer> exportar(OutputStream saida, TarefaTransferencia.Formato formato,
+                                               TarefaTransferencia.OnProgressoListener listener) {
+        return transferencia.exportar(saida, formato, listener);
+    }
 
-        private DeleteTarefaAsyncTask(TarefaDao dao) {
-            asyncTarefaDao = dao;
+    /**
+     * Importa tarefas de um ficheiro JSON ou CSV (o stream é fechado no fim).
+     * As tarefas são inseridas em lotes, cada um numa transação; no fim
+     * (mesmo com erro a meio) o próximo lembrete é recalculado.
+     * @return future com o número de tarefas importadas.
+     */
+    public CompletableFuture<Integer> importar(InputStream entrada,
+                                               TarefaTransferencia.OnProgressoListener listener) {
+        CompletableFuture<Integer> importacao = transferencia.importar(entrada, listener);
+        importacao.whenComplete((total, erro) -> lembretes.tarefasAlteradas());
+        return importacao;
+    }
+
+    // --- Sincronização (ver TarefaSincronizacao) ---
+
+    /**
+     * Aplica uma página de alterações recebidas do servidor.
+     * As tarefas afetadas só são conhecidas dentro da transação, por isso a cache
+     * é esvaziada e o próximo lembrete é procurado de novo (se alguma tarefa mudou).
+     * @return future com o número de tarefas alteradas, concluído depois do commit.
+     */
+    @Override
+    public CompletableFuture<Integer> aplicarAlteracoesRemotas(List<SincronizacaoCliente.Registo> registos) {
+        versaoEscritas.incrementAndGet();
+        cacheTarefas.evictAll();
+        CompletableFuture<Integer> escrita = writeBatcher.submeter(TarefaWriteBatcher.APLICAR_REMOTAS, registos);
+        return escrita.whenComplete((aplicadas, erro) -> {
+            versaoEscritas.incrementAndGet();
+            cacheTarefas.evictAll();
+            if (erro == null && aplicadas > 0) {
+                lembretes.tarefasAlteradas();
+            }
+        });
+    }
+
+    /**
+     * Retira do diário as alterações até :ate, já confirmadas pelo servidor
+     * (nenhuma tarefa muda: a cache e os lembretes não são tocados).
+     */
+    @Override
+    public CompletableFuture<Void> confirmarEnvio(long ate) {
+        return writeBatcher.submeter(TarefaWriteBatcher.CONFIRMAR_ENVIO, ate);
+    }
+
+    /**
+     * Volta a pôr todas as tarefas no diário, para serem enviadas ao servidor novo
+     * (nenhuma tarefa muda: a cache e os lembretes não são tocados).
+     */
+    @Override
+    public CompletableFuture<Void> reiniciarDiario(String servidor) {
+        return writeBatcher.submeter(TarefaWriteBatcher.REINICIAR_DIARIO, servidor);
+    }
+
+    /**
+     * Remove uma tarefa da cache quando a escrita é pedida e novamente depois do commit,
+     * para que nenhuma leitura feita entretanto fique guardada com os dados antigos.
+     * Depois do commit, avisa também o agendador de lembretes.
+     */
+    private <R> CompletableFuture<R> registarEscrita(int id, CompletableFuture<R> escrita) {
+        versaoEscritas.incrementAndGet();
+        cacheTarefas.remove(id);
+        return escrita.whenComplete((resultado, erro) -> {
+            versaoEscritas.incrementAndGet();
+            cacheTarefas.remove(id);
+            // O lembrete desta tarefa pode ter mudado (data, estado ou eliminação)
+            if (erro == null) {
+                lembretes.tarefaAlterada(id);
+            }
+        });
+    }
+
+    /**
+     * Igual a registarEscrita, para várias tarefas: o próximo lembrete
+     * é recalculado uma única vez, em vez de uma verificação por tarefa.
+     */
+    private <R> CompletableFuture<R> registarEscritas(List<Integer> ids, CompletableFuture<R> escrita) {
+        versaoEscritas.incrementAndGet();
+        for (int id : ids) {
+            cacheTarefas.remove(id);
         }
+        return escrita.whenComplete((resultado, erro) -> {
+            versaoEscritas.incrementAndGet();
+            for (int id : ids) {
+                cacheTarefas.remove(id);
+            }
+            if (erro == null) {
+                lembretes.tarefasAlteradas();
+            }
+        });
+    }
+
+    /**
+     * Igual a registarEscrita, para a checklist e as etiquetas de uma tarefa: só a entrada
+     * dessa tarefa sai da cache e os lembretes não são recalculados
+     * (as subtarefas e as etiquetas não têm data). Na lista, apenas a linha da tarefa
+     * muda (o progresso), atualizada com TarefaDiffCallback.PAYLOAD_PROGRESSO.
+     */
+    private <R> CompletableFuture<R> registarEscritaSubtarefa(int tarefaId, CompletableFuture<R> escrita) {
+        versaoEscritas.incrementAndGet();
+        cacheTarefas.remove(tarefaId);
+        return escrita.whenComplete((resultado, erro) -> {
+            versaoEscritas.incrementAndGet();
+            cacheTarefas.remove(tarefaId);
+        });
+    }
 
-        @Override
-        protected Void doInBackground(Tarefa... tarefas) {
-            asyncTarefaDao.delete(tarefas[0]);
-            return null;
+    /**
+     * Lista de tarefas da consulta ativa.
+     * Ao trocar de consulta, o último resultado conhecido é reaproveitado.
+     */
+    public LiveData<List<TarefaResumo>> getTarefas() {
+        return tarefas;
+    }
+
+    public TarefaQuerySpec getQuerySpec() {
+        return tarefas.getSpec();
+    }
+
+    /**
+     * Troca o filtro/ordenação da lista (deve ser chamado na main thread)
+     */
+    public void setQuerySpec(TarefaQuerySpec spec) {
+        tarefas.setSpec(spec);
+    }
+
+    /**
+     * Número total de tarefas (usado para decidir se a lista deve funcionar em modo paginado).
+     * Na primeira chamada do processo, reaproveita a contagem feita no arranque.
+     */
+    public CompletableFuture<Integer> contarTarefas() {
+        CompletableFuture<Integer> preCarga = TarefaPreCarga.consumirContagem();
+        if (preCarga == null) {
+            return CompletableFuture.supplyAsync(tarefaDao::contarTarefas, queryExecutor);
         }
+        // Se a pré-carga falhou, a contagem é feita agora
+        return preCarga.exceptionally(erro -> null).thenCompose(total -> total != null
+                ? CompletableFuture.completedFuture(total)
+                : CompletableFuture.supplyAsync(tarefaDao::contarTarefas, queryExecutor));
+    }
+
+    /**
+     * Número de tarefas, observado: volta a ser contado a cada escrita
+     * (ex: uma importação ou a sincronização que traz milhares de tarefas).
+     */
+    public LiveData<Integer> observarContagem() {
+        return tarefaDao.observarContagem();
+    }
+
+    /**
+     * Estatísticas por prioridade (pendentes, concluídas e vencidas até agora).
+     * Lê uma linha por prioridade, mantida pelos triggers da base de dados.
+     * "Agora" é o momento desta chamada: para contar as tarefas que venceram entretanto,
+     * é preciso uma nova consulta (ver EstatisticasActivity.onResume).
+     */
+    public LiveData<List<EstatisticaPrioridade>> getEstatisticas() {
+        return tarefaDao.getEstatisticas(System.currentTimeMillis());
+    }
+
+    /**
+     * Retorna um stream paginado para uma consulta.
+     * A memória usada e o custo de cada recarga dependem da janela visível,
+     * e não do tamanho da tabela.
+     */
+    public LiveData<PagingData<TarefaResumo>> getTarefasPaginadas(TarefaQuerySpec spec) {
+        Pager<Integer, TarefaResumo> pager = new Pager<>(
+                new PagingConfig(TAMANHO_PAGINA, TAMANHO_PAGINA, false),
+                () -> tarefaDao.getTarefasPaged(new SimpleSQLiteQuery(spec.toSql())));
+        return PagingLiveData.getLiveData(pager);
     }
 }
@@ -0,0 +1,272 @@
+package com.example.focozen.data;
+
+import android.app.Application;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.annotation.WorkerThread;
+
+import com.example.focozen.model.Alteracao;
+import com.example.focozen.model.Tarefa;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * TarefaSincronizacao
+ * --------------------------------------------------
+ * Sincronização das tarefas com o servidor (corre no SincronizacaoWorker).
+ * Responsável por:
+ *  - Enviar apenas o que mudou desde a última sincronização (diário "alteracoes"),
+ *    em lotes, com o estado atual de cada tarefa alterada
+ *  - Receber apenas o que mudou no servidor desde o último cursor, em lotes
+ *  - Resolver conflitos por last-writer-wins (ver SincronizacaoCliente.comparar)
+ *
+ * As alterações recebidas são aplicadas pelo TarefaWriteBatcher (através do
+ * TarefaRepository, que atualiza a cache e os lembretes), uma transação por lote.
+ * Cada passo pode ser repetido sem efeito (as versões já aplicadas não mudam nada),
+ * por isso uma falha a meio só obriga a tentar outra vez mais tarde.
+ */
+public class TarefaSincronizacao {
+
+    private static final String TAG = "TarefaSincronizacao";
+
+    // Registos por pedido, nos dois sentidos (e alterações do diário lidas de cada vez)
+    static final int TAMANHO_LOTE = 500;
+
+    private static final String PREFS = "Sincronizacao";
+    // Endereço do servidor (sem servidor configurado, não há sincronização)
+    private static final String PREF_SERVIDOR = "servidor";
+    // Posição da última alteração do servidor já aplicada
+    private static final String PREF_CURSOR = "cursor";
+
+    /**
+     * Escritas pedidas pela sincronização, cada uma numa transação (na aplicação,
+     * o TarefaRepository através do TarefaWriteBatcher). Os futures terminam depois do commit.
+     */
+    interface Escritas {
+        CompletableFuture<Integer> aplicarAlteracoesRemotas(List<SincronizacaoCliente.Registo> registos);
+
+        CompletableFuture<Void> confirmarEnvio(long ate);
+
+        CompletableFuture<Void> reiniciarDiario(String servidor);
+    }
+
+    // Singleton instance
+    private static volatile TarefaSincronizacao INSTANCE;
+
+    private final TarefaDao tarefaDao;
+    private final Escritas escritas;
+    private final SharedPreferences prefs;
+
+    private TarefaSincronizacao(Application application) {
+        this(TarefaDatabase.getInstance(application).tarefaDao(), TarefaRepository.getInstance(application),
+                application.getSharedPreferences(PREFS, Context.MODE_PRIVATE));
+    }
+
+    /**
+     * Sincronização de outra base de dados (ex: nos testes, dois dispositivos no mesmo processo)
+     */
+    TarefaSincronizacao(TarefaDao tarefaDao, Escritas escritas, SharedPreferences prefs) {
+        this.tarefaDao = tarefaDao;
+        this.escritas = escritas;
+        this.prefs = prefs;
+    }
+
+    /**
+     * Retorna a instância única da sincronização.
+     */
+    public static TarefaSincronizacao getInstance(Application application) {
+        if (INSTANCE == null) {
+            synchronized (TarefaSincronizacao.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new TarefaSincronizacao(application);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    public boolean isConfigurada() {
+        return prefs.getString(PREF_SERVIDOR, null) != null;
+    }
+
+    /**
+     * Define o servidor (null desliga a sincronização).
+     * Um servidor diferente começa do início: recebe tudo desde o cursor 0 e todas as tarefas
+     * voltam ao diário, porque sem servidor o diário não é guardado (ver TarefaLimpeza).
+     */
+    public synchronized void setServidor(String servidor) {
+        if (Objects.equals(servidor, prefs.getString(PREF_SERVIDOR, null))) {
+            return;
+        }
+        // 1. Gravado já (commit): a TarefaLimpeza lê o servidor na transação em que esvazia o diário,
+        //    por isso ou esvazia antes do passo 2 ou já vê o servidor novo
+        prefs.edit().putString(PREF_SERVIDOR, servidor).remove(PREF_CURSOR).commit();
+
+        // 2. Todas as tarefas ficam por enviar ao servidor novo
+        if (servidor != null) {
+            escritas.reiniciarDiario(servidor);
+        }
+    }
+
+    /**
+     * Envia as alterações locais e depois recebe as remotas.
+     * O envio vem primeiro: as tarefas recebidas a seguir já foram comparadas
+     * pelo servidor com as deste dispositivo.
+     * @return número de tarefas alteradas neste dispositivo pelas alterações recebidas.
+     */
+    @WorkerThread
+    public synchronized int sincronizar() throws IOException {
+        String servidor = prefs.getString(PREF_SERVIDOR, null);
+        if (servidor == null) {
+            return 0;
+        }
+        SincronizacaoCliente cliente = new SincronizacaoCliente(servidor);
+        int enviadas = enviar(cliente);
+        int aplicadas = receber(cliente);
+        Log.d(TAG, enviadas + " alterações enviadas, " + aplicadas + " recebidas e aplicadas");
+        return aplicadas;
+    }
+
+    private int enviar(SincronizacaoCliente cliente) throws IOException {
+        int total = 0;
+        while (true) {
+            // 1. Próximo lote do diário, pela ordem das alterações
+            List<Alteracao> alteracoes = tarefaDao.getAlteracoes(TAMANHO_LOTE);
+            if (alteracoes.isEmpty()) {
+                return total;
+            }
+
+            // 2. Uma tarefa alterada várias vezes é enviada uma só vez, com o estado atual
+            Map<String, Alteracao> ultimas = new LinkedHashMap<>();
+            for (Alteracao alteracao : alteracoes) {
+                ultimas.put(alteracao.getSyncId(), alteracao);
+            }
+            Map<String, Tarefa> atuais = porSyncId(tarefaDao.getPorSyncId(new ArrayList<>(ultimas.keySet())));
+            List<SincronizacaoCliente.Registo> registos = new ArrayList<>(ultimas.size());
+            for (Alteracao alteracao : ultimas.values()) {
+                Tarefa tarefa = atuais.get(alteracao.getSyncId());
+                registos.add(tarefa != null
+                        ? SincronizacaoCliente.Registo.de(tarefa)
+                        : SincronizacaoCliente.Registo.apagamento(alteracao.getSyncId(), alteracao.getAtualizadaEm()));
+            }
+
+            // 3. Só depois de o servidor confirmar é que o lote sai do diário
+            //    (as alterações escritas entretanto têm um seq maior e ficam)
+            cliente.enviar(registos);
+            esperar(escritas.confirmarEnvio(alteracoes.get(alteracoes.size() - 1).getSeq()));
+            total += registos.size();
+            if (alteracoes.size() < TAMANHO_LOTE) {
+                return total;
+            }
+        }
+    }
+
+    private int receber(SincronizacaoCliente cliente) throws IOException {
+        long cursor = prefs.getLong(PREF_CURSOR, 0);
+        int total = 0;
+        while (true) {
+            SincronizacaoCliente.Pagina pagina = cliente.receber(cursor, TAMANHO_LOTE);
+            if (!pagina.registos.isEmpty()) {
+                total += esperar(escritas.aplicarAlteracoesRemotas(pagina.registos));
+            }
+            // O cursor só avança depois do commit: se o processo terminar entre os dois,
+            // a página volta a ser recebida e aplicada sem efeito
+            cursor = pagina.cursor;
+            prefs.edit().putLong(PREF_CURSOR, cursor).apply();
+            if (!pagina.mais) {
+                return total;
+            }
+        }
+    }
+
+    /**
+     * Aplica uma página de alterações recebidas (na thread e na transação do TarefaWriteBatcher).
+     * As escritas feitas aqui também passam pelos triggers do diário: esses registos são
+     * apagados no fim, para que o que veio do servidor não lhe seja devolvido.
+     * @return número de tarefas inseridas, alteradas ou apagadas.
+     */
+    static int aplicar(TarefaDao dao, List<SincronizacaoCliente.Registo> registos) {
+        long ultimaAlteracao = dao.getUltimaAlteracao();
+
+        // 1. A versão que ganha de cada tarefa (o servidor pode repetir uma tarefa na mesma página)
+        Map<String, SincronizacaoCliente.Registo> remotos = new LinkedHashMap<>();
+        for (SincronizacaoCliente.Registo registo : registos) {
+            SincronizacaoCliente.Registo anterior = remotos.get(registo.getSyncId());
+            if (anterior == null || SincronizacaoCliente.comparar(registo, anterior) > 0) {
+                remotos.put(registo.getSyncId(), registo);
+            }
+        }
+
+        // 2. Comparar com a versão local (lidas todas de uma vez pelo índice de syncId)
+        Map<String, Tarefa> locais = new HashMap<>();
+        List<String> syncIds = new ArrayList<>(remotos.keySet());
+        for (int inicio = 0; inicio < syncIds.size(); inicio += TarefaWriteBatcher.TAMANHO_BLOCO) {
+            List<String> bloco = syncIds.subList(inicio, Math.min(inicio + TarefaWriteBatcher.TAMANHO_BLOCO,
+                    syncIds.size()));
+            locais.putAll(porSyncId(dao.getPorSyncId(bloco)));
+        }
+        List<Tarefa> novas = new ArrayList<>();
+        List<Tarefa> alteradas = new ArrayList<>();
+        int apagadas = 0;
+        for (SincronizacaoCliente.Registo remoto : remotos.values()) {
+            Tarefa local = locais.get(remoto.getSyncId());
+            if (local != null && !SincronizacaoCliente.venceRemoto(SincronizacaoCliente.Registo.de(local), remoto)) {
+                continue;
+            }
+            if (remoto.apagada) {
+                if (local != null) {
+                    dao.deleteById(local.getId());
+                    apagadas++;
+                }
+            } else if (local == null) {
+                novas.add(remoto.tarefa);
+            } else {
+                remoto.tarefa.setId(local.getId());
+                alteradas.add(remoto.tarefa);
+            }
+        }
+
+        // 3. Escrever em lote e retirar do diário o que estas escritas acrescentaram
+        if (!novas.isEmpty()) {
+            dao.insertAll(novas);
+        }
+        if (!alteradas.isEmpty()) {
+            dao.updateAll(alteradas);
+        }
+        dao.apagarAlteracoesDepoisDe(ultimaAlteracao);
+        return novas.size() + alteradas.size() + apagadas;
+    }
+
+    private static Map<String, Tarefa> porSyncId(List<Tarefa> tarefas) {
+        Map<String, Tarefa> mapa = new HashMap<>();
+        for (Tarefa tarefa : tarefas) {
+            mapa.put(tarefa.getSyncId(), tarefa);
+        }
+        return mapa;
+    }
+
+    /**
+     * Espera pelo commit de uma escrita pedida ao TarefaWriteBatcher
+     */
+    private static <T> T esperar(CompletableFuture<T> escrita) throws IOException {
+        try {
+            return escrita.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha ao gravar a sincronização", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Sincronização interrompida");
+        }
+    }
+}
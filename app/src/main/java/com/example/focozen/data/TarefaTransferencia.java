@@ -0,0 +1,493 @@
+package com.example.focozen.data;
+
+import android.database.Cursor;
+import android.util.JsonReader;
+import android.util.JsonToken;
+import android.util.JsonWriter;
+import android.util.Log;
+
+import com.example.focozen.model.Recorrencia;
+import com.example.focozen.model.Tarefa;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * TarefaTransferencia
+ * --------------------------------------------------
+ * Exportação e importação de tarefas em JSON ou CSV.
+ * Responsável por:
+ *  - Escrever as tarefas diretamente de um Cursor para o ficheiro, página a página
+ *  - Ler o ficheiro de forma incremental (um registo de cada vez)
+ *  - Inserir as tarefas importadas em lotes de tamanho fixo, cada um numa transação
+ *  - Informar o progresso depois de cada página/lote
+ *
+ * Em nenhum momento a lista completa de tarefas está em memória:
+ * exportar ou importar 100 000 tarefas usa a mesma memória que 500.
+ */
+public class TarefaTransferencia {
+
+    private static final String TAG = "TarefaTransferencia";
+
+    // Tarefas por página exportada e por transação importada
+    static final int TAMANHO_LOTE = 500;
+
+    // Identificação do ficheiro JSON exportado
+    private static final String JSON_FORMATO = "focozen";
+    private static final int JSON_VERSAO = 1;
+
+    /**
+     * Formatos suportados
+     */
+    public enum Formato {
+        JSON("application/json", "json"),
+        CSV("text/csv", "csv");
+
+        public final String mimeType;
+        public final String extensao;
+
+        Formato(String mimeType, String extensao) {
+            this.mimeType = mimeType;
+            this.extensao = extensao;
+        }
+    }
+
+    /**
+     * Listener de progresso (chamado na thread da transferência)
+     */
+    public interface OnProgressoListener {
+        void onProgresso(int tarefas);
+    }
+
+    // Singleton instance
+    private static volatile TarefaTransferencia INSTANCE;
+
+    private final TarefaDatabase database;
+    private final TarefaDao tarefaDao;
+    // Uma transferência de cada vez, pela ordem em que foram pedidas
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "focozen-transferencia"));
+
+    private TarefaTransferencia(TarefaDatabase database) {
+        this.database = database;
+        this.tarefaDao = database.tarefaDao();
+    }
+
+    static TarefaTransferencia getInstance(TarefaDatabase database) {
+        if (INSTANCE == null) {
+            synchronized (TarefaTransferencia.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new TarefaTransferencia(database);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Exporta todas as tarefas para o stream (que é fechado no fim).
+     * @return future com o número de tarefas exportadas.
+     */
+    CompletableFuture<Integer> exportar(OutputStream saida, Formato formato, OnProgressoListener listener) {
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8))) {
+                int total = formato == Formato.JSON
+                        ? exportarJson(writer, listener)
+                        : exportarCsv(writer, listener);
+                future.complete(total);
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "Falha na exportação", e);
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Importa as tarefas do stream (que é fechado no fim).
+     * O formato é detetado pelo primeiro carácter: '{' ou '[' para JSON, CSV nos outros casos.
+     * Se o ficheiro tiver um erro, os lotes anteriores ao erro ficam importados.
+     * @return future com o número de tarefas importadas.
+     */
+    CompletableFuture<Integer> importar(InputStream entrada, OnProgressoListener listener) {
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8))) {
+                Importacao importacao = new Importacao(listener);
+                if (detetarFormato(reader) == Formato.JSON) {
+                    importarJson(reader, importacao);
+                } else {
+                    importarCsv(reader, importacao);
+                }
+                future.complete(importacao.terminar());
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "Falha na importação", e);
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    // --- Exportação ---
+
+    /**
+     * Colunas de uma página de exportação (os índices são os mesmos em todas as páginas)
+     */
+    private static final class Colunas {
+        final int id;
+        final int titulo;
+        final int descricao;
+        final int prioridade;
+        final int dataVencimento;
+        final int concluida;
+        final int recorrencia;
+
+        Colunas(Cursor cursor) {
+            id = cursor.getColumnIndexOrThrow("id");
+            titulo = cursor.getColumnIndexOrThrow("titulo");
+            descricao = cursor.getColumnIndexOrThrow("descricao");
+            prioridade = cursor.getColumnIndexOrThrow("prioridade");
+            dataVencimento = cursor.getColumnIndexOrThrow("dataVencimento");
+            concluida = cursor.getColumnIndexOrThrow("concluida");
+            recorrencia = cursor.getColumnIndexOrThrow("recorrencia");
+        }
+    }
+
+    /**
+     * Escreve uma linha do cursor
+     */
+    private interface EscritorLinha {
+        void escrever(Cursor cursor, Colunas colunas) throws IOException;
+    }
+
+    private int exportarJson(Writer writer, OnProgressoListener listener) throws IOException {
+        JsonWriter json = new JsonWriter(writer);
+        json.beginObject();
+        json.name("formato").value(JSON_FORMATO);
+        json.name("versao").value(JSON_VERSAO);
+        json.name("tarefas").beginArray();
+        int total = percorrer(listener, (cursor, colunas) -> {
+            json.beginObject();
+            json.name("titulo").value(cursor.getString(colunas.titulo));
+            json.name("descricao").value(cursor.getString(colunas.descricao));
+            json.name("prioridade").value(cursor.getInt(colunas.prioridade));
+            json.name("dataVencimento").value(cursor.getLong(colunas.dataVencimento));
+            json.name("concluida").value(cursor.getInt(colunas.concluida) != 0);
+            json.name("recorrencia").value(cursor.getInt(colunas.recorrencia));
+            json.endObject();
+        });
+        json.endArray();
+        json.endObject();
+        json.flush();
+        return total;
+    }
+
+    private int exportarCsv(Writer writer, OnProgressoListener listener) throws IOException {
+        TarefaCsv.escreverRegisto(writer, TarefaCsv.COLUNAS);
+        return percorrer(listener, (cursor, colunas) -> TarefaCsv.escreverRegisto(writer,
+                cursor.getString(colunas.titulo),
+                cursor.getString(colunas.descricao),
+                Integer.toString(cursor.getInt(colunas.prioridade)),
+                Long.toString(cursor.getLong(colunas.dataVencimento)),
+                cursor.getInt(colunas.concluida) != 0 ? "true" : "false",
+                Integer.toString(cursor.getInt(colunas.recorrencia))));
+    }
+
+    /**
+     * Percorre a tabela por páginas de TAMANHO_LOTE, pela ordem do id.
+     * Cada página é uma consulta independente (continua a seguir ao último id escrito),
+     * por isso a exportação não mantém nenhuma transação aberta nem bloqueia as escritas.
+     */
+    private int percorrer(OnProgressoListener listener, EscritorLinha escritor) throws IOException {
+        int total = 0;
+        int ultimoId = 0;
+        Colunas colunas = null;
+        while (true) {
+            int lidas = 0;
+            try (Cursor cursor = tarefaDao.getPaginaExportacao(ultimoId, TAMANHO_LOTE)) {
+                if (colunas == null) {
+                    colunas = new Colunas(cursor);
+                }
+                while (cursor.moveToNext()) {
+                    escritor.escrever(cursor, colunas);
+                    ultimoId = cursor.getInt(colunas.id);
+                    lidas++;
+                }
+            }
+            total += lidas;
+            if (lidas > 0 && listener != null) {
+                listener.onProgresso(total);
+            }
+            if (lidas < TAMANHO_LOTE) {
+                return total;
+            }
+        }
+    }
+
+    // --- Importação ---
+
+    /**
+     * Lote de tarefas a inserir. Quando fica cheio, é inserido numa transação e reutilizado.
+     */
+    private final class Importacao {
+        private final OnProgressoListener listener;
+        private final List<Tarefa> lote = new ArrayList<>(TAMANHO_LOTE);
+        private int total = 0;
+
+        Importacao(OnProgressoListener listener) {
+            this.listener = listener;
+        }
+
+        void adicionar(Tarefa tarefa) {
+            lote.add(tarefa);
+            if (lote.size() == TAMANHO_LOTE) {
+                inserirLote();
+            }
+        }
+
+        int terminar() {
+            if (!lote.isEmpty()) {
+                inserirLote();
+            }
+            return total;
+        }
+
+        private void inserirLote() {
+            // Cada tarefa importada é uma tarefa nova (syncId próprio) para a sincronização
+            long agora = System.currentTimeMillis();
+            for (Tarefa tarefa : lote) {
+                TarefaWriteBatcher.carimbar(tarefa, agora);
+            }
+            database.runInTransaction(() -> {
+                tarefaDao.insertAll(lote);
+            });
+            total += lote.size();
+            lote.clear();
+            if (listener != null) {
+                listener.onProgresso(total);
+            }
+        }
+    }
+
+    /**
+     * Espreita o primeiro carácter (sem o consumir) para escolher o formato
+     */
+    private static Formato detetarFormato(BufferedReader reader) throws IOException {
+        while (true) {
+            reader.mark(1);
+            int c = reader.read();
+            // Ignorar espaços e o BOM que alguns editores colocam no início do ficheiro
+            if (c == -1 || !(Character.isWhitespace(c) || c == '\uFEFF')) {
+                reader.reset();
+                return c == '{' || c == '[' ? Formato.JSON : Formato.CSV;
+            }
+        }
+    }
+
+    /**
+     * Aceita o objeto escrito pela exportação ({"tarefas": [...]}) ou apenas o array de tarefas.
+     * Campos desconhecidos (ex: "id") são ignorados.
+     */
+    private static void importarJson(Reader reader, Importacao importacao) throws IOException {
+        JsonReader json = new JsonReader(reader);
+        if (json.peek() == JsonToken.BEGIN_ARRAY) {
+            importarArrayJson(json, importacao);
+            return;
+        }
+        json.beginObject();
+        while (json.hasNext()) {
+            if (json.nextName().equals("tarefas")) {
+                importarArrayJson(json, importacao);
+            } else {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+    }
+
+    private static void importarArrayJson(JsonReader json, Importacao importacao) throws IOException {
+        json.beginArray();
+        int indice = 0;
+        while (json.hasNext()) {
+            String titulo = null;
+            String descricao = null;
+            String prioridade = null;
+            String data = null;
+            boolean concluida = false;
+            String recorrencia = null;
+            json.beginObject();
+            while (json.hasNext()) {
+                String nome = json.nextName();
+                if (json.peek() == JsonToken.NULL) {
+                    json.nextNull();
+                    continue;
+                }
+                switch (nome) {
+                    case "titulo":
+                        titulo = json.nextString();
+                        break;
+                    case "descricao":
+                        descricao = json.nextString();
+                        break;
+                    case "prioridade":
+                        // Números e strings são lidos como texto e validados em criarTarefa
+                        prioridade = json.nextString();
+                        break;
+                    case "dataVencimento":
+                        data = json.nextString();
+                        break;
+                    case "concluida":
+                        concluida = json.peek() == JsonToken.BOOLEAN
+                                ? json.nextBoolean()
+                                : lerBooleano(json.nextString());
+                        break;
+                    case "recorrencia":
+                        recorrencia = json.nextString();
+                        break;
+                    default:
+                        json.skipValue();
+                        break;
+                }
+            }
+            json.endObject();
+            indice++;
+            importacao.adicionar(criarTarefa("Tarefa " + indice, titulo, descricao, prioridade, data, concluida,
+                    recorrencia));
+        }
+        json.endArray();
+    }
+
+    /**
+     * A primeira linha tem de ser o cabeçalho; as colunas podem vir por qualquer ordem
+     * e as desconhecidas são ignoradas.
+     */
+    private static void importarCsv(Reader reader, Importacao importacao) throws IOException {
+        TarefaCsv.Leitor leitor = new TarefaCsv.Leitor(reader);
+        String[] cabecalho = leitor.proximoRegisto();
+        if (cabecalho == null) {
+            return;
+        }
+        // Posição de cada coluna de TarefaCsv.COLUNAS no ficheiro (-1 se não existir)
+        int[] posicoes = new int[TarefaCsv.COLUNAS.length];
+        for (int i = 0; i < posicoes.length; i++) {
+            posicoes[i] = -1;
+            for (int j = 0; j < cabecalho.length; j++) {
+                if (cabecalho[j].trim().equalsIgnoreCase(TarefaCsv.COLUNAS[i])) {
+                    posicoes[i] = j;
+                }
+            }
+        }
+        if (posicoes[0] < 0) {
+            throw new IOException("Cabeçalho CSV sem a coluna \"titulo\"");
+        }
+
+        String[] registo;
+        while ((registo = leitor.proximoRegisto()) != null) {
+            // Linhas vazias (ex: no fim do ficheiro) são ignoradas
+            if (registo.length == 1 && registo[0].isEmpty()) {
+                continue;
+            }
+            String concluida = campo(registo, posicoes[4]);
+            importacao.adicionar(criarTarefa("Linha " + leitor.getLinha(),
+                    campo(registo, posicoes[0]),
+                    campo(registo, posicoes[1]),
+                    campo(registo, posicoes[2]),
+                    campo(registo, posicoes[3]),
+                    concluida != null && lerBooleano(concluida),
+                    campo(registo, posicoes[5])));
+        }
+    }
+
+    private static String campo(String[] registo, int posicao) {
+        if (posicao < 0 || posicao >= registo.length || registo[posicao].isEmpty()) {
+            return null;
+        }
+        return registo[posicao];
+    }
+
+    /**
+     * Valida os campos de um registo e cria a tarefa a inserir.
+     * Sem prioridade, a tarefa fica com prioridade Baixa; sem data, vence hoje;
+     * sem regra de repetição (ficheiros anteriores às tarefas que se repetem), não se repete.
+     * @param origem identificação do registo nas mensagens de erro (ex: "Linha 12").
+     */
+    private static Tarefa criarTarefa(String origem, String titulo, String descricao,
+                                      String prioridade, String data, boolean concluida,
+                                      String recorrencia) throws IOException {
+        if (titulo == null || titulo.trim().isEmpty()) {
+            throw new IOException(origem + ": o título é obrigatório");
+        }
+        int valorPrioridade = 1;
+        if (prioridade != null) {
+            try {
+                valorPrioridade = Integer.parseInt(prioridade.trim());
+            } catch (NumberFormatException e) {
+                valorPrioridade = 0;
+            }
+            if (valorPrioridade < 1 || valorPrioridade > 3) {
+                throw new IOException(origem + ": prioridade inválida \"" + prioridade + "\" (1 a 3)");
+            }
+        }
+        long dataVencimento = data != null
+                ? lerData(origem, data.trim())
+                : fimDoDia(LocalDate.now());
+        int regra = 0;
+        if (recorrencia != null) {
+            try {
+                regra = Integer.parseInt(recorrencia.trim());
+            } catch (NumberFormatException e) {
+                regra = -1;
+            }
+            if (!Recorrencia.isValida(regra)) {
+                throw new IOException(origem + ": regra de repetição inválida \"" + recorrencia + "\"");
+            }
+        }
+        Tarefa tarefa = new Tarefa(titulo.trim(), descricao != null ? descricao : "", valorPrioridade,
+                dataVencimento, concluida);
+        tarefa.setRecorrencia(regra);
+        return tarefa;
+    }
+
+    /**
+     * Aceita um timestamp em milissegundos (o formato exportado)
+     * ou uma data "aaaa-mm-dd" (comum noutras aplicações), que vence às 23:59:59.
+     */
+    private static long lerData(String origem, String data) throws IOException {
+        try {
+            return Long.parseLong(data);
+        } catch (NumberFormatException e) {
+            try {
+                return fimDoDia(LocalDate.parse(data));
+            } catch (DateTimeParseException e2) {
+                throw new IOException(origem + ": data inválida \"" + data + "\"");
+            }
+        }
+    }
+
+    // As tarefas criadas na aplicação vencem no fim do dia escolhido
+    private static long fimDoDia(LocalDate dia) {
+        return dia.atTime(23, 59, 59).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static boolean lerBooleano(String valor) {
+        String texto = valor.trim();
+        return texto.equalsIgnoreCase("true") || texto.equals("1");
+    }
+}
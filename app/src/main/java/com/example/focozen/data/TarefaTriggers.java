@@ -0,0 +1,161 @@
+package com.example.focozen.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * TarefaTriggers
+ * --------------------------------------------------
+ * SQL que o SQLite mantém por si e que o Room não cria a partir das entidades.
+ * Responsável por:
+ *  - Triggers dos contadores das estatísticas e das etiquetas
+ *  - Triggers do diário de alterações da sincronização
+ *  - Contagens de raiz usadas pelas migrações e pela TarefaLimpeza
+ * Não depende do Android: o módulo benchmark compila-o tal como está,
+ * para medir as escritas com os mesmos triggers da aplicação.
+ */
+final class TarefaTriggers {
+
+    private TarefaTriggers() {
+    }
+
+    // --- Estatísticas: contadores por prioridade mantidos pelo SQLite ---
+
+    // Uma linha por prioridade, mesmo sem tarefas (o painel mostra sempre as três)
+    static final String SQL_ESTATISTICAS_BASE = "INSERT OR IGNORE INTO `estatisticas` "
+            + "(`prioridade`, `pendentes`, `concluidas`) VALUES (1, 0, 0), (2, 0, 0), (3, 0, 0)";
+
+    // Contagem de raiz a partir das tarefas (migração e verificação periódica)
+    static final String SQL_ESTATISTICAS_CONTAR = "INSERT OR REPLACE INTO `estatisticas` "
+            + "(`prioridade`, `pendentes`, `concluidas`) "
+            + "SELECT `prioridade`, SUM(`concluida` = 0), SUM(`concluida` <> 0) FROM `tarefas` "
+            + "WHERE `eliminadaEm` = 0 GROUP BY `prioridade`";
+
+    /**
+     * Triggers que mantêm a tabela "estatisticas" a cada escrita em "tarefas".
+     * Só contam as tarefas não eliminadas; cada escrita altera no máximo duas linhas
+     * (prioridade antiga e nova), por isso o custo não depende do número de tarefas.
+     */
+    static final String[] TRIGGERS_ESTATISTICAS = {
+            "CREATE TRIGGER IF NOT EXISTS estatisticas_AFTER_INSERT AFTER INSERT ON `tarefas` "
+                    + "WHEN NEW.`eliminadaEm` = 0 BEGIN "
+                    + "INSERT OR IGNORE INTO `estatisticas` VALUES (NEW.`prioridade`, 0, 0); "
+                    + "UPDATE `estatisticas` SET `pendentes` = `pendentes` + (NEW.`concluida` = 0), "
+                    + "`concluidas` = `concluidas` + (NEW.`concluida` <> 0) "
+                    + "WHERE `prioridade` = NEW.`prioridade`; END",
+            "CREATE TRIGGER IF NOT EXISTS estatisticas_AFTER_DELETE AFTER DELETE ON `tarefas` "
+                    + "WHEN OLD.`eliminadaEm` = 0 BEGIN "
+                    + "UPDATE `estatisticas` SET `pendentes` = `pendentes` - (OLD.`concluida` = 0), "
+                    + "`concluidas` = `concluidas` - (OLD.`concluida` <> 0) "
+                    + "WHERE `prioridade` = OLD.`prioridade`; END",
+            // Só quando muda uma coluna contada (editar o título não toca nos contadores)
+            "CREATE TRIGGER IF NOT EXISTS estatisticas_AFTER_UPDATE "
+                    + "AFTER UPDATE OF `prioridade`, `concluida`, `eliminadaEm` ON `tarefas` "
+                    + "WHEN OLD.`prioridade` <> NEW.`prioridade` OR OLD.`concluida` <> NEW.`concluida` "
+                    + "OR (OLD.`eliminadaEm` = 0) <> (NEW.`eliminadaEm` = 0) BEGIN "
+                    + "UPDATE `estatisticas` SET `pendentes` = `pendentes` - (OLD.`concluida` = 0), "
+                    + "`concluidas` = `concluidas` - (OLD.`concluida` <> 0) "
+                    + "WHERE `prioridade` = OLD.`prioridade` AND OLD.`eliminadaEm` = 0; "
+                    + "INSERT OR IGNORE INTO `estatisticas` SELECT NEW.`prioridade`, 0, 0 "
+                    + "WHERE NEW.`eliminadaEm` = 0; "
+                    + "UPDATE `estatisticas` SET `pendentes` = `pendentes` + (NEW.`concluida` = 0), "
+                    + "`concluidas` = `concluidas` + (NEW.`concluida` <> 0) "
+                    + "WHERE `prioridade` = NEW.`prioridade` AND NEW.`eliminadaEm` = 0; END"
+    };
+
+    // --- Etiquetas: tarefas pendentes e concluídas de cada etiqueta, mantidas pelo SQLite ---
+
+    // Contagem de raiz a partir das associações (verificação periódica, ver TarefaLimpeza)
+    static final String SQL_TAGS_CONTAR = "UPDATE `tags` SET "
+            + "`pendentes` = (SELECT COUNT(*) FROM `tarefas_tags` JOIN `tarefas` ON `tarefas`.`id` = `tarefaId` "
+            + "WHERE `tagId` = `tags`.`id` AND `eliminadaEm` = 0 AND `concluida` = 0), "
+            + "`concluidas` = (SELECT COUNT(*) FROM `tarefas_tags` JOIN `tarefas` ON `tarefas`.`id` = `tarefaId` "
+            + "WHERE `tagId` = `tags`.`id` AND `eliminadaEm` = 0 AND `concluida` <> 0)";
+
+    /**
+     * Triggers que mantêm os contadores da tabela "tags".
+     * Associar ou retirar uma etiqueta altera uma linha; mudar o estado de uma tarefa
+     * altera as linhas das suas etiquetas (lidas pela chave primária de tarefas_tags).
+     * Ao apagar uma tarefa, as associações são apagadas em cascata já sem a tarefa,
+     * por isso é o trigger BEFORE DELETE da tarefa que desconta as suas etiquetas.
+     */
+    static final String[] TRIGGERS_TAGS = {
+            "CREATE TRIGGER IF NOT EXISTS tags_AFTER_INSERT AFTER INSERT ON `tarefas_tags` BEGIN "
+                    + "UPDATE `tags` SET "
+                    + "`pendentes` = `pendentes` + (SELECT `concluida` = 0 FROM `tarefas` WHERE `id` = NEW.`tarefaId`), "
+                    + "`concluidas` = `concluidas` + (SELECT `concluida` <> 0 FROM `tarefas` WHERE `id` = NEW.`tarefaId`) "
+                    + "WHERE `id` = NEW.`tagId` "
+                    + "AND EXISTS (SELECT 1 FROM `tarefas` WHERE `id` = NEW.`tarefaId` AND `eliminadaEm` = 0); END",
+            "CREATE TRIGGER IF NOT EXISTS tags_AFTER_DELETE AFTER DELETE ON `tarefas_tags` BEGIN "
+                    + "UPDATE `tags` SET "
+                    + "`pendentes` = `pendentes` - (SELECT `concluida` = 0 FROM `tarefas` WHERE `id` = OLD.`tarefaId`), "
+                    + "`concluidas` = `concluidas` - (SELECT `concluida` <> 0 FROM `tarefas` WHERE `id` = OLD.`tarefaId`) "
+                    + "WHERE `id` = OLD.`tagId` "
+                    + "AND EXISTS (SELECT 1 FROM `tarefas` WHERE `id` = OLD.`tarefaId` AND `eliminadaEm` = 0); END",
+            "CREATE TRIGGER IF NOT EXISTS tags_tarefas_BEFORE_DELETE BEFORE DELETE ON `tarefas` "
+                    + "WHEN OLD.`eliminadaEm` = 0 BEGIN "
+                    + "UPDATE `tags` SET `pendentes` = `pendentes` - (OLD.`concluida` = 0), "
+                    + "`concluidas` = `concluidas` - (OLD.`concluida` <> 0) "
+                    + "WHERE `id` IN (SELECT `tagId` FROM `tarefas_tags` WHERE `tarefaId` = OLD.`id`); END",
+            // Só quando muda o estado ou a eliminação (editar o título ou a data não toca nos contadores)
+            "CREATE TRIGGER IF NOT EXISTS tags_tarefas_AFTER_UPDATE "
+                    + "AFTER UPDATE OF `concluida`, `eliminadaEm` ON `tarefas` "
+                    + "WHEN OLD.`concluida` <> NEW.`concluida` "
+                    + "OR (OLD.`eliminadaEm` = 0) <> (NEW.`eliminadaEm` = 0) BEGIN "
+                    + "UPDATE `tags` SET "
+                    + "`pendentes` = `pendentes` - (OLD.`concluida` = 0 AND OLD.`eliminadaEm` = 0) "
+                    + "+ (NEW.`concluida` = 0 AND NEW.`eliminadaEm` = 0), "
+                    + "`concluidas` = `concluidas` - (OLD.`concluida` <> 0 AND OLD.`eliminadaEm` = 0) "
+                    + "+ (NEW.`concluida` <> 0 AND NEW.`eliminadaEm` = 0) "
+                    + "WHERE `id` IN (SELECT `tagId` FROM `tarefas_tags` WHERE `tarefaId` = NEW.`id`); END"
+    };
+
+    // --- Sincronização: diário de alterações das tarefas, escrito pelo SQLite ---
+
+    // Momento atual em milissegundos, calculado pelo SQLite (igual a System.currentTimeMillis())
+    private static final String SQL_AGORA_MS = "CAST((julianday('now') - 2440587.5) * 86400000 AS INTEGER)";
+
+    /**
+     * Triggers que acrescentam um registo a "alteracoes" a cada escrita em "tarefas",
+     * na mesma transação da escrita (não há alteração sem registo, nem registo sem alteração).
+     * Cada escrita acrescenta uma linha no fim da tabela (seq crescente), por isso o custo
+     * não depende do número de tarefas nem de alterações por enviar.
+     * Um apagamento definitivo é registado com o momento em que aconteceu (nunca antes
+     * da última versão da tarefa), para ganhar às escritas anteriores noutros dispositivos.
+     */
+    static final String[] TRIGGERS_ALTERACOES = {
+            "CREATE TRIGGER IF NOT EXISTS alteracoes_AFTER_INSERT AFTER INSERT ON `tarefas` "
+                    + "WHEN NEW.`syncId` IS NOT NULL BEGIN "
+                    + "INSERT INTO `alteracoes` (`syncId`, `atualizadaEm`, `apagada`) "
+                    + "VALUES (NEW.`syncId`, NEW.`atualizadaEm`, 0); END",
+            "CREATE TRIGGER IF NOT EXISTS alteracoes_AFTER_UPDATE AFTER UPDATE ON `tarefas` "
+                    + "WHEN NEW.`syncId` IS NOT NULL BEGIN "
+                    + "INSERT INTO `alteracoes` (`syncId`, `atualizadaEm`, `apagada`) "
+                    + "VALUES (NEW.`syncId`, NEW.`atualizadaEm`, 0); END",
+            "CREATE TRIGGER IF NOT EXISTS alteracoes_AFTER_DELETE AFTER DELETE ON `tarefas` "
+                    + "WHEN OLD.`syncId` IS NOT NULL BEGIN "
+                    + "INSERT INTO `alteracoes` (`syncId`, `atualizadaEm`, `apagada`) "
+                    + "VALUES (OLD.`syncId`, MAX(OLD.`atualizadaEm`, " + SQL_AGORA_MS + "), 1); END"
+    };
+
+    /**
+     * Regista todas as tarefas no diário, como alteradas: o servidor recebe-as todas no próximo envio
+     * (na migração e sempre que muda o servidor, ver TarefaSincronizacao.setServidor)
+     */
+    static final String SQL_ALTERACOES_TODAS = "INSERT INTO `alteracoes` (`syncId`, `atualizadaEm`, `apagada`) "
+            + "SELECT `syncId`, `atualizadaEm`, 0 FROM `tarefas` WHERE `syncId` IS NOT NULL ORDER BY `id`";
+
+    /**
+     * Tudo o que uma base de dados nova precisa além das tabelas das entidades,
+     * pela ordem de execução (ver TarefaMigrations.CRIACAO)
+     */
+    static List<String> criacao() {
+        List<String> sql = new ArrayList<>();
+        sql.add(SQL_ESTATISTICAS_BASE);
+        Collections.addAll(sql, TRIGGERS_ESTATISTICAS);
+        Collections.addAll(sql, TRIGGERS_TAGS);
+        Collections.addAll(sql, TRIGGERS_ALTERACOES);
+        return sql;
+    }
+}
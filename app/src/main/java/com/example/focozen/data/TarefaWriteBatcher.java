@@ -0,0 +1,413 @@
+package com.example.focozen.data;
+
+import android.util.Log;
+
+import com.example.focozen.model.Recorrencia;
+import com.example.focozen.model.SubTarefa;
+import com.example.focozen.model.Tag;
+import com.example.focozen.model.Tarefa;
+import com.example.focozen.model.TarefaEdicao;
+import com.example.focozen.model.TarefaResumo;
+import com.example.focozen.model.TarefaTag;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * TarefaWriteBatcher
+ * --------------------------------------------------
+ * Pipeline de escrita da base de dados.
+ * Responsável por:
+ *  - Executar todas as escritas numa única thread dedicada
+ *  - Agrupar as operações recebidas durante uma janela curta
+ *  - Fazer o commit de cada grupo numa única transação
+ *  - Avisar quem escreveu (CompletableFuture) quando o commit terminou
+ *
+ * Assim, vários toques rápidos na checkbox ou vários swipes
+ * resultam numa só transação (e num só fsync) em vez de uma por toque.
+ * Cada escrita numa tarefa grava o momento em atualizadaEm (versão usada na sincronização).
+ */
+public class TarefaWriteBatcher {
+
+    private static final String TAG = "TarefaWriteBatcher";
+
+    // Janela durante a qual as operações pendentes são agrupadas
+    static final long JANELA_MS = 50;
+
+    // Ids por instrução "WHERE id IN (...)": abaixo do limite de 999 variáveis
+    // do SQLite das versões mais antigas do Android (com folga para os outros parâmetros)
+    static final int TAMANHO_BLOCO = 900;
+
+    /**
+     * Listener para acompanhar cada lote confirmado
+     */
+    public interface OnLoteListener {
+        void onLoteConfirmado(int operacoes, long duracaoMs);
+    }
+
+    /**
+     * Tipo de operação.
+     * Recebe todos os itens consecutivos do mesmo tipo e aplica-os de uma vez.
+     * Pode devolver um resultado por item (ex: ids gerados) ou null.
+     */
+    interface Tipo<T, R> {
+        List<R> aplicar(TarefaDao dao, List<T> itens);
+    }
+
+    static final Tipo<Tarefa, Long> INSERIR = (dao, itens) -> {
+        long agora = System.currentTimeMillis();
+        for (Tarefa tarefa : itens) {
+            carimbar(tarefa, agora);
+        }
+        return dao.insertAll(itens);
+    };
+
+    // Apagamento definitivo, sem anulação: a UI elimina sempre com ELIMINAR_TEMPORARIAMENTE
+    // e o TarefaLimpeza apaga depois do prazo (usado pelos testes da sincronização)
+    static final Tipo<Tarefa, Void> ELIMINAR = (dao, itens) -> {
+        dao.deleteAll(itens);
+        return null;
+    };
+
+    // Escritas parciais a partir da lista (sem ler nem reescrever a descrição)
+
+    static final Tipo<TarefaResumo, Void> ATUALIZAR_CONCLUIDA = (dao, itens) -> {
+        long agora = System.currentTimeMillis();
+        for (TarefaResumo resumo : itens) {
+            dao.setConcluida(resumo.getId(), resumo.isConcluida(), agora);
+        }
+        return null;
+    };
+
+    // Concluir uma tarefa que se repete: a data de vencimento passa para a ocorrência seguinte
+    // (cada item já traz a nova data, ver TarefaRepository.setConcluida)
+    static final Tipo<TarefaResumo, Void> AVANCAR_RECORRENCIA = (dao, itens) -> {
+        long agora = System.currentTimeMillis();
+        for (TarefaResumo resumo : itens) {
+            dao.setDataVencimento(resumo.getId(), resumo.getDataVencimento(), agora);
+        }
+        return null;
+    };
+
+    // Eliminação com anulação: a tarefa fica escondida até ser limpa pelo TarefaLimpeza
+    static final Tipo<TarefaResumo, Void> ELIMINAR_TEMPORARIAMENTE = (dao, itens) -> {
+        long agora = System.currentTimeMillis();
+        for (TarefaResumo resumo : itens) {
+            dao.setEliminadaEm(resumo.getId(), agora, agora);
+        }
+        return null;
+    };
+
+    static final Tipo<TarefaResumo, Void> REPOR_ELIMINADA = (dao, itens) -> {
+        long agora = System.currentTimeMillis();
+        for (TarefaResumo resumo : itens) {
+            dao.setEliminadaEm(resumo.getId(), 0, agora);
+        }
+        return null;
+    };
+
+    // Seleção múltipla: cada item é a lista de ids selecionados, escrita em blocos de TAMANHO_BLOCO
+
+    // As tarefas que se repetem avançam para a ocorrência seguinte; as outras ficam concluídas
+    static final Tipo<List<Integer>, Void> CONCLUIR_VARIAS = (dao, itens) -> {
+        ZoneId zona = ZoneId.systemDefault();
+        long agora = System.currentTimeMillis();
+        emBlocos(itens, bloco -> {
+            for (TarefaResumo recorrente : dao.getRecorrentes(bloco)) {
+                dao.setDataVencimento(recorrente.getId(), Recorrencia.proxima(
+                        recorrente.getDataVencimento(), recorrente.getRecorrencia(), zona), agora);
+            }
+            dao.concluirNaoRecorrentes(bloco, agora);
+        });
+        return null;
+    };
+
+    static final Tipo<List<Integer>, Void> ELIMINAR_VARIAS_TEMPORARIAMENTE = (dao, itens) -> {
+        long agora = System.currentTimeMillis();
+        emBlocos(itens, bloco -> dao.setEliminadasEm(bloco, agora, agora));
+        return null;
+    };
+
+    static final Tipo<List<Integer>, Void> REPOR_VARIAS = (dao, itens) -> {
+        long agora = System.currentTimeMillis();
+        emBlocos(itens, bloco -> dao.setEliminadasEm(bloco, 0, agora));
+        return null;
+    };
+
+    static final Tipo<TarefaEdicao, Void> ATUALIZAR_EDICAO = (dao, itens) -> {
+        dao.updateEdicoes(itens);
+        return null;
+    };
+
+    // Checklist: só a tabela subtarefas é escrita (a linha da tarefa mantém-se)
+
+    static final Tipo<SubTarefa, Long> INSERIR_SUBTAREFA = TarefaDao::insertSubtarefas;
+
+    static final Tipo<SubTarefa, Void> ATUALIZAR_SUBTAREFA_CONCLUIDA = (dao, itens) -> {
+        for (SubTarefa subtarefa : itens) {
+            dao.setSubtarefaConcluida(subtarefa.getId(), subtarefa.isConcluida());
+        }
+        return null;
+    };
+
+    static final Tipo<SubTarefa, Void> ELIMINAR_SUBTAREFA = (dao, itens) -> {
+        for (SubTarefa subtarefa : itens) {
+            dao.deleteSubtarefa(subtarefa.getId());
+        }
+        return null;
+    };
+
+    // Etiquetas: criar devolve o id da etiqueta, também quando já existia uma com o mesmo nome
+
+    static final Tipo<Tag, Long> INSERIR_TAG = (dao, itens) -> {
+        List<Long> ids = new ArrayList<>(itens.size());
+        for (Tag tag : itens) {
+            long id = dao.insertTag(tag);
+            ids.add(id != -1 ? id : dao.getTagPorNome(tag.getNome()).getId());
+        }
+        return ids;
+    };
+
+    // Os contadores das etiquetas são atualizados pelos triggers de tarefas_tags
+    static final Tipo<TarefaTag, Void> ASSOCIAR_TAG = (dao, itens) -> {
+        dao.insertTarefaTags(itens);
+        return null;
+    };
+
+    static final Tipo<TarefaTag, Void> RETIRAR_TAG = (dao, itens) -> {
+        for (TarefaTag associacao : itens) {
+            dao.deleteTarefaTag(associacao.getTarefaId(), associacao.getTagId());
+        }
+        return null;
+    };
+
+    // Sincronização (ver TarefaSincronizacao)
+
+    // Cada item é uma página recebida do servidor; devolve o número de tarefas alteradas
+    static final Tipo<List<SincronizacaoCliente.Registo>, Integer> APLICAR_REMOTAS = (dao, itens) -> {
+        List<Integer> aplicadas = new ArrayList<>(itens.size());
+        for (List<SincronizacaoCliente.Registo> pagina : itens) {
+            aplicadas.add(TarefaSincronizacao.aplicar(dao, pagina));
+        }
+        return aplicadas;
+    };
+
+    // Cada item é o seq da última alteração confirmada pelo servidor
+    static final Tipo<Long, Void> CONFIRMAR_ENVIO = (dao, itens) -> {
+        dao.apagarAlteracoesAte(Collections.max(itens));
+        return null;
+    };
+
+    // Cada item é o endereço de um servidor novo (várias mudanças seguidas reiniciam o diário uma vez)
+    static final Tipo<String, Void> REINICIAR_DIARIO = (dao, itens) -> {
+        dao.reiniciarAlteracoes();
+        return null;
+    };
+
+    /**
+     * Uma operação pendente e o future de quem a pediu
+     */
+    private static final class Operacao<T, R> {
+        final Tipo<T, R> tipo;
+        final T item;
+        final CompletableFuture<R> future = new CompletableFuture<>();
+        R resultado;
+
+        Operacao(Tipo<T, R> tipo, T item) {
+            this.tipo = tipo;
+            this.item = item;
+        }
+    }
+
+    // Singleton instance
+    private static volatile TarefaWriteBatcher INSTANCE;
+
+    private final TarefaDatabase database;
+    private final TarefaDao tarefaDao;
+    private final ScheduledExecutorService executor;
+
+    private final Object lock = new Object();
+    private List<Operacao<?, ?>> pendentes = new ArrayList<>();
+    private boolean flushAgendado = false;
+
+    private volatile OnLoteListener loteListener;
+
+    // Duração de cada transação completa (incluindo o commit), ao lado das operações do DAO
+    private static final String METRICA_LOTE = "lote de escrita";
+    private final MetricasBaseDados metricas = MetricasBaseDados.getInstance();
+    private final HistogramaLatencia histogramaLote = metricas.operacao(METRICA_LOTE);
+
+    /**
+     * Pipeline de escrita de outra base de dados (ex: nos testes, uma base de dados em memória)
+     */
+    TarefaWriteBatcher(TarefaDatabase database) {
+        this.database = database;
+        this.tarefaDao = database.tarefaDao();
+        this.executor = Executors.newSingleThreadScheduledExecutor(
+                runnable -> new Thread(runnable, "focozen-escrita"));
+    }
+
+    /**
+     * Retorna a instância única do pipeline de escrita.
+     */
+    public static TarefaWriteBatcher getInstance(TarefaDatabase database) {
+        if (INSTANCE == null) {
+            synchronized (TarefaWriteBatcher.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new TarefaWriteBatcher(database);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    public void setOnLoteListener(OnLoteListener listener) {
+        this.loteListener = listener;
+    }
+
+    /**
+     * Coloca uma operação na fila.
+     * O future é concluído depois do commit da transação que a inclui.
+     */
+    <T, R> CompletableFuture<R> submeter(Tipo<T, R> tipo, T item) {
+        Operacao<T, R> operacao = new Operacao<>(tipo, item);
+        synchronized (lock) {
+            pendentes.add(operacao);
+            // A primeira operação da janela agenda o commit; as seguintes juntam-se a ela
+            if (!flushAgendado) {
+                flushAgendado = true;
+                executor.schedule(this::flush, JANELA_MS, TimeUnit.MILLISECONDS);
+            }
+        }
+        return operacao.future;
+    }
+
+    /**
+     * Aplica todas as operações pendentes numa única transação.
+     * Corre sempre na thread de escrita.
+     */
+    private void flush() {
+        List<Operacao<?, ?>> lote;
+        synchronized (lock) {
+            lote = pendentes;
+            pendentes = new ArrayList<>();
+            flushAgendado = false;
+        }
+        if (lote.isEmpty()) {
+            return;
+        }
+
+        // 1. O lote inteiro numa transação
+        long inicio = System.nanoTime();
+        List<Operacao<?, ?>> confirmadas;
+        try {
+            database.runInTransaction(() -> {
+                // Operações consecutivas do mesmo tipo são aplicadas numa só chamada ao DAO
+                // (insertAll/updateAll/deleteAll), mantendo a ordem original entre tipos
+                int i = 0;
+                while (i < lote.size()) {
+                    int fim = i + 1;
+                    while (fim < lote.size() && lote.get(fim).tipo == lote.get(i).tipo) {
+                        fim++;
+                    }
+                    aplicarGrupo(lote.subList(i, fim));
+                    i = fim;
+                }
+            });
+            confirmadas = lote;
+        } catch (Throwable e) {
+            // 2. Uma operação falhou e a transação foi desfeita: cada operação é repetida
+            // na sua própria transação, para que só falhe o future de quem a pediu
+            Log.w(TAG, "Falha no commit de um lote com " + lote.size()
+                    + " operações; a repetir uma a uma", e);
+            confirmadas = aplicarUmaAUma(lote);
+        }
+        long duracaoNanos = System.nanoTime() - inicio;
+        long duracaoMs = TimeUnit.NANOSECONDS.toMillis(duracaoNanos);
+        if (confirmadas.isEmpty()) {
+            return;
+        }
+        metricas.registar(METRICA_LOTE, histogramaLote, duracaoNanos, confirmadas.size());
+
+        // 3. Só depois do commit é que quem escreveu é avisado
+        for (Operacao<?, ?> operacao : confirmadas) {
+            concluir(operacao);
+        }
+
+        Log.d(TAG, "Lote confirmado: " + confirmadas.size() + " operações em " + duracaoMs + " ms");
+        OnLoteListener listener = loteListener;
+        if (listener != null) {
+            listener.onLoteConfirmado(confirmadas.size(), duracaoMs);
+        }
+    }
+
+    /**
+     * Aplica cada operação numa transação própria, pela ordem original.
+     * As que falham são logo concluídas com o erro; devolve as confirmadas (ainda por avisar).
+     */
+    private List<Operacao<?, ?>> aplicarUmaAUma(List<Operacao<?, ?>> lote) {
+        List<Operacao<?, ?>> confirmadas = new ArrayList<>(lote.size());
+        for (Operacao<?, ?> operacao : lote) {
+            List<Operacao<?, ?>> sozinha = Collections.singletonList(operacao);
+            try {
+                database.runInTransaction(() -> aplicarGrupo(sozinha));
+                confirmadas.add(operacao);
+            } catch (Throwable e) {
+                Log.e(TAG, "Falha numa operação de escrita", e);
+                operacao.future.completeExceptionally(e);
+            }
+        }
+        return confirmadas;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T, R> void aplicarGrupo(List<Operacao<?, ?>> grupo) {
+        Tipo<T, R> tipo = (Tipo<T, R>) grupo.get(0).tipo;
+        List<T> itens = new ArrayList<>(grupo.size());
+        for (Operacao<?, ?> operacao : grupo) {
+            itens.add((T) operacao.item);
+        }
+        List<R> resultados = tipo.aplicar(tarefaDao, itens);
+        if (resultados != null) {
+            for (int i = 0; i < grupo.size(); i++) {
+                ((Operacao<T, R>) grupo.get(i)).resultado = resultados.get(i);
+            }
+        }
+    }
+
+    private static <T, R> void concluir(Operacao<T, R> operacao) {
+        operacao.future.complete(operacao.resultado);
+    }
+
+    /**
+     * Prepara uma tarefa nova: atribui o syncId (se ainda não tiver) e a versão.
+     * Usado também pela importação (TarefaTransferencia), que insere fora do pipeline.
+     */
+    static void carimbar(Tarefa tarefa, long agora) {
+        if (tarefa.getSyncId() == null) {
+            tarefa.setSyncId(UUID.randomUUID().toString());
+        }
+        tarefa.setAtualizadaEm(agora);
+    }
+
+    /**
+     * Junta os ids de todas as seleções do grupo e aplica-os em blocos de TAMANHO_BLOCO
+     */
+    static void emBlocos(List<List<Integer>> selecoes, Consumer<List<Integer>> escrita) {
+        List<Integer> ids = new ArrayList<>();
+        for (List<Integer> selecao : selecoes) {
+            ids.addAll(selecao);
+        }
+        for (int inicio = 0; inicio < ids.size(); inicio += TAMANHO_BLOCO) {
+            escrita.accept(ids.subList(inicio, Math.min(inicio + TAMANHO_BLOCO, ids.size())));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.focozen.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Registo do diário de alterações das tarefas (tabela só de acréscimo), usado na sincronização.
+ * Esta classe é a Entity do Room.
+ *
+ * As linhas são escritas pelos triggers de "tarefas" (ver TarefaTriggers.TRIGGERS_ALTERACOES),
+ * na mesma transação de cada escrita do TarefaDao, e apagadas quando o servidor as confirma
+ * ou pela TarefaLimpeza (que deixa só a última de cada tarefa, ou nenhuma sem servidor configurado).
+ * O seq (AUTOINCREMENT) nunca é reutilizado, por isso dá a ordem das alterações.
+ * O registo guarda apenas qual tarefa mudou: o que é enviado é o estado atual da tarefa.
+ */
+@Entity(tableName = "alteracoes")
+public class Alteracao {
+
+    @PrimaryKey(autoGenerate = true)
+    private final long seq;
+
+    @NonNull
+    private final String syncId;
+    // Versão da tarefa (atualizadaEm) ou, num apagamento, o momento em que foi apagada
+    private final long atualizadaEm;
+    // A tarefa foi apagada definitivamente (o servidor recebe só o syncId e o momento)
+    private final boolean apagada;
+
+    public Alteracao(long seq, @NonNull String syncId, long atualizadaEm, boolean apagada) {
+        this.seq = seq;
+        this.syncId = syncId;
+        this.atualizadaEm = atualizadaEm;
+        this.apagada = apagada;
+    }
+
+    // --- Getters ---
+
+    public long getSeq() {
+        return seq;
+    }
+
+    @NonNull
+    public String getSyncId() {
+        return syncId;
+    }
+
+    public long getAtualizadaEm() {
+        return atualizadaEm;
+    }
+
+    public boolean isApagada() {
+        return apagada;
+    }
+}
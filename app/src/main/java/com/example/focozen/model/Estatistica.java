@@ -0,0 +1,64 @@
+package com.example.focozen.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Contadores de tarefas (não eliminadas) de uma prioridade.
+ * A tabela "estatisticas" é mantida pelos triggers sobre "tarefas"
+ * (ver TarefaTriggers.TRIGGERS_ESTATISTICAS): o painel lê uma linha
+ * por prioridade, qualquer que seja o número de tarefas.
+ */
+@Entity(tableName = "estatisticas")
+public class Estatistica {
+
+    @PrimaryKey
+    private final int prioridade; // 1=Baixa, 2=Média, 3=Alta
+    private final int pendentes;
+    private final int concluidas;
+
+    public Estatistica(int prioridade, int pendentes, int concluidas) {
+        this.prioridade = prioridade;
+        this.pendentes = pendentes;
+        this.concluidas = concluidas;
+    }
+
+    // --- Getters ---
+
+    public int getPrioridade() {
+        return prioridade;
+    }
+
+    public int getPendentes() {
+        return pendentes;
+    }
+
+    public int getConcluidas() {
+        return concluidas;
+    }
+
+    // Usado na verificação dos contadores (ver TarefaLimpeza)
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Estatistica)) {
+            return false;
+        }
+        Estatistica outra = (Estatistica) o;
+        return prioridade == outra.prioridade && pendentes == outra.pendentes && concluidas == outra.concluidas;
+    }
+
+    @Override
+    public int hashCode() {
+        return (prioridade * 31 + pendentes) * 31 + concluidas;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return prioridade + ": " + pendentes + " pendentes, " + concluidas + " concluídas";
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.focozen.model;
+
+/**
+ * Linha do painel de estatísticas: os contadores de uma prioridade
+ * e o número de tarefas pendentes já vencidas.
+ * As vencidas dependem da hora atual, por isso não podem ser mantidas
+ * por triggers: são contadas no índice (concluida, eliminadaEm, prioridade, dataVencimento).
+ */
+public class EstatisticaPrioridade {
+
+    private final int prioridade; // 1=Baixa, 2=Média, 3=Alta
+    private final int pendentes;
+    private final int concluidas;
+    private final int vencidas;
+
+    // Construtor (usado pelo Room: os nomes dos parâmetros correspondem às colunas)
+    public EstatisticaPrioridade(int prioridade, int pendentes, int concluidas, int vencidas) {
+        this.prioridade = prioridade;
+        this.pendentes = pendentes;
+        this.concluidas = concluidas;
+        this.vencidas = vencidas;
+    }
+
+    // --- Getters ---
+
+    public int getPrioridade() {
+        return prioridade;
+    }
+
+    public int getPendentes() {
+        return pendentes;
+    }
+
+    public int getConcluidas() {
+        return concluidas;
+    }
+
+    public int getVencidas() {
+        return vencidas;
+    }
+
+    public int getTotal() {
+        return pendentes + concluidas;
+    }
+}
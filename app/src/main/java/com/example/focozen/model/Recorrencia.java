@@ -0,0 +1,126 @@
+package com.example.focozen.model;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * Recorrencia
+ * --------------------------------------------------
+ * Regra de repetição de uma tarefa, guardada num único inteiro (coluna "recorrencia").
+ * Responsável por:
+ *  - Codificar e descodificar a regra (unidade, intervalo e dia do mês)
+ *  - Calcular a ocorrência seguinte a uma data, em tempo constante
+ *
+ * A data de vencimento da tarefa é sempre a ocorrência atual (a próxima por concluir):
+ * concluir uma ocorrência avança a data, sem criar linhas para as ocorrências futuras.
+ * As ocorrências de uma janela de datas são geradas pelo ExpansorRecorrencias.
+ *
+ * Formato (bits): intervalo << 8 | diaDoMes << 3 | unidade. 0 = não se repete.
+ * Os dias e as semanas mantêm a hora local (mesmo quando muda a hora de verão);
+ * os meses mantêm o dia do mês, ou o último dia nos meses mais curtos (31 → 30, 28...).
+ */
+public final class Recorrencia {
+
+    // Unidades
+    public static final int NENHUMA = 0;
+    public static final int DIARIA = 1;
+    public static final int SEMANAL = 2;
+    public static final int MENSAL = 3;
+
+    public static final int INTERVALO_MAXIMO = 999;
+
+    private static final int BITS_UNIDADE = 3;
+    private static final int BITS_DIA = 5;
+
+    private Recorrencia() {
+    }
+
+    /**
+     * Cria uma regra.
+     * @param diaDoMes dia pretendido nas repetições mensais (1 a 31; ignorado nas outras unidades)
+     * @return 0 se a unidade for NENHUMA
+     */
+    public static int regra(int unidade, int intervalo, int diaDoMes) {
+        if (unidade <= NENHUMA || unidade > MENSAL) {
+            return 0;
+        }
+        if (intervalo < 1 || intervalo > INTERVALO_MAXIMO) {
+            throw new IllegalArgumentException("Intervalo inválido: " + intervalo);
+        }
+        int dia = unidade == MENSAL ? Math.max(1, Math.min(31, diaDoMes)) : 0;
+        return intervalo << (BITS_UNIDADE + BITS_DIA) | dia << BITS_UNIDADE | unidade;
+    }
+
+    /**
+     * Cria uma regra a partir da data de vencimento (o dia do mês é o dessa data)
+     */
+    public static int regra(int unidade, int intervalo, long dataVencimento, ZoneId zona) {
+        int dia = Instant.ofEpochMilli(dataVencimento).atZone(zona).getDayOfMonth();
+        return regra(unidade, intervalo, dia);
+    }
+
+    public static boolean isRecorrente(int regra) {
+        return unidade(regra) != NENHUMA;
+    }
+
+    public static int unidade(int regra) {
+        return regra & ((1 << BITS_UNIDADE) - 1);
+    }
+
+    public static int diaDoMes(int regra) {
+        return (regra >>> BITS_UNIDADE) & ((1 << BITS_DIA) - 1);
+    }
+
+    public static int intervalo(int regra) {
+        return regra >>> (BITS_UNIDADE + BITS_DIA);
+    }
+
+    /**
+     * Verifica uma regra lida de fora da aplicação (ex: importação)
+     */
+    public static boolean isValida(int regra) {
+        if (regra == 0) {
+            return true;
+        }
+        int unidade = unidade(regra);
+        int dia = diaDoMes(regra);
+        int intervalo = intervalo(regra);
+        return unidade >= DIARIA && unidade <= MENSAL
+                && intervalo >= 1 && intervalo <= INTERVALO_MAXIMO
+                && (unidade == MENSAL ? dia >= 1 : dia == 0);
+    }
+
+    /**
+     * Ocorrência seguinte à data (que deve ser uma ocorrência da regra).
+     * Tempo constante: não depende de quantas ocorrências já passaram.
+     * @return a própria data, se a tarefa não se repetir
+     */
+    public static long proxima(long data, int regra, ZoneId zona) {
+        int intervalo = intervalo(regra);
+        ZonedDateTime atual = Instant.ofEpochMilli(data).atZone(zona);
+        LocalDateTime seguinte;
+        switch (unidade(regra)) {
+            case DIARIA:
+                seguinte = atual.toLocalDateTime().plusDays(intervalo);
+                break;
+            case SEMANAL:
+                seguinte = atual.toLocalDateTime().plusWeeks(intervalo);
+                break;
+            case MENSAL:
+                seguinte = noMes(atual.toLocalDateTime().plusMonths(intervalo), diaDoMes(regra));
+                break;
+            default:
+                return data;
+        }
+        return seguinte.atZone(zona).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Mesmo mês e hora, no dia pretendido (ou no último dia, se o mês for mais curto)
+     */
+    public static LocalDateTime noMes(LocalDateTime data, int diaDoMes) {
+        return data.withDayOfMonth(Math.min(diaDoMes, data.toLocalDate().lengthOfMonth()));
+    }
+}
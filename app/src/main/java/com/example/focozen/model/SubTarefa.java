@@ -0,0 +1,75 @@
+package com.example.focozen.model;
+
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Item da checklist de uma tarefa (subtarefa).
+ * Esta classe é a Entity do Room.
+ *
+ * As subtarefas são apagadas com a tarefa (ON DELETE CASCADE).
+ * O índice (tarefaId, concluida) serve a chave estrangeira, a leitura
+ * das subtarefas de várias tarefas (TarefaComSubtarefas) e as contagens
+ * do progresso na lista, que são feitas só no índice.
+ */
+@Entity(tableName = "subtarefas",
+        foreignKeys = @ForeignKey(entity = Tarefa.class,
+                parentColumns = "id",
+                childColumns = "tarefaId",
+                onDelete = ForeignKey.CASCADE),
+        indices = {
+                // WHERE tarefaId IN (...) e COUNT(*) WHERE tarefaId = ? [AND concluida = 1]
+                @Index(value = {"tarefaId", "concluida"})
+        })
+public class SubTarefa {
+
+    @PrimaryKey(autoGenerate = true)
+    private int id;
+
+    private int tarefaId; // Tarefa a que pertence
+    private String titulo;
+    private boolean concluida;
+
+    // Construtor
+    public SubTarefa(int tarefaId, String titulo, boolean concluida) {
+        this.tarefaId = tarefaId;
+        this.titulo = titulo;
+        this.concluida = concluida;
+    }
+
+    // --- Getters e Setters ---
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public int getTarefaId() {
+        return tarefaId;
+    }
+
+    public void setTarefaId(int tarefaId) {
+        this.tarefaId = tarefaId;
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public void setTitulo(String titulo) {
+        this.titulo = titulo;
+    }
+
+    public boolean isConcluida() {
+        return concluida;
+    }
+
+    public void setConcluida(boolean concluida) {
+        this.concluida = concluida;
+    }
+}
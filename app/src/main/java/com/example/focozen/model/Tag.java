@@ -0,0 +1,95 @@
+package com.example.focozen.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Etiqueta (ex: trabalho, casa, estudo) que pode ser associada a várias tarefas.
+ * Esta classe é a Entity do Room; as associações estão em TarefaTag.
+ *
+ * Os contadores de tarefas pendentes e concluídas (não eliminadas) são mantidos
+ * pelos triggers (ver TarefaTriggers.TRIGGERS_TAGS): o filtro mostra-os sem
+ * contar as tarefas de cada etiqueta.
+ */
+@Entity(tableName = "tags",
+        indices = {
+                // Uma etiqueta por nome (procurada pelo nome ao ser associada)
+                @Index(value = {"nome"}, unique = true)
+        })
+public class Tag {
+
+    @PrimaryKey(autoGenerate = true)
+    private int id;
+
+    @NonNull
+    private String nome;
+    private int pendentes;
+    private int concluidas;
+
+    // Construtor
+    public Tag(@NonNull String nome) {
+        this.nome = nome;
+    }
+
+    // --- Getters e Setters ---
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    @NonNull
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(@NonNull String nome) {
+        this.nome = nome;
+    }
+
+    public int getPendentes() {
+        return pendentes;
+    }
+
+    public void setPendentes(int pendentes) {
+        this.pendentes = pendentes;
+    }
+
+    public int getConcluidas() {
+        return concluidas;
+    }
+
+    public void setConcluidas(int concluidas) {
+        this.concluidas = concluidas;
+    }
+
+    // Usado na verificação dos contadores (ver TarefaLimpeza)
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Tag)) {
+            return false;
+        }
+        Tag outra = (Tag) o;
+        return id == outra.id && nome.equals(outra.nome)
+                && pendentes == outra.pendentes && concluidas == outra.concluidas;
+    }
+
+    @Override
+    public int hashCode() {
+        return ((id * 31 + nome.hashCode()) * 31 + pendentes) * 31 + concluidas;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return nome + ": " + pendentes + " pendentes, " + concluidas + " concluídas";
+    }
+}
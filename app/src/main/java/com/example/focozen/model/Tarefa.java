@@ -1,13 +1,39 @@
 package com.example.focozen.model;
 
+import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
 /**
  * Representa uma tarefa na base de dados.
  * Esta classe é a Entity do Room.
+ *
+ * Os índices seguem os filtros e ordenações do TarefaQuerySpec,
+ * para que o SQLite não tenha de percorrer a tabela nem ordenar numa B-tree temporária.
+ * Todas as consultas excluem as tarefas eliminadas (eliminadaEm = 0), por isso
+ * eliminadaEm faz parte de cada índice, logo a seguir às colunas de igualdade.
+ *
+ * Na sincronização (ver TarefaSincronizacao), cada tarefa é identificada entre dispositivos
+ * pelo syncId (o id local é diferente em cada um) e a versão mais recente, pelo atualizadaEm.
  */
-@Entity(tableName = "tarefas")
+@Entity(tableName = "tarefas",
+        indices = {
+                // WHERE concluida = ? AND eliminadaEm = 0 ORDER BY dataVencimento
+                @Index(value = {"concluida", "eliminadaEm", "dataVencimento"}),
+                // WHERE eliminadaEm = 0 ORDER BY prioridade DESC, dataVencimento ASC
+                @Index(value = {"eliminadaEm", "prioridade", "dataVencimento"},
+                        orders = {Index.Order.ASC, Index.Order.DESC, Index.Order.ASC}),
+                // WHERE concluida = ? AND eliminadaEm = 0 ORDER BY prioridade DESC, dataVencimento ASC
+                @Index(value = {"concluida", "eliminadaEm", "prioridade", "dataVencimento"},
+                        orders = {Index.Order.ASC, Index.Order.ASC, Index.Order.DESC, Index.Order.ASC}),
+                // WHERE eliminadaEm = 0 ORDER BY dataVencimento (e a limpeza: eliminadaEm > 0)
+                @Index(value = {"eliminadaEm", "dataVencimento"}),
+                // WHERE recorrencia > 0 (agenda: só as tarefas que se repetem, que são poucas)
+                @Index(value = {"recorrencia"}),
+                // WHERE syncId IN (...) (aplicar as alterações recebidas do servidor)
+                @Index(value = {"syncId"}, unique = true)
+        })
 public class Tarefa {
 
     @PrimaryKey(autoGenerate = true)
@@ -18,6 +44,18 @@ public class Tarefa {
     private int prioridade; // 1=Baixa, 2=Média, 3=Alta
     private long dataVencimento; // Armazenado como Timestamp (milissegundos)
     private boolean concluida;
+    // Momento em que foi eliminada (0 = não eliminada). Fica escondida até ser limpa.
+    @ColumnInfo(defaultValue = "0")
+    private long eliminadaEm;
+    // Regra de repetição (ver Recorrencia; 0 = não se repete).
+    // dataVencimento é a ocorrência atual: as seguintes não são guardadas.
+    @ColumnInfo(defaultValue = "0")
+    private int recorrencia;
+    // Identificador global (UUID), igual em todos os dispositivos. Atribuído ao inserir (TarefaWriteBatcher).
+    private String syncId;
+    // Momento da última escrita: a versão mais recente ganha na sincronização (last-writer-wins)
+    @ColumnInfo(defaultValue = "0")
+    private long atualizadaEm;
 
     // Construtor
     public Tarefa(String titulo, String descricao, int prioridade, long dataVencimento, boolean concluida) {
@@ -78,4 +116,36 @@ public class Tarefa {
     public void setConcluida(boolean concluida) {
         this.concluida = concluida;
     }
+
+    public long getEliminadaEm() {
+        return eliminadaEm;
+    }
+
+    public void setEliminadaEm(long eliminadaEm) {
+        this.eliminadaEm = eliminadaEm;
+    }
+
+    public int getRecorrencia() {
+        return recorrencia;
+    }
+
+    public void setRecorrencia(int recorrencia) {
+        this.recorrencia = recorrencia;
+    }
+
+    public String getSyncId() {
+        return syncId;
+    }
+
+    public void setSyncId(String syncId) {
+        this.syncId = syncId;
+    }
+
+    public long getAtualizadaEm() {
+        return atualizadaEm;
+    }
+
+    public void setAtualizadaEm(long atualizadaEm) {
+        this.atualizadaEm = atualizadaEm;
+    }
 }
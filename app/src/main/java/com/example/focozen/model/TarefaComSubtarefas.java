@@ -0,0 +1,28 @@
+package com.example.focozen.model;
+
+import androidx.room.Embedded;
+import androidx.room.Junction;
+import androidx.room.Relation;
+
+import java.util.List;
+
+/**
+ * Tarefa completa com a sua checklist e as suas etiquetas (usada pelo ecrã de edição).
+ * O Room lê as tarefas e depois as subtarefas de todas elas numa única
+ * consulta "WHERE tarefaId IN (...)", em vez de uma consulta por tarefa.
+ * As etiquetas são lidas da mesma forma, através da tabela de ligação tarefas_tags
+ * (pela chave primária (tarefaId, tagId)).
+ */
+public class TarefaComSubtarefas {
+
+    @Embedded
+    public Tarefa tarefa;
+
+    // Pela ordem do índice (tarefaId, concluida): ver TarefaRepository.getTarefaComSubtarefas
+    @Relation(parentColumn = "id", entityColumn = "tarefaId")
+    public List<SubTarefa> subtarefas;
+
+    @Relation(parentColumn = "id", entityColumn = "id",
+            associateBy = @Junction(value = TarefaTag.class, parentColumn = "tarefaId", entityColumn = "tagId"))
+    public List<Tag> tags;
+}
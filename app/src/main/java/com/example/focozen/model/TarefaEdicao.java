@@ -0,0 +1,29 @@
+package com.example.focozen.model;
+
+/**
+ * Campos de uma tarefa que podem ser alterados no ecrã de edição.
+ * Usada como entidade parcial no @Update: as colunas que não estão aqui
+ * (ex: concluida) mantêm o valor que têm na base de dados.
+ * O atualizadaEm é o momento da edição (versão usada na sincronização).
+ */
+public class TarefaEdicao {
+
+    public final int id;
+    public final String titulo;
+    public final String descricao;
+    public final int prioridade;
+    public final long dataVencimento;
+    public final int recorrencia;
+    public final long atualizadaEm;
+
+    public TarefaEdicao(int id, String titulo, String descricao, int prioridade, long dataVencimento,
+                        int recorrencia) {
+        this.id = id;
+        this.titulo = titulo;
+        this.descricao = descricao;
+        this.prioridade = prioridade;
+        this.dataVencimento = dataVencimento;
+        this.recorrencia = recorrencia;
+        this.atualizadaEm = System.currentTimeMillis();
+    }
+}
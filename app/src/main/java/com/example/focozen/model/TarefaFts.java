@@ -0,0 +1,41 @@
+package com.example.focozen.model;
+
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+
+/**
+ * Índice de texto (FTS4) sobre o título e a descrição das tarefas.
+ * Não guarda uma cópia dos dados: o conteúdo é lido da tabela tarefas
+ * e o índice é mantido atualizado por triggers gerados pelo Room.
+ *
+ * O tokenizer unicode61 ignora maiúsculas e acentos ("relatorio" encontra "Relatório").
+ */
+@Fts4(contentEntity = Tarefa.class, tokenizer = FtsOptions.TOKENIZER_UNICODE61)
+@Entity(tableName = "tarefas_fts")
+public class TarefaFts {
+
+    private String titulo;
+    private String descricao;
+
+    public TarefaFts(String titulo, String descricao) {
+        this.titulo = titulo;
+        this.descricao = descricao;
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public void setTitulo(String titulo) {
+        this.titulo = titulo;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public void setDescricao(String descricao) {
+        this.descricao = descricao;
+    }
+}
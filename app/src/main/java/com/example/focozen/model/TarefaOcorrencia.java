@@ -0,0 +1,23 @@
+package com.example.focozen.model;
+
+/**
+ * Uma ocorrência de uma tarefa numa data: a própria tarefa, se não se repetir,
+ * ou uma das repetições geradas pelo ExpansorRecorrencias (que não existem na base de dados).
+ */
+public final class TarefaOcorrencia {
+
+    public final TarefaResumo tarefa;
+    public final long data; // Timestamp (milissegundos)
+
+    public TarefaOcorrencia(TarefaResumo tarefa, long data) {
+        this.tarefa = tarefa;
+        this.data = data;
+    }
+
+    /**
+     * true para a ocorrência atual (a data de vencimento guardada), a única que pode ser concluída
+     */
+    public boolean isAtual() {
+        return data == tarefa.getDataVencimento();
+    }
+}
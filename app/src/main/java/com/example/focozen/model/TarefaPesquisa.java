@@ -0,0 +1,15 @@
+package com.example.focozen.model;
+
+import androidx.room.Embedded;
+
+/**
+ * Resultado de uma pesquisa de texto: a tarefa e os dados de
+ * correspondência do FTS (matchinfo 'pcx'), usados para ordenar por relevância.
+ */
+public class TarefaPesquisa {
+
+    @Embedded
+    public TarefaResumo tarefa;
+
+    public byte[] matchInfo;
+}
@@ -0,0 +1,83 @@
+package com.example.focozen.model;
+
+import androidx.room.Ignore;
+
+/**
+ * Projeção leve de uma tarefa, usada nas consultas da lista.
+ * Contém apenas os campos mostrados em cada linha: a descrição
+ * (que pode ser longa) só é lida quando o ecrã de edição é aberto.
+ *
+ * O progresso da checklist (subtarefas e subtarefasConcluidas) é contado
+ * no SQL da lista e da pesquisa; nas outras consultas fica a 0.
+ */
+public class TarefaResumo {
+
+    private final int id;
+    private final String titulo;
+    private final int prioridade; // 1=Baixa, 2=Média, 3=Alta
+    private final long dataVencimento; // Timestamp (milissegundos)
+    private final boolean concluida;
+    private final int recorrencia; // Regra de repetição (ver Recorrencia; 0 = não se repete)
+    // Progresso da checklist (preenchido pelo Room quando a consulta traz estas colunas)
+    private int subtarefas;
+    private int subtarefasConcluidas;
+
+    // Construtor (usado pelo Room: os nomes dos parâmetros correspondem às colunas)
+    public TarefaResumo(int id, String titulo, int prioridade, long dataVencimento, boolean concluida,
+                        int recorrencia) {
+        this.id = id;
+        this.titulo = titulo;
+        this.prioridade = prioridade;
+        this.dataVencimento = dataVencimento;
+        this.concluida = concluida;
+        this.recorrencia = recorrencia;
+    }
+
+    // Tarefa que não se repete
+    @Ignore
+    public TarefaResumo(int id, String titulo, int prioridade, long dataVencimento, boolean concluida) {
+        this(id, titulo, prioridade, dataVencimento, concluida, 0);
+    }
+
+    // --- Getters ---
+
+    public int getId() {
+        return id;
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public int getPrioridade() {
+        return prioridade;
+    }
+
+    public long getDataVencimento() {
+        return dataVencimento;
+    }
+
+    public boolean isConcluida() {
+        return concluida;
+    }
+
+    public int getRecorrencia() {
+        return recorrencia;
+    }
+
+    public int getSubtarefas() {
+        return subtarefas;
+    }
+
+    public void setSubtarefas(int subtarefas) {
+        this.subtarefas = subtarefas;
+    }
+
+    public int getSubtarefasConcluidas() {
+        return subtarefasConcluidas;
+    }
+
+    public void setSubtarefasConcluidas(int subtarefasConcluidas) {
+        this.subtarefasConcluidas = subtarefasConcluidas;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.focozen.model;
+
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+
+/**
+ * Associação entre uma tarefa e uma etiqueta (tabela de ligação muitos-para-muitos).
+ * Esta classe é a Entity do Room.
+ *
+ * As duas chaves cobrem as consultas sem ler outra tabela:
+ *  - a chave primária (tarefaId, tagId) responde a "esta tarefa tem a etiqueta X?"
+ *    (o filtro da lista, ver TarefaQuerySpec) e às etiquetas de uma tarefa;
+ *  - o índice (tagId, tarefaId) serve a chave estrangeira e as tarefas de uma etiqueta.
+ * As associações são apagadas com a tarefa ou com a etiqueta (ON DELETE CASCADE).
+ */
+@Entity(tableName = "tarefas_tags",
+        primaryKeys = {"tarefaId", "tagId"},
+        foreignKeys = {
+                @ForeignKey(entity = Tarefa.class,
+                        parentColumns = "id",
+                        childColumns = "tarefaId",
+                        onDelete = ForeignKey.CASCADE),
+                @ForeignKey(entity = Tag.class,
+                        parentColumns = "id",
+                        childColumns = "tagId",
+                        onDelete = ForeignKey.CASCADE)
+        },
+        indices = {
+                @Index(value = {"tagId", "tarefaId"})
+        })
+public class TarefaTag {
+
+    private final int tarefaId;
+    private final int tagId;
+
+    public TarefaTag(int tarefaId, int tagId) {
+        this.tarefaId = tarefaId;
+        this.tagId = tagId;
+    }
+
+    // --- Getters ---
+
+    public int getTarefaId() {
+        return tarefaId;
+    }
+
+    public int getTagId() {
+        return tagId;
+    }
+}
@@ -4,20 +4,38 @@ import android.app.DatePickerDialog;
 import android.os.Bundle;
 import android.view.Menu;
 import android.view.MenuItem;
+import android.view.View;
+import android.view.ViewTreeObserver;
 import android.widget.ArrayAdapter;
+import android.widget.AutoCompleteTextView;
+import android.widget.CheckBox;
 import android.widget.EditText;
+import android.widget.LinearLayout;
 import android.widget.Spinner;
 import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.content.ContextCompat;
+import androidx.tracing.Trace;
 
 import com.example.focozen.R;
 import com.example.focozen.data.TarefaRepository;
+import com.example.focozen.model.Recorrencia;
+import com.example.focozen.model.SubTarefa;
+import com.example.focozen.model.Tag;
 import com.example.focozen.model.Tarefa;
+import com.example.focozen.model.TarefaComSubtarefas;
+import com.example.focozen.model.TarefaEdicao;
+import com.google.android.material.chip.Chip;
+import com.google.android.material.chip.ChipGroup;
 
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 /**
  * AdicionarEditarActivity
  * --------------------------------------------------
@@ -25,32 +43,68 @@ import java.util.Date;
  *  - Criar novas tarefas
  *  - Editar tarefas existentes
  *  - Definir título, descrição, prioridade e data de vencimento
+ *  - Definir a repetição (a cada n dias, semanas ou meses)
+ *  - Gerir a checklist (subtarefas) de uma tarefa existente
+ *  - Associar e retirar etiquetas de uma tarefa existente
  *
  * Esta Activity funciona em dois modos:
  *  - Modo Adicionar (sem EXTRA_TAREFA_ID)
  *  - Modo Editar (com EXTRA_TAREFA_ID)
+ *
+ * Em modo de edição apenas o id chega pelo Intent; a tarefa, a checklist e as etiquetas
+ * são lidas através do repositório (que mantém uma cache em memória).
+ * Os itens da checklist são gravados logo que são marcados, acrescentados
+ * ou removidos (clique longo), sem esperar pelo botão Guardar; o mesmo
+ * acontece com as etiquetas.
  */
 public class AdicionarEditarActivity extends AppCompatActivity {
 
     public static final String EXTRA_TAREFA_ID = "com.example.focozen.EXTRA_TAREFA_ID";
-    public static final String EXTRA_TAREFA_TITULO = "com.example.focozen.EXTRA_TAREFA_TITULO";
-    public static final String EXTRA_TAREFA_DESCRICAO = "com.example.focozen.EXTRA_TAREFA_DESCRICAO";
-    public static final String EXTRA_TAREFA_PRIORIDADE = "com.example.focozen.EXTRA_TAREFA_PRIORIDADE";
-    public static final String EXTRA_TAREFA_DATA_VENCIMENTO = "com.example.focozen.EXTRA_TAREFA_DATA_VENCIMENTO";
-    public static final String EXTRA_TAREFA_CONCLUIDA = "com.example.focozen.EXTRA_TAREFA_CONCLUIDA";
+
+    // Secção assíncrona do trace: do clique na MainActivity até ao primeiro frame deste ecrã
+    static final String TRACE_ABERTURA = "Abrir AdicionarEditarActivity";
+
+    // Chave usada para manter a data escolhida ao rodar o ecrã
+    private static final String ESTADO_DATA_VENCIMENTO = "estado_data_vencimento";
+    private static final String ESTADO_CAMPOS_CARREGADOS = "estado_campos_carregados";
 
     private EditText editTextTitulo;
     private EditText editTextDescricao;
     private Spinner spinnerPrioridade;
     private TextView textViewDataVencimento;
+    private EditText editTextIntervalo;
+    private Spinner spinnerRepeticao; // Posição = unidade de Recorrencia (0 = não se repete)
+    private LinearLayout layoutChecklist;
+    private LinearLayout layoutSubtarefas;
+    private EditText editTextSubtarefa;
+    private LinearLayout layoutTags;
+    private ChipGroup chipGroupTags;
+    private AutoCompleteTextView editTextTag;
     private TarefaRepository tarefaRepository;
 
     private long dataVencimentoTimestamp = 0; // Armazena o timestamp da data selecionada
     private int tarefaId = -1; // -1 para nova tarefa, >0 para edição
+    private boolean camposCarregados = false; // true quando os campos já mostram a tarefa a editar
 
     @Override
     protected void onCreate(Bundle savedInstanceState ) {
-        super.onCreate(savedInstanceState);
+        Trace.beginSection("AdicionarEditarActivity.onCreate");
+        try {
+            super.onCreate(savedInstanceState);
+            criar(savedInstanceState);
+        } finally {
+            Trace.endSection();
+        }
+        // Ao recriar a Activity (ex: rotação) não houve abertura a partir da lista
+        if (savedInstanceState == null) {
+            terminarTraceAbertura();
+        }
+    }
+
+    /**
+     * Inicialização do ecrã (chamada pelo onCreate, dentro da secção do trace)
+     */
+    private void criar(Bundle savedInstanceState) {
         setContentView(R.layout.activity_add_edit);
         // Ativa o botão de voltar (Up button) na barra de topo
         if (getSupportActionBar() != null) {
@@ -66,24 +120,206 @@ public class AdicionarEditarActivity extends AppCompatActivity {
             // 1. Obter o ID da Tarefa
             tarefaId = getIntent().getIntExtra(EXTRA_TAREFA_ID, -1);
 
-            // 2. Carregar os restantes dados para os campos
-            editTextTitulo.setText(getIntent().getStringExtra(EXTRA_TAREFA_TITULO));
-            editTextDescricao.setText(getIntent().getStringExtra(EXTRA_TAREFA_DESCRICAO));
-
-            // 3. Carregar Prioridade
-            int prioridade = getIntent().getIntExtra(EXTRA_TAREFA_PRIORIDADE, 1);
-            spinnerPrioridade.setSelection(prioridade - 1);
+            // 2. Ao recriar a Activity (ex: rotação), os campos já foram restaurados
+            //    pelo sistema e não podem ser substituídos pelos dados guardados
+            if (savedInstanceState != null && savedInstanceState.getBoolean(ESTADO_CAMPOS_CARREGADOS)) {
+                camposCarregados = true;
+                mostrarDataVencimento(savedInstanceState.getLong(ESTADO_DATA_VENCIMENTO));
+            }
 
-            // 4. Carregar Data de Vencimento
-            dataVencimentoTimestamp = getIntent().getLongExtra(EXTRA_TAREFA_DATA_VENCIMENTO, 0);
-            Calendar c = Calendar.getInstance();
-            c.setTimeInMillis(dataVencimentoTimestamp);
-            // Chama a função que atualiza o TextView da data
-            atualizarDataVencimentoUI(c.get(Calendar.YEAR), c.get(Calendar.MONTH), c.get(Calendar.DAY_OF_MONTH));
+            // 3. Carregar a tarefa, a checklist e as etiquetas (imediato se estiverem na cache do repositório)
+            layoutChecklist.setVisibility(View.VISIBLE);
+            layoutTags.setVisibility(View.VISIBLE);
+            sugerirTags();
+            CompletableFuture<TarefaComSubtarefas> carregamento = tarefaRepository.getTarefaComSubtarefas(tarefaId);
+            TarefaComSubtarefas emCache = carregamento.getNow(null);
+            if (emCache != null) {
+                mostrarTarefa(emCache);
+            } else {
+                carregamento.thenAcceptAsync(this::mostrarTarefa, ContextCompat.getMainExecutor(this));
+            }
 
         } else {
             setTitle(getString(R.string.title_add_task));
+            if (savedInstanceState != null) {
+                mostrarDataVencimento(savedInstanceState.getLong(ESTADO_DATA_VENCIMENTO));
+            }
+        }
+    }
+
+    /**
+     * Termina a secção TRACE_ABERTURA quando o primeiro frame for desenhado
+     */
+    private void terminarTraceAbertura() {
+        View raiz = getWindow().getDecorView();
+        raiz.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                raiz.getViewTreeObserver().removeOnPreDrawListener(this);
+                Trace.endAsyncSection(TRACE_ABERTURA, 0);
+                return true;
+            }
+        });
+    }
+
+    @Override
+    protected void onSaveInstanceState(Bundle outState) {
+        super.onSaveInstanceState(outState);
+        outState.putLong(ESTADO_DATA_VENCIMENTO, dataVencimentoTimestamp);
+        outState.putBoolean(ESTADO_CAMPOS_CARREGADOS, camposCarregados);
+    }
+
+    /**
+     * Mostra a tarefa a editar: os campos (se ainda não foram restaurados), a checklist e as etiquetas
+     */
+    private void mostrarTarefa(TarefaComSubtarefas tarefa) {
+        if (isFinishing() || isDestroyed()) {
+            return;
+        }
+        // A tarefa pode ter sido eliminada entretanto
+        if (tarefa == null) {
+            finish();
+            return;
+        }
+        if (!camposCarregados) {
+            preencherCampos(tarefa.tarefa);
         }
+        mostrarChecklist(tarefa.subtarefas);
+        mostrarTags(tarefa.tags);
+    }
+
+    /**
+     * Preenche os campos com os dados da tarefa a editar
+     */
+    private void preencherCampos(Tarefa tarefa) {
+        editTextTitulo.setText(tarefa.getTitulo());
+        editTextDescricao.setText(tarefa.getDescricao());
+        spinnerPrioridade.setSelection(tarefa.getPrioridade() - 1);
+        mostrarDataVencimento(tarefa.getDataVencimento());
+        int regra = tarefa.getRecorrencia();
+        spinnerRepeticao.setSelection(Recorrencia.unidade(regra));
+        if (Recorrencia.isRecorrente(regra)) {
+            editTextIntervalo.setText(String.valueOf(Recorrencia.intervalo(regra)));
+        }
+        camposCarregados = true;
+    }
+
+    /**
+     * Mostra uma CheckBox por subtarefa, pela ordem em que foram criadas
+     */
+    private void mostrarChecklist(List<SubTarefa> subtarefas) {
+        layoutSubtarefas.removeAllViews();
+        for (SubTarefa subtarefa : subtarefas) {
+            adicionarLinhaSubtarefa(subtarefa);
+        }
+    }
+
+    private void adicionarLinhaSubtarefa(SubTarefa subtarefa) {
+        CheckBox checkBox = new CheckBox(this);
+        checkBox.setText(subtarefa.getTitulo());
+        checkBox.setChecked(subtarefa.isConcluida());
+        // Marcar: só esta subtarefa é escrita (na lista, só a linha da tarefa é atualizada)
+        checkBox.setOnClickListener(v -> tarefaRepository.setConcluida(subtarefa, checkBox.isChecked()));
+        // Clique longo: remover o item
+        checkBox.setOnLongClickListener(v -> {
+            tarefaRepository.delete(subtarefa);
+            layoutSubtarefas.removeView(checkBox);
+            Toast.makeText(this, getString(R.string.toast_subtask_deleted), Toast.LENGTH_SHORT).show();
+            return true;
+        });
+        layoutSubtarefas.addView(checkBox);
+    }
+
+    /**
+     * Acrescenta o item escrito à checklist (a linha aparece depois do commit, já com o id)
+     */
+    private void adicionarSubtarefa() {
+        String titulo = editTextSubtarefa.getText().toString().trim();
+        if (titulo.isEmpty()) {
+            return;
+        }
+        editTextSubtarefa.setText("");
+        SubTarefa subtarefa = new SubTarefa(tarefaId, titulo, false);
+        tarefaRepository.insert(subtarefa).thenAcceptAsync(id -> {
+            if (isDestroyed()) {
+                return;
+            }
+            subtarefa.setId(id.intValue());
+            adicionarLinhaSubtarefa(subtarefa);
+        }, ContextCompat.getMainExecutor(this));
+    }
+
+    /**
+     * Mostra um Chip por etiqueta da tarefa, por ordem do nome
+     */
+    private void mostrarTags(List<Tag> tags) {
+        chipGroupTags.removeAllViews();
+        for (Tag tag : tags) {
+            adicionarChipTag(tag);
+        }
+    }
+
+    private void adicionarChipTag(Tag tag) {
+        Chip chip = new Chip(this);
+        chip.setText(tag.getNome());
+        // Fechar: retirar a etiqueta desta tarefa (a etiqueta continua disponível para as outras)
+        chip.setCloseIconVisible(true);
+        chip.setOnCloseIconClickListener(v -> {
+            tarefaRepository.retirarTag(tarefaId, tag);
+            chipGroupTags.removeView(chip);
+            Toast.makeText(this, getString(R.string.toast_tag_removed), Toast.LENGTH_SHORT).show();
+        });
+        chipGroupTags.addView(chip);
+    }
+
+    /**
+     * Sugere as etiquetas que já existem enquanto o nome é escrito
+     */
+    private void sugerirTags() {
+        tarefaRepository.getTags().thenAcceptAsync(tags -> {
+            if (isDestroyed()) {
+                return;
+            }
+            List<String> nomes = new ArrayList<>(tags.size());
+            for (Tag tag : tags) {
+                nomes.add(tag.getNome());
+            }
+            editTextTag.setAdapter(new ArrayAdapter<>(this, android.R.layout.simple_dropdown_item_1line, nomes));
+        }, ContextCompat.getMainExecutor(this));
+    }
+
+    /**
+     * Associa a etiqueta escrita à tarefa, criando-a se ainda não existir
+     * (o Chip aparece depois do commit, já com o id da etiqueta)
+     */
+    private void adicionarTag() {
+        String nome = editTextTag.getText().toString().trim();
+        if (nome.isEmpty()) {
+            return;
+        }
+        editTextTag.setText("");
+        tarefaRepository.associarTag(tarefaId, nome).thenAcceptAsync(tag -> {
+            if (isDestroyed()) {
+                return;
+            }
+            // Uma etiqueta que a tarefa já tinha não é repetida
+            for (int i = 0; i < chipGroupTags.getChildCount(); i++) {
+                if (((Chip) chipGroupTags.getChildAt(i)).getText().toString().equals(tag.getNome())) {
+                    return;
+                }
+            }
+            adicionarChipTag(tag);
+        }, ContextCompat.getMainExecutor(this));
+    }
+
+    /**
+     * Mostra uma data de vencimento guardada como timestamp
+     */
+    private void mostrarDataVencimento(long timestamp) {
+        Calendar c = Calendar.getInstance();
+        c.setTimeInMillis(timestamp);
+        // Chama a função que atualiza o TextView da data
+        atualizarDataVencimentoUI(c.get(Calendar.YEAR), c.get(Calendar.MONTH), c.get(Calendar.DAY_OF_MONTH));
     }
     /**
      * Trata o clique no botão de voltar (Up Button)
@@ -106,10 +342,20 @@ public class AdicionarEditarActivity extends AppCompatActivity {
         editTextDescricao = findViewById(R.id.editTextDescricao);
         spinnerPrioridade = findViewById(R.id.spinnerPrioridade);
         textViewDataVencimento = findViewById(R.id.textViewDataVencimento);
+        editTextIntervalo = findViewById(R.id.editTextIntervalo);
+        spinnerRepeticao = findViewById(R.id.spinnerRepeticao);
+        layoutChecklist = findViewById(R.id.layoutChecklist);
+        layoutSubtarefas = findViewById(R.id.layoutSubtarefas);
+        editTextSubtarefa = findViewById(R.id.editTextSubtarefa);
+        findViewById(R.id.buttonAdicionarSubtarefa).setOnClickListener(v -> adicionarSubtarefa());
+        layoutTags = findViewById(R.id.layoutTags);
+        chipGroupTags = findViewById(R.id.chipGroupTags);
+        editTextTag = findViewById(R.id.editTextTag);
+        findViewById(R.id.buttonAdicionarTag).setOnClickListener(v -> adicionarTag());
         //associa o click do botão à função "guardar tarefa"
         findViewById(R.id.buttonGuardar).setOnClickListener(v -> guardarTarefa());
 
-        tarefaRepository = new TarefaRepository(getApplication());
+        tarefaRepository = TarefaRepository.getInstance(getApplication());
 
         /**
          * Configuração do Spinner de Prioridade
@@ -168,21 +414,43 @@ public class AdicionarEditarActivity extends AppCompatActivity {
             return;
         }
 
-        // Criar o objeto Tarefa
-        Tarefa tarefa = new Tarefa(titulo, descricao, prioridade, dataVencimentoTimestamp, false);
+        // Regra de repetição (o dia do mês das repetições mensais é o da data de vencimento)
+        int unidade = spinnerRepeticao.getSelectedItemPosition();
+        int recorrencia = 0;
+        if (unidade != Recorrencia.NENHUMA) {
+            int intervalo = lerIntervalo();
+            if (intervalo < 1 || intervalo > Recorrencia.INTERVALO_MAXIMO) {
+                Toast.makeText(this, getString(R.string.toast_interval_invalid), Toast.LENGTH_SHORT).show();
+                return;
+            }
+            recorrencia = Recorrencia.regra(unidade, intervalo, dataVencimentoTimestamp, ZoneId.systemDefault());
+        }
 
         if (tarefaId != -1) {
-            // Edição
-            tarefa.setId(tarefaId);
-            // Manter o estado de concluída original (se for edição)
-            tarefaRepository.update(tarefa);
+            // Edição: só os campos deste ecrã são gravados (o estado de concluída é mantido)
+            tarefaRepository.update(new TarefaEdicao(tarefaId, titulo, descricao, prioridade,
+                    dataVencimentoTimestamp, recorrencia));
             Toast.makeText(this, getString(R.string.toast_task_updated), Toast.LENGTH_SHORT).show();
         } else {
             // Nova Tarefa
+            Tarefa tarefa = new Tarefa(titulo, descricao, prioridade, dataVencimentoTimestamp, false);
+            tarefa.setRecorrencia(recorrencia);
             tarefaRepository.insert(tarefa);
             Toast.makeText(this, getString(R.string.toast_task_saved), Toast.LENGTH_SHORT).show();
         }
 
         finish(); // Fecha a Activity e volta para a MainActivity
     }
+
+    /**
+     * Intervalo escrito pelo utilizador (0 se o campo estiver vazio)
+     */
+    private int lerIntervalo() {
+        String texto = editTextIntervalo.getText().toString().trim();
+        try {
+            return texto.isEmpty() ? 0 : Integer.parseInt(texto);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
 }
@@ -0,0 +1,150 @@
+package com.example.focozen.ui;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.view.MenuItem;
+import android.view.View;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.focozen.R;
+import com.example.focozen.data.TarefaRepository;
+import com.example.focozen.model.TarefaOcorrencia;
+import com.example.focozen.ui.adapter.AgendaAdapter;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * AgendaActivity
+ * --------------------------------------------------
+ * Activity responsável por:
+ *  - Mostrar as tarefas pendentes dos próximos dias, por ordem de data,
+ *    incluindo as repetições das tarefas que se repetem
+ *  - Carregar mais dias quando o utilizador chega ao fim da lista
+ *  - Abrir a tarefa de uma ocorrência para edição
+ *
+ * As repetições não existem na base de dados: são geradas (TarefaRepository.getOcorrencias)
+ * apenas para a janela de dias pedida, por isso o custo não depende do horizonte da agenda.
+ */
+public class AgendaActivity extends AppCompatActivity {
+
+    // Dias carregados de cada vez e horizonte máximo da agenda
+    private static final int DIAS_POR_JANELA = 14;
+    private static final int DIAS_MAXIMO = 366;
+    // Ocorrências por janela (proteção contra regras diárias em milhares de tarefas)
+    private static final int LIMITE_POR_JANELA = 2000;
+
+    private TarefaRepository tarefaRepository;
+    private AgendaAdapter adapter;
+    private RecyclerView recyclerView;
+    private TextView textViewVazia;
+
+    private final ZoneId zona = ZoneId.systemDefault();
+    private LocalDate hoje;
+    private LocalDate carregadoAte; // Primeiro dia ainda não carregado
+    private boolean aCarregar = false;
+    // Incrementado a cada recarga: os resultados de uma janela pedida antes são ignorados
+    private int geracao = 0;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_agenda);
+        setTitle(R.string.title_agenda);
+        if (getSupportActionBar() != null) {
+            getSupportActionBar().setDisplayHomeAsUpEnabled(true);
+        }
+
+        tarefaRepository = TarefaRepository.getInstance(getApplication());
+        textViewVazia = findViewById(R.id.textViewAgendaVazia);
+        recyclerView = findViewById(R.id.recyclerViewAgenda);
+        adapter = new AgendaAdapter(Locale.getDefault());
+        adapter.setOnOcorrenciaClickListener(this::abrirTarefa);
+        recyclerView.setAdapter(adapter);
+
+        // Ao chegar ao fim da lista, carregar a janela de dias seguinte
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+                if (!rv.canScrollVertically(1)) {
+                    carregarMais();
+                }
+            }
+        });
+    }
+
+    /**
+     * Volta a carregar desde hoje: as tarefas podem ter mudado no ecrã de edição
+     */
+    @Override
+    protected void onStart() {
+        super.onStart();
+        geracao++;
+        aCarregar = false;
+        hoje = LocalDate.now(zona);
+        carregadoAte = hoje;
+        adapter.limpar();
+        carregarMais();
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        if (item.getItemId() == android.R.id.home) {
+            onBackPressed();
+            return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+
+    /**
+     * Pede as ocorrências da janela de dias seguinte (uma de cada vez)
+     */
+    private void carregarMais() {
+        if (aCarregar || !carregadoAte.isBefore(hoje.plusDays(DIAS_MAXIMO))) {
+            return;
+        }
+        aCarregar = true;
+        int pedido = geracao;
+        LocalDate desde = carregadoAte;
+        LocalDate ate = desde.plusDays(DIAS_POR_JANELA);
+        tarefaRepository.getOcorrencias(inicioDoDia(desde), inicioDoDia(ate), LIMITE_POR_JANELA)
+                .thenAcceptAsync(ocorrencias -> {
+                    if (pedido != geracao || isDestroyed()) {
+                        return;
+                    }
+                    mostrarJanela(ocorrencias, ate);
+                }, ContextCompat.getMainExecutor(this));
+    }
+
+    private void mostrarJanela(List<TarefaOcorrencia> ocorrencias, LocalDate ate) {
+        // 1. Acrescentar no fim (as janelas chegam por ordem)
+        adapter.acrescentar(ocorrencias);
+        carregadoAte = ate;
+        aCarregar = false;
+        textViewVazia.setVisibility(adapter.getItemCount() == 0 ? View.VISIBLE : View.GONE);
+
+        // 2. Se a lista ainda não enche o ecrã, não há scroll: carregar já a janela seguinte
+        recyclerView.post(() -> {
+            if (!recyclerView.canScrollVertically(1)) {
+                carregarMais();
+            }
+        });
+    }
+
+    private void abrirTarefa(TarefaOcorrencia ocorrencia) {
+        Intent intent = new Intent(this, AdicionarEditarActivity.class);
+        intent.putExtra(AdicionarEditarActivity.EXTRA_TAREFA_ID, ocorrencia.tarefa.getId());
+        startActivity(intent);
+    }
+
+    private long inicioDoDia(LocalDate dia) {
+        return dia.atStartOfDay(zona).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.focozen.ui;
+
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.os.Build;
+import android.os.Bundle;
+import android.util.Log;
+import android.view.Menu;
+import android.view.MenuItem;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.content.ContextCompat;
+
+import com.example.focozen.R;
+import com.example.focozen.data.MetricasBaseDados;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * DiagnosticoActivity
+ * --------------------------------------------------
+ * Ecrã de depuração responsável por:
+ *  - Mostrar as métricas da base de dados (latência por operação, linhas, invalidações)
+ *  - Mostrar a fluidez do scroll da lista (frames lentos e percentis por sessão)
+ *  - Guardar as métricas num ficheiro, para comparar versões da aplicação
+ *  - Recomeçar a medição, para observar uma ação isolada
+ *
+ * Os ficheiros ficam na pasta da aplicação ("adb pull" de Android/data/<pacote>/files/diagnostico).
+ *
+ * Só aparece no menu em builds de depuração; as métricas são recolhidas sempre.
+ */
+public class DiagnosticoActivity extends AppCompatActivity {
+
+    private static final String TAG = "DiagnosticoActivity";
+
+    private TextView textViewMetricas;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_diagnostico);
+        setTitle(R.string.title_diagnostics);
+        if (getSupportActionBar() != null) {
+            getSupportActionBar().setDisplayHomeAsUpEnabled(true);
+        }
+        textViewMetricas = findViewById(R.id.textViewMetricas);
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        mostrarMetricas();
+    }
+
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.menu_diagnostico, menu);
+        return true;
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        int id = item.getItemId();
+        if (id == android.R.id.home) {
+            onBackPressed();
+            return true;
+        } else if (id == R.id.action_refresh_metrics) {
+            mostrarMetricas();
+            return true;
+        } else if (id == R.id.action_save_metrics) {
+            guardarMetricas();
+            return true;
+        } else if (id == R.id.action_reset_metrics) {
+            MetricasBaseDados.getInstance().limpar();
+            MetricasFrames.getInstance().limpar();
+            mostrarMetricas();
+            return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+
+    private void mostrarMetricas() {
+        textViewMetricas.setText(relatorio());
+    }
+
+    /**
+     * Texto com todas as métricas (o mesmo no ecrã e no ficheiro)
+     */
+    private String relatorio() {
+        return getString(R.string.diagnostics_database) + "\n\n"
+                + MetricasBaseDados.getInstance().getInstantaneo() + "\n"
+                + getString(R.string.diagnostics_frames) + "\n\n"
+                + MetricasFrames.getInstance().getInstantaneo();
+    }
+
+    /**
+     * Escreve as métricas num ficheiro novo, identificado pela versão e pela data
+     */
+    private void guardarMetricas() {
+        // 1. O texto é obtido já: o ficheiro corresponde ao que está no ecrã
+        String versao = versaoAplicacao();
+        String data = new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.ROOT).format(new Date());
+        String texto = "versão: " + versao + "\n"
+                + "dispositivo: " + Build.MANUFACTURER + " " + Build.MODEL + " (API " + Build.VERSION.SDK_INT + ")\n"
+                + "data: " + data + "\n\n"
+                + relatorio();
+        File base = getExternalFilesDir(null);
+        File pasta = new File(base != null ? base : getFilesDir(), "diagnostico");
+        File ficheiro = new File(pasta, "metricas-" + versao + "-" + data + ".txt");
+
+        // 2. Escrever em background e avisar no fim
+        CompletableFuture.runAsync(() -> {
+            if (!pasta.isDirectory() && !pasta.mkdirs()) {
+                throw new UncheckedIOException(new IOException("Pasta não criada: " + pasta));
+            }
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(ficheiro), StandardCharsets.UTF_8)) {
+                writer.write(texto);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).whenCompleteAsync((nada, erro) -> {
+            if (erro != null) {
+                Log.e(TAG, "Falha ao guardar as métricas", erro);
+                Toast.makeText(this, R.string.toast_metrics_save_failed, Toast.LENGTH_LONG).show();
+            } else {
+                Toast.makeText(this, getString(R.string.toast_metrics_saved, ficheiro.getAbsolutePath()),
+                        Toast.LENGTH_LONG).show();
+            }
+        }, ContextCompat.getMainExecutor(this));
+    }
+
+    private String versaoAplicacao() {
+        try {
+            PackageInfo info = getPackageManager().getPackageInfo(getPackageName(), 0);
+            return info.versionName + "-" + info.getLongVersionCode();
+        } catch (PackageManager.NameNotFoundException e) {
+            return "desconhecida";
+        }
+    }
+}
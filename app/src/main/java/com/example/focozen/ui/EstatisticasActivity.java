@@ -0,0 +1,121 @@
+package com.example.focozen.ui;
+
+import android.os.Bundle;
+import android.view.Gravity;
+import android.view.MenuItem;
+import android.widget.ProgressBar;
+import android.widget.TableLayout;
+import android.widget.TableRow;
+import android.widget.TextView;
+
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.LiveData;
+
+import com.example.focozen.R;
+import com.example.focozen.data.TarefaRepository;
+import com.example.focozen.model.EstatisticaPrioridade;
+
+import java.util.List;
+
+/**
+ * EstatisticasActivity
+ * --------------------------------------------------
+ * Activity responsável por:
+ *  - Mostrar, por prioridade, as tarefas pendentes, concluídas e vencidas
+ *  - Mostrar a taxa de conclusão de todas as tarefas
+ *
+ * Os contadores vêm da tabela "estatisticas", mantida por triggers:
+ * cada atualização lê uma linha por prioridade, qualquer que seja o número de tarefas.
+ * As vencidas são recontadas com a hora atual sempre que o ecrã volta a ser mostrado.
+ */
+public class EstatisticasActivity extends AppCompatActivity {
+
+    private TextView textViewTaxaConclusao;
+    private ProgressBar progressTaxaConclusao;
+    private TableLayout tabelaEstatisticas;
+    // Nomes das prioridades (índice = prioridade - 1)
+    private String[] prioridades;
+    // Consulta observada (uma nova a cada onResume)
+    private LiveData<List<EstatisticaPrioridade>> estatisticas;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_estatisticas);
+        setTitle(R.string.title_statistics);
+        if (getSupportActionBar() != null) {
+            getSupportActionBar().setDisplayHomeAsUpEnabled(true);
+        }
+
+        textViewTaxaConclusao = findViewById(R.id.textViewTaxaConclusao);
+        progressTaxaConclusao = findViewById(R.id.progressTaxaConclusao);
+        tabelaEstatisticas = findViewById(R.id.tabelaEstatisticas);
+        prioridades = getResources().getStringArray(R.array.prioridades_array);
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        // As vencidas são contadas até ao momento da consulta: ao voltar ao ecrã,
+        // a consulta é repetida com a hora atual.
+        // Enquanto o ecrã está aberto, o LiveData volta a ler os contadores sempre que as tarefas mudam.
+        if (estatisticas != null) {
+            estatisticas.removeObservers(this);
+        }
+        estatisticas = TarefaRepository.getInstance(getApplication()).getEstatisticas();
+        estatisticas.observe(this, this::mostrarEstatisticas);
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        if (item.getItemId() == android.R.id.home) {
+            onBackPressed();
+            return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+
+    private void mostrarEstatisticas(List<EstatisticaPrioridade> estatisticas) {
+        // 1. Manter só a linha de cabeçalho
+        tabelaEstatisticas.removeViews(1, tabelaEstatisticas.getChildCount() - 1);
+
+        // 2. Uma linha por prioridade, e os totais
+        int pendentes = 0;
+        int concluidas = 0;
+        int vencidas = 0;
+        for (EstatisticaPrioridade estatistica : estatisticas) {
+            int indice = estatistica.getPrioridade() - 1;
+            String nome = indice >= 0 && indice < prioridades.length
+                    ? prioridades[indice]
+                    : String.valueOf(estatistica.getPrioridade());
+            adicionarLinha(nome, estatistica.getPendentes(), estatistica.getConcluidas(), estatistica.getVencidas());
+            pendentes += estatistica.getPendentes();
+            concluidas += estatistica.getConcluidas();
+            vencidas += estatistica.getVencidas();
+        }
+        adicionarLinha(getString(R.string.stats_total), pendentes, concluidas, vencidas);
+
+        // 3. Taxa de conclusão
+        int total = pendentes + concluidas;
+        int taxa = total == 0 ? 0 : Math.round(100f * concluidas / total);
+        textViewTaxaConclusao.setText(getString(R.string.stats_completion_rate, taxa));
+        progressTaxaConclusao.setProgress(taxa);
+    }
+
+    private void adicionarLinha(String nome, int pendentes, int concluidas, int vencidas) {
+        TableRow linha = new TableRow(this);
+        linha.addView(criarCelula(nome, Gravity.START));
+        linha.addView(criarCelula(String.valueOf(pendentes), Gravity.END));
+        linha.addView(criarCelula(String.valueOf(concluidas), Gravity.END));
+        linha.addView(criarCelula(String.valueOf(vencidas), Gravity.END));
+        tabelaEstatisticas.addView(linha);
+    }
+
+    private TextView criarCelula(String texto, int gravidade) {
+        TextView celula = new TextView(this);
+        celula.setText(texto);
+        celula.setGravity(gravidade);
+        celula.setPadding(0, 8, 0, 8);
+        return celula;
+    }
+}
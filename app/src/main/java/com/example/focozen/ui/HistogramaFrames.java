@@ -0,0 +1,97 @@
+package com.example.focozen.ui;
+
+import java.util.Arrays;
+
+/**
+ * HistogramaFrames
+ * --------------------------------------------------
+ * Histograma das durações dos frames (intervalos de 1 ms, como o "dumpsys gfxinfo").
+ * Responsável por:
+ *  - Contar os frames e os frames lentos (acima do prazo do ecrã)
+ *  - Estimar percentis da duração dos frames
+ *  - Juntar sessões de scroll num total
+ *
+ * Não é thread-safe: quem o usa sincroniza o acesso (MedidorScroll, MetricasFrames).
+ */
+final class HistogramaFrames {
+
+    // Intervalo i: frames com duração até i + 1 ms; o último acumula os restantes
+    static final int INTERVALOS = 150;
+
+    private final int[] contagens = new int[INTERVALOS];
+    private int frames;
+    private int lentos;
+    private long maximoNanos;
+
+    /**
+     * Regista um frame; é lento se passou do prazo (o intervalo entre vsyncs)
+     */
+    void registar(long duracaoNanos, long prazoNanos) {
+        contagens[intervalo(duracaoNanos)]++;
+        frames++;
+        if (duracaoNanos > prazoNanos) {
+            lentos++;
+        }
+        maximoNanos = Math.max(maximoNanos, duracaoNanos);
+    }
+
+    /**
+     * Índice do intervalo de uma duração: o menor i com duração <= i + 1 ms
+     */
+    static int intervalo(long duracaoNanos) {
+        long micros = Math.max(duracaoNanos / 1000, 1);
+        return (int) Math.min((micros - 1) / 1000, INTERVALOS - 1);
+    }
+
+    void juntar(HistogramaFrames outro) {
+        for (int i = 0; i < INTERVALOS; i++) {
+            contagens[i] += outro.contagens[i];
+        }
+        frames += outro.frames;
+        lentos += outro.lentos;
+        maximoNanos = Math.max(maximoNanos, outro.maximoNanos);
+    }
+
+    int getFrames() {
+        return frames;
+    }
+
+    int getLentos() {
+        return lentos;
+    }
+
+    double getPercentagemLentos() {
+        return frames == 0 ? 0 : 100.0 * lentos / frames;
+    }
+
+    double getMaximoMs() {
+        return maximoNanos / 1_000_000.0;
+    }
+
+    /**
+     * Estimativa do percentil (0 < p <= 1), em milissegundos:
+     * o limite superior do intervalo onde cai, nunca acima do máximo registado.
+     */
+    double percentilMs(double p) {
+        if (frames == 0) {
+            return 0;
+        }
+        long alvo = (long) Math.ceil(p * frames);
+        long acumulado = 0;
+        for (int i = 0; i < INTERVALOS; i++) {
+            acumulado += contagens[i];
+            if (acumulado >= alvo) {
+                // O último intervalo não tem limite superior: usa o máximo
+                return i == INTERVALOS - 1 ? getMaximoMs() : Math.min(i + 1, getMaximoMs());
+            }
+        }
+        return getMaximoMs();
+    }
+
+    void limpar() {
+        Arrays.fill(contagens, 0);
+        frames = 0;
+        lentos = 0;
+        maximoNanos = 0;
+    }
+}
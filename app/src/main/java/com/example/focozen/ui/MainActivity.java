@@ -3,31 +3,57 @@ package com.example.focozen.ui;
 import android.Manifest;
 import android.content.Intent;
 import android.content.SharedPreferences;
+import android.content.pm.ApplicationInfo;
 import android.content.pm.PackageManager;
+import android.net.Uri;
 import android.os.Build;
 import android.os.Bundle;
+import android.os.Parcelable;
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.view.ActionMode;
+import androidx.appcompat.widget.SearchView;
 import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.Observer;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.paging.PagingData;
 import androidx.recyclerview.widget.ItemTouchHelper;
 import androidx.recyclerview.widget.RecyclerView;
+import androidx.tracing.Trace;
 import androidx.annotation.NonNull;
 // Certifique-se de que tem o import para Toast
 import android.view.Menu;
 import android.view.MenuItem;
 import android.widget.Toast;
 
-import com.example.focozen.model.Tarefa;
+import com.example.focozen.model.Tag;
+import com.example.focozen.model.TarefaResumo;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
+import com.google.android.material.snackbar.Snackbar;
 
 import com.example.focozen.R;
+import com.example.focozen.TempoArranque;
+import com.example.focozen.data.TarefaQuerySpec;
 import com.example.focozen.data.TarefaRepository;
+import com.example.focozen.data.TarefaTransferencia;
+import com.example.focozen.ui.adapter.SelecaoTarefas;
 import com.example.focozen.ui.adapter.TarefaAdapter;
-
+import com.example.focozen.ui.adapter.TarefaItemMapper;
+import com.example.focozen.ui.adapter.TarefaPagingAdapter;
+
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
+import java.util.TimeZone;
 
 /**
  * MainActivity
@@ -35,25 +61,62 @@ import java.util.Locale;
  * Activity principal da aplicação.
  * Responsável por:
  *  - Mostrar a lista de tarefas
- *  - Ordenar e filtrar tarefas
+ *  - Ordenar e filtrar tarefas (por estado e por etiquetas)
  *  - Adicionar, editar, concluir e eliminar tarefas
+ *  - Exportar e importar tarefas (JSON ou CSV)
  *  - Alterar o idioma da aplicação
  */
 public class MainActivity extends AppCompatActivity {
 
-    // Repositório responsável pelo acesso aos dados (Room / DB)
+    // Repositório responsável pelo acesso aos dados (Room / DB), partilhado por todo o processo
     private TarefaRepository tarefaRepository;
-    // Adapter do RecyclerView
+    // Estado que sobrevive a rotações e à troca de idioma (consulta, pesquisa, scroll)
+    private MainViewModel viewModel;
+
+    // Adapters do RecyclerView (lista completa ou paginada)
     private TarefaAdapter tarefaAdapter;
+    private TarefaPagingAdapter tarefaPagingAdapter;
+    private boolean modoPaginado = false;
+    // false até à primeira decisão do modo (ver getModoPaginado)
+    private boolean modoDecidido = false;
     // Componentes da UI
     private RecyclerView recyclerView;
     private FloatingActionButton fabAdicionarTarefa;
+    // Duração dos frames durante o scroll da lista (ver ecrã de diagnóstico)
+    private MedidorScroll medidorScroll;
     // Referências para controlo do LiveData atual
-    private LiveData<List<Tarefa>> currentTarefasLiveData;
-    private Observer<List<Tarefa>> currentObserver;
+    private LiveData<List<TarefaResumo>> currentTarefasLiveData;
+    private Observer<List<TarefaResumo>> currentObserver;
+    // Identifica no trace cada lista entregue pelo LiveData (da entrega até ser mostrada)
+    private int entregaLista = 0;
+    // Entrega ainda por mostrar (0 = nenhuma)
+    private int entregaPendente = 0;
+    private LiveData<PagingData<TarefaResumo>> currentPagedLiveData;
+    private Observer<PagingData<TarefaResumo>> currentPagedObserver;
+
+    // true enquanto a lista mostra resultados de pesquisa em vez da consulta ativa
+    private boolean modoPesquisa = false;
+
+    // Seleção múltipla (clique longo): action mode ativo, ou null
+    private ActionMode modoSelecao;
+
+    // Exportação/importação: o ficheiro é escolhido no seletor de documentos do sistema
+    private final ActivityResultLauncher<String> exportarJson = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument(TarefaTransferencia.Formato.JSON.mimeType),
+            uri -> exportar(uri, TarefaTransferencia.Formato.JSON));
+    private final ActivityResultLauncher<String> exportarCsv = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument(TarefaTransferencia.Formato.CSV.mimeType),
+            uri -> exportar(uri, TarefaTransferencia.Formato.CSV));
+    private final ActivityResultLauncher<String[]> escolherImportacao = registerForActivityResult(
+            new ActivityResultContracts.OpenDocument(), this::importar);
+    // Tipos de ficheiro aceites na importação (o formato é detetado pelo conteúdo)
+    private static final String[] TIPOS_IMPORTACAO = {
+            "application/json", "text/csv", "text/comma-separated-values", "text/plain"};
+    private Snackbar progressoTransferencia;
 
     @Override
     protected void onCreate(Bundle savedInstanceState ) {
+        TempoArranque.activityCriada();
         super.onCreate(savedInstanceState);
         loadLocale();
         setContentView(R.layout.activity_main);
@@ -61,8 +124,21 @@ public class MainActivity extends AppCompatActivity {
         init();
     }
 
+    @Override
+    protected void onDestroy() {
+        // Rotação ou troca de idioma: a posição da lista é reposta pela nova Activity
+        if (isChangingConfigurations() && !modoPesquisa) {
+            guardarEstadoLista();
+        }
+        medidorScroll.desligar();
+        super.onDestroy();
+    }
+
     private static final int PERMISSION_REQUEST_CODE = 100;
 
+    // Secção assíncrona do trace: da entrega de uma lista pelo LiveData até ser mostrada
+    private static final String TRACE_LISTA = "Lista entregue → mostrada";
+
     private void requestNotificationPermission() {
         // Verificar se a versão do Android é 13 (API 33) ou superior
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) { // TIRAMISU é API 33
@@ -87,56 +163,114 @@ public class MainActivity extends AppCompatActivity {
         // 1 - Bindings / Associações
         recyclerView = findViewById(R.id.recyclerViewTarefas);
         fabAdicionarTarefa = findViewById(R.id.fabAdicionarTarefa);
+        medidorScroll = MedidorScroll.ligar(this, recyclerView);
 
-        // 2 - Inicialização do Repositório e Adapter
-        tarefaRepository = new TarefaRepository(getApplication());
-        tarefaAdapter = new TarefaAdapter(this); // O Adapter será criado no próximo passo
-
+        // 2 - Inicialização do Repositório, ViewModel e Adapter
+        tarefaRepository = TarefaRepository.getInstance(getApplication());
+        viewModel = new ViewModelProvider(this, new MainViewModel.Factory(tarefaRepository))
+                .get(MainViewModel.class);
+        TarefaItemMapper mapper = criarMapper();
+        tarefaAdapter = new TarefaAdapter(mapper);
+        tarefaPagingAdapter = new TarefaPagingAdapter(mapper);
 
-        recyclerView.setAdapter(tarefaAdapter);
         // O LayoutManager já está definido no XML, mas pode ser definido aqui:
         // recyclerView.setLayoutManager(new LinearLayoutManager(this));
         /**
          * Listener para cliques nos itens do RecyclerView
          */
-        tarefaAdapter.setOnItemClickListener(new TarefaAdapter.OnItemClickListener() {
+        TarefaAdapter.OnItemClickListener itemClickListener = new TarefaAdapter.OnItemClickListener() {
             /**
              * Clique normal no item → abrir Activity de edição
              */
             @Override
-            public void onItemClick(Tarefa tarefa) {
+            public void onItemClick(TarefaResumo tarefa) {
+                // Em seleção múltipla, o clique seleciona (ou retira da seleção)
+                if (modoSelecao != null) {
+                    alternarSelecao(tarefa);
+                    return;
+                }
                 // Lógica para iniciar a AdicionarEditarActivity em modo de Edição
                 Intent intent = new Intent(MainActivity.this, AdicionarEditarActivity.class);
 
-                // Passar os dados da tarefa para a Activity de Edição
-                intent.putExtra(AdicionarEditarActivity.EXTRA_TAREFA_ID, (int) tarefa.getId());
-                intent.putExtra(AdicionarEditarActivity.EXTRA_TAREFA_TITULO, tarefa.getTitulo());
-                intent.putExtra(AdicionarEditarActivity.EXTRA_TAREFA_DESCRICAO, tarefa.getDescricao());
-                intent.putExtra(AdicionarEditarActivity.EXTRA_TAREFA_PRIORIDADE, tarefa.getPrioridade());
-                intent.putExtra(AdicionarEditarActivity.EXTRA_TAREFA_DATA_VENCIMENTO, tarefa.getDataVencimento());
-                intent.putExtra(AdicionarEditarActivity.EXTRA_TAREFA_CONCLUIDA, tarefa.isConcluida());
+                // Só o id é passado: a Activity de Edição lê a tarefa através do repositório
+                intent.putExtra(AdicionarEditarActivity.EXTRA_TAREFA_ID, tarefa.getId());
 
-                startActivity(intent);
+                abrirEditor(intent);
+            }
+            /**
+             * Clique longo no item → iniciar a seleção múltipla
+             */
+            @Override
+            public void onItemLongClick(TarefaResumo tarefa) {
+                if (modoSelecao == null) {
+                    iniciarSelecao();
+                }
+                alternarSelecao(tarefa);
             }
             /**
              * Clique na checkbox de "concluída"
              */
             @Override
-            public void onConcluidaClick(Tarefa tarefa, boolean isChecked) {
+            public void onConcluidaClick(TarefaResumo tarefa, boolean isChecked) {
                 // Lógica para o Passo 2.11 (Marcar como Concluída)
 
-                // 1. Atualizar o estado da tarefa
-                tarefa.setConcluida(isChecked);
-
-                // 2. Chamar o Repository para atualizar a DB
-                tarefaRepository.update(tarefa);
+                // Atualização parcial: só a coluna "concluida" é escrita
+                // (a instância da lista não é alterada, para que o DiffUtil detete a mudança)
+                tarefaRepository.setConcluida(tarefa, isChecked)
+                        .thenRunAsync(viewModel::atualizarPesquisa,
+                                ContextCompat.getMainExecutor(MainActivity.this));
 
                 // Nota: O LiveData irá notificar o adapter, atualizando a lista.
             }
+        };
+        tarefaAdapter.setOnItemClickListener(itemClickListener);
+        tarefaPagingAdapter.setOnItemClickListener(itemClickListener);
+        // Depois de uma rotação, a seleção guardada no ViewModel volta a ser mostrada
+        if (!viewModel.getSelecao().isVazia()) {
+            iniciarSelecao();
+        }
+
+        // 3 - Escolher o modo da lista (completa ou paginada) conforme o número de tarefas
+        //     e só depois observar os dados. No arranque, a contagem e o primeiro ecrã
+        //     já foram lidos em background (TarefaPreCarga) enquanto o layout era criado.
+        //     Depois de um recreate, a decisão e os dados já estão no ViewModel.
+        //     Se o número de tarefas passar o limiar com o ecrã aberto (importação, sincronização),
+        //     a lista muda de modo: a lista completa deixa de ser observada (e de estar em memória).
+        viewModel.getModoPaginado().observe(this, paginado -> {
+            boolean troca = modoDecidido && paginado != modoPaginado;
+            if (modoDecidido && !troca) {
+                return;
+            }
+            modoDecidido = true;
+            modoPaginado = paginado;
+            if (!modoPesquisa) {
+                if (troca) {
+                    guardarEstadoLista();
+                    deixarDeObservarLista();
+                }
+                recyclerView.setAdapter(modoPaginado ? tarefaPagingAdapter : tarefaAdapter);
+            }
+            mostrarConsulta(viewModel.getQuerySpec());
         });
 
-        // 3 - Observar os dados do LiveData
-        observeNewLiveData(tarefaRepository.getAllTarefasByDate());
+        // Resultados da pesquisa (null = mostrar a consulta ativa)
+        viewModel.getResultadosPesquisa().observe(this, resultados -> {
+            if (resultados != null) {
+                mostrarResultadosPesquisa(resultados);
+            } else {
+                terminarPesquisa();
+            }
+        });
+
+        // Medição do tempo até ao primeiro conteúdo no modo paginado
+        // (no modo completo, ver observeNewLiveData)
+        tarefaPagingAdapter.registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                tarefaPagingAdapter.unregisterAdapterDataObserver(this);
+                listaMostrada();
+            }
+        });
 
         /**
          * Swipe para eliminar tarefa (esquerda ou direita)
@@ -147,17 +281,45 @@ public class MainActivity extends AppCompatActivity {
                 return false; // Não queremos arrastar e soltar
             }
 
+            @Override
+            public boolean isItemViewSwipeEnabled() {
+                // Em seleção múltipla, as ações aplicam-se à seleção (ver menu_selecao)
+                return modoSelecao == null;
+            }
+
             @Override
             public void onSwiped(@NonNull RecyclerView.ViewHolder viewHolder, int direction) {
                 // Obter a tarefa a ser eliminada
                 int position = viewHolder.getAdapterPosition();
-                Tarefa tarefa = tarefaAdapter.getTarefaAt(position);
-
-                // Eliminar da base de dados
-                tarefaRepository.delete(tarefa);
-
-                // Mostrar mensagem de confirmação
-                Toast.makeText(MainActivity.this, getString(R.string.toast_task_deleted), Toast.LENGTH_SHORT).show();
+                boolean paginada = modoPaginado && !modoPesquisa;
+                RecyclerView.Adapter<?> adapter = paginada ? tarefaPagingAdapter : tarefaAdapter;
+                TarefaResumo tarefa;
+                if (position == RecyclerView.NO_POSITION) {
+                    tarefa = null;
+                } else {
+                    tarefa = paginada
+                            ? tarefaPagingAdapter.getTarefaAt(position)
+                            : tarefaAdapter.getTarefaAt(position);
+                }
+                if (tarefa == null) {
+                    reporLinhaArrastada(adapter, position);
+                    return;
+                }
+
+                // Esconder a tarefa (eliminação com anulação) e oferecer "Desfazer" depois do commit.
+                // A tarefa só é apagada definitivamente pela limpeza em background (LimpezaWorker).
+                tarefaRepository.delete(tarefa).whenCompleteAsync((nada, erro) -> {
+                    if (erro != null) {
+                        reporLinhaArrastada(adapter, position);
+                        return;
+                    }
+                    Snackbar.make(recyclerView, R.string.toast_task_deleted, Snackbar.LENGTH_LONG)
+                            .setAction(R.string.action_undo, v -> tarefaRepository.desfazerEliminacao(tarefa)
+                                    .thenRunAsync(viewModel::atualizarPesquisa,
+                                            ContextCompat.getMainExecutor(MainActivity.this)))
+                            .show();
+                    viewModel.atualizarPesquisa();
+                }, ContextCompat.getMainExecutor(MainActivity.this));
 
                 // Nota: O LiveData irá notificar o adapter da mudança na DB, atualizando a lista automaticamente.
             }
@@ -170,19 +332,253 @@ public class MainActivity extends AppCompatActivity {
         fabAdicionarTarefa.setOnClickListener(v -> {
             // Lógica para iniciar a AdicionarEditarActivity
             Intent intent = new Intent(MainActivity.this, AdicionarEditarActivity.class);
-            startActivity(intent);
+            abrirEditor(intent);
         });
 
     }
+
+    /**
+     * Volta a mostrar uma linha arrastada cuja tarefa não foi eliminada.
+     * O ItemTouchHelper já a tirou do ecrã e a lista não vai mudar, por isso sem isto ficava vazia.
+     */
+    private void reporLinhaArrastada(RecyclerView.Adapter<?> adapter, int position) {
+        if (position == RecyclerView.NO_POSITION) {
+            adapter.notifyDataSetChanged();
+        } else {
+            adapter.notifyItemChanged(position);
+        }
+        Snackbar.make(recyclerView, R.string.toast_task_delete_failed, Snackbar.LENGTH_LONG).show();
+    }
+
+    /**
+     * Abre a AdicionarEditarActivity; a transição fica no trace
+     * até ao primeiro frame do editor (ver AdicionarEditarActivity.TRACE_ABERTURA)
+     */
+    private void abrirEditor(Intent intent) {
+        Trace.beginAsyncSection(AdicionarEditarActivity.TRACE_ABERTURA, 0);
+        startActivity(intent);
+    }
+    // --- Seleção múltipla ---
+
+    private final ActionMode.Callback callbackSelecao = new ActionMode.Callback() {
+        @Override
+        public boolean onCreateActionMode(ActionMode mode, Menu menu) {
+            mode.getMenuInflater().inflate(R.menu.menu_selecao, menu);
+            tarefaAdapter.setSelecao(viewModel.getSelecao());
+            tarefaPagingAdapter.setSelecao(viewModel.getSelecao());
+            return true;
+        }
+
+        @Override
+        public boolean onPrepareActionMode(ActionMode mode, Menu menu) {
+            return false;
+        }
+
+        @Override
+        public boolean onActionItemClicked(ActionMode mode, MenuItem item) {
+            int id = item.getItemId();
+            if (id == R.id.action_complete_selected) {
+                concluirSelecao();
+                return true;
+            } else if (id == R.id.action_delete_selected) {
+                eliminarSelecao();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void onDestroyActionMode(ActionMode mode) {
+            modoSelecao = null;
+            // Numa rotação, a seleção fica no ViewModel para a nova Activity
+            if (!isChangingConfigurations()) {
+                viewModel.getSelecao().limpar();
+            }
+            tarefaAdapter.setSelecao(null);
+            tarefaPagingAdapter.setSelecao(null);
+        }
+    };
+
+    private void iniciarSelecao() {
+        modoSelecao = startSupportActionMode(callbackSelecao);
+        atualizarTituloSelecao();
+    }
+
+    /**
+     * Seleciona (ou retira da seleção) uma tarefa; sem tarefas selecionadas, o modo termina
+     */
+    private void alternarSelecao(TarefaResumo tarefa) {
+        SelecaoTarefas selecao = viewModel.getSelecao();
+        selecao.alternar(tarefa.getId());
+        if (selecao.isVazia()) {
+            modoSelecao.finish();
+            return;
+        }
+        atualizarTituloSelecao();
+        tarefaAdapter.atualizarSelecao();
+        tarefaPagingAdapter.atualizarSelecao();
+    }
+
+    private void atualizarTituloSelecao() {
+        if (modoSelecao != null) {
+            int total = viewModel.getSelecao().getTamanho();
+            modoSelecao.setTitle(getResources().getQuantityString(R.plurals.selection_count, total, total));
+        }
+    }
+
+    /**
+     * Conclui todas as tarefas selecionadas (uma só transação e uma só atualização da lista)
+     */
+    private void concluirSelecao() {
+        Set<Integer> ids = viewModel.getSelecao().getIds();
+        modoSelecao.finish();
+        tarefaRepository.concluir(ids)
+                .thenRunAsync(viewModel::atualizarPesquisa, ContextCompat.getMainExecutor(this));
+    }
+
+    /**
+     * Elimina todas as tarefas selecionadas, com a opção de desfazer (como o swipe)
+     */
+    private void eliminarSelecao() {
+        Set<Integer> ids = viewModel.getSelecao().getIds();
+        modoSelecao.finish();
+        tarefaRepository.delete(ids).thenRunAsync(() -> {
+            String mensagem = getResources().getQuantityString(R.plurals.toast_tasks_deleted, ids.size(), ids.size());
+            Snackbar.make(recyclerView, mensagem, Snackbar.LENGTH_LONG)
+                    .setAction(R.string.action_undo, v -> tarefaRepository.desfazerEliminacao(ids)
+                            .thenRunAsync(viewModel::atualizarPesquisa, ContextCompat.getMainExecutor(this)))
+                    .show();
+            viewModel.atualizarPesquisa();
+        }, ContextCompat.getMainExecutor(this));
+    }
+
+    /**
+     * Cria o mapper das linhas da lista, com os textos e cores
+     * do idioma atual já resolvidos (uma vez por Activity)
+     */
+    private TarefaItemMapper criarMapper() {
+        return new TarefaItemMapper(
+                getString(R.string.label_due_date),
+                getResources().getStringArray(R.array.prioridades_array),
+                new int[]{R.drawable.bg_prioridade_baixa, R.drawable.bg_prioridade_media, R.drawable.bg_prioridade_alta},
+                ContextCompat.getColor(this, R.color.black_text),
+                ContextCompat.getColor(this, R.color.gray_text),
+                Locale.getDefault(),
+                TimeZone.getDefault());
+    }
     /**
      * Criação do menu (ordenar, filtrar e idiomas)
      */
     @Override
     public boolean onCreateOptionsMenu(Menu menu) {
         getMenuInflater().inflate(R.menu.menu_main, menu);
+        // Ecrã de diagnóstico: só em builds de depuração (as métricas estão sempre a ser recolhidas)
+        menu.findItem(R.id.action_diagnostics)
+                .setVisible((getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0);
+        menu.findItem(R.id.filter_tags_all).setChecked(
+                viewModel.getQuerySpec().getCombinacaoTags() == TarefaQuerySpec.CombinacaoTags.TODAS);
+
+        /**
+         * Campo de pesquisa (título e descrição)
+         */
+        MenuItem itemPesquisa = menu.findItem(R.id.action_search);
+        SearchView searchView = (SearchView) itemPesquisa.getActionView();
+        if (searchView != null) {
+            searchView.setQueryHint(getString(R.string.search_hint));
+            // Depois de um recreate, a pesquisa em curso volta a aparecer
+            // (os resultados vêm do ViewModel, sem repetir a consulta)
+            String textoPesquisa = viewModel.getTextoPesquisa();
+            if (!textoPesquisa.isEmpty()) {
+                itemPesquisa.expandActionView();
+                searchView.setQuery(textoPesquisa, false);
+                searchView.clearFocus();
+            }
+            searchView.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
+                @Override
+                public boolean onQueryTextSubmit(String query) {
+                    viewModel.agendarPesquisa(query, 0);
+                    searchView.clearFocus();
+                    return true;
+                }
+
+                @Override
+                public boolean onQueryTextChange(String newText) {
+                    viewModel.agendarPesquisa(newText, MainViewModel.ATRASO_PESQUISA_MS);
+                    return true;
+                }
+            });
+        }
         return true;
     }
 
+    /**
+     * Mostra os resultados da pesquisa no lugar da lista
+     */
+    private void mostrarResultadosPesquisa(List<TarefaResumo> resultados) {
+        if (!modoPesquisa) {
+            modoPesquisa = true;
+            // 1. Guardar a posição da lista e deixar de observar a consulta ativa
+            guardarEstadoLista();
+            deixarDeObservarLista();
+            // 2. Os resultados da pesquisa são sempre uma lista completa
+            recyclerView.setAdapter(tarefaAdapter);
+        }
+        tarefaAdapter.setTarefas(resultados);
+    }
+
+    /**
+     * Deixa de observar a consulta ativa (lista completa ou paginada)
+     */
+    private void deixarDeObservarLista() {
+        if (currentTarefasLiveData != null && currentObserver != null) {
+            currentTarefasLiveData.removeObserver(currentObserver);
+            currentTarefasLiveData = null;
+        }
+        if (currentPagedLiveData != null && currentPagedObserver != null) {
+            currentPagedLiveData.removeObserver(currentPagedObserver);
+            currentPagedLiveData = null;
+        }
+    }
+
+    /**
+     * Volta a mostrar a consulta ativa (filtro + ordenação)
+     */
+    private void terminarPesquisa() {
+        if (!modoPesquisa) {
+            return;
+        }
+        modoPesquisa = false;
+        recyclerView.setAdapter(modoPaginado ? tarefaPagingAdapter : tarefaAdapter);
+        mostrarConsulta(viewModel.getQuerySpec());
+        if (modoPaginado) {
+            // O adapter paginado mantém as páginas: a posição pode ser reposta já
+            restaurarEstadoLista();
+        }
+    }
+
+    /**
+     * Chamado quando a lista (não a pesquisa) foi aplicada ao RecyclerView
+     */
+    private void listaMostrada() {
+        restaurarEstadoLista();
+        TempoArranque.listaEntregue(this, recyclerView);
+    }
+
+    private void guardarEstadoLista() {
+        RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+        if (layoutManager != null && recyclerView.getAdapter() != null) {
+            viewModel.guardarEstadoLista(layoutManager.onSaveInstanceState());
+        }
+    }
+
+    private void restaurarEstadoLista() {
+        Parcelable estado = viewModel.consumirEstadoLista();
+        RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+        if (estado != null && layoutManager != null) {
+            layoutManager.onRestoreInstanceState(estado);
+        }
+    }
+
     /**
      * Tratamento dos cliques no menu
      */
@@ -191,26 +587,58 @@ public class MainActivity extends AppCompatActivity {
         int id = item.getItemId();
 
         if (id == R.id.sort_by_date) {
-            observeNewLiveData(tarefaRepository.getAllTarefasByDate());
+            mostrarConsulta(viewModel.getQuerySpec().comOrdenacao(TarefaQuerySpec.Ordenacao.DATA));
             Toast.makeText(this, getString(R.string.sort_by_date), Toast.LENGTH_SHORT).show();
             return true;
         } else if (id == R.id.sort_by_priority) {
-            observeNewLiveData(tarefaRepository.getAllTarefasByPriority());
+            mostrarConsulta(viewModel.getQuerySpec().comOrdenacao(TarefaQuerySpec.Ordenacao.PRIORIDADE));
             Toast.makeText(this, getString(R.string.sort_by_priority), Toast.LENGTH_SHORT).show();
             return true;
         } else if (id == R.id.filter_all) {
-            // O filtro "Todas" é o mesmo que ordenar por data
-            observeNewLiveData(tarefaRepository.getAllTarefasByDate());
+            // O filtro e a ordenação são independentes: o filtro "Todas" mantém a ordenação atual
+            mostrarConsulta(viewModel.getQuerySpec().comFiltro(TarefaQuerySpec.Filtro.TODAS));
             Toast.makeText(this, getString(R.string.filter_all), Toast.LENGTH_SHORT).show();
             return true;
         } else if (id == R.id.filter_pending) {
-            observeNewLiveData(tarefaRepository.getPendingTarefas());
+            mostrarConsulta(viewModel.getQuerySpec().comFiltro(TarefaQuerySpec.Filtro.PENDENTES));
             Toast.makeText(this, getString(R.string.filter_pending), Toast.LENGTH_SHORT).show();
             return true;
         } else if (id == R.id.filter_completed) {
-            observeNewLiveData(tarefaRepository.getCompletedTarefas());
+            mostrarConsulta(viewModel.getQuerySpec().comFiltro(TarefaQuerySpec.Filtro.CONCLUIDAS));
             Toast.makeText(this, getString(R.string.filter_completed), Toast.LENGTH_SHORT).show();
             return true;
+        } else if (id == R.id.filter_tags) {
+            escolherTags();
+            return true;
+        } else if (id == R.id.filter_tags_all) {
+            // Troca entre "qualquer uma" (OU) e "todas" (E) das etiquetas escolhidas
+            item.setChecked(!item.isChecked());
+            TarefaQuerySpec spec = viewModel.getQuerySpec();
+            mostrarConsulta(spec.comTags(spec.getTags(), item.isChecked()
+                    ? TarefaQuerySpec.CombinacaoTags.TODAS : TarefaQuerySpec.CombinacaoTags.QUALQUER));
+            return true;
+        }
+
+        if (id == R.id.action_agenda) {
+            startActivity(new Intent(this, AgendaActivity.class));
+            return true;
+        } else if (id == R.id.action_statistics) {
+            startActivity(new Intent(this, EstatisticasActivity.class));
+            return true;
+        } else if (id == R.id.action_diagnostics) {
+            startActivity(new Intent(this, DiagnosticoActivity.class));
+            return true;
+        }
+
+        if (id == R.id.action_export_json) {
+            exportarJson.launch("focozen." + TarefaTransferencia.Formato.JSON.extensao);
+            return true;
+        } else if (id == R.id.action_export_csv) {
+            exportarCsv.launch("focozen." + TarefaTransferencia.Formato.CSV.extensao);
+            return true;
+        } else if (id == R.id.action_import) {
+            escolherImportacao.launch(TIPOS_IMPORTACAO);
+            return true;
         }
 
         if (id == R.id.lang_pt) {
@@ -227,10 +655,175 @@ public class MainActivity extends AppCompatActivity {
 
         return super.onOptionsItemSelected(item);
     }
+    /**
+     * Mostra as etiquetas para filtrar a lista, cada uma com o número de tarefas pendentes.
+     * Os contadores vêm da tabela tags (mantida pelos triggers): abrir o diálogo não conta tarefas.
+     */
+    private void escolherTags() {
+        tarefaRepository.getTags().thenAcceptAsync(tags -> {
+            if (isDestroyed()) {
+                return;
+            }
+            if (tags.isEmpty()) {
+                Toast.makeText(this, getString(R.string.toast_no_tags), Toast.LENGTH_LONG).show();
+                return;
+            }
+            // 1. Marcar as etiquetas da consulta ativa
+            List<Integer> ativas = viewModel.getQuerySpec().getTags();
+            String[] nomes = new String[tags.size()];
+            boolean[] escolhidas = new boolean[tags.size()];
+            for (int i = 0; i < tags.size(); i++) {
+                Tag tag = tags.get(i);
+                nomes[i] = getString(R.string.filter_tag_item, tag.getNome(), tag.getPendentes());
+                escolhidas[i] = ativas.contains(tag.getId());
+            }
+
+            // 2. Aplicar a escolha mantendo o filtro, a ordenação e a combinação (OU/E) atuais
+            new AlertDialog.Builder(this)
+                    .setTitle(R.string.filter_tags)
+                    .setMultiChoiceItems(nomes, escolhidas, (dialogo, i, marcada) -> escolhidas[i] = marcada)
+                    .setPositiveButton(R.string.button_apply, (dialogo, botao) -> {
+                        List<Integer> ids = new ArrayList<>();
+                        for (int i = 0; i < tags.size(); i++) {
+                            if (escolhidas[i]) {
+                                ids.add(tags.get(i).getId());
+                            }
+                        }
+                        TarefaQuerySpec spec = viewModel.getQuerySpec();
+                        mostrarConsulta(spec.comTags(ids, spec.getCombinacaoTags()));
+                    })
+                    .setNeutralButton(R.string.button_clear_tags, (dialogo, botao) -> {
+                        TarefaQuerySpec spec = viewModel.getQuerySpec();
+                        mostrarConsulta(spec.comTags(Collections.emptyList(), spec.getCombinacaoTags()));
+                    })
+                    .setNegativeButton(android.R.string.cancel, null)
+                    .show();
+        }, ContextCompat.getMainExecutor(this));
+    }
+
+    /**
+     * Exporta todas as tarefas para o ficheiro escolhido
+     */
+    private void exportar(Uri uri, TarefaTransferencia.Formato formato) {
+        if (uri == null) {
+            return; // O utilizador cancelou o seletor
+        }
+        OutputStream saida;
+        try {
+            saida = getContentResolver().openOutputStream(uri, "wt");
+        } catch (FileNotFoundException e) {
+            saida = null;
+        }
+        if (saida == null) {
+            Toast.makeText(this, getString(R.string.toast_export_failed), Toast.LENGTH_LONG).show();
+            return;
+        }
+
+        mostrarProgresso(R.string.progress_export, 0);
+        tarefaRepository.exportar(saida, formato, total -> ContextCompat.getMainExecutor(this)
+                        .execute(() -> mostrarProgresso(R.string.progress_export, total)))
+                .whenCompleteAsync((total, erro) -> {
+                    esconderProgresso();
+                    String mensagem = erro == null
+                            ? getResources().getQuantityString(R.plurals.toast_export_done, total, total)
+                            : getString(R.string.toast_export_failed);
+                    Toast.makeText(this, mensagem, Toast.LENGTH_LONG).show();
+                }, ContextCompat.getMainExecutor(this));
+    }
+
+    /**
+     * Importa as tarefas do ficheiro escolhido.
+     * A lista é atualizada pelo LiveData à medida que cada lote é confirmado.
+     */
+    private void importar(Uri uri) {
+        if (uri == null) {
+            return; // O utilizador cancelou o seletor
+        }
+        InputStream entrada;
+        try {
+            entrada = getContentResolver().openInputStream(uri);
+        } catch (FileNotFoundException e) {
+            entrada = null;
+        }
+        if (entrada == null) {
+            Toast.makeText(this, getString(R.string.toast_import_failed, uri.getLastPathSegment()),
+                    Toast.LENGTH_LONG).show();
+            return;
+        }
+
+        mostrarProgresso(R.string.progress_import, 0);
+        tarefaRepository.importar(entrada, total -> ContextCompat.getMainExecutor(this)
+                        .execute(() -> mostrarProgresso(R.string.progress_import, total)))
+                .whenCompleteAsync((total, erro) -> {
+                    esconderProgresso();
+                    String mensagem = erro == null
+                            ? getResources().getQuantityString(R.plurals.toast_import_done, total, total)
+                            : getString(R.string.toast_import_failed, erro.getMessage());
+                    Toast.makeText(this, mensagem, Toast.LENGTH_LONG).show();
+                    viewModel.atualizarPesquisa();
+                }, ContextCompat.getMainExecutor(this));
+    }
+
+    /**
+     * Mostra (ou atualiza) o progresso da transferência em curso
+     */
+    private void mostrarProgresso(int textoResId, int tarefas) {
+        String texto = getString(textoResId, tarefas);
+        if (progressoTransferencia == null) {
+            progressoTransferencia = Snackbar.make(recyclerView, texto, Snackbar.LENGTH_INDEFINITE);
+            progressoTransferencia.show();
+        } else {
+            progressoTransferencia.setText(texto);
+        }
+    }
+
+    private void esconderProgresso() {
+        if (progressoTransferencia != null) {
+            progressoTransferencia.dismiss();
+            progressoTransferencia = null;
+        }
+    }
+
+    /**
+     * Mostra uma consulta (ordenação/filtro) no modo de lista ativo
+     */
+    private void mostrarConsulta(TarefaQuerySpec spec) {
+        viewModel.setQuerySpec(spec);
+        if (modoPesquisa) {
+            // A nova consulta é mostrada quando a pesquisa terminar
+            return;
+        }
+        if (modoPaginado) {
+            LiveData<PagingData<TarefaResumo>> paginadas = viewModel.getTarefasPaginadas(spec);
+            if (currentPagedLiveData != paginadas) {
+                observeNewPagedLiveData(paginadas);
+            }
+        } else if (currentTarefasLiveData != viewModel.getTarefas()) {
+            // Uma única LiveData: trocar de consulta não cria novas queries observadas,
+            // e o último resultado de cada consulta é reaproveitado
+            observeNewLiveData(viewModel.getTarefas());
+        }
+    }
+
+    /**
+     * Remove o observer antigo e observa um novo stream paginado
+     */
+    private void observeNewPagedLiveData(LiveData<PagingData<TarefaResumo>> newPagedLiveData) {
+        if (currentPagedLiveData != null && currentPagedObserver != null) {
+            currentPagedLiveData.removeObserver(currentPagedObserver);
+        }
+
+        // As páginas já carregadas ficam no ViewModel (cachedIn), mesmo depois de um recreate
+        currentPagedLiveData = newPagedLiveData;
+        currentPagedObserver = pagingData -> tarefaPagingAdapter.setTarefas(getLifecycle(), pagingData);
+
+        currentPagedLiveData.observe(this, currentPagedObserver);
+    }
+
     /**
      * Remove o observer antigo e observa um novo LiveData
      */
-    private void observeNewLiveData(LiveData<List<Tarefa>> newLiveData) {
+    private void observeNewLiveData(LiveData<List<TarefaResumo>> newLiveData) {
         // 1. Remover o observador antigo (se existir)
         if (currentTarefasLiveData != null && currentObserver != null) {
             currentTarefasLiveData.removeObserver(currentObserver);
@@ -238,7 +831,29 @@ public class MainActivity extends AppCompatActivity {
 
         // 2. Definir o novo LiveData e Observer
         currentTarefasLiveData = newLiveData;
-        currentObserver = tarefas -> tarefaAdapter.setTarefas(tarefas);
+        //    No trace: a entrega (main thread) e o tempo até a lista estar aplicada
+        //    (conversão e diferenças em background)
+        currentObserver = tarefas -> {
+            Trace.beginSection("MainActivity.observeNewLiveData: entrega");
+            try {
+                // Uma lista ainda por mostrar já não o vai ser: a secção dela termina aqui
+                if (entregaPendente != 0) {
+                    Trace.endAsyncSection(TRACE_LISTA, entregaPendente);
+                }
+                int entrega = ++entregaLista;
+                entregaPendente = entrega;
+                Trace.beginAsyncSection(TRACE_LISTA, entrega);
+                tarefaAdapter.setTarefas(tarefas, () -> {
+                    if (entregaPendente == entrega) {
+                        Trace.endAsyncSection(TRACE_LISTA, entrega);
+                        entregaPendente = 0;
+                    }
+                    listaMostrada();
+                });
+            } finally {
+                Trace.endSection();
+            }
+        };
 
         // 3. Observar o novo LiveData
         currentTarefasLiveData.observe(this, currentObserver);
@@ -256,6 +871,9 @@ public class MainActivity extends AppCompatActivity {
 
         // 2. Obter a configuração atual dos recursos
         android.content.res.Configuration config = getResources().getConfiguration();
+        if (language.equals(config.getLocales().get(0).getLanguage())) {
+            return; // Os recursos já estão no idioma escolhido: não é preciso recarregá-los
+        }
 
         // 3. Definir o novo idioma na configuração
         config.setLocale(locale);
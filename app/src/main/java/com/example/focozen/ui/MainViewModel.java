@@ -0,0 +1,236 @@
+package com.example.focozen.ui;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Parcelable;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.ViewModel;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
+
+import com.example.focozen.data.TarefaQuerySpec;
+import com.example.focozen.data.TarefaRepository;
+import com.example.focozen.model.TarefaResumo;
+import com.example.focozen.ui.adapter.SelecaoTarefas;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * MainViewModel
+ * --------------------------------------------------
+ * Estado da MainActivity que sobrevive a rotações e à troca de idioma (recreate).
+ * Responsável por:
+ *  - Guardar o filtro/ordenação ativos e o modo da lista (completa ou paginada),
+ *    mudando de modo quando o número de tarefas passa o limiar
+ *  - Manter as páginas já carregadas da lista paginada
+ *  - Executar a pesquisa (com espera entre teclas) e guardar os resultados
+ *  - Guardar a posição de scroll da lista
+ *  - Guardar as tarefas selecionadas (seleção múltipla)
+ *
+ * Ao recriar a Activity, tudo é mostrado a partir da memória, sem consultas à base de dados.
+ * O repositório é recebido no construtor (ver Factory).
+ */
+public class MainViewModel extends ViewModel {
+
+    // Pesquisa: espera que o utilizador pare de escrever antes de consultar a base de dados
+    static final long ATRASO_PESQUISA_MS = 250;
+
+    private final TarefaRepository repository;
+
+    // A lista paginada só volta a ser completa abaixo deste número de tarefas, e não logo abaixo
+    // do LIMIAR_PAGINACAO: eliminar e criar uma tarefa perto do limiar não troca o adapter
+    static final int LIMIAR_LISTA_COMPLETA = TarefaRepository.LIMIAR_PAGINACAO / 2;
+
+    // Modo da lista (true = paginada), reavaliado a cada mudança do número de tarefas
+    private MediatorLiveData<Boolean> modoPaginado;
+
+    // Stream paginado da consulta ativa (as páginas ficam em cache enquanto o ViewModel existir)
+    private TarefaQuerySpec specPaginada;
+    private LiveData<PagingData<TarefaResumo>> tarefasPaginadas;
+
+    private final Handler pesquisaHandler = new Handler(Looper.getMainLooper());
+    private final Runnable executarPesquisa = this::pesquisar;
+    private String textoPesquisa = "";
+    private CompletableFuture<List<TarefaResumo>> pesquisaEmCurso;
+    // Resultados da pesquisa; null enquanto a lista mostra a consulta ativa
+    private final MutableLiveData<List<TarefaResumo>> resultadosPesquisa = new MutableLiveData<>(null);
+
+    // Posição de scroll da lista (LayoutManager), a repor quando a lista voltar a ser mostrada
+    private Parcelable estadoLista;
+
+    // Seleção múltipla: se não estiver vazia, a Activity recriada volta ao modo de seleção
+    private final SelecaoTarefas selecao = new SelecaoTarefas();
+
+    /**
+     * Cria o ViewModel com o repositório partilhado do processo
+     */
+    public static class Factory implements ViewModelProvider.Factory {
+        private final TarefaRepository repository;
+
+        public Factory(TarefaRepository repository) {
+            this.repository = repository;
+        }
+
+        @NonNull
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T extends ViewModel> T create(@NonNull Class<T> modelClass) {
+            return (T) new MainViewModel(repository);
+        }
+    }
+
+    MainViewModel(TarefaRepository repository) {
+        this.repository = repository;
+    }
+
+    // --- Lista ---
+
+    /**
+     * Modo da lista (true = paginada). Muda quando o número de tarefas passa o limiar
+     * (ex: depois de uma importação ou de uma sincronização), com a Activity aberta.
+     */
+    @MainThread
+    LiveData<Boolean> getModoPaginado() {
+        if (modoPaginado == null) {
+            modoPaginado = new MediatorLiveData<>();
+            // 1. Primeira decisão com a contagem feita no arranque (ver TarefaPreCarga)
+            repository.contarTarefas().thenAccept(total -> pesquisaHandler.post(() -> decidirModo(total)));
+            // 2. Depois, a cada escrita em tarefas (enquanto a Activity observa o modo)
+            modoPaginado.addSource(repository.observarContagem(), this::decidirModo);
+        }
+        return modoPaginado;
+    }
+
+    @MainThread
+    private void decidirModo(Integer total) {
+        if (total == null) {
+            return;
+        }
+        Boolean atual = modoPaginado.getValue();
+        boolean paginado = Boolean.TRUE.equals(atual)
+                ? total >= LIMIAR_LISTA_COMPLETA
+                : total >= TarefaRepository.LIMIAR_PAGINACAO;
+        if (atual == null || atual != paginado) {
+            modoPaginado.setValue(paginado);
+        }
+    }
+
+    TarefaQuerySpec getQuerySpec() {
+        return repository.getQuerySpec();
+    }
+
+    @MainThread
+    void setQuerySpec(TarefaQuerySpec spec) {
+        repository.setQuerySpec(spec);
+    }
+
+    LiveData<List<TarefaResumo>> getTarefas() {
+        return repository.getTarefas();
+    }
+
+    /**
+     * Stream paginado de uma consulta. A mesma consulta devolve sempre o mesmo stream,
+     * com as páginas já carregadas.
+     */
+    @MainThread
+    LiveData<PagingData<TarefaResumo>> getTarefasPaginadas(TarefaQuerySpec spec) {
+        if (tarefasPaginadas == null || !spec.equals(specPaginada)) {
+            specPaginada = spec;
+            tarefasPaginadas = PagingLiveData.cachedIn(repository.getTarefasPaginadas(spec), this);
+        }
+        return tarefasPaginadas;
+    }
+
+    void guardarEstadoLista(Parcelable estado) {
+        estadoLista = estado;
+    }
+
+    /**
+     * Devolve a posição de scroll guardada (apenas uma vez), ou null
+     */
+    Parcelable consumirEstadoLista() {
+        Parcelable estado = estadoLista;
+        estadoLista = null;
+        return estado;
+    }
+
+    SelecaoTarefas getSelecao() {
+        return selecao;
+    }
+
+    // --- Pesquisa ---
+
+    LiveData<List<TarefaResumo>> getResultadosPesquisa() {
+        return resultadosPesquisa;
+    }
+
+    String getTextoPesquisa() {
+        return textoPesquisa;
+    }
+
+    /**
+     * Agenda uma pesquisa. Cada tecla cancela a pesquisa anterior
+     * (agendada ou já a correr na base de dados).
+     * O mesmo texto (ex: reposto no SearchView depois de um recreate) não repete a pesquisa.
+     */
+    @MainThread
+    void agendarPesquisa(String texto, long atrasoMs) {
+        String novoTexto = texto == null ? "" : texto.trim();
+        if (novoTexto.equals(textoPesquisa) && (pesquisaEmCurso != null || novoTexto.isEmpty())) {
+            return;
+        }
+        cancelarPesquisa();
+
+        textoPesquisa = novoTexto;
+        if (textoPesquisa.isEmpty()) {
+            resultadosPesquisa.setValue(null);
+        } else {
+            pesquisaHandler.postDelayed(executarPesquisa, atrasoMs);
+        }
+    }
+
+    /**
+     * Repete a pesquisa atual (depois de uma tarefa ser alterada ou eliminada)
+     */
+    @MainThread
+    void atualizarPesquisa() {
+        if (resultadosPesquisa.getValue() != null) {
+            pesquisar();
+        }
+    }
+
+    /**
+     * Executa a pesquisa atual em background e publica os resultados
+     */
+    private void pesquisar() {
+        CompletableFuture<List<TarefaResumo>> pesquisa = repository.pesquisar(textoPesquisa);
+        pesquisaEmCurso = pesquisa;
+        pesquisa.thenAccept(resultados -> pesquisaHandler.post(() -> {
+            // Ignorar resultados de uma pesquisa que já foi substituída
+            if (pesquisa == pesquisaEmCurso) {
+                resultadosPesquisa.setValue(resultados);
+            }
+        }));
+    }
+
+    private void cancelarPesquisa() {
+        pesquisaHandler.removeCallbacks(executarPesquisa);
+        if (pesquisaEmCurso != null) {
+            pesquisaEmCurso.cancel(true);
+            pesquisaEmCurso = null;
+        }
+    }
+
+    @Override
+    protected void onCleared() {
+        // Uma pesquisa pendente não deve correr depois de a Activity terminar
+        cancelarPesquisa();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.focozen.ui;
+
+import android.app.Activity;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.view.Display;
+import android.view.FrameMetrics;
+import android.view.Window;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * MedidorScroll
+ * --------------------------------------------------
+ * Mede a duração dos frames enquanto a lista de tarefas faz scroll.
+ * Responsável por:
+ *  - Receber a duração de cada frame da janela (FrameMetrics, numa thread própria)
+ *  - Agrupar os frames por sessão de scroll (do início do scroll até a lista parar)
+ *  - Entregar cada sessão terminada às MetricasFrames
+ *
+ * Os frames fora do scroll (lista parada) não contam: a lista parada não desenha.
+ */
+final class MedidorScroll extends RecyclerView.OnScrollListener
+        implements Window.OnFrameMetricsAvailableListener {
+
+    // Thread partilhada que recebe as métricas de todas as janelas medidas
+    private static HandlerThread threadMetricas;
+
+    private final Window window;
+    private final RecyclerView lista;
+    private final Handler handler;
+    // Prazo de um frame quando o sistema não o indica (API < 31)
+    private final long prazoNanos;
+    private final MetricasFrames metricas = MetricasFrames.getInstance();
+
+    // Sessão em curso (null com a lista parada); acesso sincronizado em "this"
+    private HistogramaFrames sessao;
+
+    private MedidorScroll(Activity activity, RecyclerView lista) {
+        this.window = activity.getWindow();
+        this.lista = lista;
+        this.handler = handlerMetricas();
+        Display display = Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+                ? activity.getDisplay()
+                : activity.getWindowManager().getDefaultDisplay();
+        float hz = display != null && display.getRefreshRate() > 0 ? display.getRefreshRate() : 60f;
+        this.prazoNanos = (long) (1_000_000_000L / hz);
+    }
+
+    /**
+     * Começa a medir o scroll da lista; chamar desligar() no onDestroy da Activity
+     */
+    static MedidorScroll ligar(Activity activity, RecyclerView lista) {
+        MedidorScroll medidor = new MedidorScroll(activity, lista);
+        lista.addOnScrollListener(medidor);
+        medidor.window.addOnFrameMetricsAvailableListener(medidor, medidor.handler);
+        return medidor;
+    }
+
+    void desligar() {
+        lista.removeOnScrollListener(this);
+        window.removeOnFrameMetricsAvailableListener(this);
+        terminarSessao();
+    }
+
+    private static synchronized Handler handlerMetricas() {
+        if (threadMetricas == null) {
+            threadMetricas = new HandlerThread("MetricasFrames");
+            threadMetricas.start();
+        }
+        return new Handler(threadMetricas.getLooper());
+    }
+
+    @Override
+    public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+        // As métricas chegam depois do frame, na thread das métricas: as mudanças de estado
+        // seguem pela mesma fila, para que os frames já em fila contem na sessão certa
+        if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+            handler.post(this::terminarSessao);
+        } else {
+            handler.post(this::iniciarSessao);
+        }
+    }
+
+    private synchronized void iniciarSessao() {
+        // Arrastar e inércia (SETTLING) fazem parte da mesma sessão
+        if (sessao == null) {
+            sessao = new HistogramaFrames();
+        }
+    }
+
+    @Override
+    public void onFrameMetricsAvailable(Window window, FrameMetrics frameMetrics, int dropCountSinceLastInvocation) {
+        // O primeiro desenho de uma janela inclui o layout inicial: não é scroll
+        if (frameMetrics.getMetric(FrameMetrics.FIRST_DRAW_FRAME) == 1) {
+            return;
+        }
+        long duracao = frameMetrics.getMetric(FrameMetrics.TOTAL_DURATION);
+        long prazo = Build.VERSION.SDK_INT >= Build.VERSION_CODES.S
+                ? frameMetrics.getMetric(FrameMetrics.DEADLINE)
+                : prazoNanos;
+        synchronized (this) {
+            if (sessao != null) {
+                sessao.registar(duracao, prazo > 0 ? prazo : prazoNanos);
+            }
+        }
+    }
+
+    private void terminarSessao() {
+        HistogramaFrames terminada;
+        synchronized (this) {
+            terminada = sessao;
+            sessao = null;
+        }
+        if (terminada != null) {
+            metricas.registarSessao(terminada);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.focozen.ui;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * MetricasFrames
+ * --------------------------------------------------
+ * Métricas de fluidez do scroll da lista de tarefas, sempre ativas.
+ * Responsável por:
+ *  - Guardar o resumo das últimas sessões de scroll (frames, % lentos, percentis)
+ *  - Acumular todas as sessões num total
+ *  - Devolver um instantâneo das métricas (ecrã de diagnóstico e ficheiro de comparação)
+ *
+ * As sessões são medidas pelo MedidorScroll: uma sessão vai do início
+ * do scroll (arrastar ou inércia) até a lista parar.
+ */
+public final class MetricasFrames {
+
+    // Número de sessões guardadas individualmente (as anteriores ficam só no total)
+    private static final int SESSOES_GUARDADAS = 20;
+
+    private final HistogramaFrames total = new HistogramaFrames();
+    private final ArrayDeque<Sessao> ultimas = new ArrayDeque<>();
+    private int sessoes = 0;
+
+    /**
+     * Resumo de uma sessão de scroll (ou do total), durações em milissegundos
+     */
+    public static final class Sessao {
+        public final int frames;
+        public final int lentos;
+        public final double percentagemLentos;
+        public final double p50Ms;
+        public final double p90Ms;
+        public final double p95Ms;
+        public final double p99Ms;
+        public final double maximoMs;
+
+        Sessao(HistogramaFrames histograma) {
+            this.frames = histograma.getFrames();
+            this.lentos = histograma.getLentos();
+            this.percentagemLentos = histograma.getPercentagemLentos();
+            this.p50Ms = histograma.percentilMs(0.50);
+            this.p90Ms = histograma.percentilMs(0.90);
+            this.p95Ms = histograma.percentilMs(0.95);
+            this.p99Ms = histograma.percentilMs(0.99);
+            this.maximoMs = histograma.getMaximoMs();
+        }
+    }
+
+    /**
+     * Cópia das métricas num dado momento
+     */
+    public static final class Instantaneo {
+        public final int sessoes;
+        public final Sessao total;
+        // Mais recente primeiro
+        public final List<Sessao> ultimas;
+
+        Instantaneo(int sessoes, Sessao total, List<Sessao> ultimas) {
+            this.sessoes = sessoes;
+            this.total = total;
+            this.ultimas = Collections.unmodifiableList(ultimas);
+        }
+
+        /**
+         * Tabela de texto (ecrã de diagnóstico e ficheiros de comparação entre versões)
+         */
+        @NonNull
+        @Override
+        public String toString() {
+            StringBuilder texto = new StringBuilder();
+            texto.append(String.format(Locale.ROOT, "sessões de scroll: %d%n", sessoes));
+            texto.append(String.format(Locale.ROOT, "%-8s %7s %7s %7s %7s %7s %7s %7s%n",
+                    "sessão", "frames", "% lento", "p50", "p90", "p95", "p99", "máx"));
+            linha(texto, "total", total);
+            for (int i = 0; i < ultimas.size(); i++) {
+                linha(texto, "-" + i, ultimas.get(i));
+            }
+            return texto.toString();
+        }
+
+        private static void linha(StringBuilder texto, String nome, Sessao s) {
+            texto.append(String.format(Locale.ROOT, "%-8s %7d %7.1f %7.1f %7.1f %7.1f %7.1f %7.1f%n",
+                    nome, s.frames, s.percentagemLentos, s.p50Ms, s.p90Ms, s.p95Ms, s.p99Ms, s.maximoMs));
+        }
+    }
+
+    // Singleton instance
+    private static volatile MetricasFrames INSTANCE;
+
+    private MetricasFrames() {
+    }
+
+    /**
+     * Retorna a instância única das métricas.
+     */
+    public static MetricasFrames getInstance() {
+        if (INSTANCE == null) {
+            synchronized (MetricasFrames.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new MetricasFrames();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Regista uma sessão de scroll terminada
+     */
+    synchronized void registarSessao(HistogramaFrames sessao) {
+        if (sessao.getFrames() == 0) {
+            return;
+        }
+        sessoes++;
+        total.juntar(sessao);
+        ultimas.addFirst(new Sessao(sessao));
+        if (ultimas.size() > SESSOES_GUARDADAS) {
+            ultimas.removeLast();
+        }
+    }
+
+    public synchronized Instantaneo getInstantaneo() {
+        return new Instantaneo(sessoes, new Sessao(total), new ArrayList<>(ultimas));
+    }
+
+    /**
+     * Recomeça a contagem (ex: antes de comparar o scroll entre duas versões)
+     */
+    public synchronized void limpar() {
+        total.limpar();
+        ultimas.clear();
+        sessoes = 0;
+    }
+}
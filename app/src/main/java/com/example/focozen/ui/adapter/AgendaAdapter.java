@@ -0,0 +1,113 @@
+package com.example.focozen.ui.adapter;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.focozen.model.Recorrencia;
+import com.example.focozen.model.TarefaOcorrencia;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * AgendaAdapter
+ * --------------------------------------------------
+ * Adapter do RecyclerView da agenda, responsável por:
+ *  - Exibir as ocorrências das tarefas por ordem de data (título e data)
+ *  - Acrescentar as ocorrências de cada nova janela de dias no fim da lista
+ *  - Tratar o clique numa ocorrência (abre a tarefa para edição)
+ *
+ * As ocorrências chegam já ordenadas (ExpansorRecorrencias) e a lista
+ * só cresce no fim, por isso não é usado o DiffUtil.
+ */
+public class AgendaAdapter extends RecyclerView.Adapter<AgendaAdapter.OcorrenciaViewHolder> {
+
+    // Acrescentado à data das tarefas que se repetem (como na lista principal)
+    private static final String SIMBOLO_RECORRENCIA = " ↻";
+
+    /**
+     * Listener para o clique numa ocorrência
+     */
+    public interface OnOcorrenciaClickListener {
+        void onOcorrenciaClick(TarefaOcorrencia ocorrencia);
+    }
+
+    private final List<TarefaOcorrencia> ocorrencias = new ArrayList<>();
+    private final SimpleDateFormat formatoData;
+    private OnOcorrenciaClickListener listener;
+
+    public AgendaAdapter(Locale locale) {
+        this.formatoData = new SimpleDateFormat("EEE, dd/MM/yyyy", locale);
+    }
+
+    public void setOnOcorrenciaClickListener(OnOcorrenciaClickListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Acrescenta as ocorrências de uma nova janela (posteriores às que já estão na lista)
+     */
+    public void acrescentar(List<TarefaOcorrencia> novas) {
+        int inicio = ocorrencias.size();
+        ocorrencias.addAll(novas);
+        notifyItemRangeInserted(inicio, novas.size());
+    }
+
+    /**
+     * Remove todas as ocorrências (antes de voltar a carregar desde o início)
+     */
+    public void limpar() {
+        int total = ocorrencias.size();
+        ocorrencias.clear();
+        notifyItemRangeRemoved(0, total);
+    }
+
+    @NonNull
+    @Override
+    public OcorrenciaViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View itemView = LayoutInflater.from(parent.getContext())
+                .inflate(android.R.layout.simple_list_item_2, parent, false);
+        OcorrenciaViewHolder holder = new OcorrenciaViewHolder(itemView);
+        itemView.setOnClickListener(v -> {
+            int posicao = holder.getBindingAdapterPosition();
+            if (listener != null && posicao != RecyclerView.NO_POSITION) {
+                listener.onOcorrenciaClick(ocorrencias.get(posicao));
+            }
+        });
+        return holder;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull OcorrenciaViewHolder holder, int position) {
+        TarefaOcorrencia ocorrencia = ocorrencias.get(position);
+        holder.textTitulo.setText(ocorrencia.tarefa.getTitulo());
+        String data = formatoData.format(new Date(ocorrencia.data));
+        holder.textData.setText(Recorrencia.isRecorrente(ocorrencia.tarefa.getRecorrencia())
+                ? data + SIMBOLO_RECORRENCIA
+                : data);
+    }
+
+    @Override
+    public int getItemCount() {
+        return ocorrencias.size();
+    }
+
+    static class OcorrenciaViewHolder extends RecyclerView.ViewHolder {
+        final TextView textTitulo;
+        final TextView textData;
+
+        OcorrenciaViewHolder(@NonNull View itemView) {
+            super(itemView);
+            textTitulo = itemView.findViewById(android.R.id.text1);
+            textData = itemView.findViewById(android.R.id.text2);
+        }
+    }
+}
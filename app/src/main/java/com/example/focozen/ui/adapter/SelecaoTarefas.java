@@ -0,0 +1,52 @@
+package com.example.focozen.ui.adapter;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * SelecaoTarefas
+ * --------------------------------------------------
+ * Tarefas selecionadas no modo de seleção múltipla.
+ * Responsável por:
+ *  - Guardar apenas os ids (não as linhas), para funcionar também na lista paginada
+ *  - Indicar aos adapters se uma linha deve aparecer selecionada
+ *
+ * Partilhada pelo TarefaAdapter e pelo TarefaPagingAdapter;
+ * guardada no MainViewModel, sobrevive a rotações.
+ */
+public class SelecaoTarefas {
+
+    private final Set<Integer> ids = new LinkedHashSet<>();
+
+    /**
+     * Seleciona a tarefa, ou retira-a da seleção se já estava selecionada
+     */
+    public void alternar(int id) {
+        if (!ids.remove(id)) {
+            ids.add(id);
+        }
+    }
+
+    public boolean contem(int id) {
+        return ids.contains(id);
+    }
+
+    public int getTamanho() {
+        return ids.size();
+    }
+
+    public boolean isVazia() {
+        return ids.isEmpty();
+    }
+
+    /**
+     * Cópia dos ids selecionados, pela ordem em que foram selecionados
+     */
+    public Set<Integer> getIds() {
+        return new LinkedHashSet<>(ids);
+    }
+
+    public void limpar() {
+        ids.clear();
+    }
+}
@@ -1,22 +1,18 @@
 package com.example.focozen.ui.adapter;
 
-import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.CheckBox;
-import android.widget.TextView;
-import android.graphics.Paint;
 import androidx.annotation.NonNull;
-import androidx.recyclerview.widget.RecyclerView;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.tracing.Trace;
 
 import com.example.focozen.R;
-import com.example.focozen.model.Tarefa;
+import com.example.focozen.model.TarefaResumo;
 
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 
 /**
  * TarefaAdapter
@@ -26,35 +22,77 @@ import java.util.Locale;
  *  - Atualizar a UI conforme o estado da tarefa
  *  - Tratar cliques para edição
  *  - Tratar a marcação de tarefas como concluídas
+ *  - Realçar as tarefas selecionadas (seleção múltipla)
+ *
+ * Baseado em ListAdapter: as diferenças entre listas são calculadas
+ * em background (AsyncListDiffer) e só as linhas alteradas são atualizadas.
+ * Antes disso, cada lista é convertida em TarefaItem (TarefaItemMapper),
+ * também em background.
  */
-public class TarefaAdapter extends RecyclerView.Adapter<TarefaAdapter.TarefaViewHolder> {
+public class TarefaAdapter extends ListAdapter<TarefaItem, TarefaViewHolder> {
+
+    private final TarefaItemMapper mapper;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Incrementado a cada nova lista: só a conversão mais recente é mostrada
+    private int geracaoLista = 0;
 
-    private List<Tarefa> tarefas = new ArrayList<>();
-    private final Context context;
     private OnItemClickListener listener;
+    // Seleção múltipla ativa (null quando não há seleção)
+    private SelecaoTarefas selecao;
+
     /**
-     * Construtor do Adapter
+     * Listener entregue a cada ViewHolder (uma única vez, na criação).
+     * Encaminha para o listener externo, que pode ser definido mais tarde.
      */
-    public TarefaAdapter(Context context) {
+    private final OnItemClickListener encaminhador = new OnItemClickListener() {
+        @Override
+        public void onItemClick(TarefaResumo tarefa) {
+            if (listener != null) {
+                listener.onItemClick(tarefa);
+            }
+        }
 
-        this.context = context;
+        @Override
+        public void onItemLongClick(TarefaResumo tarefa) {
+            if (listener != null) {
+                listener.onItemLongClick(tarefa);
+            }
+        }
+
+        @Override
+        public void onConcluidaClick(TarefaResumo tarefa, boolean isChecked) {
+            if (listener != null) {
+                listener.onConcluidaClick(tarefa, isChecked);
+            }
+        }
+    };
+
+    /**
+     * Construtor do Adapter
+     */
+    public TarefaAdapter(TarefaItemMapper mapper) {
+        super(new TarefaDiffCallback());
+        this.mapper = mapper;
+        // O id da tarefa identifica a linha, o que permite ao RecyclerView reaproveitar views
+        setHasStableIds(true);
     }
 
     /**
      * Retorna a tarefa numa posição específica
      * (usado para swipe delete na MainActivity)
      */
-    public Tarefa getTarefaAt(int position) {
+    public TarefaResumo getTarefaAt(int position) {
 
-        return tarefas.get(position);
+        return getItem(position).tarefa;
     }
 
     /**
      * Interface para comunicar eventos do Adapter com a Activity
      */
     public interface OnItemClickListener {
-        void onItemClick(Tarefa tarefa);
-        void onConcluidaClick(Tarefa tarefa, boolean isChecked);
+        void onItemClick(TarefaResumo tarefa);
+        void onItemLongClick(TarefaResumo tarefa);
+        void onConcluidaClick(TarefaResumo tarefa, boolean isChecked);
     }
     /**
      * Define o listener externo (MainActivity)
@@ -63,143 +101,109 @@ public class TarefaAdapter extends RecyclerView.Adapter<TarefaAdapter.TarefaView
 
         this.listener = listener;
     }
+
+    /**
+     * Define a seleção a mostrar (null = fora do modo de seleção múltipla)
+     */
+    public void setSelecao(SelecaoTarefas selecao) {
+        this.selecao = selecao;
+        atualizarSelecao();
+    }
+
+    /**
+     * Atualiza apenas o realce das linhas (depois de a seleção mudar)
+     */
+    public void atualizarSelecao() {
+        notifyItemRangeChanged(0, getItemCount(), TarefaDiffCallback.PAYLOAD_SELECAO);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return getItem(position).tarefa.getId();
+    }
+
     /**
      * Cria o ViewHolder (infla o layout do item, torna o list_item_tarefa algo real)
      */
     @NonNull
     @Override
     public TarefaViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        View itemView = LayoutInflater.from(parent.getContext())
-                .inflate(R.layout.list_item_tarefa, parent, false);
-        return new TarefaViewHolder(itemView);
+        // Secção visível num trace do sistema (Perfetto / systrace)
+        Trace.beginSection("TarefaAdapter.onCreateViewHolder");
+        try {
+            View itemView = LayoutInflater.from(parent.getContext())
+                    .inflate(R.layout.list_item_tarefa, parent, false);
+            return new TarefaViewHolder(itemView, encaminhador);
+        } finally {
+            Trace.endSection();
+        }
     }
     /**
      * Associa os dados da tarefa ao ViewHolder
      */
     @Override
     public void onBindViewHolder(@NonNull TarefaViewHolder holder, int position) {
-        Tarefa currentTarefa = tarefas.get(position);
-
-        // 1. Título e Estado
-        holder.textViewTitulo.setText(currentTarefa.getTitulo());
-        holder.checkBoxConcluida.setChecked(currentTarefa.isConcluida());
-
-        // NOVO CÓDIGO: Lógica Visual para Tarefa Concluída
-        if (currentTarefa.isConcluida()) {
-            // Riscado (Strikethrough)
-            holder.textViewTitulo.setPaintFlags(holder.textViewTitulo.getPaintFlags() | Paint.STRIKE_THRU_TEXT_FLAG);
-            // Cor cinzenta (opcional)
-            holder.textViewTitulo.setTextColor(context.getResources().getColor(R.color.gray_text));
-        } else {
-            // Remover Riscado
-            holder.textViewTitulo.setPaintFlags(holder.textViewTitulo.getPaintFlags() & (~Paint.STRIKE_THRU_TEXT_FLAG));
-            // Cor normal (opcional)
-            holder.textViewTitulo.setTextColor(context.getResources().getColor(R.color.black_text));
-        }
-
-        /**
-         * Prioridade da tarefa
-         */
-        String prioridadeTexto = getPrioridadeTexto(currentTarefa.getPrioridade());
-        holder.textViewPrioridade.setText(prioridadeTexto);
-
-        int backgroundResId;
-        switch (currentTarefa.getPrioridade()) {
-            case 3: // ALTA
-                backgroundResId = R.drawable.bg_prioridade_alta;
-                break;
-            case 2: // MÉDIA
-                backgroundResId = R.drawable.bg_prioridade_media;
-                break;
-            case 1: // BAIXA
-                backgroundResId = R.drawable.bg_prioridade_baixa;
-                break;
-            default:
-                backgroundResId = 0; // Sem background
-        }
-        if (backgroundResId != 0) {
-            holder.textViewPrioridade.setBackgroundResource(backgroundResId);
+        Trace.beginSection("TarefaAdapter.onBindViewHolder");
+        try {
+            TarefaItem item = getItem(position);
+            holder.bind(item);
+            holder.mostrarSelecionada(selecao != null && selecao.contem(item.tarefa.getId()));
+        } finally {
+            Trace.endSection();
         }
-
-        /**
-         * Data de vencimento
-         */
-        SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy", Locale.getDefault());
-        String dataFormatada = sdf.format(currentTarefa.getDataVencimento());
-        holder.textViewData.setText(context.getString(R.string.label_due_date) + dataFormatada);
-
-        /**
-         * Clique no item (editar tarefa)
-         */
-        holder.itemView.setOnClickListener(v -> {
-            if (listener != null) {
-                listener.onItemClick(currentTarefa);
-            }
-        });
-
-        /**
-         * Clique no CheckBox (concluir tarefa)
-         */
-        holder.checkBoxConcluida.setOnCheckedChangeListener((buttonView, isChecked) -> {
-            if (listener != null) {
-                listener.onConcluidaClick(currentTarefa, isChecked);
-            }
-        });
     }
+
     /**
-     * Retorna o número de itens da lista
+     * Atualização parcial: se só o estado "concluída" ou o progresso da checklist
+     * mudaram, não é preciso voltar a associar a linha inteira
      */
     @Override
-    public int getItemCount() {
-
-        return tarefas.size();
+    public void onBindViewHolder(@NonNull TarefaViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.contains(TarefaDiffCallback.PAYLOAD_CONCLUIDA)
+                || payloads.contains(TarefaDiffCallback.PAYLOAD_PROGRESSO)
+                || payloads.contains(TarefaDiffCallback.PAYLOAD_SELECAO)) {
+            TarefaItem item = getItem(position);
+            if (payloads.contains(TarefaDiffCallback.PAYLOAD_CONCLUIDA)) {
+                holder.bindConcluida(item);
+            }
+            if (payloads.contains(TarefaDiffCallback.PAYLOAD_PROGRESSO)) {
+                holder.bindProgresso(item);
+            }
+            holder.mostrarSelecionada(selecao != null && selecao.contem(item.tarefa.getId()));
+        } else {
+            super.onBindViewHolder(holder, position, payloads);
+        }
     }
 
      /**
      * Atualiza a lista de tarefas
      * (chamado pelo LiveData na MainActivity)
+     * A conversão para TarefaItem e o cálculo das diferenças são feitos em background.
      */
-    public void setTarefas(List<Tarefa> tarefas) {
-        this.tarefas = tarefas;
-        notifyDataSetChanged();
-    }
-
-    /**
-     * Converte o valor inteiro da prioridade em texto
-     */
-    private String getPrioridadeTexto(int prioridade) {
-        // O array de prioridades é 0-based (0, 1, 2)
-        // O valor da prioridade na BD é 1-based (1, 2, 3)
-
-        // Obter o array de strings do recurso
-        String[] prioridades = context.getResources().getStringArray(R.array.prioridades_array);
-
-        // Verificar se a prioridade está dentro do limite
-        if (prioridade >= 1 && prioridade <= prioridades.length) {
-            // Retorna o texto correspondente (prioridade - 1 para 0-based)
-            return prioridades[prioridade - 1];
-        }
-
-        return "N/A";
+    public void setTarefas(List<TarefaResumo> tarefas) {
+        setTarefas(tarefas, null);
     }
 
     /**
-     * ViewHolder
-     * --------------------------------------------------
-     * Mapeia os elementos do layout list_item_tarefa
+     * Igual a setTarefas(tarefas), executando aoMostrar (na main thread)
+     * quando a nova lista estiver aplicada ao RecyclerView
      */
-    class TarefaViewHolder extends RecyclerView.ViewHolder {
-        private final TextView textViewTitulo;
-        private final TextView textViewData;
-        private final TextView textViewPrioridade;
-        private final CheckBox checkBoxConcluida;
-
-        public TarefaViewHolder(@NonNull View itemView) {
-            super(itemView);
-            textViewTitulo = itemView.findViewById(R.id.textViewTitulo);
-            textViewData = itemView.findViewById(R.id.textViewData);
-            textViewPrioridade = itemView.findViewById(R.id.textViewPrioridade);
-            checkBoxConcluida = itemView.findViewById(R.id.checkBoxConcluida);
-        }
+    public void setTarefas(List<TarefaResumo> tarefas, Runnable aoMostrar) {
+        int geracao = ++geracaoLista;
+        TarefaItemMapper.EXECUTOR.execute(() -> {
+            List<TarefaItem> itens;
+            Trace.beginSection("TarefaItemMapper.mapAll");
+            try {
+                itens = mapper.mapAll(tarefas);
+            } finally {
+                Trace.endSection();
+            }
+            mainHandler.post(() -> {
+                // Uma lista mais recente pode ter chegado entretanto
+                if (geracao == geracaoLista) {
+                    submitList(itens, aoMostrar);
+                }
+            });
+        });
     }
-}
\ No newline at end of file
+}
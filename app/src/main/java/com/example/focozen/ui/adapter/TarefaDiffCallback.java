@@ -0,0 +1,91 @@
+package com.example.focozen.ui.adapter;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.example.focozen.model.TarefaResumo;
+
+import java.util.Objects;
+
+/**
+ * TarefaDiffCallback
+ * --------------------------------------------------
+ * Compara tarefas para que o RecyclerView só atualize
+ * as linhas que realmente mudaram.
+ *
+ * Os campos de apresentação de um TarefaItem dependem apenas da tarefa
+ * de origem, por isso a comparação é feita sobre a TarefaResumo.
+ */
+public class TarefaDiffCallback extends DiffUtil.ItemCallback<TarefaItem> {
+
+    /**
+     * Payload usado quando só o estado "concluída" mudou:
+     * a linha atualiza apenas o título riscado e a checkbox.
+     */
+    public static final Object PAYLOAD_CONCLUIDA = "payload_concluida";
+
+    /**
+     * Payload usado quando só o progresso da checklist mudou
+     * (uma subtarefa marcada, acrescentada ou eliminada):
+     * a linha atualiza apenas o texto do progresso.
+     */
+    public static final Object PAYLOAD_PROGRESSO = "payload_progresso";
+
+    /**
+     * Payload usado quando só a seleção mudou (modo de seleção múltipla):
+     * a linha atualiza apenas o realce.
+     */
+    public static final Object PAYLOAD_SELECAO = "payload_selecao";
+
+    /**
+     * Duas tarefas representam o mesmo item se tiverem o mesmo id
+     */
+    @Override
+    public boolean areItemsTheSame(@NonNull TarefaItem oldItem, @NonNull TarefaItem newItem) {
+        return oldItem.tarefa.getId() == newItem.tarefa.getId();
+    }
+
+    /**
+     * O conteúdo é igual se todos os campos visíveis forem iguais
+     */
+    @Override
+    public boolean areContentsTheSame(@NonNull TarefaItem oldItem, @NonNull TarefaItem newItem) {
+        return oldItem.tarefa.isConcluida() == newItem.tarefa.isConcluida()
+                && progressoIgual(oldItem.tarefa, newItem.tarefa)
+                && restoIgual(oldItem.tarefa, newItem.tarefa);
+    }
+
+    /**
+     * Indica o que mudou, para permitir uma atualização parcial da linha
+     */
+    @Nullable
+    @Override
+    public Object getChangePayload(@NonNull TarefaItem oldItem, @NonNull TarefaItem newItem) {
+        if (!restoIgual(oldItem.tarefa, newItem.tarefa)) {
+            return null;
+        }
+        boolean concluidaIgual = oldItem.tarefa.isConcluida() == newItem.tarefa.isConcluida();
+        boolean progressoIgual = progressoIgual(oldItem.tarefa, newItem.tarefa);
+        if (!concluidaIgual && progressoIgual) {
+            return PAYLOAD_CONCLUIDA;
+        }
+        if (concluidaIgual && !progressoIgual) {
+            return PAYLOAD_PROGRESSO;
+        }
+        // null → atualização completa da linha
+        return null;
+    }
+
+    private static boolean progressoIgual(TarefaResumo antiga, TarefaResumo nova) {
+        return antiga.getSubtarefas() == nova.getSubtarefas()
+                && antiga.getSubtarefasConcluidas() == nova.getSubtarefasConcluidas();
+    }
+
+    private static boolean restoIgual(TarefaResumo antiga, TarefaResumo nova) {
+        return antiga.getPrioridade() == nova.getPrioridade()
+                && antiga.getDataVencimento() == nova.getDataVencimento()
+                && antiga.getRecorrencia() == nova.getRecorrencia()
+                && Objects.equals(antiga.getTitulo(), nova.getTitulo());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.focozen.ui.adapter;
+
+import com.example.focozen.model.TarefaResumo;
+
+/**
+ * TarefaItem
+ * --------------------------------------------------
+ * Modelo de apresentação de uma linha da lista.
+ * Tudo o que a linha mostra (data formatada, texto e fundo da prioridade,
+ * cor do título, progresso da checklist) é calculado pelo TarefaItemMapper em background,
+ * uma vez por alteração dos dados.
+ *
+ * Associar um TarefaItem a uma linha é só copiar campos: não há
+ * formatação nem alocações durante o scroll.
+ */
+public final class TarefaItem {
+
+    // Tarefa de origem (usada nos cliques e na comparação entre listas)
+    public final TarefaResumo tarefa;
+    public final String prioridadeTexto;
+    public final int prioridadeFundo; // Drawable do fundo da prioridade (0 = sem fundo)
+    public final String dataTexto;
+    public final int corTitulo;
+    public final String progressoTexto; // Ex: "☑ 2/5" (null = tarefa sem checklist)
+
+    TarefaItem(TarefaResumo tarefa, String prioridadeTexto, int prioridadeFundo,
+               String dataTexto, int corTitulo, String progressoTexto) {
+        this.tarefa = tarefa;
+        this.prioridadeTexto = prioridadeTexto;
+        this.prioridadeFundo = prioridadeFundo;
+        this.dataTexto = dataTexto;
+        this.corTitulo = corTitulo;
+        this.progressoTexto = progressoTexto;
+    }
+
+    /**
+     * Mostra o item completo numa linha
+     */
+    void aplicar(TarefaLinha linha) {
+        linha.mostrarTitulo(tarefa.getTitulo());
+        aplicarConcluida(linha);
+        linha.mostrarPrioridade(prioridadeTexto, prioridadeFundo);
+        linha.mostrarData(dataTexto);
+        aplicarProgresso(linha);
+    }
+
+    /**
+     * Atualização parcial: só o estado "concluída"
+     */
+    void aplicarConcluida(TarefaLinha linha) {
+        linha.mostrarConcluida(tarefa.isConcluida(), corTitulo);
+    }
+
+    /**
+     * Atualização parcial: só o progresso da checklist
+     */
+    void aplicarProgresso(TarefaLinha linha) {
+        linha.mostrarProgresso(progressoTexto);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.focozen.ui.adapter;
+
+import com.example.focozen.model.Recorrencia;
+import com.example.focozen.model.TarefaResumo;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * TarefaItemMapper
+ * --------------------------------------------------
+ * Converte TarefaResumo em TarefaItem (modelo de apresentação).
+ * Responsável por:
+ *  - Formatar a data de vencimento (com cache por dia), com um símbolo nas tarefas que se repetem
+ *  - Escolher o texto e o fundo da prioridade
+ *  - Escolher a cor do título conforme o estado
+ *  - Mostrar o progresso da checklist (concluídas/total), contado no SQL da lista
+ *
+ * Não depende de Context: os textos e cores são resolvidos uma vez
+ * por quem o cria (MainActivity). Não é thread-safe; deve ser usado
+ * apenas no EXECUTOR de apresentação.
+ */
+public class TarefaItemMapper {
+
+    private static final long MS_POR_DIA = 24L * 60 * 60 * 1000;
+    // Número de dias diferentes cuja data formatada é mantida em memória
+    private static final int MAX_DIAS_EM_CACHE = 512;
+    // Acrescentado à data das tarefas que se repetem
+    private static final String SIMBOLO_RECORRENCIA = " ↻";
+    // Antes do progresso da checklist (ex: "☑ 2/5")
+    private static final String SIMBOLO_CHECKLIST = "☑ ";
+
+    /**
+     * Thread única onde as listas são convertidas (fora da main thread)
+     */
+    public static final Executor EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "focozen-apresentacao");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String rotuloData;
+    private final String[] prioridades;
+    private final int[] fundosPrioridade;
+    private final int corPendente;
+    private final int corConcluida;
+    private final TimeZone fuso;
+    private final SimpleDateFormat formatoData;
+
+    // Dia (desde a epoch, no fuso local) * 2 + (1 se a tarefa se repete) → texto já formatado
+    private final Map<Long, String> datasPorDia = new LinkedHashMap<Long, String>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, String> maisAntiga) {
+            return size() > MAX_DIAS_EM_CACHE;
+        }
+    };
+
+    /**
+     * @param rotuloData       texto antes da data (ex: "Data de Vencimento:")
+     * @param prioridades      textos das prioridades 1, 2 e 3 (por esta ordem)
+     * @param fundosPrioridade drawables das prioridades 1, 2 e 3 (por esta ordem)
+     * @param corPendente      cor do título de uma tarefa pendente
+     * @param corConcluida     cor do título de uma tarefa concluída
+     */
+    public TarefaItemMapper(String rotuloData, String[] prioridades, int[] fundosPrioridade,
+                            int corPendente, int corConcluida, Locale locale, TimeZone fuso) {
+        this.rotuloData = rotuloData;
+        this.prioridades = prioridades.clone();
+        this.fundosPrioridade = fundosPrioridade.clone();
+        this.corPendente = corPendente;
+        this.corConcluida = corConcluida;
+        this.fuso = fuso;
+        this.formatoData = new SimpleDateFormat("dd/MM/yyyy", locale);
+        this.formatoData.setTimeZone(fuso);
+    }
+
+    public TarefaItem map(TarefaResumo tarefa) {
+        int prioridade = tarefa.getPrioridade();
+        // O valor da prioridade na BD é 1-based (1, 2, 3); os arrays são 0-based
+        boolean prioridadeValida = prioridade >= 1 && prioridade <= prioridades.length;
+        String prioridadeTexto = prioridadeValida ? prioridades[prioridade - 1] : "N/A";
+        int fundo = prioridade >= 1 && prioridade <= fundosPrioridade.length
+                ? fundosPrioridade[prioridade - 1] : 0;
+
+        return new TarefaItem(tarefa, prioridadeTexto, fundo,
+                formatarData(tarefa.getDataVencimento(), Recorrencia.isRecorrente(tarefa.getRecorrencia())),
+                tarefa.isConcluida() ? corConcluida : corPendente,
+                formatarProgresso(tarefa.getSubtarefasConcluidas(), tarefa.getSubtarefas()));
+    }
+
+    public List<TarefaItem> mapAll(List<TarefaResumo> tarefas) {
+        List<TarefaItem> itens = new ArrayList<>(tarefas.size());
+        for (TarefaResumo tarefa : tarefas) {
+            itens.add(map(tarefa));
+        }
+        return itens;
+    }
+
+    /**
+     * Texto da data de vencimento. Tarefas do mesmo dia partilham a mesma String.
+     */
+    String formatarData(long dataVencimento, boolean recorrente) {
+        long dia = Math.floorDiv(dataVencimento + fuso.getOffset(dataVencimento), MS_POR_DIA);
+        long chave = dia * 2 + (recorrente ? 1 : 0);
+        String texto = datasPorDia.get(chave);
+        if (texto == null) {
+            texto = rotuloData + formatoData.format(new Date(dataVencimento));
+            if (recorrente) {
+                texto += SIMBOLO_RECORRENCIA;
+            }
+            datasPorDia.put(chave, texto);
+        }
+        return texto;
+    }
+
+    /**
+     * Texto do progresso da checklist, ou null se a tarefa não tiver subtarefas
+     */
+    static String formatarProgresso(int concluidas, int total) {
+        return total == 0 ? null : SIMBOLO_CHECKLIST + concluidas + "/" + total;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.focozen.ui.adapter;
+
+/**
+ * Operações de uma linha da lista de tarefas.
+ * Implementada pelo TarefaViewHolder; separada das views para que
+ * a associação de um TarefaItem possa ser testada fora do Android.
+ */
+interface TarefaLinha {
+
+    void mostrarTitulo(CharSequence titulo);
+
+    void mostrarConcluida(boolean concluida, int corTitulo);
+
+    void mostrarPrioridade(CharSequence texto, int fundoResId);
+
+    void mostrarData(CharSequence data);
+
+    // null esconde o progresso (tarefa sem checklist)
+    void mostrarProgresso(CharSequence progresso);
+}
@@ -0,0 +1,150 @@
+package com.example.focozen.ui.adapter;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.Lifecycle;
+import androidx.paging.PagingData;
+import androidx.paging.PagingDataAdapter;
+import androidx.paging.PagingDataTransforms;
+import androidx.tracing.Trace;
+
+import com.example.focozen.R;
+import com.example.focozen.model.TarefaResumo;
+
+import java.util.List;
+
+/**
+ * TarefaPagingAdapter
+ * --------------------------------------------------
+ * Versão paginada do TarefaAdapter.
+ * Recebe PagingData do Room e só mantém em memória
+ * as páginas próximas da janela visível.
+ * Cada página é convertida em TarefaItem em background, à medida que é carregada.
+ */
+public class TarefaPagingAdapter extends PagingDataAdapter<TarefaItem, TarefaViewHolder> {
+
+    private final TarefaItemMapper mapper;
+    private TarefaAdapter.OnItemClickListener listener;
+    // Seleção múltipla ativa (null quando não há seleção)
+    private SelecaoTarefas selecao;
+
+    // Listener entregue a cada ViewHolder na criação (ver TarefaAdapter)
+    private final TarefaAdapter.OnItemClickListener encaminhador = new TarefaAdapter.OnItemClickListener() {
+        @Override
+        public void onItemClick(TarefaResumo tarefa) {
+            if (listener != null) {
+                listener.onItemClick(tarefa);
+            }
+        }
+
+        @Override
+        public void onItemLongClick(TarefaResumo tarefa) {
+            if (listener != null) {
+                listener.onItemLongClick(tarefa);
+            }
+        }
+
+        @Override
+        public void onConcluidaClick(TarefaResumo tarefa, boolean isChecked) {
+            if (listener != null) {
+                listener.onConcluidaClick(tarefa, isChecked);
+            }
+        }
+    };
+
+    public TarefaPagingAdapter(TarefaItemMapper mapper) {
+        super(new TarefaDiffCallback());
+        this.mapper = mapper;
+    }
+
+    /**
+     * Define o listener externo (MainActivity)
+     */
+    public void setOnItemClickListener(TarefaAdapter.OnItemClickListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Define a seleção a mostrar (null = fora do modo de seleção múltipla)
+     */
+    public void setSelecao(SelecaoTarefas selecao) {
+        this.selecao = selecao;
+        atualizarSelecao();
+    }
+
+    /**
+     * Atualiza apenas o realce das linhas (depois de a seleção mudar)
+     */
+    public void atualizarSelecao() {
+        notifyItemRangeChanged(0, getItemCount(), TarefaDiffCallback.PAYLOAD_SELECAO);
+    }
+
+    /**
+     * Mostra um novo stream de páginas, convertendo cada tarefa em TarefaItem
+     * no executor de apresentação (fora da main thread)
+     */
+    public void setTarefas(@NonNull Lifecycle lifecycle, @NonNull PagingData<TarefaResumo> pagingData) {
+        submitData(lifecycle, PagingDataTransforms.map(pagingData, TarefaItemMapper.EXECUTOR, mapper::map));
+    }
+
+    /**
+     * Retorna a tarefa numa posição específica, sem forçar o carregamento de páginas
+     * (usado para swipe delete na MainActivity)
+     */
+    @Nullable
+    public TarefaResumo getTarefaAt(int position) {
+        TarefaItem item = peek(position);
+        return item != null ? item.tarefa : null;
+    }
+
+    @NonNull
+    @Override
+    public TarefaViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        // Secção visível num trace do sistema (Perfetto / systrace)
+        Trace.beginSection("TarefaPagingAdapter.onCreateViewHolder");
+        try {
+            View itemView = LayoutInflater.from(parent.getContext())
+                    .inflate(R.layout.list_item_tarefa, parent, false);
+            return new TarefaViewHolder(itemView, encaminhador);
+        } finally {
+            Trace.endSection();
+        }
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull TarefaViewHolder holder, int position) {
+        Trace.beginSection("TarefaPagingAdapter.onBindViewHolder");
+        try {
+            TarefaItem currentItem = getItem(position);
+            // Os placeholders estão desativados, mas o PagingDataAdapter pode devolver null
+            if (currentItem != null) {
+                holder.bind(currentItem);
+                holder.mostrarSelecionada(selecao != null && selecao.contem(currentItem.tarefa.getId()));
+            }
+        } finally {
+            Trace.endSection();
+        }
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull TarefaViewHolder holder, int position, @NonNull List<Object> payloads) {
+        TarefaItem currentItem = getItem(position);
+        if (currentItem != null && (payloads.contains(TarefaDiffCallback.PAYLOAD_CONCLUIDA)
+                || payloads.contains(TarefaDiffCallback.PAYLOAD_PROGRESSO)
+                || payloads.contains(TarefaDiffCallback.PAYLOAD_SELECAO))) {
+            if (payloads.contains(TarefaDiffCallback.PAYLOAD_CONCLUIDA)) {
+                holder.bindConcluida(currentItem);
+            }
+            if (payloads.contains(TarefaDiffCallback.PAYLOAD_PROGRESSO)) {
+                holder.bindProgresso(currentItem);
+            }
+            holder.mostrarSelecionada(selecao != null && selecao.contem(currentItem.tarefa.getId()));
+        } else {
+            super.onBindViewHolder(holder, position, payloads);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.focozen.ui.adapter;
+
+import android.graphics.Paint;
+import android.view.View;
+import android.widget.CheckBox;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.focozen.R;
+
+/**
+ * TarefaViewHolder
+ * --------------------------------------------------
+ * Mapeia os elementos do layout list_item_tarefa.
+ * Partilhado pelo TarefaAdapter (lista completa) e
+ * pelo TarefaPagingAdapter (lista paginada).
+ *
+ * Os listeners são criados uma única vez, no construtor, e leem o item atual:
+ * associar uma nova tarefa à linha é apenas atribuir campos.
+ */
+public class TarefaViewHolder extends RecyclerView.ViewHolder implements TarefaLinha {
+    private final TextView textViewTitulo;
+    private final TextView textViewData;
+    private final TextView textViewPrioridade;
+    private final TextView textViewProgresso;
+    private final CheckBox checkBoxConcluida;
+
+    // Item atualmente mostrado nesta linha
+    private TarefaItem item;
+
+    public TarefaViewHolder(@NonNull View itemView, TarefaAdapter.OnItemClickListener listener) {
+        super(itemView);
+        textViewTitulo = itemView.findViewById(R.id.textViewTitulo);
+        textViewData = itemView.findViewById(R.id.textViewData);
+        textViewPrioridade = itemView.findViewById(R.id.textViewPrioridade);
+        textViewProgresso = itemView.findViewById(R.id.textViewProgresso);
+        checkBoxConcluida = itemView.findViewById(R.id.checkBoxConcluida);
+
+        /**
+         * Clique no item (editar tarefa)
+         */
+        itemView.setOnClickListener(v -> {
+            if (item != null) {
+                listener.onItemClick(item.tarefa);
+            }
+        });
+
+        /**
+         * Clique longo no item (iniciar a seleção múltipla)
+         */
+        itemView.setOnLongClickListener(v -> {
+            if (item == null) {
+                return false;
+            }
+            listener.onItemLongClick(item.tarefa);
+            return true;
+        });
+
+        /**
+         * Clique no CheckBox (concluir tarefa)
+         * Um OnClickListener só é chamado por toques do utilizador,
+         * por isso o setChecked() feito ao reciclar a linha não o dispara.
+         */
+        checkBoxConcluida.setOnClickListener(v -> {
+            if (item != null) {
+                listener.onConcluidaClick(item.tarefa, checkBoxConcluida.isChecked());
+            }
+        });
+    }
+
+    /**
+     * Associa os dados da tarefa às views
+     */
+    public void bind(TarefaItem item) {
+        this.item = item;
+        item.aplicar(this);
+    }
+
+    /**
+     * Atualização parcial: só o título riscado e a checkbox
+     * (usada quando o payload indica que apenas "concluída" mudou)
+     */
+    public void bindConcluida(TarefaItem item) {
+        this.item = item;
+        item.aplicarConcluida(this);
+    }
+
+    /**
+     * Atualização parcial: só o progresso da checklist
+     * (usada quando uma subtarefa desta tarefa foi marcada, acrescentada ou eliminada)
+     */
+    public void bindProgresso(TarefaItem item) {
+        this.item = item;
+        item.aplicarProgresso(this);
+    }
+
+    /**
+     * Realce da linha no modo de seleção múltipla
+     * (o foreground do card reage ao estado "activated")
+     */
+    public void mostrarSelecionada(boolean selecionada) {
+        itemView.setActivated(selecionada);
+    }
+
+    @Override
+    public void mostrarTitulo(CharSequence titulo) {
+        textViewTitulo.setText(titulo);
+    }
+
+    @Override
+    public void mostrarConcluida(boolean concluida, int corTitulo) {
+        // Lógica Visual para Tarefa Concluída: riscado (Strikethrough) e cor cinzenta
+        int flags = textViewTitulo.getPaintFlags();
+        textViewTitulo.setPaintFlags(concluida
+                ? flags | Paint.STRIKE_THRU_TEXT_FLAG
+                : flags & (~Paint.STRIKE_THRU_TEXT_FLAG));
+        textViewTitulo.setTextColor(corTitulo);
+        checkBoxConcluida.setChecked(concluida);
+    }
+
+    @Override
+    public void mostrarPrioridade(CharSequence texto, int fundoResId) {
+        textViewPrioridade.setText(texto);
+        // Sempre, para não ficar o fundo da tarefa anterior numa linha reciclada (0 retira o fundo).
+        // Se o fundo for o mesmo da tarefa anterior, a View não o volta a carregar
+        textViewPrioridade.setBackgroundResource(fundoResId);
+    }
+
+    @Override
+    public void mostrarData(CharSequence data) {
+        textViewData.setText(data);
+    }
+
+    @Override
+    public void mostrarProgresso(CharSequence progresso) {
+        if (progresso == null) {
+            textViewProgresso.setVisibility(View.GONE);
+        } else {
+            textViewProgresso.setText(progresso);
+            textViewProgresso.setVisibility(View.VISIBLE);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.focozen.data;
+
+import com.example.focozen.model.Recorrencia;
+import com.example.focozen.model.TarefaOcorrencia;
+import com.example.focozen.model.TarefaResumo;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Testes da regra de repetição (Recorrencia) e da expansão das ocorrências numa janela.
+ */
+public class ExpansorRecorrenciasTest {
+
+    // Fuso com hora de verão (29/03/2026 e 25/10/2026)
+    private static final ZoneId LISBOA = ZoneId.of("Europe/Lisbon");
+
+    private static long data(int ano, int mes, int dia) {
+        return LocalDateTime.of(ano, mes, dia, 23, 59, 59).atZone(LISBOA).toInstant().toEpochMilli();
+    }
+
+    private static List<Long> ocorrencias(TarefaResumo tarefa, long desde, long ate) {
+        List<Long> datas = new ArrayList<>();
+        new ExpansorRecorrencias(LISBOA).expandir(tarefa, desde, ate, (t, data) -> datas.add(data));
+        return datas;
+    }
+
+    @Test
+    public void regra_codificaEDescodifica() {
+        int regra = Recorrencia.regra(Recorrencia.MENSAL, 3, 31);
+        assertEquals(Recorrencia.MENSAL, Recorrencia.unidade(regra));
+        assertEquals(3, Recorrencia.intervalo(regra));
+        assertEquals(31, Recorrencia.diaDoMes(regra));
+        assertTrue(Recorrencia.isValida(regra));
+
+        assertEquals(0, Recorrencia.regra(Recorrencia.NENHUMA, 5, 1));
+        assertFalse(Recorrencia.isRecorrente(0));
+        assertFalse(Recorrencia.isValida(7));
+    }
+
+    @Test
+    public void semanal_mantemAHoraLocalNaMudancaDeHora() {
+        int semanal = Recorrencia.regra(Recorrencia.SEMANAL, 1, 0);
+        TarefaResumo tarefa = new TarefaResumo(1, "Lixo", 1, data(2026, 3, 17), false, semanal);
+
+        List<Long> datas = ocorrencias(tarefa, data(2026, 3, 1), data(2026, 4, 8));
+
+        assertEquals(Arrays.asList(data(2026, 3, 17), data(2026, 3, 24), data(2026, 3, 31), data(2026, 4, 7)),
+                datas);
+        // Igual a avançar ocorrência a ocorrência
+        assertEquals(data(2026, 3, 31), Recorrencia.proxima(data(2026, 3, 24), semanal, LISBOA));
+    }
+
+    @Test
+    public void mensal_usaOUltimoDiaNosMesesMaisCurtos() {
+        int mensal = Recorrencia.regra(Recorrencia.MENSAL, 1, data(2026, 1, 31), LISBOA);
+        TarefaResumo tarefa = new TarefaResumo(1, "Renda", 3, data(2026, 1, 31), false, mensal);
+
+        List<Long> datas = ocorrencias(tarefa, data(2026, 1, 1), data(2026, 5, 1));
+
+        assertEquals(Arrays.asList(data(2026, 1, 31), data(2026, 2, 28), data(2026, 3, 31), data(2026, 4, 30)),
+                datas);
+        assertEquals(data(2026, 3, 31), Recorrencia.proxima(data(2026, 2, 28), mensal, LISBOA));
+    }
+
+    @Test
+    public void janela_saltaAsOcorrenciasAnteriores() {
+        int cadaTresDias = Recorrencia.regra(Recorrencia.DIARIA, 3, 0);
+        TarefaResumo tarefa = new TarefaResumo(1, "Regar", 2, data(2020, 1, 1), false, cadaTresDias);
+
+        List<Long> datas = ocorrencias(tarefa, data(2026, 6, 1), data(2026, 6, 11));
+
+        // A mesma sequência que avançar a partir de 2020 (uma ocorrência de cada vez)
+        long esperada = data(2020, 1, 1);
+        List<Long> avancadas = new ArrayList<>();
+        while (esperada < data(2026, 6, 11)) {
+            if (esperada >= data(2026, 6, 1)) {
+                avancadas.add(esperada);
+            }
+            esperada = Recorrencia.proxima(esperada, cadaTresDias, LISBOA);
+        }
+        assertEquals(avancadas, datas);
+        assertEquals(4, datas.size());
+    }
+
+    @Test
+    public void expandir_ordenaPorDataELimita() {
+        TarefaResumo unica = new TarefaResumo(1, "Consulta", 3, data(2026, 6, 2), false);
+        TarefaResumo foraDaJanela = new TarefaResumo(2, "Viagem", 1, data(2026, 8, 1), false);
+        TarefaResumo diaria = new TarefaResumo(3, "Ler", 1, data(2026, 6, 1), false,
+                Recorrencia.regra(Recorrencia.DIARIA, 1, 0));
+
+        List<TarefaOcorrencia> todas = new ExpansorRecorrencias(LISBOA).expandir(
+                Arrays.asList(unica, foraDaJanela, diaria), data(2026, 6, 1), data(2026, 6, 4), 100);
+
+        assertEquals(4, todas.size());
+        assertEquals(3, todas.get(0).tarefa.getId());
+        assertTrue(todas.get(0).isAtual());
+        assertEquals(1, todas.get(1).tarefa.getId()); // mesma data: pelo id
+        assertEquals(3, todas.get(2).tarefa.getId());
+        assertFalse(todas.get(2).isAtual());
+
+        assertEquals(2, new ExpansorRecorrencias(LISBOA).expandir(
+                Arrays.asList(unica, foraDaJanela, diaria), data(2026, 6, 1), data(2026, 6, 4), 2).size());
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.focozen.data;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Testes do histograma usado nas métricas da base de dados.
+ */
+public class HistogramaLatenciaTest {
+
+    @Test
+    public void intervalo_limiteSuperiorEmPotenciasDeDois() {
+        assertEquals(0, HistogramaLatencia.intervalo(500));        // 0,5 µs
+        assertEquals(0, HistogramaLatencia.intervalo(1_000));      // 1 µs
+        assertEquals(1, HistogramaLatencia.intervalo(2_000));      // 2 µs
+        assertEquals(2, HistogramaLatencia.intervalo(3_000));      // até 4 µs
+        assertEquals(10, HistogramaLatencia.intervalo(1_000_000)); // 1 ms: até 1024 µs
+        assertEquals(HistogramaLatencia.INTERVALOS - 1, HistogramaLatencia.intervalo(60_000_000_000L));
+    }
+
+    @Test
+    public void percentis_estimadosPeloIntervaloENuncaAcimaDoMaximo() {
+        HistogramaLatencia histograma = new HistogramaLatencia();
+        // 90 execuções de ~100 µs e 10 de ~5 ms
+        for (int i = 0; i < 90; i++) {
+            histograma.registar(100_000, 1);
+        }
+        for (int i = 0; i < 10; i++) {
+            histograma.registar(5_000_000, 20);
+        }
+
+        assertEquals(100, histograma.getExecucoes());
+        assertEquals(290, histograma.getLinhas());
+        assertEquals(128_000, histograma.percentilNanos(0.50));   // intervalo até 128 µs
+        assertEquals(128_000, histograma.percentilNanos(0.90));
+        assertEquals(5_000_000, histograma.percentilNanos(0.99)); // limitado ao máximo
+        assertEquals(5_000_000, histograma.getMaximoNanos());
+
+        histograma.limpar();
+        assertEquals(0, histograma.getExecucoes());
+        assertEquals(0, histograma.percentilNanos(0.99));
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.focozen.data;
+
+import com.example.focozen.model.Tarefa;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Testes do protocolo de sincronização contra um servidor local (ServidorSincronizacaoFalso):
+ * envio e receção por lotes comprimidos, repetições e resolução de conflitos.
+ */
+public class SincronizacaoClienteTest {
+
+    // Igual a TarefaSincronizacao.TAMANHO_LOTE
+    private static final int LOTE = 500;
+
+    private ServidorSincronizacaoFalso servidor;
+    private SincronizacaoCliente cliente;
+
+    @Before
+    public void iniciar() throws IOException {
+        servidor = new ServidorSincronizacaoFalso();
+        // Três tentativas, sem esperas longas entre elas
+        cliente = new SincronizacaoCliente(servidor.getEndereco() + "/", 3, 1);
+    }
+
+    @After
+    public void terminar() {
+        servidor.close();
+    }
+
+    @Test
+    public void enviarEReceber_preservaTarefasEApagamentos() throws IOException {
+        Tarefa relatorio = tarefa("a1", 100, "Relatório, versão 2");
+        relatorio.setDescricao("Rever o \"resumo\"\ne enviar");
+        relatorio.setRecorrencia(7);
+        Tarefa semDescricao = tarefa("b2", 200, "Ligar");
+        semDescricao.setConcluida(true);
+        semDescricao.setEliminadaEm(150);
+        cliente.enviar(Arrays.asList(SincronizacaoCliente.Registo.de(relatorio),
+                SincronizacaoCliente.Registo.de(semDescricao),
+                SincronizacaoCliente.Registo.apagamento("c3", 300)));
+
+        SincronizacaoCliente.Pagina pagina = cliente.receber(0, 10);
+        assertEquals(3, pagina.registos.size());
+        assertEquals(3, pagina.cursor);
+        assertFalse(pagina.mais);
+
+        Tarefa recebida = pagina.registos.get(0).tarefa;
+        assertEquals("a1", recebida.getSyncId());
+        assertEquals(100, recebida.getAtualizadaEm());
+        assertEquals("Relatório, versão 2", recebida.getTitulo());
+        assertEquals("Rever o \"resumo\"\ne enviar", recebida.getDescricao());
+        assertEquals(7, recebida.getRecorrencia());
+        recebida = pagina.registos.get(1).tarefa;
+        assertNull(recebida.getDescricao());
+        assertTrue(recebida.isConcluida());
+        assertEquals(150, recebida.getEliminadaEm());
+        SincronizacaoCliente.Registo apagamento = pagina.registos.get(2);
+        assertTrue(apagamento.apagada);
+        assertEquals("c3", apagamento.getSyncId());
+        assertEquals(300, apagamento.tarefa.getAtualizadaEm());
+
+        // A seguir ao cursor já não há nada
+        pagina = cliente.receber(pagina.cursor, 10);
+        assertTrue(pagina.registos.isEmpty());
+        assertEquals(3, pagina.cursor);
+    }
+
+    @Test
+    public void backlogGrande_enviadoERecebidoPorLotesComprimidos() throws IOException {
+        int total = 10 * LOTE;
+        for (int inicio = 0; inicio < total; inicio += LOTE) {
+            List<SincronizacaoCliente.Registo> lote = new ArrayList<>(LOTE);
+            for (int i = inicio; i < inicio + LOTE; i++) {
+                Tarefa tarefa = tarefa("tarefa-" + i, 1767311999000L + i, "Estudar capítulo " + i);
+                tarefa.setDescricao("Ler, resumir e fazer os exercícios do capítulo " + i);
+                lote.add(SincronizacaoCliente.Registo.de(tarefa));
+            }
+            cliente.enviar(lote);
+        }
+        assertEquals(10, servidor.getPedidos());
+        // Os lotes são texto repetitivo: o gzip reduz bastante o que vai pela rede
+        assertTrue(servidor.getBytesComprimidos() * 4 < servidor.getBytesCsv());
+
+        Set<String> recebidas = new HashSet<>();
+        long cursor = 0;
+        int paginas = 0;
+        SincronizacaoCliente.Pagina pagina;
+        do {
+            pagina = cliente.receber(cursor, LOTE);
+            assertTrue(pagina.registos.size() <= LOTE);
+            for (SincronizacaoCliente.Registo registo : pagina.registos) {
+                assertTrue(registo.seq > cursor);
+                recebidas.add(registo.getSyncId());
+            }
+            cursor = pagina.cursor;
+            paginas++;
+        } while (pagina.mais);
+        assertEquals(total, recebidas.size());
+        assertEquals(total, cursor);
+        // Dez páginas cheias e uma vazia, que confirma o fim
+        assertEquals(11, paginas);
+    }
+
+    @Test
+    public void falhasTemporarias_saoRepetidasSemDuplicar() throws IOException {
+        servidor.falharProximos(2, 503);
+        List<SincronizacaoCliente.Registo> lote = Arrays.asList(
+                SincronizacaoCliente.Registo.de(tarefa("a1", 100, "Pagar a luz")));
+        cliente.enviar(lote);
+        assertEquals(3, servidor.getPedidos());
+        assertEquals(1, servidor.getUltimoSeq());
+
+        // Reenviar o mesmo lote (ex: a confirmação perdeu-se) não cria uma nova versão
+        cliente.enviar(lote);
+        assertEquals(1, servidor.getUltimoSeq());
+
+        servidor.falharProximos(1, 429);
+        assertEquals(1, cliente.receber(0, LOTE).registos.size());
+    }
+
+    @Test
+    public void falhasPersistentes_lancamIOExceptionDepoisDasTentativas() {
+        servidor.falharProximos(10, 503);
+        try {
+            cliente.receber(0, LOTE);
+            fail("Esperada IOException");
+        } catch (IOException e) {
+            assertEquals(3, servidor.getPedidos());
+        }
+    }
+
+    @Test
+    public void erroDoPedido_naoERepetido() throws IOException {
+        servidor.falharProximos(1, 400);
+        try {
+            cliente.enviar(Arrays.asList(SincronizacaoCliente.Registo.de(tarefa("a1", 100, "Pagar a luz"))));
+            fail("Esperada ProtocolException");
+        } catch (ProtocolException e) {
+            assertEquals(1, servidor.getPedidos());
+        }
+    }
+
+    @Test
+    public void conflito_ganhaAEscritaMaisRecente() throws IOException {
+        // Dois dispositivos alteram a mesma tarefa; o mais antigo envia por último
+        cliente.enviar(Arrays.asList(SincronizacaoCliente.Registo.de(tarefa("a1", 200, "Versão do telemóvel"))));
+        cliente.enviar(Arrays.asList(SincronizacaoCliente.Registo.de(tarefa("a1", 100, "Versão do tablet"))));
+        assertEquals("Versão do telemóvel", servidor.getTarefa("a1").tarefa.getTitulo());
+
+        // O dispositivo com a versão antiga recebe a mais recente e aplica-a
+        SincronizacaoCliente.Registo remoto = cliente.receber(0, LOTE).registos.get(0);
+        SincronizacaoCliente.Registo local = SincronizacaoCliente.Registo.de(tarefa("a1", 100, "Versão do tablet"));
+        assertTrue(SincronizacaoCliente.venceRemoto(local, remoto));
+        assertFalse(SincronizacaoCliente.venceRemoto(remoto, local));
+
+        // Um apagamento posterior ganha à última edição
+        cliente.enviar(Arrays.asList(SincronizacaoCliente.Registo.apagamento("a1", 300)));
+        assertTrue(servidor.getTarefa("a1").apagada);
+    }
+
+    @Test
+    public void empate_todosEscolhemAMesmaVersao() {
+        SincronizacaoCliente.Registo a = SincronizacaoCliente.Registo.de(tarefa("a1", 100, "Comprar pão"));
+        SincronizacaoCliente.Registo b = SincronizacaoCliente.Registo.de(tarefa("a1", 100, "Comprar leite"));
+        SincronizacaoCliente.Registo apagada = SincronizacaoCliente.Registo.apagamento("a1", 100);
+
+        assertEquals(-Integer.signum(SincronizacaoCliente.comparar(b, a)),
+                Integer.signum(SincronizacaoCliente.comparar(a, b)));
+        assertTrue(SincronizacaoCliente.venceRemoto(a, b) != SincronizacaoCliente.venceRemoto(b, a));
+        assertTrue(SincronizacaoCliente.venceRemoto(a, apagada));
+        // A mesma versão não substitui a local (receber de novo não escreve nada)
+        assertFalse(SincronizacaoCliente.venceRemoto(a, a.comSeq(5)));
+    }
+
+    private static Tarefa tarefa(String syncId, long atualizadaEm, String titulo) {
+        Tarefa tarefa = new Tarefa(titulo, null, 2, 1767311999000L, false);
+        tarefa.setSyncId(syncId);
+        tarefa.setAtualizadaEm(atualizadaEm);
+        return tarefa;
+    }
+}
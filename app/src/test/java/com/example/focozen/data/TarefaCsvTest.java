@@ -0,0 +1,58 @@
+package com.example.focozen.data;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * Testes do formato CSV da exportação/importação.
+ */
+public class TarefaCsvTest {
+
+    @Test
+    public void escreverELer_preservaVirgulasAspasEQuebrasDeLinha() throws IOException {
+        String[] tarefa = {"Relatório, versão 2", "Rever o \"resumo\"\ne enviar", "3", "1767311999000", "false"};
+        StringWriter saida = new StringWriter();
+        TarefaCsv.escreverRegisto(saida, TarefaCsv.COLUNAS);
+        TarefaCsv.escreverRegisto(saida, tarefa);
+        TarefaCsv.escreverRegisto(saida, "Simples", "", "1", "0", "true");
+
+        TarefaCsv.Leitor leitor = new TarefaCsv.Leitor(new BufferedReader(new StringReader(saida.toString())));
+        assertArrayEquals(TarefaCsv.COLUNAS, leitor.proximoRegisto());
+        assertArrayEquals(tarefa, leitor.proximoRegisto());
+        assertEquals(2, leitor.getLinha());
+        assertArrayEquals(new String[]{"Simples", "", "1", "0", "true"}, leitor.proximoRegisto());
+        // A descrição com quebra de linha ocupa duas linhas do ficheiro
+        assertEquals(4, leitor.getLinha());
+        assertNull(leitor.proximoRegisto());
+    }
+
+    @Test
+    public void ler_aceitaFinsDeLinhaUnixESemQuebraNoFim() throws IOException {
+        TarefaCsv.Leitor leitor = new TarefaCsv.Leitor(new StringReader("a,b\n\"c\",d"));
+        assertArrayEquals(new String[]{"a", "b"}, leitor.proximoRegisto());
+        assertArrayEquals(new String[]{"c", "d"}, leitor.proximoRegisto());
+        assertNull(leitor.proximoRegisto());
+    }
+
+    @Test
+    public void ler_aspasPorFecharIndicaALinha() throws IOException {
+        TarefaCsv.Leitor leitor = new TarefaCsv.Leitor(new StringReader("titulo\nok\n\"sem fim\n"));
+        leitor.proximoRegisto();
+        leitor.proximoRegisto();
+        try {
+            leitor.proximoRegisto();
+            fail("Esperada IOException");
+        } catch (IOException e) {
+            assertEquals("Linha 3: aspas por fechar", e.getMessage());
+        }
+    }
+}
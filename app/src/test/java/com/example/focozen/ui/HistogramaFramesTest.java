@@ -0,0 +1,49 @@
+package com.example.focozen.ui;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Testes do histograma de frames usado nas sessões de scroll.
+ */
+public class HistogramaFramesTest {
+
+    private static final long PRAZO_60_HZ = 16_666_667;
+
+    @Test
+    public void registar_contaLentosAcimaDoPrazo() {
+        HistogramaFrames histograma = new HistogramaFrames();
+        // 95 frames de 8 ms e 5 frames de 40 ms (perdem dois vsyncs)
+        for (int i = 0; i < 95; i++) {
+            histograma.registar(8_000_000, PRAZO_60_HZ);
+        }
+        for (int i = 0; i < 5; i++) {
+            histograma.registar(40_000_000, PRAZO_60_HZ);
+        }
+
+        assertEquals(100, histograma.getFrames());
+        assertEquals(5, histograma.getLentos());
+        assertEquals(5.0, histograma.getPercentagemLentos(), 0.001);
+        assertEquals(8.0, histograma.percentilMs(0.50), 0.001);
+        assertEquals(8.0, histograma.percentilMs(0.95), 0.001);
+        assertEquals(40.0, histograma.percentilMs(0.99), 0.001);
+    }
+
+    @Test
+    public void juntar_somaSessoesEMantemOMaximo() {
+        HistogramaFrames total = new HistogramaFrames();
+        HistogramaFrames sessao = new HistogramaFrames();
+        sessao.registar(500_000_000, PRAZO_60_HZ); // acima do último intervalo
+        total.juntar(sessao);
+        total.juntar(sessao);
+
+        assertEquals(2, total.getFrames());
+        assertEquals(HistogramaFrames.INTERVALOS - 1, HistogramaFrames.intervalo(500_000_000));
+        assertEquals(500.0, total.percentilMs(0.99), 0.001);
+
+        total.limpar();
+        assertEquals(0, total.getFrames());
+        assertEquals(0.0, total.percentilMs(0.50), 0.001);
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.focozen.ui.adapter;
+
+import com.example.focozen.model.TarefaResumo;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Testes do modelo de apresentação das linhas da lista.
+ * Correm na JVM: a linha é substituída por uma implementação falsa de TarefaLinha.
+ */
+public class TarefaItemTest {
+
+    private static final int COR_PENDENTE = 0xFF000000;
+    private static final int COR_CONCLUIDA = 0xFF888888;
+    private static final long DIA = 24L * 60 * 60 * 1000;
+
+    private TarefaItemMapper mapper;
+
+    /**
+     * Linha falsa: só guarda referências, não aloca nada
+     */
+    private static final class LinhaFalsa implements TarefaLinha {
+        CharSequence titulo;
+        CharSequence prioridade;
+        CharSequence data;
+        CharSequence progresso;
+        boolean concluida;
+        int cor;
+        int fundo;
+
+        @Override
+        public void mostrarTitulo(CharSequence titulo) {
+            this.titulo = titulo;
+        }
+
+        @Override
+        public void mostrarConcluida(boolean concluida, int corTitulo) {
+            this.concluida = concluida;
+            this.cor = corTitulo;
+        }
+
+        @Override
+        public void mostrarPrioridade(CharSequence texto, int fundoResId) {
+            this.prioridade = texto;
+            this.fundo = fundoResId;
+        }
+
+        @Override
+        public void mostrarData(CharSequence data) {
+            this.data = data;
+        }
+
+        @Override
+        public void mostrarProgresso(CharSequence progresso) {
+            this.progresso = progresso;
+        }
+    }
+
+    @Before
+    public void setUp() {
+        mapper = new TarefaItemMapper("Vence: ", new String[]{"Baixa", "Média", "Alta"},
+                new int[]{1, 2, 3}, COR_PENDENTE, COR_CONCLUIDA,
+                Locale.ROOT, TimeZone.getTimeZone("UTC"));
+    }
+
+    @Test
+    public void map_calculaTextosECores() {
+        // 08/01/2026 23:59:59 UTC
+        long data = 20461 * DIA + DIA - 1000;
+        TarefaItem item = mapper.map(new TarefaResumo(7, "Relatório", 3, data, true));
+
+        assertEquals("Alta", item.prioridadeTexto);
+        assertEquals(3, item.prioridadeFundo);
+        assertEquals("Vence: 08/01/2026", item.dataTexto);
+        assertEquals(COR_CONCLUIDA, item.corTitulo);
+
+        TarefaItem semPrioridade = mapper.map(new TarefaResumo(8, "x", 9, data, false));
+        assertEquals("N/A", semPrioridade.prioridadeTexto);
+        assertEquals(0, semPrioridade.prioridadeFundo);
+        assertEquals(COR_PENDENTE, semPrioridade.corTitulo);
+    }
+
+    @Test
+    public void map_mostraOProgressoDaChecklist() {
+        TarefaResumo comChecklist = new TarefaResumo(1, "Mudança", 2, 20461 * DIA, false);
+        comChecklist.setSubtarefas(5);
+        comChecklist.setSubtarefasConcluidas(2);
+        LinhaFalsa linha = new LinhaFalsa();
+
+        mapper.map(comChecklist).aplicar(linha);
+        assertEquals("☑ 2/5", linha.progresso);
+
+        // Sem subtarefas, o progresso fica escondido
+        mapper.map(new TarefaResumo(2, "Simples", 2, 20461 * DIA, false)).aplicar(linha);
+        assertNull(linha.progresso);
+    }
+
+    @Test
+    public void map_reutilizaADataFormatadaDoMesmoDia() {
+        long inicioDoDia = 20461 * DIA;
+        TarefaItem manha = mapper.map(new TarefaResumo(1, "a", 1, inicioDoDia + 1000, false));
+        TarefaItem noite = mapper.map(new TarefaResumo(2, "b", 2, inicioDoDia + DIA - 1000, false));
+        TarefaItem diaSeguinte = mapper.map(new TarefaResumo(3, "c", 2, inicioDoDia + DIA, false));
+
+        assertSame(manha.dataTexto, noite.dataTexto);
+        assertEquals("Vence: 09/01/2026", diaSeguinte.dataTexto);
+    }
+
+    @Test
+    public void aplicar_naoAlocaMemoria() throws Exception {
+        // A medição usa com.sun.management.ThreadMXBean (por reflexão: não faz parte do android.jar)
+        Object threadBean;
+        Method alocados;
+        try {
+            threadBean = Class.forName("java.lang.management.ManagementFactory")
+                    .getMethod("getThreadMXBean").invoke(null);
+            alocados = Class.forName("com.sun.management.ThreadMXBean")
+                    .getMethod("getThreadAllocatedBytes", long.class);
+        } catch (ReflectiveOperationException e) {
+            threadBean = null;
+            alocados = null;
+        }
+        Assume.assumeTrue("JVM sem medição de alocações por thread",
+                threadBean != null && alocados.getDeclaringClass().isInstance(threadBean));
+
+        TarefaItem[] itens = {
+                mapper.map(new TarefaResumo(1, "Pendente", 1, 20461 * DIA, false)),
+                mapper.map(new TarefaResumo(2, "Concluída", 3, 20470 * DIA, true)),
+        };
+        LinhaFalsa linha = new LinhaFalsa();
+        int repeticoes = 100_000;
+
+        // Aquecimento (JIT)
+        for (int i = 0; i < repeticoes; i++) {
+            itens[i & 1].aplicar(linha);
+            itens[i & 1].aplicarConcluida(linha);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long antes = (Long) alocados.invoke(threadBean, threadId);
+        for (int i = 0; i < repeticoes; i++) {
+            itens[i & 1].aplicar(linha);
+            itens[i & 1].aplicarConcluida(linha);
+        }
+        long depois = (Long) alocados.invoke(threadBean, threadId);
+        // Custo da própria medição (reflexão, boxing do resultado)
+        long vazio = (Long) alocados.invoke(threadBean, threadId);
+        long custoMedicao = (Long) alocados.invoke(threadBean, threadId) - vazio;
+
+        long porAssociacao = (depois - antes - custoMedicao) / repeticoes;
+        assertEquals("Bytes alocados por associação", 0, porAssociacao);
+        assertTrue(linha.data != null && linha.prioridade != null);
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.focozen.data;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Servidor de sincronização em memória, no mesmo processo dos testes
+ * (na JVM e no dispositivo: só usa sockets, um pedido por ligação):
+ *  - Guarda a versão que ganha de cada tarefa (SincronizacaoCliente.comparar, como o cliente)
+ *  - Numera cada versão aceite (seq) e devolve-as a seguir a um cursor, por páginas
+ *  - Pode falhar os próximos pedidos com um código HTTP, para testar as repetições
+ *  - Conta os pedidos e os bytes recebidos, comprimidos e descomprimidos
+ */
+final class ServidorSincronizacaoFalso implements AutoCloseable {
+
+    private final ServerSocket socket;
+
+    // Versão atual de cada tarefa e as mesmas versões pela ordem do seq
+    private final Map<String, SincronizacaoCliente.Registo> tarefas = new HashMap<>();
+    private final TreeMap<Long, SincronizacaoCliente.Registo> porSeq = new TreeMap<>();
+    private long ultimoSeq = 0;
+
+    private final Deque<Integer> falhas = new ArrayDeque<>();
+    // Receção (GET) que vai falhar, contada a partir de agora (0 = nenhuma)
+    private int receberAteFalhar = 0;
+    private int codigoFalhaReceber;
+    private int pedidos = 0;
+    private long bytesComprimidos = 0;
+    private long bytesCsv = 0;
+
+    ServidorSincronizacaoFalso() throws IOException {
+        socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread thread = new Thread(this::aceitar, "servidor-sincronizacao");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    String getEndereco() {
+        return "http://127.0.0.1:" + socket.getLocalPort();
+    }
+
+    /**
+     * Os próximos :vezes pedidos falham com :codigo, sem serem processados
+     */
+    synchronized void falharProximos(int vezes, int codigo) {
+        for (int i = 0; i < vezes; i++) {
+            falhas.add(codigo);
+        }
+    }
+
+    /**
+     * A :numero-ésima receção (GET) a partir de agora falha com :codigo; os envios não contam
+     */
+    synchronized void falharReceber(int numero, int codigo) {
+        receberAteFalhar = numero;
+        codigoFalhaReceber = codigo;
+    }
+
+    synchronized int getPedidos() {
+        return pedidos;
+    }
+
+    synchronized long getBytesComprimidos() {
+        return bytesComprimidos;
+    }
+
+    synchronized long getBytesCsv() {
+        return bytesCsv;
+    }
+
+    synchronized SincronizacaoCliente.Registo getTarefa(String syncId) {
+        return tarefas.get(syncId);
+    }
+
+    synchronized long getUltimoSeq() {
+        return ultimoSeq;
+    }
+
+    private void aceitar() {
+        while (!socket.isClosed()) {
+            try (Socket ligacao = socket.accept()) {
+                responder(ligacao);
+            } catch (IOException e) {
+                // Servidor fechado, ou o cliente desistiu da ligação (volta a tentar noutra)
+            }
+        }
+    }
+
+    private synchronized void responder(Socket ligacao) throws IOException {
+        // 1. Linha do pedido ("GET /alteracoes?desde=0&limite=500 HTTP/1.1"), cabeçalhos e corpo
+        InputStream entrada = new BufferedInputStream(ligacao.getInputStream());
+        String[] pedido = lerLinha(entrada).split(" ");
+        if (pedido.length < 2) {
+            return;
+        }
+        Map<String, String> cabecalhos = new HashMap<>();
+        String linha;
+        while (!(linha = lerLinha(entrada)).isEmpty()) {
+            int separador = linha.indexOf(':');
+            cabecalhos.put(linha.substring(0, separador).trim().toLowerCase(Locale.ROOT),
+                    linha.substring(separador + 1).trim());
+        }
+        String comprimento = cabecalhos.get("content-length");
+        byte[] corpo = new byte[comprimento == null ? 0 : Integer.parseInt(comprimento)];
+        new DataInputStream(entrada).readFully(corpo);
+
+        // 2. Resposta (ou a falha pedida pelo teste)
+        pedidos++;
+        boolean receber = "GET".equals(pedido[0]);
+        Integer falha = falhas.poll();
+        if (falha == null && receber && receberAteFalhar > 0 && --receberAteFalhar == 0) {
+            falha = codigoFalhaReceber;
+        }
+        OutputStream saida = ligacao.getOutputStream();
+        if (falha != null) {
+            escreverResposta(saida, falha, null, new byte[0]);
+        } else if (!pedido[1].startsWith(SincronizacaoCliente.CAMINHO)) {
+            escreverResposta(saida, 404, null, new byte[0]);
+        } else if (receber) {
+            enviarPagina(saida, pedido[1], "gzip".equals(cabecalhos.get("accept-encoding")));
+        } else {
+            receberLote(saida, "gzip".equals(cabecalhos.get("content-encoding")), corpo);
+        }
+    }
+
+    private void receberLote(OutputStream saida, boolean gzip, byte[] corpo) throws IOException {
+        if (!gzip) {
+            escreverResposta(saida, 415, null, new byte[0]);
+            return;
+        }
+        byte[] csv = lerTudo(new GZIPInputStream(new ByteArrayInputStream(corpo)));
+        bytesComprimidos += corpo.length;
+        bytesCsv += csv.length;
+
+        List<SincronizacaoCliente.Registo> registos = SincronizacaoCliente.lerLote(
+                new InputStreamReader(new ByteArrayInputStream(csv), StandardCharsets.UTF_8));
+        for (SincronizacaoCliente.Registo registo : registos) {
+            SincronizacaoCliente.Registo atual = tarefas.get(registo.getSyncId());
+            if (atual != null && SincronizacaoCliente.comparar(registo, atual) <= 0) {
+                continue;
+            }
+            if (atual != null) {
+                porSeq.remove(atual.seq);
+            }
+            SincronizacaoCliente.Registo aceite = registo.comSeq(++ultimoSeq);
+            tarefas.put(aceite.getSyncId(), aceite);
+            porSeq.put(aceite.seq, aceite);
+        }
+        escreverResposta(saida, 204, null, new byte[0]);
+    }
+
+    private void enviarPagina(OutputStream saida, String caminho, boolean gzip) throws IOException {
+        Map<String, String> parametros = new HashMap<>();
+        for (String parametro : caminho.substring(caminho.indexOf('?') + 1).split("&")) {
+            String[] partes = parametro.split("=", 2);
+            parametros.put(partes[0], partes[1]);
+        }
+        long desde = Long.parseLong(parametros.get("desde"));
+        int limite = Integer.parseInt(parametros.get("limite"));
+        List<SincronizacaoCliente.Registo> pagina = new ArrayList<>(limite);
+        for (SincronizacaoCliente.Registo registo : porSeq.tailMap(desde, false).values()) {
+            if (pagina.size() == limite) {
+                break;
+            }
+            pagina.add(registo);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Writer csv = new OutputStreamWriter(gzip ? new GZIPOutputStream(bytes) : bytes,
+                StandardCharsets.UTF_8)) {
+            SincronizacaoCliente.escreverLote(csv, pagina);
+        }
+        escreverResposta(saida, 200, gzip ? "gzip" : null, bytes.toByteArray());
+    }
+
+    /**
+     * Resposta com o tamanho do corpo e sem keep-alive (a ligação fecha a seguir)
+     */
+    private static void escreverResposta(OutputStream saida, int codigo, String encoding, byte[] corpo)
+            throws IOException {
+        StringBuilder cabecalhos = new StringBuilder()
+                .append("HTTP/1.1 ").append(codigo).append(codigo < 300 ? " OK" : " Erro").append("\r\n")
+                .append("Content-Length: ").append(corpo.length).append("\r\n")
+                .append("Connection: close\r\n");
+        if (corpo.length > 0) {
+            cabecalhos.append("Content-Type: text/csv; charset=utf-8\r\n");
+        }
+        if (encoding != null) {
+            cabecalhos.append("Content-Encoding: ").append(encoding).append("\r\n");
+        }
+        cabecalhos.append("\r\n");
+        saida.write(cabecalhos.toString().getBytes(StandardCharsets.ISO_8859_1));
+        saida.write(corpo);
+        saida.flush();
+    }
+
+    /**
+     * Uma linha do pedido, sem o "\r\n" final (vazia no fim dos cabeçalhos ou da ligação)
+     */
+    private static String lerLinha(InputStream entrada) throws IOException {
+        StringBuilder linha = new StringBuilder();
+        int c;
+        while ((c = entrada.read()) != -1 && c != '\n') {
+            if (c != '\r') {
+                linha.append((char) c);
+            }
+        }
+        return linha.toString();
+    }
+
+    private static byte[] lerTudo(InputStream entrada) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int lidos;
+        while ((lidos = entrada.read(buffer)) != -1) {
+            bytes.write(buffer, 0, lidos);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public void close() {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Já fechado
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.focozen.data;
+
+import androidx.sqlite.SQLiteConnection;
+import androidx.sqlite.SQLiteStatement;
+import androidx.sqlite.driver.bundled.BundledSQLiteDriver;
+
+import com.example.focozen.model.Recorrencia;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Base de dados SQLite (driver nativo) com o mesmo esquema que o Room cria
+ * para o TarefaDatabase, preenchida com tarefas geradas de forma determinística.
+ * O esquema não é copiado: as tabelas e os índices vêm do último esquema exportado
+ * pelo Room (app/schemas) e os triggers do TarefaTriggers, como no TarefaMigrations.CRIACAO.
+ */
+final class BaseDadosBenchmark implements AutoCloseable {
+
+    private static final long DIA = 24L * 60 * 60 * 1000;
+    // 01/01/2026 23:59:59 UTC: todas as datas ficam no fim do dia, como na aplicação
+    static final long INICIO = 1767311999000L;
+
+    private static final String[] PALAVRAS = {
+            "estudar", "comprar", "ligar", "enviar", "rever", "pagar", "marcar", "ler",
+            "escrever", "preparar", "organizar", "limpar", "treinar", "planear", "responder"
+    };
+
+    // Pasta com os esquemas exportados pelo Room (app/schemas/...), indicada pelo build.gradle
+    private static final String PROPRIEDADE_ESQUEMAS = "focozen.esquemas";
+
+    // Etiquetas geradas, com os ids usados em TAG_TRABALHO...TAG_VIAGEM
+    private static final String INSERIR_TAGS = "INSERT INTO `tags` (`id`, `nome`, `pendentes`, `concluidas`) "
+            + "VALUES (1, 'trabalho', 0, 0), (2, 'casa', 0, 0), (3, 'estudo', 0, 0), (4, 'viagem', 0, 0)";
+
+    static final String INSERIR = "INSERT INTO `tarefas` (`titulo`, `descricao`, `prioridade`, "
+            + "`dataVencimento`, `concluida`, `recorrencia`, `syncId`, `atualizadaEm`) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Subtarefas por tarefa com checklist (uma em cada 10), a primeira já concluída
+    static final int SUBTAREFAS_POR_TAREFA = 4;
+    private static final String INSERIR_SUBTAREFA = "INSERT INTO `subtarefas` (`tarefaId`, `titulo`, `concluida`) "
+            + "VALUES (?, ?, ?)";
+
+    // Etiquetas geradas (ids da tabela tags): três comuns, cada uma em cerca de 30% das tarefas
+    // e sem correlação entre si, e uma rara (1%)
+    static final int TAG_TRABALHO = 1;
+    static final int TAG_CASA = 2;
+    static final int TAG_ESTUDO = 3;
+    static final int TAG_VIAGEM = 4;
+    static final String ASSOCIAR_TAG = "INSERT OR IGNORE INTO `tarefas_tags` (`tarefaId`, `tagId`) VALUES (?, ?)";
+
+    private final File ficheiro;
+    final SQLiteConnection conexao;
+    private final Random random = new Random(42);
+    // syncId da próxima tarefa inserida (sequencial, sem usar o Random)
+    private long proximoSyncId = 1;
+
+    /**
+     * Cria uma base de dados num ficheiro temporário (em WAL, como o Room no dispositivo)
+     * com o número de tarefas indicado.
+     */
+    BaseDadosBenchmark(int linhas) throws IOException {
+        ficheiro = File.createTempFile("focozen-benchmark", ".db");
+        ficheiro.delete();
+        conexao = new BundledSQLiteDriver().open(ficheiro.getAbsolutePath());
+        executar("PRAGMA journal_mode=WAL");
+        executar("PRAGMA synchronous=NORMAL");
+        for (String sql : esquema()) {
+            executar(sql);
+        }
+        executar(INSERIR_TAGS);
+
+        executar("BEGIN IMMEDIATE TRANSACTION");
+        try (SQLiteStatement insert = conexao.prepare(INSERIR)) {
+            for (int i = 0; i < linhas; i++) {
+                bindTarefa(insert, i);
+                insert.step();
+                insert.reset();
+            }
+        }
+        // Sem usar o Random, para que as tarefas sejam as mesmas das versões anteriores do benchmark
+        try (SQLiteStatement insert = conexao.prepare(INSERIR_SUBTAREFA)) {
+            for (int tarefaId = 1; tarefaId <= linhas; tarefaId += 10) {
+                for (int s = 0; s < SUBTAREFAS_POR_TAREFA; s++) {
+                    insert.bindLong(1, tarefaId);
+                    insert.bindText(2, "Item " + s);
+                    insert.bindLong(3, s == 0 ? 1 : 0);
+                    insert.step();
+                    insert.reset();
+                }
+            }
+        }
+        // Também sem usar o Random (os contadores das etiquetas são mantidos pelos triggers)
+        try (SQLiteStatement insert = conexao.prepare(ASSOCIAR_TAG)) {
+            for (int tarefaId = 1; tarefaId <= linhas; tarefaId++) {
+                associar(insert, tarefaId, TAG_TRABALHO, tarefaId % 10 < 3);
+                associar(insert, tarefaId, TAG_CASA, (tarefaId / 10) % 10 < 3);
+                associar(insert, tarefaId, TAG_ESTUDO, (tarefaId / 100) % 10 < 3);
+                associar(insert, tarefaId, TAG_VIAGEM, tarefaId % 100 == 50);
+            }
+        }
+        // Base de dados já sincronizada: o diário começa vazio
+        executar("DELETE FROM `alteracoes`");
+        executar("COMMIT");
+        executar("ANALYZE");
+    }
+
+    /**
+     * Instruções que criam o esquema da versão mais recente, pela ordem do Room numa base de dados nova:
+     * tabelas, índices e triggers do FTS de cada entidade e, a seguir, os do TarefaTriggers
+     */
+    static List<String> esquema() throws IOException {
+        // 1. Esquema exportado com a versão mais alta
+        String pasta = System.getProperty(PROPRIEDADE_ESQUEMAS);
+        File[] ficheiros = pasta == null ? null : new File(pasta).listFiles((dir, nome) -> nome.endsWith(".json"));
+        if (ficheiros == null || ficheiros.length == 0) {
+            throw new IOException("Sem esquemas exportados em " + PROPRIEDADE_ESQUEMAS + "=" + pasta);
+        }
+        File ultimo = Collections.max(Arrays.asList(ficheiros),
+                Comparator.comparingInt(f -> Integer.parseInt(f.getName().replace(".json", ""))));
+
+        // 2. Entidades, pela ordem do TarefaDatabase
+        List<String> sql = new ArrayList<>();
+        try (Reader leitor = new InputStreamReader(new FileInputStream(ultimo), StandardCharsets.UTF_8)) {
+            JsonObject database = JsonParser.parseReader(leitor).getAsJsonObject().getAsJsonObject("database");
+            for (JsonElement elemento : database.getAsJsonArray("entities")) {
+                JsonObject entidade = elemento.getAsJsonObject();
+                String tabela = entidade.get("tableName").getAsString();
+                sql.add(semTabela(entidade.get("createSql"), tabela));
+                for (JsonElement indice : entidade.getAsJsonArray("indices")) {
+                    sql.add(semTabela(indice.getAsJsonObject().get("createSql"), tabela));
+                }
+                if (entidade.has("contentSyncTriggers")) {
+                    for (JsonElement trigger : entidade.getAsJsonArray("contentSyncTriggers")) {
+                        sql.add(trigger.getAsString());
+                    }
+                }
+            }
+        }
+
+        // 3. O que o Room não cria (contadores e diário de alterações)
+        sql.addAll(TarefaTriggers.criacao());
+        return sql;
+    }
+
+    private static String semTabela(JsonElement createSql, String tabela) {
+        return createSql.getAsString().replace("${TABLE_NAME}", tabela);
+    }
+
+    /**
+     * Preenche os parâmetros de INSERIR com a tarefa número i
+     */
+    void bindTarefa(SQLiteStatement insert, int i) {
+        String palavra = PALAVRAS[random.nextInt(PALAVRAS.length)];
+        insert.bindText(1, palavra + " " + i);
+        StringBuilder descricao = new StringBuilder();
+        for (int p = 0; p < 8; p++) {
+            descricao.append(PALAVRAS[random.nextInt(PALAVRAS.length)]).append(' ');
+        }
+        // Uma palavra rara, para a pesquisa de texto ter poucos resultados
+        if (random.nextInt(100) == 0) {
+            descricao.append("relatório");
+        }
+        insert.bindText(2, descricao.toString());
+        insert.bindLong(3, 1 + random.nextInt(3));
+        insert.bindLong(4, INICIO + random.nextInt(365) * DIA);
+        insert.bindLong(5, random.nextInt(10) < 3 ? 1 : 0);
+        // Uma em cada 20 repete-se todas as semanas (sem usar o Random, para que
+        // as restantes colunas sejam as mesmas das versões anteriores do benchmark)
+        insert.bindLong(6, i % 20 == 0 ? Recorrencia.regra(Recorrencia.SEMANAL, 1, 0) : 0);
+        // Cada tarefa inserida é nova (também nas inserções repetidas dos benchmarks de escrita)
+        insert.bindText(7, new UUID(0, proximoSyncId++).toString());
+        insert.bindLong(8, INICIO);
+    }
+
+    private static void associar(SQLiteStatement insert, int tarefaId, int tagId, boolean associada) {
+        if (associada) {
+            insert.bindLong(1, tarefaId);
+            insert.bindLong(2, tagId);
+            insert.step();
+            insert.reset();
+        }
+    }
+
+    /**
+     * Executa uma instrução sem resultados (ou ignorando-os)
+     */
+    void executar(String sql) {
+        try (SQLiteStatement statement = conexao.prepare(sql)) {
+            statement.step();
+        }
+    }
+
+    long lerLong(String sql) {
+        try (SQLiteStatement statement = conexao.prepare(sql)) {
+            statement.step();
+            return statement.getLong(0);
+        }
+    }
+
+    @Override
+    public void close() {
+        conexao.close();
+        ficheiro.delete();
+        new File(ficheiro.getPath() + "-wal").delete();
+        new File(ficheiro.getPath() + "-shm").delete();
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.focozen.data;
+
+import androidx.sqlite.SQLiteStatement;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Débito de escrita no SQLite: uma transação por operação (como cada escrita isolada)
+ * comparado com um lote numa só transação (o que o TarefaWriteBatcher faz a cada janela).
+ * Os resultados são por operação e incluem os triggers de cada escrita
+ * (estatísticas, etiquetas e diário de alterações da sincronização).
+ *
+ * Não mede o TarefaWriteBatcher nem o TarefaRepository: os Tipo recebem o TarefaDao
+ * gerado pelo Room, que só existe no Android. As instruções são cópias das do TarefaDao,
+ * executadas diretamente no driver nativo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EscritaBenchmark {
+
+    private static final int LINHAS = 10_000;
+    private static final int LOTE = 100;
+
+    // Cópias das @Query do TarefaDao
+    private static final String SET_CONCLUIDA = "UPDATE tarefas SET concluida = ?, atualizadaEm = ? WHERE id = ?";
+    private static final String ELIMINAR_POR_ID = "DELETE FROM tarefas WHERE id = ?";
+
+    private BaseDadosBenchmark baseDados;
+    private int proximoId = 1;
+    private boolean concluida;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        baseDados = new BaseDadosBenchmark(LINHAS);
+    }
+
+    @TearDown(Level.Trial)
+    public void terminar() {
+        baseDados.close();
+    }
+
+    /**
+     * Marcar como concluída, uma transação por tarefa
+     */
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public void concluirPorLinha() {
+        try (SQLiteStatement update = baseDados.conexao.prepare(SET_CONCLUIDA)) {
+            for (int i = 0; i < LOTE; i++) {
+                atualizar(update);
+            }
+        }
+    }
+
+    /**
+     * Marcar como concluída, o lote inteiro numa transação
+     */
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public void concluirEmLote() {
+        baseDados.executar("BEGIN IMMEDIATE TRANSACTION");
+        try (SQLiteStatement update = baseDados.conexao.prepare(SET_CONCLUIDA)) {
+            for (int i = 0; i < LOTE; i++) {
+                atualizar(update);
+            }
+        }
+        baseDados.executar("COMMIT");
+    }
+
+    /**
+     * Inserir e eliminar tarefas, uma transação por operação
+     * (a tabela mantém o mesmo tamanho entre invocações)
+     */
+    @Benchmark
+    @OperationsPerInvocation(2 * LOTE)
+    public void inserirEliminarPorLinha() {
+        inserirEliminar();
+    }
+
+    /**
+     * Inserir e eliminar tarefas, numa só transação
+     */
+    @Benchmark
+    @OperationsPerInvocation(2 * LOTE)
+    public void inserirEliminarEmLote() {
+        baseDados.executar("BEGIN IMMEDIATE TRANSACTION");
+        inserirEliminar();
+        baseDados.executar("COMMIT");
+    }
+
+    private void atualizar(SQLiteStatement update) {
+        concluida = !concluida;
+        update.bindLong(1, concluida ? 1 : 0);
+        update.bindLong(2, System.currentTimeMillis());
+        update.bindLong(3, proximoId);
+        update.step();
+        update.reset();
+        proximoId = proximoId % LINHAS + 1;
+    }
+
+    private void inserirEliminar() {
+        long[] ids = new long[LOTE];
+        try (SQLiteStatement insert = baseDados.conexao.prepare(BaseDadosBenchmark.INSERIR)) {
+            for (int i = 0; i < LOTE; i++) {
+                baseDados.bindTarefa(insert, i);
+                insert.step();
+                insert.reset();
+                ids[i] = baseDados.lerLong("SELECT last_insert_rowid()");
+            }
+        }
+        try (SQLiteStatement delete = baseDados.conexao.prepare(ELIMINAR_POR_ID)) {
+            for (long id : ids) {
+                delete.bindLong(1, id);
+                delete.step();
+                delete.reset();
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.focozen.data;
+
+import com.example.focozen.model.Recorrencia;
+import com.example.focozen.model.TarefaOcorrencia;
+import com.example.focozen.model.TarefaResumo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Geração das ocorrências das tarefas que se repetem (ExpansorRecorrencias),
+ * com 1k e 10k tarefas a começar até três anos antes da janela:
+ *  - Um ano inteiro de ocorrências (o pior caso; a agenda nunca pede tanto de uma vez)
+ *  - Uma janela de 14 dias ordenada, como a que a AgendaActivity pede a cada scroll
+ *  - Concluir uma ocorrência (avançar a regra), que não depende do número de ocorrências passadas
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExpansorRecorrenciasBenchmark {
+
+    private static final long DIA = 24L * 60 * 60 * 1000;
+    // Fuso com hora de verão: as janelas atravessam as duas mudanças de hora
+    private static final ZoneId ZONA = ZoneId.of("Europe/Lisbon");
+
+    @Param({"1000", "10000"})
+    public int linhas;
+
+    private List<TarefaResumo> tarefas;
+    private long desde;
+    private int posicao;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random random = new Random(42);
+        desde = LocalDateTime.of(2026, 1, 1, 0, 0).atZone(ZONA).toInstant().toEpochMilli();
+        tarefas = new ArrayList<>(linhas);
+        for (int i = 0; i < linhas; i++) {
+            long inicio = desde - random.nextInt(3 * 365) * DIA + (DIA - 1000);
+            int unidade = 1 + random.nextInt(3);
+            int regra = Recorrencia.regra(unidade, 1 + random.nextInt(3), inicio, ZONA);
+            tarefas.add(new TarefaResumo(i + 1, "Tarefa " + i, 1 + random.nextInt(3), inicio, false, regra));
+        }
+    }
+
+    @Benchmark
+    public void anoCompleto(Blackhole blackhole) {
+        ExpansorRecorrencias expansor = new ExpansorRecorrencias(ZONA);
+        long ate = desde + 365 * DIA;
+        for (TarefaResumo tarefa : tarefas) {
+            expansor.expandir(tarefa, desde, ate, (t, data) -> blackhole.consume(data));
+        }
+    }
+
+    @Benchmark
+    public List<TarefaOcorrencia> janelaAgenda() {
+        long inicio = desde + 180 * DIA;
+        return new ExpansorRecorrencias(ZONA).expandir(tarefas, inicio, inicio + 14 * DIA, 2000);
+    }
+
+    @Benchmark
+    public long avancar() {
+        TarefaResumo tarefa = tarefas.get(posicao);
+        posicao = (posicao + 1) % tarefas.size();
+        return Recorrencia.proxima(tarefa.getDataVencimento(), tarefa.getRecorrencia(), ZONA);
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.focozen.data;
+
+import androidx.sqlite.SQLiteStatement;
+
+import com.example.focozen.model.TarefaResumo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtro da lista por etiquetas (SQL gerado pelo TarefaQuerySpec) com 10k e 50k tarefas:
+ *  - Uma etiqueta comum (30%), uma rara (1%), duas com OU e duas com E (9%)
+ *  - Primeira página (modo paginado) e lista completa, pendentes por data
+ *  - Contadores das etiquetas mostrados no filtro (tabela mantida pelos triggers)
+ *  - Associar e retirar uma etiqueta, incluindo o custo dos triggers
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TagsBenchmark {
+
+    // Tamanho de página usado pelo TarefaRepository no modo paginado
+    private static final int TAMANHO_PAGINA = 50;
+
+    private static final String CONTADORES = "SELECT * FROM tags ORDER BY nome";
+    // Cópia da @Query do TarefaDao
+    private static final String RETIRAR = "DELETE FROM tarefas_tags WHERE tarefaId = ? AND tagId = ?";
+
+    @Param({"10000", "50000"})
+    public int linhas;
+
+    @Param({"COMUM", "RARA", "OU", "E"})
+    public String etiquetas;
+
+    private BaseDadosBenchmark baseDados;
+    private String sqlLista;
+    private String sqlPagina;
+    private int proximaTarefa = 1;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        baseDados = new BaseDadosBenchmark(linhas);
+        TarefaQuerySpec pendentes = new TarefaQuerySpec(TarefaQuerySpec.Filtro.PENDENTES, TarefaQuerySpec.Ordenacao.DATA);
+        TarefaQuerySpec spec;
+        switch (etiquetas) {
+            case "RARA":
+                spec = pendentes.comTags(Collections.singletonList(BaseDadosBenchmark.TAG_VIAGEM),
+                        TarefaQuerySpec.CombinacaoTags.QUALQUER);
+                break;
+            case "OU":
+                spec = pendentes.comTags(Arrays.asList(BaseDadosBenchmark.TAG_TRABALHO, BaseDadosBenchmark.TAG_CASA),
+                        TarefaQuerySpec.CombinacaoTags.QUALQUER);
+                break;
+            case "E":
+                spec = pendentes.comTags(Arrays.asList(BaseDadosBenchmark.TAG_TRABALHO, BaseDadosBenchmark.TAG_CASA),
+                        TarefaQuerySpec.CombinacaoTags.TODAS);
+                break;
+            case "COMUM":
+            default:
+                spec = pendentes.comTags(Collections.singletonList(BaseDadosBenchmark.TAG_TRABALHO),
+                        TarefaQuerySpec.CombinacaoTags.QUALQUER);
+                break;
+        }
+        sqlLista = spec.toSql();
+        // Forma usada pelo PagingSource do Room para uma @RawQuery
+        sqlPagina = "SELECT * FROM ( " + sqlLista + " ) LIMIT " + TAMANHO_PAGINA + " OFFSET 0";
+    }
+
+    @TearDown(Level.Trial)
+    public void terminar() {
+        baseDados.close();
+    }
+
+    /**
+     * Primeira página (modo paginado): o índice da ordenação é percorrido até
+     * encontrar TAMANHO_PAGINA tarefas com as etiquetas
+     */
+    @Benchmark
+    public List<TarefaResumo> primeiraPagina() {
+        return ler(sqlPagina);
+    }
+
+    /**
+     * Lista completa (modo não paginado), incluindo a criação dos TarefaResumo
+     */
+    @Benchmark
+    public List<TarefaResumo> lista() {
+        return ler(sqlLista);
+    }
+
+    /**
+     * Etiquetas e contadores mostrados no filtro: não depende do número de tarefas
+     */
+    @Benchmark
+    public long contadores() {
+        long total = 0;
+        try (SQLiteStatement statement = baseDados.conexao.prepare(CONTADORES)) {
+            while (statement.step()) {
+                total += statement.getLong(2);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Associar e retirar a etiqueta rara de uma tarefa (os triggers atualizam os contadores)
+     */
+    @Benchmark
+    public void associarERetirar() {
+        int tarefaId = proximaTarefa;
+        proximaTarefa = proximaTarefa % linhas + 1;
+        // Uma em cada 100 tarefas já tem a etiqueta rara: essas não são tocadas
+        if (tarefaId % 100 == 50) {
+            return;
+        }
+        try (SQLiteStatement associar = baseDados.conexao.prepare(BaseDadosBenchmark.ASSOCIAR_TAG);
+             SQLiteStatement retirar = baseDados.conexao.prepare(RETIRAR)) {
+            associar.bindLong(1, tarefaId);
+            associar.bindLong(2, BaseDadosBenchmark.TAG_VIAGEM);
+            associar.step();
+            retirar.bindLong(1, tarefaId);
+            retirar.bindLong(2, BaseDadosBenchmark.TAG_VIAGEM);
+            retirar.step();
+        }
+    }
+
+    private List<TarefaResumo> ler(String sql) {
+        List<TarefaResumo> tarefas = new ArrayList<>();
+        try (SQLiteStatement statement = baseDados.conexao.prepare(sql)) {
+            while (statement.step()) {
+                tarefas.add(TarefaDaoBenchmark.lerResumoComProgresso(statement));
+            }
+        }
+        return tarefas;
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.focozen.data;
+
+import androidx.sqlite.SQLiteStatement;
+
+import com.example.focozen.model.TarefaOcorrencia;
+import com.example.focozen.model.TarefaPesquisa;
+import com.example.focozen.model.TarefaResumo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas de leitura do TarefaDao com 1k, 10k e 100k tarefas
+ * (as consultas da lista estão em TarefaListaBenchmark).
+ * O SQL é uma cópia das anotações @Query do TarefaDao.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TarefaDaoBenchmark {
+
+    // Cópias das @Query do TarefaDao
+    private static final String CONTAGEM = "SELECT COUNT(*) FROM tarefas WHERE eliminadaEm = 0";
+    private static final String PROXIMO_LEMBRETE = "SELECT id, titulo, prioridade, dataVencimento, concluida, "
+            + "recorrencia FROM tarefas WHERE concluida = 0 AND eliminadaEm = 0 AND (dataVencimento, id) > (?, ?) "
+            + "ORDER BY dataVencimento, id LIMIT 1";
+    private static final String POR_ID = "SELECT * FROM tarefas WHERE id = ?";
+    private static final String PESQUISA = "SELECT tarefas.id, tarefas.titulo, tarefas.prioridade, "
+            + "tarefas.dataVencimento, tarefas.concluida, tarefas.recorrencia, "
+            + TarefaQuerySpec.COLUNAS_PROGRESSO + ", matchinfo(tarefas_fts, 'pcx') AS matchInfo "
+            + "FROM tarefas_fts JOIN tarefas ON tarefas.id = tarefas_fts.rowid "
+            + "WHERE tarefas_fts MATCH ? AND +tarefas.eliminadaEm = 0";
+    private static final String ESTATISTICAS = "SELECT prioridade, pendentes, concluidas, "
+            + "(SELECT COUNT(*) FROM tarefas WHERE concluida = 0 AND eliminadaEm = 0 "
+            + "AND tarefas.prioridade = estatisticas.prioridade AND dataVencimento < ?) AS vencidas "
+            + "FROM estatisticas ORDER BY prioridade DESC";
+    private static final String AGENDA = "SELECT id, titulo, prioridade, dataVencimento, concluida, recorrencia "
+            + "FROM tarefas WHERE concluida = 0 AND eliminadaEm = 0 AND +recorrencia = 0 "
+            + "AND dataVencimento >= ? AND dataVencimento < ? "
+            + "UNION ALL "
+            + "SELECT id, titulo, prioridade, dataVencimento, concluida, recorrencia FROM tarefas "
+            + "WHERE recorrencia > 0 AND +concluida = 0 AND +eliminadaEm = 0 AND +dataVencimento < ?";
+    // Relação de TarefaComSubtarefas (getComSubtarefas): a consulta que o Room gera para as subtarefas
+    private static final String CHECKLIST = "SELECT `id`,`tarefaId`,`titulo`,`concluida` FROM `subtarefas` "
+            + "WHERE `tarefaId` IN (?)";
+
+    private static final long DIA = 24L * 60 * 60 * 1000;
+
+    @Param({"1000", "10000", "100000"})
+    public int linhas;
+
+    private BaseDadosBenchmark baseDados;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        baseDados = new BaseDadosBenchmark(linhas);
+    }
+
+    @TearDown(Level.Trial)
+    public void terminar() {
+        baseDados.close();
+    }
+
+    @Benchmark
+    public long contagem() {
+        return baseDados.lerLong(CONTAGEM);
+    }
+
+    @Benchmark
+    public TarefaResumo proximoLembrete() {
+        try (SQLiteStatement statement = baseDados.conexao.prepare(PROXIMO_LEMBRETE)) {
+            statement.bindLong(1, BaseDadosBenchmark.INICIO + 180L * 24 * 60 * 60 * 1000);
+            statement.bindLong(2, 0);
+            return statement.step() ? lerResumo(statement) : null;
+        }
+    }
+
+    @Benchmark
+    public String porId() {
+        try (SQLiteStatement statement = baseDados.conexao.prepare(POR_ID)) {
+            statement.bindLong(1, linhas / 2);
+            return statement.step() ? statement.getText(2) : null;
+        }
+    }
+
+    /**
+     * Pesquisa de texto, incluindo a ordenação por relevância feita em Java
+     */
+    @Benchmark
+    public List<TarefaResumo> pesquisa() {
+        List<TarefaPesquisa> resultados = new ArrayList<>();
+        try (SQLiteStatement statement = baseDados.conexao.prepare(PESQUISA)) {
+            statement.bindText(1, TarefaPesquisaFts.construirMatch("relat"));
+            while (statement.step()) {
+                TarefaPesquisa resultado = new TarefaPesquisa();
+                resultado.tarefa = lerResumoComProgresso(statement);
+                resultado.matchInfo = statement.getBlob(8);
+                resultados.add(resultado);
+            }
+        }
+        return TarefaPesquisaFts.ordenar(resultados);
+    }
+
+    /**
+     * Painel de estatísticas: três linhas lidas da tabela mantida pelos triggers
+     * (as vencidas são contadas no índice, até uma data a meio do intervalo gerado)
+     */
+    @Benchmark
+    public long estatisticas() {
+        long total = 0;
+        try (SQLiteStatement statement = baseDados.conexao.prepare(ESTATISTICAS)) {
+            statement.bindLong(1, BaseDadosBenchmark.INICIO + 180L * 24 * 60 * 60 * 1000);
+            while (statement.step()) {
+                total += statement.getLong(1) + statement.getLong(2) + statement.getLong(3);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Uma janela de 14 dias da agenda (a meio do intervalo gerado): leitura das tarefas
+     * e geração das ocorrências das que se repetem (uma em cada 20)
+     */
+    @Benchmark
+    public List<TarefaOcorrencia> agenda() {
+        long desde = BaseDadosBenchmark.INICIO + 180L * DIA;
+        long ate = desde + 14 * DIA;
+        List<TarefaResumo> tarefas = new ArrayList<>();
+        try (SQLiteStatement statement = baseDados.conexao.prepare(AGENDA)) {
+            statement.bindLong(1, desde);
+            statement.bindLong(2, ate);
+            statement.bindLong(3, ate);
+            while (statement.step()) {
+                tarefas.add(lerResumo(statement));
+            }
+        }
+        return new ExpansorRecorrencias(ZoneOffset.UTC).expandir(tarefas, desde, ate, 2000);
+    }
+
+    /**
+     * Checklist de uma tarefa (a meio da tabela) lida para o ecrã de edição
+     */
+    @Benchmark
+    public int checklist() {
+        int concluidas = 0;
+        try (SQLiteStatement statement = baseDados.conexao.prepare(CHECKLIST)) {
+            statement.bindLong(1, linhas / 2 / 10 * 10 + 1);
+            while (statement.step()) {
+                concluidas += (int) statement.getLong(3);
+            }
+        }
+        return concluidas;
+    }
+
+    static TarefaResumo lerResumo(SQLiteStatement statement) {
+        return new TarefaResumo((int) statement.getLong(0), statement.getText(1),
+                (int) statement.getLong(2), statement.getLong(3), statement.getLong(4) != 0,
+                (int) statement.getLong(5));
+    }
+
+    /**
+     * Como lerResumo, com o progresso da checklist (colunas 6 e 7, ver TarefaQuerySpec.COLUNAS_PROGRESSO)
+     */
+    static TarefaResumo lerResumoComProgresso(SQLiteStatement statement) {
+        TarefaResumo tarefa = lerResumo(statement);
+        tarefa.setSubtarefas((int) statement.getLong(6));
+        tarefa.setSubtarefasConcluidas((int) statement.getLong(7));
+        return tarefa;
+    }
+}
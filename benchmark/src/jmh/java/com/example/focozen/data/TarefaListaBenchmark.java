@@ -0,0 +1,86 @@
+package com.example.focozen.data;
+
+import androidx.sqlite.SQLiteStatement;
+
+import com.example.focozen.model.TarefaResumo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas da lista (SQL gerado pelo TarefaQuerySpec) com 1k, 10k e 100k tarefas,
+ * no modo completo e no modo paginado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TarefaListaBenchmark {
+
+    // Tamanho de página usado pelo TarefaRepository no modo paginado
+    private static final int TAMANHO_PAGINA = 50;
+
+    @Param({"1000", "10000", "100000"})
+    public int linhas;
+
+    // Filtro/Ordenação da lista
+    @Param({"TODAS/DATA", "PENDENTES/DATA", "PENDENTES/PRIORIDADE", "CONCLUIDAS/PRIORIDADE"})
+    public String consulta;
+
+    private BaseDadosBenchmark baseDados;
+    private String sqlLista;
+    private String sqlPagina;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        baseDados = new BaseDadosBenchmark(linhas);
+        String[] partes = consulta.split("/");
+        sqlLista = new TarefaQuerySpec(TarefaQuerySpec.Filtro.valueOf(partes[0]),
+                TarefaQuerySpec.Ordenacao.valueOf(partes[1])).toSql();
+        // Forma usada pelo PagingSource do Room para uma @RawQuery
+        sqlPagina = "SELECT * FROM ( " + sqlLista + " ) LIMIT " + TAMANHO_PAGINA + " OFFSET 0";
+    }
+
+    @TearDown(Level.Trial)
+    public void terminar() {
+        baseDados.close();
+    }
+
+    /**
+     * Lista completa (modo não paginado), incluindo a criação dos TarefaResumo
+     */
+    @Benchmark
+    public List<TarefaResumo> lista() {
+        return ler(sqlLista);
+    }
+
+    /**
+     * Primeira página da lista (modo paginado)
+     */
+    @Benchmark
+    public List<TarefaResumo> primeiraPagina() {
+        return ler(sqlPagina);
+    }
+
+    private List<TarefaResumo> ler(String sql) {
+        List<TarefaResumo> tarefas = new ArrayList<>();
+        try (SQLiteStatement statement = baseDados.conexao.prepare(sql)) {
+            while (statement.step()) {
+                tarefas.add(TarefaDaoBenchmark.lerResumoComProgresso(statement));
+            }
+        }
+        return tarefas;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.focozen.ui.adapter;
+
+import com.example.focozen.model.TarefaResumo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo da lista de tarefas fora da base de dados:
+ *  - Conversão de uma lista em TarefaItem (feita em background a cada alteração)
+ *  - Associação de um TarefaItem a uma linha (feita na main thread em cada bind)
+ *
+ * Não mede o TarefaAdapter: a linha é uma TarefaLinha sem views, por isso ficam
+ * de fora o inflate, o layout e o custo dos setText do TarefaViewHolder.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TarefaBindBenchmark {
+
+    private static final long DIA = 24L * 60 * 60 * 1000;
+
+    @Param({"1000", "10000"})
+    public int linhas;
+
+    private List<TarefaResumo> tarefas;
+    private List<TarefaItem> itens;
+    private int posicao;
+
+    /**
+     * Linha sem views: entrega os valores ao Blackhole
+     */
+    private static final class LinhaBlackhole implements TarefaLinha {
+        private final Blackhole blackhole;
+
+        LinhaBlackhole(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void mostrarTitulo(CharSequence titulo) {
+            blackhole.consume(titulo);
+        }
+
+        @Override
+        public void mostrarConcluida(boolean concluida, int corTitulo) {
+            blackhole.consume(concluida);
+            blackhole.consume(corTitulo);
+        }
+
+        @Override
+        public void mostrarPrioridade(CharSequence texto, int fundoResId) {
+            blackhole.consume(texto);
+            blackhole.consume(fundoResId);
+        }
+
+        @Override
+        public void mostrarData(CharSequence data) {
+            blackhole.consume(data);
+        }
+
+        @Override
+        public void mostrarProgresso(CharSequence progresso) {
+            blackhole.consume(progresso);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random random = new Random(42);
+        tarefas = new ArrayList<>(linhas);
+        for (int i = 0; i < linhas; i++) {
+            tarefas.add(new TarefaResumo(i + 1, "Tarefa " + i, 1 + random.nextInt(3),
+                    1767311999000L + random.nextInt(365) * DIA, random.nextBoolean()));
+        }
+        itens = novoMapper().mapAll(tarefas);
+    }
+
+    /**
+     * Conversão da lista inteira com um mapper novo (cache de datas vazia)
+     */
+    @Benchmark
+    public List<TarefaItem> mapearLista() {
+        return novoMapper().mapAll(tarefas);
+    }
+
+    /**
+     * Associação de um item a uma linha (o trabalho do onBindViewHolder)
+     */
+    @Benchmark
+    public void associarLinha(Blackhole blackhole) {
+        TarefaItem item = itens.get(posicao);
+        posicao = (posicao + 1) % itens.size();
+        item.aplicar(new LinhaBlackhole(blackhole));
+    }
+
+    private static TarefaItemMapper novoMapper() {
+        return new TarefaItemMapper("Data de Vencimento:", new String[]{"Baixa", "Média", "Alta"},
+                new int[]{1, 2, 3}, 0xFF000000, 0xFF888888,
+                new Locale("pt"), TimeZone.getTimeZone("Europe/Lisbon"));
+    }
+}
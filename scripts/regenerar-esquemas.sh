@@ -0,0 +1,58 @@
+#!/usr/bin/env bash
+#
+# Regenera os esquemas exportados pelo Room (app/schemas) a partir do histórico.
+# Cada N.json é apagado e recompilado, numa worktree à parte, no commit que o introduziu
+# (a versão 1 no commit inicial, a última na árvore atual); o ficheiro emitido pelo
+# processador do Room substitui o da árvore atual.
+#
+#   scripts/regenerar-esquemas.sh          # todas as versões
+#   scripts/regenerar-esquemas.sh 3 4      # só as indicadas
+#
+# Precisa do Android SDK (ANDROID_HOME ou local.properties) e de acesso aos repositórios do Gradle.
+# Depois de regenerar: ./gradlew :app:connectedAndroidTest (TarefaMigrationTest parte destes ficheiros).
+
+set -euo pipefail
+
+raiz=$(git rev-parse --show-toplevel)
+pasta=app/schemas/com.example.focozen.data.TarefaDatabase
+ultima=$(ls "$raiz/$pasta" | sed 's/\.json$//' | sort -n | tail -1)
+
+versoes=("$@")
+if [ ${#versoes[@]} -eq 0 ]; then
+    versoes=($(ls "$raiz/$pasta" | sed 's/\.json$//' | sort -n))
+fi
+
+trabalho=$(mktemp -d)
+trap 'git -C "$raiz" worktree prune; rm -rf "$trabalho"' EXIT
+
+for v in "${versoes[@]}"; do
+    # 1. Commit em que a versão v era a atual
+    if [ "$v" = 1 ]; then
+        commit=$(git -C "$raiz" rev-list --max-parents=0 HEAD)
+    elif [ "$v" = "$ultima" ]; then
+        commit=$(git -C "$raiz" rev-parse HEAD)
+    else
+        commit=$(git -C "$raiz" log --diff-filter=A --reverse --format=%H -- "$pasta/$v.json" | head -1)
+    fi
+
+    # 2. Worktree desse commit, sem o esquema a regenerar
+    arvore="$trabalho/v$v"
+    git -C "$raiz" worktree add --detach "$arvore" "$commit" > /dev/null
+    rm -f "$arvore/$pasta/$v.json"
+    if [ -f "$raiz/local.properties" ]; then
+        cp "$raiz/local.properties" "$arvore/"
+    fi
+    # O commit inicial ainda não exportava o esquema
+    if ! grep -q "room.schemaLocation" "$arvore/app/build.gradle"; then
+        cat >> "$arvore/app/build.gradle" << 'GRADLE'
+
+android.defaultConfig.javaCompileOptions.annotationProcessorOptions.arguments += ["room.schemaLocation": "$projectDir/schemas".toString()]
+GRADLE
+    fi
+
+    # 3. Compilar (o Room escreve o N.json) e copiar o resultado
+    (cd "$arvore" && ./gradlew -q :app:compileDebugJavaWithJavac)
+    cp "$arvore/$pasta/$v.json" "$raiz/$pasta/$v.json"
+    git -C "$raiz" worktree remove --force "$arvore"
+    echo "Versão $v regenerada em $(git -C "$raiz" log -1 --format='%h %s' "$commit")"
+done